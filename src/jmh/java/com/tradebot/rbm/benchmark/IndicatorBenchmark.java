@@ -0,0 +1,58 @@
+package com.tradebot.rbm.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tradebot.rbm.utils.BollingerBandsUtils;
+import com.tradebot.rbm.utils.BollingerBandsUtils.BollingerBandsAnalysis;
+import com.tradebot.rbm.utils.BollingerBandsUtils.PricePoint;
+import com.tradebot.rbm.utils.StochasticOscillatorUtils;
+import com.tradebot.rbm.utils.dto.stochasticOscilator.PriceData;
+import com.tradebot.rbm.utils.dto.stochasticOscilator.StochasticAnalysis;
+
+/**
+ * Full-history indicator analysis over candle windows of several sizes, as run
+ * on backfills and by the analysis demo
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndicatorBenchmark {
+
+    @Param({ "50", "500", "5000" })
+    public int candles;
+
+    private List<PricePoint> pricePoints;
+    private List<PriceData> priceData;
+
+    @Setup
+    public void setUp() {
+        pricePoints = SyntheticTape.pricePoints(candles, 42);
+        priceData = SyntheticTape.priceData(candles, 42);
+    }
+
+    @Benchmark
+    public BollingerBandsAnalysis bollingerCompleteAnalysis() {
+        return BollingerBandsUtils.performCompleteAnalysis(pricePoints);
+    }
+
+    @Benchmark
+    public StochasticAnalysis stochasticCompleteAnalysis() {
+        return StochasticOscillatorUtils.performCompleteAnalysis(priceData);
+    }
+}
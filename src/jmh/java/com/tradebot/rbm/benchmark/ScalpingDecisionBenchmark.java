@@ -0,0 +1,94 @@
+package com.tradebot.rbm.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tradebot.rbm.utils.VolumeAnalysisUtils;
+import com.tradebot.rbm.utils.dto.LiquidityAnalysis;
+import com.tradebot.rbm.utils.dto.LiquidityAnalysis.LiquidityLevel;
+import com.tradebot.rbm.utils.dto.MarketMomentum;
+import com.tradebot.rbm.utils.dto.MarketMomentum.MomentumDirection;
+import com.tradebot.rbm.utils.dto.ScalpingDecision;
+import com.tradebot.rbm.utils.dto.VolumeAnalysis;
+import com.tradebot.rbm.utils.dto.VolumeAnalysis.MarketStrength;
+import com.tradebot.rbm.utils.dto.VolumeAnalysis.VolumeSignal;
+
+/**
+ * Scalping decision on prepared volume, momentum and liquidity inputs, one set
+ * per decision branch
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScalpingDecisionBenchmark {
+
+    @Param({ "BUY", "AVOID", "HOLD" })
+    public String decision;
+
+    private final VolumeAnalysisUtils volumeAnalysisUtils = new VolumeAnalysisUtils();
+
+    private VolumeAnalysis volumeAnalysis;
+    private MarketMomentum momentum;
+    private LiquidityAnalysis liquidity;
+
+    @Setup
+    public void setUp() {
+        boolean buy = "BUY".equals(decision);
+        boolean avoid = "AVOID".equals(decision);
+        volumeAnalysis = VolumeAnalysis.builder()
+                .volumeRatio(new BigDecimal("1.35"))
+                .volume6h(new BigDecimal("18250.5"))
+                .volume1h(new BigDecimal("4100.2"))
+                .avgVolumePerHour6h(new BigDecimal("3041.75"))
+                .isVolumeIncreasing(true)
+                .isPriceVolumeAlignment(buy)
+                .marketStrength(buy ? MarketStrength.STRONG : MarketStrength.MODERATE)
+                .liquidityScore(new BigDecimal("72.5"))
+                .bidAskSpread(new BigDecimal("0.01"))
+                .signal(buy ? VolumeSignal.STRONG_BUY : avoid ? VolumeSignal.AVOID : VolumeSignal.NEUTRAL)
+                .build();
+        momentum = MarketMomentum.builder()
+                .priceChange1h(new BigDecimal("0.45"))
+                .priceChange6h(new BigDecimal("0.8"))
+                .priceChange24h(new BigDecimal("1.2"))
+                .shortTermTrend(buy ? MomentumDirection.STRONG_BULLISH : MomentumDirection.NEUTRAL)
+                .mediumTermTrend(MomentumDirection.BULLISH)
+                .longTermTrend(MomentumDirection.BULLISH)
+                .isTrendAligned(buy)
+                .isSuitableForScalping(true)
+                .momentumScore(new BigDecimal("0.705"))
+                .build();
+        liquidity = LiquidityAnalysis.builder()
+                .quoteVolume24h(new BigDecimal("52000000"))
+                .avgTradeSize(new BigDecimal("310.4"))
+                .bidAskSpread(new BigDecimal("0.01"))
+                .spreadPercentage(new BigDecimal("0.0017"))
+                .liquidityScore(new BigDecimal("72.5"))
+                .hasGoodLiquidity(true)
+                .isSuitableForScalping(true)
+                .liquidityLevel(LiquidityLevel.EXCELLENT)
+                .totalTrades(new BigDecimal("167500"))
+                .marketDepthScore(new BigDecimal("72.5"))
+                .build();
+    }
+
+    @Benchmark
+    public ScalpingDecision makeScalpingDecision() {
+        return volumeAnalysisUtils.makeScalpingDecision(volumeAnalysis, momentum, liquidity);
+    }
+}
@@ -0,0 +1,91 @@
+package com.tradebot.rbm.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.tradebot.rbm.utils.BollingerBandsUtils;
+import com.tradebot.rbm.utils.BollingerBandsUtils.PricePoint;
+import com.tradebot.rbm.utils.dto.stochasticOscilator.PriceData;
+
+/**
+ * Deterministic synthetic market data for the benchmarks: a Gaussian random
+ * walk of trades around a start price, bucketed into one minute candles where
+ * a benchmark needs OHLC input. The same seed always yields the same tape.
+ */
+public final class SyntheticTape {
+
+    public static final long START_TIME = LocalDateTime.of(2025, 1, 1, 0, 0).toInstant(ZoneOffset.UTC)
+            .toEpochMilli();
+
+    public final double[] prices;
+    public final double[] quantities;
+    public final long[] times;
+    public final boolean[] buyerMaker;
+
+    private SyntheticTape(int trades) {
+        prices = new double[trades];
+        quantities = new double[trades];
+        times = new long[trades];
+        buyerMaker = new boolean[trades];
+    }
+
+    /**
+     * Trade tape with on average {@code tradesPerSecond} trades per second
+     */
+    public static SyntheticTape trades(int trades, int tradesPerSecond, long seed) {
+        var random = new SplittableRandom(seed);
+        var tape = new SyntheticTape(trades);
+        double price = 600;
+        long time = START_TIME;
+        for (int i = 0; i < trades; i++) {
+            price = Math.max(1, price + random.nextDouble(-0.05, 0.05));
+            time += random.nextLong(0, 2000L / tradesPerSecond + 1);
+            tape.prices[i] = Math.round(price * 100) / 100.0;
+            tape.quantities[i] = Math.round(random.nextDouble(0.001, 2) * 1000) / 1000.0;
+            tape.times[i] = time;
+            tape.buyerMaker[i] = random.nextBoolean();
+        }
+        return tape;
+    }
+
+    /**
+     * One minute closes with volume for the Bollinger Bands analysis
+     */
+    public static List<PricePoint> pricePoints(int candles, long seed) {
+        var random = new SplittableRandom(seed);
+        List<PricePoint> points = new ArrayList<>(candles);
+        double price = 600;
+        for (int i = 0; i < candles; i++) {
+            price = Math.max(1, price + random.nextDouble(-0.5, 0.5));
+            points.add(BollingerBandsUtils.createPricePoint(BigDecimal.valueOf(Math.round(price * 100) / 100.0),
+                    BigDecimal.valueOf(random.nextDouble(10, 100)), minute(i)));
+        }
+        return points;
+    }
+
+    /**
+     * One minute high/low/close candles for the stochastic analysis
+     */
+    public static List<PriceData> priceData(int candles, long seed) {
+        var random = new SplittableRandom(seed);
+        List<PriceData> data = new ArrayList<>(candles);
+        double price = 600;
+        for (int i = 0; i < candles; i++) {
+            price = Math.max(1, price + random.nextDouble(-0.5, 0.5));
+            double high = price + random.nextDouble(0, 0.3);
+            double low = price - random.nextDouble(0, 0.3);
+            data.add(new PriceData(BigDecimal.valueOf(Math.round(high * 100) / 100.0),
+                    BigDecimal.valueOf(Math.round(low * 100) / 100.0),
+                    BigDecimal.valueOf(Math.round(price * 100) / 100.0), minute(i)));
+        }
+        return data;
+    }
+
+    private static LocalDateTime minute(int index) {
+        return LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(index);
+    }
+}
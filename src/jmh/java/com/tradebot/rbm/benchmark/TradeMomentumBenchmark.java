@@ -0,0 +1,90 @@
+package com.tradebot.rbm.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tradebot.rbm.utils.FixedPoint;
+import com.tradebot.rbm.utils.TradeMomentumWindow;
+import com.tradebot.rbm.utils.dto.TradeMomentum;
+
+/**
+ * Per-trade momentum work: rolling the window forward and reading it back,
+ * which is what {@code WebsocketTradeService.updateTrade} and
+ * {@code analyzeRecentTradeMomentum} do on every trade
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TradeMomentumBenchmark {
+
+    private static final long WINDOW_MILLIS = 2_400_000;
+    private static final int TAPE_TRADES = 1 << 20;
+
+    /**
+     * Trades inside the momentum window once it is warm
+     */
+    @Param({ "1000", "10000", "100000" })
+    public int windowTrades;
+
+    private SyntheticTape tape;
+    // Quote volume of each tape trade at FixedPoint.BALANCE_SCALE
+    private long[] quoteVolumes;
+    private TradeMomentumWindow window;
+    private long tapeSpan;
+    private long cursor;
+
+    @Setup
+    public void setUp() {
+        // Enough trades per second that the window holds about windowTrades
+        int tradesPerSecond = Math.max(1, (int) (windowTrades / (WINDOW_MILLIS / 1000)));
+        tape = SyntheticTape.trades(TAPE_TRADES, tradesPerSecond, 7);
+        tapeSpan = tape.times[TAPE_TRADES - 1] - tape.times[0] + 1;
+        quoteVolumes = new long[TAPE_TRADES];
+        for (int i = 0; i < TAPE_TRADES; i++) {
+            quoteVolumes[i] = Math.round(tape.prices[i] * tape.quantities[i]
+                    * FixedPoint.pow10(FixedPoint.BALANCE_SCALE));
+        }
+        window = new TradeMomentumWindow(WINDOW_MILLIS, windowTrades);
+        cursor = 0;
+        while (cursor < 2L * windowTrades) {
+            nextTrade();
+        }
+    }
+
+    /**
+     * Feeds the next tape trade, replaying the tape shifted forward in time once
+     * it is exhausted so exchange time keeps increasing
+     */
+    private void nextTrade() {
+        int index = (int) (cursor % TAPE_TRADES);
+        long time = tape.times[index] + (cursor / TAPE_TRADES) * tapeSpan;
+        window.onTrade(quoteVolumes[index], time, tape.buyerMaker[index]);
+        cursor++;
+    }
+
+    @Benchmark
+    public TradeMomentum tradeThenSnapshot() {
+        nextTrade();
+        return window.snapshot();
+    }
+
+    @Benchmark
+    public String tradeThenDirection() {
+        nextTrade();
+        return window.direction();
+    }
+}
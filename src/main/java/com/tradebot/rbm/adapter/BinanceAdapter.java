@@ -8,30 +8,40 @@ import com.binance.connector.client.SpotClient;
 import com.binance.connector.client.common.ApiResponse;
 import com.binance.connector.client.spot.rest.api.SpotRestApi;
 import com.binance.connector.client.spot.rest.model.DepthResponse;
+import com.binance.connector.client.spot.rest.model.ExchangeInfoResponse;
 import com.binance.connector.client.spot.rest.model.GetAccountResponse;
-import com.binance.connector.client.spot.rest.model.GetOpenOrdersResponse;
-import com.binance.connector.client.spot.rest.model.NewOrderRequest;
-import com.binance.connector.client.spot.rest.model.NewOrderResponse;
-import com.binance.connector.client.spot.rest.model.OrderOcoRequest;
-import com.binance.connector.client.spot.rest.model.OrderOcoResponse;
-import com.binance.connector.client.spot.rest.model.OrderType;
+import com.binance.connector.client.spot.rest.model.Permissions;
 import com.binance.connector.client.spot.rest.model.Symbols;
 import com.binance.connector.client.spot.rest.model.TickerBookTickerResponse;
 import com.binance.connector.client.spot.rest.model.TickerType;
-import com.binance.connector.client.spot.rest.model.TimeInForce;
 import com.binance.connector.client.spot.rest.model.WindowSize;
 import com.binance.connector.client.spot.websocket.api.api.SpotWebSocketApi;
+import com.binance.connector.client.spot.websocket.api.model.OpenOrdersStatusRequest;
+import com.binance.connector.client.spot.websocket.api.model.OpenOrdersStatusResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoResponse;
 import com.binance.connector.client.spot.websocket.api.model.OrderPlaceRequest;
 import com.binance.connector.client.spot.websocket.api.model.OrderPlaceResponse;
-import com.tradebot.rbm.entity.dto.PlaceOrderDto;
 import com.tradebot.rbm.entity.dto.TickerDto;
-import com.tradebot.rbm.utils.dto.PendingBuyOrderDTO;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Binance access for the application. Market data and account reads use the
+ * REST API. All order requests go over the persistent WebSocket API
+ * connection, whose client completes each request's future when the response
+ * carrying the request's ID arrives, so exits and cancels take the same path
+ * and latency as entries instead of an HTTPS round trip each.
+ */
 @Component
 @Slf4j
-public class BinanceAdapter {
+public class BinanceAdapter implements OrderGateway {
     private final SpotClient spot;
     private final SpotRestApi spotRestApi;
     private final SpotWebSocketApi spotWebSocketApi;
@@ -48,7 +58,7 @@ public class BinanceAdapter {
         var type = TickerType.FULL;
         var ticker = spotRestApi.ticker(symbol, symbols, windowSize, type);
         if (ticker == null || ticker.getData() == null || ticker.getData().getTickerResponse1() == null
-                || Double.parseDouble(ticker.getData().getTickerResponse1().getVolume()) == 0) {
+                || isZero(ticker.getData().getTickerResponse1().getVolume())) {
             log.error("Failed to retrieve ticker information for {}", symbol);
             throw new RuntimeException("FAILED: Unable to get proper ticker info");
         }
@@ -56,62 +66,84 @@ public class BinanceAdapter {
         return new TickerDto(ticker.getData().getTickerResponse1());
     }
 
+    /**
+     * Whether a decimal string is zero, checked for a non-zero digit rather
+     * than parsed
+     */
+    private static boolean isZero(String decimal) {
+        for (int i = 0; i < decimal.length(); i++) {
+            char c = decimal.charAt(i);
+            if (c >= '1' && c <= '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public GetAccountResponse accountInfo() {
         var accInfo = spotRestApi.getAccount(true, null);
         return accInfo.getData();
     }
 
-    public GetOpenOrdersResponse openOrders(String symbol) {
-        var orders = spotRestApi.getOpenOrders(symbol, null);
-
-        return orders.getData();
+    @Override
+    public CompletableFuture<OrderPlaceResponse> placeOrder(OrderPlaceRequest order) {
+        return spotWebSocketApi.orderPlace(order);
     }
 
-    public void cancelOrder(String symbol, Long id) {
-        spotRestApi.deleteOrder(symbol, id, null, null, null, null);
+    @Override
+    public CompletableFuture<OrderListPlaceOcoResponse> placeOcoOrder(OrderListPlaceOcoRequest order) {
+        return spotWebSocketApi.orderListPlaceOco(order);
     }
 
-    public NewOrderResponse placeOrder(PlaceOrderDto order) {
-        var req = new NewOrderRequest();
-        req.setSymbol(order.getTicker());
-        req.setSide(order.getSide());
-        req.setType(order.getType());
-        req.setPrice(order.getPrice());
-        req.setQuantity(order.getAmount());
-        req.timeInForce(TimeInForce.GTC);
-        if (order.getType() == OrderType.STOP_LOSS_LIMIT || order.getType() == OrderType.STOP_LOSS) {
-
-            req.setStopPrice(order.getStop());
-        }
+    @Override
+    public CompletableFuture<OrderListPlaceOtoResponse> placeOtoOrder(OrderListPlaceOtoRequest order) {
+        return spotWebSocketApi.orderListPlaceOto(order);
+    }
 
-        var response = spotRestApi.newOrder(req);
-        return response.getData();
+    @Override
+    public CompletableFuture<OrderCancelResponse> cancelOrder(String symbol, Long id) {
+        var request = new OrderCancelRequest();
+        request.setSymbol(symbol);
+        request.setOrderId(id);
+        return spotWebSocketApi.orderCancel(request);
     }
 
-    public void placeWsOrder(OrderPlaceRequest order, PendingBuyOrderDTO pendingOrder) {
-        CompletableFuture<OrderPlaceResponse> future = spotWebSocketApi.orderPlace(order);
-        future.handle(
-                (response, error) -> {
-                    if (response.getError() != null) {
-                        System.err.println(response.getError());
-                    }
-                    System.out.println(response);
-                    pendingOrder.setBinanceOrderId(response.getResult().getOrderId());
-                    return response;
-                });
+    @Override
+    public CompletableFuture<OrderCancelResponse> cancelClientOrder(String symbol, String clientOrderId) {
+        var request = new OrderCancelRequest();
+        request.setSymbol(symbol);
+        request.setOrigClientOrderId(clientOrderId);
+        return spotWebSocketApi.orderCancel(request);
+    }
 
+    @Override
+    public CompletableFuture<OrderCancelReplaceResponse> cancelReplaceOrder(OrderCancelReplaceRequest order) {
+        return spotWebSocketApi.orderCancelReplace(order);
     }
 
-    public OrderOcoResponse placeOcoOrder(OrderOcoRequest order) {
-        var response = spotRestApi.orderOco(order);
-        return response.getData();
+    @Override
+    public CompletableFuture<OpenOrdersStatusResponse> openOrders(String symbol) {
+        var request = new OpenOrdersStatusRequest();
+        request.setSymbol(symbol);
+        return spotWebSocketApi.openOrdersStatus(request);
     }
 
     public ApiResponse<TickerBookTickerResponse> tickerBookTicker(String symbol) {
         return spotRestApi.tickerBookTicker(symbol, null);
     }
 
+    public ExchangeInfoResponse exchangeInfo(String symbol) {
+        Symbols symbols = null;
+        Permissions permissions = null;
+        return spotRestApi.exchangeInfo(symbol, symbols, permissions, true, null).getData();
+    }
+
     public ApiResponse<DepthResponse> depth(String symbol, Integer limit) {
         return spotRestApi.depth(symbol, limit);
     }
+
+    @Override
+    public DepthResponse depthSnapshot(String symbol, Integer limit) {
+        return depth(symbol, limit).getData();
+    }
 }
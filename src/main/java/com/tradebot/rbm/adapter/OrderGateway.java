@@ -0,0 +1,59 @@
+package com.tradebot.rbm.adapter;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.binance.connector.client.spot.rest.model.DepthResponse;
+import com.binance.connector.client.spot.websocket.api.model.OpenOrdersStatusResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderPlaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderPlaceResponse;
+
+/**
+ * Order entry and the order book reads that go with it, as used by
+ * {@code OrderService}.
+ *
+ * {@link BinanceAdapter} is the live implementation, sending every order
+ * request over the WebSocket API session; the tape replay runs the same
+ * strategy code against a simulated one. Requests return at once and their
+ * futures complete with the response, or exceptionally when the order is
+ * rejected. Fills are not part of the response, they arrive as execution
+ * reports on the user data stream.
+ */
+public interface OrderGateway {
+
+    CompletableFuture<OrderPlaceResponse> placeOrder(OrderPlaceRequest order);
+
+    CompletableFuture<OrderListPlaceOcoResponse> placeOcoOrder(OrderListPlaceOcoRequest order);
+
+    /**
+     * Places a working order and a pending order that is only placed once the
+     * working order is fully filled
+     */
+    CompletableFuture<OrderListPlaceOtoResponse> placeOtoOrder(OrderListPlaceOtoRequest order);
+
+    /**
+     * Cancels an order, and the other orders of its list if it has one
+     */
+    CompletableFuture<OrderCancelResponse> cancelOrder(String symbol, Long id);
+
+    /**
+     * Cancels an order by its client order ID, for an order whose placement was
+     * not acknowledged yet
+     */
+    CompletableFuture<OrderCancelResponse> cancelClientOrder(String symbol, String clientOrderId);
+
+    /**
+     * Cancels an order and places a new one in the same request
+     */
+    CompletableFuture<OrderCancelReplaceResponse> cancelReplaceOrder(OrderCancelReplaceRequest order);
+
+    CompletableFuture<OpenOrdersStatusResponse> openOrders(String symbol);
+
+    DepthResponse depthSnapshot(String symbol, Integer limit);
+}
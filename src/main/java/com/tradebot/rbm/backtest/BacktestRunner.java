@@ -0,0 +1,130 @@
+package com.tradebot.rbm.backtest;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.LoggerFactory;
+
+import com.tradebot.rbm.component.CandleEngine;
+import com.tradebot.rbm.component.OrderBookRegistry;
+import com.tradebot.rbm.component.OrderTracker;
+import com.tradebot.rbm.component.SymbolRulesRegistry;
+import com.tradebot.rbm.component.TimerService;
+import com.tradebot.rbm.service.OrderService;
+import com.tradebot.rbm.service.WebsocketTradeService;
+import com.tradebot.rbm.utils.AccountBalanceStore;
+import com.tradebot.rbm.utils.FixedPoint;
+import com.tradebot.rbm.utils.LocalOrderBook;
+import com.tradebot.rbm.utils.SymbolRules;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Command line entry point of the tape replay. Wires the strategy by hand,
+ * without Spring, a database or an exchange connection:
+ *
+ * <pre>
+ * --tape trades.tape       tape recorded with tradebot.replay.record-path
+ * --base-asset BNB --quote-asset FDUSD
+ * --tick 0.01 --step 0.001 --min-notional 5
+ * --base 0 --quote 1000    starting balances
+ * --fee 0.001              commission rate
+ * --speed 0                replay speed, 0 for as fast as possible
+ * </pre>
+ *
+ * The symbol is read from the tape unless {@code --symbol} is given.
+ */
+@Slf4j
+public class BacktestRunner {
+
+    public static void main(String[] args) throws Exception {
+        var options = parseOptions(args);
+        if (!options.containsKey("tape")) {
+            System.err.println("Usage: BacktestRunner --tape <file> --base-asset <asset> --quote-asset <asset>"
+                    + " [--symbol <symbol>] [--tick 0.01] [--step 0.001] [--min-notional 5] [--base 0]"
+                    + " [--quote 1000] [--fee 0.001] [--speed 0]");
+            System.exit(2);
+        }
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext context) {
+            // Strategy debug logging on every event would dominate the replay
+            context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        }
+
+        try (var tape = new TapeReader(Path.of(options.get("tape")))) {
+            var symbol = options.getOrDefault("symbol", tape.getSymbol()).toUpperCase();
+            var rules = rules(symbol, options);
+
+            var clock = new VirtualClock(0);
+            var balanceStore = new AccountBalanceStore();
+            var orderBook = new LocalOrderBook();
+            var orderTracker = new OrderTracker();
+            var registry = new SymbolRulesRegistry(Map.of(symbol, rules));
+            var gateway = new SimulatedOrderGateway(rules, balanceStore, orderTracker, orderBook, clock,
+                    new BigDecimal(options.getOrDefault("fee", "0.001")));
+            gateway.deposit(new BigDecimal(options.getOrDefault("base", "0")),
+                    new BigDecimal(options.getOrDefault("quote", "1000")));
+
+            var orderService = new OrderService(null, gateway, new OrderBookRegistry(Map.of(symbol, orderBook)),
+                    registry);
+            // Not started, the replay advances it on the virtual clock
+            var timerService = new TimerService(clock, 10, 512);
+            var tradeService = new WebsocketTradeService(orderService, registry, balanceStore, orderTracker,
+                    new CandleEngine(), clock, timerService);
+            tradeService.useSymbol(symbol);
+
+            var engine = new TapeReplayEngine(tradeService, gateway, timerService, orderBook, clock, rules);
+            var report = engine.replay(tape, Double.parseDouble(options.getOrDefault("speed", "0")));
+            log.info("Replay finished: {}", report);
+        }
+    }
+
+    private static SymbolRules rules(String symbol, Map<String, String> options) {
+        var baseAsset = options.get("base-asset");
+        var quoteAsset = options.get("quote-asset");
+        if (baseAsset == null || quoteAsset == null) {
+            throw new IllegalArgumentException("--base-asset and --quote-asset are required");
+        }
+        var tick = options.getOrDefault("tick", "0.01");
+        var step = options.getOrDefault("step", "0.001");
+        int priceScale = FixedPoint.scaleOf(tick);
+        int quantityScale = FixedPoint.scaleOf(step);
+        return SymbolRules.builder()
+                .symbol(symbol)
+                .baseAsset(baseAsset.toUpperCase())
+                .quoteAsset(quoteAsset.toUpperCase())
+                .priceScale(priceScale)
+                .quantityScale(quantityScale)
+                .tickSize(FixedPoint.parse(tick, priceScale))
+                .stepSize(FixedPoint.parse(step, quantityScale))
+                .minQuantity(FixedPoint.parse(step, quantityScale))
+                .minNotional(FixedPoint.parse(options.getOrDefault("min-notional", "5"), FixedPoint.BALANCE_SCALE))
+                .build();
+    }
+
+    /**
+     * Reads {@code --name value} and {@code --name=value} pairs
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            var name = args[i].substring(2);
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                options.put(name.substring(0, equals), name.substring(equals + 1));
+            } else if (i + 1 < args.length) {
+                options.put(name, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for --" + name);
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,33 @@
+package com.tradebot.rbm.backtest;
+
+import java.math.BigDecimal;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one tape replay
+ */
+@Data
+@Builder
+public class ReplayReport {
+    private String symbol;
+    private long events;
+    private long trades;
+    private long tickers;
+    // Exchange time covered by the tape
+    private long firstEventTime;
+    private long lastEventTime;
+    private long elapsedMillis;
+    private double eventsPerSecond;
+    private long placedOrders;
+    private long rejectedOrders;
+    private long filledOrders;
+    private long canceledOrders;
+    private int openOrders;
+    private BigDecimal baseBalance;
+    private BigDecimal quoteBalance;
+    private BigDecimal lastPrice;
+    // Quote value of both balances at the last trade price
+    private BigDecimal equity;
+}
@@ -0,0 +1,282 @@
+package com.tradebot.rbm.backtest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.binance.connector.client.spot.rest.model.DepthResponse;
+import com.binance.connector.client.spot.websocket.api.model.OpenOrdersStatusResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderPlaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderPlaceResponse;
+import com.tradebot.rbm.adapter.OrderGateway;
+import com.tradebot.rbm.component.OrderTracker;
+import com.tradebot.rbm.simulator.MatchingEngine;
+import com.tradebot.rbm.simulator.OrderRejectedException;
+import com.tradebot.rbm.simulator.SimulatedOrders;
+import com.tradebot.rbm.utils.AccountBalanceStore;
+import com.tradebot.rbm.utils.FixedPoint;
+import com.tradebot.rbm.utils.LocalOrderBook;
+import com.tradebot.rbm.utils.SymbolRules;
+import com.tradebot.rbm.utils.dto.OrderUpdate;
+import com.tradebot.rbm.websocket.dto.AccountStatusResponse;
+import com.tradebot.rbm.websocket.dto.ExecutionReportEvent;
+import com.tradebot.rbm.websocket.dto.ListStatusEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Order gateway for the tape replay, trading a simulated account for one
+ * symbol on a {@link MatchingEngine}.
+ *
+ * Orders are acknowledged immediately, their futures already complete or
+ * failed with the rejection, and lock funds like the exchange does.
+ * Replayed book tickers give takers the market top of book to fill against and
+ * replayed trades fill resting orders they print at or through, partially when
+ * the trade is smaller than the order; see {@link MatchingEngine} for the
+ * matching rules.
+ *
+ * Every balance change is pushed into {@link AccountBalanceStore} and every
+ * order change into {@link OrderTracker} the same way the user data stream
+ * does. The engine reports order changes while the strategy is still placing
+ * or canceling, so the resulting updates are queued and the replay hands them
+ * to the strategy with {@link #deliverOrderUpdates} between its calls.
+ *
+ * Not thread safe; the replay drives it from one thread.
+ */
+@Slf4j
+public class SimulatedOrderGateway implements OrderGateway, MatchingEngine.Listener {
+
+    private final SymbolRules rules;
+    private final AccountBalanceStore balanceStore;
+    private final OrderTracker orderTracker;
+    private final LocalOrderBook orderBook;
+    private final Clock clock;
+    private final MatchingEngine engine;
+
+    // Reused for every execution, the tracker copies what it keeps
+    private final ExecutionReportEvent report = new ExecutionReportEvent();
+    private final ListStatusEvent listStatus = new ListStatusEvent();
+    private final ArrayDeque<OrderUpdate> orderUpdates = new ArrayDeque<>();
+
+    public SimulatedOrderGateway(SymbolRules rules, AccountBalanceStore balanceStore, OrderTracker orderTracker,
+            LocalOrderBook orderBook, Clock clock, BigDecimal feeRate) {
+        this.rules = rules;
+        this.balanceStore = balanceStore;
+        this.orderTracker = orderTracker;
+        this.orderBook = orderBook;
+        this.clock = clock;
+        this.engine = new MatchingEngine(rules, clock, feeRate, this);
+    }
+
+    /**
+     * Funds the account and loads it into the balance store as the initial
+     * account snapshot
+     */
+    public void deposit(BigDecimal base, BigDecimal quote) {
+        engine.deposit(FixedPoint.fromBigDecimal(base, FixedPoint.BALANCE_SCALE, RoundingMode.DOWN),
+                FixedPoint.fromBigDecimal(quote, FixedPoint.BALANCE_SCALE, RoundingMode.DOWN));
+
+        var account = new AccountStatusResponse.AccountResult();
+        account.setUpdateTime(clock.millis());
+        account.setBalances(List.of(balance(rules.getBaseAsset(), engine.getBaseFree(), engine.getBaseLocked()),
+                balance(rules.getQuoteAsset(), engine.getQuoteFree(), engine.getQuoteLocked())));
+        balanceStore.loadSnapshot(account);
+    }
+
+    private static AccountStatusResponse.Balance balance(String asset, long free, long locked) {
+        var balance = new AccountStatusResponse.Balance();
+        balance.setAsset(asset);
+        balance.setFree(format(free));
+        balance.setLocked(format(locked));
+        return balance;
+    }
+
+    @Override
+    public CompletableFuture<OrderPlaceResponse> placeOrder(OrderPlaceRequest order) {
+        return respond(() -> SimulatedOrders.place(engine, order));
+    }
+
+    @Override
+    public CompletableFuture<OrderListPlaceOcoResponse> placeOcoOrder(OrderListPlaceOcoRequest order) {
+        return respond(() -> SimulatedOrders.placeOco(engine, order));
+    }
+
+    @Override
+    public CompletableFuture<OrderListPlaceOtoResponse> placeOtoOrder(OrderListPlaceOtoRequest order) {
+        return respond(() -> SimulatedOrders.placeOto(engine, order));
+    }
+
+    @Override
+    public CompletableFuture<OrderCancelResponse> cancelOrder(String symbol, Long id) {
+        return respond(() -> SimulatedOrders.cancel(engine, symbol, id));
+    }
+
+    @Override
+    public CompletableFuture<OrderCancelResponse> cancelClientOrder(String symbol, String clientOrderId) {
+        return respond(() -> SimulatedOrders.cancel(engine, symbol, clientOrderId));
+    }
+
+    @Override
+    public CompletableFuture<OrderCancelReplaceResponse> cancelReplaceOrder(OrderCancelReplaceRequest order) {
+        return respond(() -> SimulatedOrders.cancelReplace(engine, order));
+    }
+
+    @Override
+    public CompletableFuture<OpenOrdersStatusResponse> openOrders(String symbol) {
+        return CompletableFuture.completedFuture(new OpenOrdersStatusResponse());
+    }
+
+    private static <T> CompletableFuture<T> respond(Supplier<T> request) {
+        try {
+            return CompletableFuture.completedFuture(request.get());
+        } catch (OrderRejectedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public DepthResponse depthSnapshot(String symbol, Integer limit) {
+        return orderBook.depth(limit);
+    }
+
+    /**
+     * Fills the open orders the trade crosses
+     *
+     * @param price    Trade price at the symbol's price scale
+     * @param quantity Trade quantity at the symbol's quantity scale
+     */
+    public void onTrade(long price, long quantity) {
+        engine.onMarketTrade(price, quantity);
+    }
+
+    /**
+     * Updates the market top of book, at the symbol's price and quantity scales
+     */
+    public void onTicker(long bidPrice, long bidQuantity, long askPrice, long askQuantity) {
+        engine.onMarketTicker(bidPrice, bidQuantity, askPrice, askQuantity);
+    }
+
+    @Override
+    public void onExecution(MatchingEngine.Order order, MatchingEngine.ExecutionType executionType,
+            long lastQuantity, long lastPrice, long commission, long tradeId, boolean maker) {
+        if (executionType == MatchingEngine.ExecutionType.TRADE) {
+            log.debug("Simulated {} fill - Order: {}, Price: {}, Quantity: {}", order.isBuy() ? "BUY" : "SELL",
+                    order.getOrderId(), FixedPoint.toBigDecimal(lastPrice, rules.getPriceScale()),
+                    FixedPoint.toBigDecimal(lastQuantity, rules.getQuantityScale()));
+        }
+
+        int priceScale = rules.getPriceScale();
+        int quantityScale = rules.getQuantityScale();
+        report.clear();
+        report.setEventTime(clock.millis());
+        report.setSymbol(rules.getSymbol());
+        report.setClientOrderId(order.getClientOrderId());
+        report.setSide(order.isBuy() ? "BUY" : "SELL");
+        report.setOrderType(order.getType().name());
+        report.setQuantity(FixedPoint.rescale(order.getQuantity(), quantityScale, FixedPoint.BALANCE_SCALE));
+        report.setPrice(FixedPoint.rescale(order.getPrice(), priceScale, FixedPoint.BALANCE_SCALE));
+        report.setStopPrice(FixedPoint.rescale(order.getStopPrice(), priceScale, FixedPoint.BALANCE_SCALE));
+        if (order.getOrderList() != null) {
+            report.setOrderListId(order.getOrderList().getOrderListId());
+        }
+        report.setExecutionType(executionType.name());
+        report.setOrderStatus(order.getStatus().name());
+        report.setOrderId(order.getOrderId());
+        report.setLastQuantity(FixedPoint.rescale(lastQuantity, quantityScale, FixedPoint.BALANCE_SCALE));
+        report.setCumulativeQuantity(
+                FixedPoint.rescale(order.getExecutedQuantity(), quantityScale, FixedPoint.BALANCE_SCALE));
+        report.setLastPrice(FixedPoint.rescale(lastPrice, priceScale, FixedPoint.BALANCE_SCALE));
+        report.setCommission(commission);
+        if (executionType == MatchingEngine.ExecutionType.TRADE) {
+            report.setCommissionAsset(order.isBuy() ? rules.getBaseAsset() : rules.getQuoteAsset());
+            report.setTradeId(tradeId);
+        }
+        report.setTransactionTime(order.getUpdateTime());
+        report.setMaker(maker);
+        report.setCreationTime(order.getCreationTime());
+        report.setCumulativeQuoteQuantity(order.getCumulativeQuote());
+
+        var update = orderTracker.onExecutionReport(report);
+        if (update != null) {
+            orderUpdates.addLast(update);
+        }
+    }
+
+    @Override
+    public void onListStatus(MatchingEngine.OrderList orderList) {
+        listStatus.clear();
+        listStatus.setEventTime(clock.millis());
+        listStatus.setSymbol(rules.getSymbol());
+        listStatus.setOrderListId(orderList.getOrderListId());
+        listStatus.setContingencyType(orderList.getContingencyType().name());
+        listStatus.setListStatusType(orderList.isDone() ? "ALL_DONE" : "EXEC_STARTED");
+        listStatus.setListOrderStatus(orderList.isDone() ? "ALL_DONE" : "EXECUTING");
+        listStatus.setListClientOrderId(orderList.getListClientOrderId());
+        listStatus.setTransactionTime(orderList.getTransactionTime());
+        for (var order : orderList.getOrders()) {
+            listStatus.addOrder(order.getOrderId(), order.getClientOrderId());
+        }
+        orderTracker.onListStatus(listStatus);
+    }
+
+    /**
+     * Hands the order updates queued since the last call to the strategy, in
+     * the order the engine reported them
+     */
+    public void deliverOrderUpdates(Consumer<OrderUpdate> strategy) {
+        OrderUpdate update;
+        while ((update = orderUpdates.pollFirst()) != null) {
+            strategy.accept(update);
+        }
+    }
+
+    @Override
+    public void onBalances(long time) {
+        balanceStore.updatePosition(rules.getBaseAsset(), engine.getBaseFree(), engine.getBaseLocked(), time);
+        balanceStore.updatePosition(rules.getQuoteAsset(), engine.getQuoteFree(), engine.getQuoteLocked(), time);
+    }
+
+    private static String format(long amount) {
+        return FixedPoint.toBigDecimal(amount, FixedPoint.BALANCE_SCALE).toPlainString();
+    }
+
+    public long getBaseBalance() {
+        return engine.getBaseFree() + engine.getBaseLocked();
+    }
+
+    public long getQuoteBalance() {
+        return engine.getQuoteFree() + engine.getQuoteLocked();
+    }
+
+    public long getPlacedOrders() {
+        return engine.getPlacedOrders();
+    }
+
+    public long getRejectedOrders() {
+        return engine.getRejectedOrders();
+    }
+
+    public long getFilledOrders() {
+        return engine.getFilledOrders();
+    }
+
+    public long getCanceledOrders() {
+        return engine.getCanceledOrders();
+    }
+
+    public int openOrderCount() {
+        return engine.getOpenOrders().size();
+    }
+}
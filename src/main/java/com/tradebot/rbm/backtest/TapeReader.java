@@ -0,0 +1,113 @@
+package com.tradebot.rbm.backtest;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.binance.connector.client.spot.websocket.stream.model.BookTickerResponse;
+import com.binance.connector.client.spot.websocket.stream.model.TradeResponse;
+import com.tradebot.rbm.utils.dto.MarketEvent;
+
+/**
+ * Sequential reader for tapes written by {@link TapeWriter}.
+ *
+ * Each call to {@link #next()} decodes one record into a trade or book ticker
+ * object that is reused for every record of that type, the same way the live
+ * strategy only ever looks at the latest trade and ticker.
+ *
+ * Not thread safe.
+ */
+public class TapeReader implements Closeable {
+
+    private final DataInputStream in;
+    private final String symbol;
+
+    private final TradeResponse trade = new TradeResponse();
+    private final BookTickerResponse ticker = new BookTickerResponse();
+    private long eventTime;
+
+    public TapeReader(Path path) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+        if (in.readInt() != TapeWriter.MAGIC) {
+            in.close();
+            throw new IOException("Not a tape file: " + path);
+        }
+        short version = in.readShort();
+        if (version != TapeWriter.VERSION) {
+            in.close();
+            throw new IOException("Unsupported tape version " + version + " in " + path);
+        }
+        symbol = in.readUTF();
+        trade.setS(symbol);
+        ticker.setS(symbol);
+    }
+
+    /**
+     * Decodes the next record
+     *
+     * @return The record type, or null at the end of the tape
+     */
+    public MarketEvent.Type next() throws IOException {
+        int type;
+        try {
+            type = in.readByte();
+        } catch (EOFException e) {
+            return null;
+        }
+        switch (type) {
+            case TapeWriter.TRADE:
+                eventTime = in.readLong();
+                trade.setE(eventTime);
+                trade.setT(in.readLong());
+                trade.settLowerCase(in.readLong());
+                trade.setpLowerCase(readDecimal());
+                trade.setqLowerCase(readDecimal());
+                trade.setmLowerCase(in.readBoolean());
+                return MarketEvent.Type.TRADE;
+            case TapeWriter.TICKER:
+                eventTime = in.readLong();
+                ticker.setU(in.readLong());
+                ticker.setbLowerCase(readDecimal());
+                ticker.setB(readDecimal());
+                ticker.setaLowerCase(readDecimal());
+                ticker.setA(readDecimal());
+                return MarketEvent.Type.TICKER;
+            default:
+                throw new IOException("Corrupt tape, unknown record type " + type);
+        }
+    }
+
+    private String readDecimal() throws IOException {
+        int scale = in.readByte();
+        return BigDecimal.valueOf(in.readLong(), scale).toPlainString();
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Exchange time of the current trade, or receive time of the current ticker
+     */
+    public long eventTime() {
+        return eventTime;
+    }
+
+    public TradeResponse trade() {
+        return trade;
+    }
+
+    public BookTickerResponse ticker() {
+        return ticker;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
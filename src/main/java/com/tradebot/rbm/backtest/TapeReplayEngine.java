@@ -0,0 +1,137 @@
+package com.tradebot.rbm.backtest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import com.tradebot.rbm.component.TimerService;
+import com.tradebot.rbm.service.WebsocketTradeService;
+import com.tradebot.rbm.utils.FixedPoint;
+import com.tradebot.rbm.utils.LocalOrderBook;
+import com.tradebot.rbm.utils.SymbolRules;
+import com.tradebot.rbm.utils.dto.MarketEvent;
+import com.tradebot.rbm.utils.dto.OrderUpdate;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Replays a tape through {@link WebsocketTradeService} on the calling thread,
+ * in the same order and with the same calls the strategy event loop makes live.
+ *
+ * Before each event the virtual clock is moved to the event time and the
+ * timers due by then run, their strategy tasks right away on the replay
+ * thread, which stands in for the strategy's event loop. Trades first
+ * go to the simulated gateway so resting orders fill before the strategy sees
+ * the trade, and book tickers replace the top of the local order book and the
+ * market top of book simulated takers fill against. The order updates these
+ * fills cause reach the strategy right after, and those of orders the strategy
+ * placed or canceled right after its call returns, as they would through the
+ * event loop. Given the same tape, settings and starting balances a replay is
+ * deterministic.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TapeReplayEngine {
+
+    private final WebsocketTradeService tradeService;
+    private final SimulatedOrderGateway gateway;
+    private final TimerService timerService;
+    private final LocalOrderBook orderBook;
+    private final VirtualClock clock;
+    private final SymbolRules rules;
+
+    /**
+     * Replays the whole tape
+     *
+     * @param speed Multiple of the recorded pace to replay at, or zero or less to
+     *              replay as fast as possible
+     */
+    public ReplayReport replay(TapeReader tape, double speed) throws IOException {
+        long events = 0;
+        long trades = 0;
+        long tickers = 0;
+        long firstEventTime = -1;
+        long lastPrice = 0;
+        long startNanos = System.nanoTime();
+        Consumer<OrderUpdate> orderUpdates = tradeService::onOrderUpdate;
+        tradeService.useEventLoop(Runnable::run);
+
+        MarketEvent.Type type;
+        while ((type = tape.next()) != null) {
+            long eventTime = tape.eventTime();
+            if (firstEventTime < 0) {
+                firstEventTime = eventTime;
+            }
+            clock.advanceTo(eventTime);
+            if (speed > 0) {
+                pace(startNanos, eventTime - firstEventTime, speed);
+            }
+            timerService.advanceTo(eventTime);
+            gateway.deliverOrderUpdates(orderUpdates);
+
+            if (type == MarketEvent.Type.TRADE) {
+                var trade = tape.trade();
+                lastPrice = rules.parsePrice(trade.getpLowerCase());
+                gateway.onTrade(lastPrice, rules.parseQuantity(trade.getqLowerCase()));
+                gateway.deliverOrderUpdates(orderUpdates);
+                tradeService.updateTrade(trade);
+                gateway.deliverOrderUpdates(orderUpdates);
+                trades++;
+            } else {
+                var ticker = tape.ticker();
+                orderBook.applyTopOfBook(ticker.getU(), ticker.getbLowerCase(), ticker.getB(),
+                        ticker.getaLowerCase(), ticker.getA());
+                gateway.onTicker(rules.parsePrice(ticker.getbLowerCase()), rules.parseQuantity(ticker.getB()),
+                        rules.parsePrice(ticker.getaLowerCase()), rules.parseQuantity(ticker.getA()));
+                gateway.deliverOrderUpdates(orderUpdates);
+                tradeService.updateTicker(ticker);
+                gateway.deliverOrderUpdates(orderUpdates);
+                tickers++;
+            }
+            events++;
+            if ((events & 0xFFFFF) == 0) {
+                log.info("Replayed {} events", events);
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        var base = FixedPoint.toBigDecimal(gateway.getBaseBalance(), FixedPoint.BALANCE_SCALE);
+        var quote = FixedPoint.toBigDecimal(gateway.getQuoteBalance(), FixedPoint.BALANCE_SCALE);
+        var price = FixedPoint.toBigDecimal(lastPrice, rules.getPriceScale());
+        return ReplayReport.builder()
+                .symbol(tape.getSymbol())
+                .events(events)
+                .trades(trades)
+                .tickers(tickers)
+                .firstEventTime(Math.max(firstEventTime, 0))
+                .lastEventTime(clock.millis())
+                .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .eventsPerSecond(elapsedNanos == 0 ? 0 : events * 1e9 / elapsedNanos)
+                .placedOrders(gateway.getPlacedOrders())
+                .rejectedOrders(gateway.getRejectedOrders())
+                .filledOrders(gateway.getFilledOrders())
+                .canceledOrders(gateway.getCanceledOrders())
+                .openOrders(gateway.openOrderCount())
+                .baseBalance(base)
+                .quoteBalance(quote)
+                .lastPrice(price)
+                .equity(quote.add(base.multiply(price)).setScale(FixedPoint.BALANCE_SCALE, RoundingMode.HALF_UP))
+                .build();
+    }
+
+    /**
+     * Waits until the wall time since the start catches up with the tape time
+     * scaled by the replay speed
+     */
+    private static void pace(long startNanos, long tapeMillis, double speed) {
+        long dueNanos = startNanos + (long) (TimeUnit.MILLISECONDS.toNanos(tapeMillis) / speed);
+        long waitNanos;
+        while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+}
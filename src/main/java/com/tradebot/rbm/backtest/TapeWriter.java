@@ -0,0 +1,106 @@
+package com.tradebot.rbm.backtest;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.binance.connector.client.spot.websocket.stream.model.BookTickerResponse;
+import com.binance.connector.client.spot.websocket.stream.model.TradeResponse;
+
+/**
+ * Writes trade and book ticker events to a compact binary tape for
+ * {@link TapeReader}.
+ *
+ * Layout, big endian: a header of {@link #MAGIC}, {@link #VERSION} and the
+ * symbol, then one record per event starting with its type byte.
+ * <ul>
+ * <li>{@link #TRADE}: event time, trade time, trade ID, price, quantity,
+ * buyer-is-maker flag</li>
+ * <li>{@link #TICKER}: receive time, update ID, bid price, bid quantity, ask
+ * price, ask quantity</li>
+ * </ul>
+ * Times are epoch milliseconds. Decimals are stored exactly as a scale byte
+ * followed by the unscaled long, so the replay hands the strategy the same
+ * strings the exchange sent.
+ *
+ * Not thread safe.
+ */
+public class TapeWriter implements Closeable {
+
+    static final int MAGIC = 0x52424D54; // "RBMT"
+    static final short VERSION = 1;
+    static final byte TRADE = 'T';
+    static final byte TICKER = 'B';
+
+    private final DataOutputStream out;
+
+    public TapeWriter(Path path, String symbol) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeUTF(symbol.toUpperCase());
+    }
+
+    public void writeTrade(TradeResponse trade) throws IOException {
+        out.writeByte(TRADE);
+        out.writeLong(orZero(trade.getE()));
+        out.writeLong(orZero(trade.getT()));
+        out.writeLong(orZero(trade.gettLowerCase()));
+        writeDecimal(trade.getpLowerCase());
+        writeDecimal(trade.getqLowerCase());
+        out.writeBoolean(Boolean.TRUE.equals(trade.getmLowerCase()));
+    }
+
+    /**
+     * @param receiveTime When the update arrived; the book ticker stream carries
+     *                    no event time of its own
+     */
+    public void writeTicker(long receiveTime, BookTickerResponse ticker) throws IOException {
+        out.writeByte(TICKER);
+        out.writeLong(receiveTime);
+        out.writeLong(orZero(ticker.getU()));
+        writeDecimal(ticker.getbLowerCase());
+        writeDecimal(ticker.getB());
+        writeDecimal(ticker.getaLowerCase());
+        writeDecimal(ticker.getA());
+    }
+
+    private void writeDecimal(String decimal) throws IOException {
+        long unscaled = 0;
+        int scale = -1;
+        boolean negative = false;
+        for (int i = 0; i < decimal.length(); i++) {
+            char c = decimal.charAt(i);
+            if (c == '.') {
+                scale = 0;
+            } else if (c == '-' && i == 0) {
+                negative = true;
+            } else if (c >= '0' && c <= '9') {
+                unscaled = Math.addExact(Math.multiplyExact(unscaled, 10), c - '0');
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                throw new NumberFormatException("Not a plain decimal: " + decimal);
+            }
+        }
+        out.writeByte(Math.max(scale, 0));
+        out.writeLong(negative ? -unscaled : unscaled);
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
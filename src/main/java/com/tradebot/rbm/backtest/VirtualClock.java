@@ -0,0 +1,57 @@
+package com.tradebot.rbm.backtest;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock that only moves when the replay advances it to the time of the event
+ * being replayed, so time-based strategy rules behave as they did live no
+ * matter how fast the tape runs.
+ */
+public class VirtualClock extends Clock {
+
+    private final AtomicLong millis;
+    private final ZoneId zone;
+
+    public VirtualClock(long startMillis) {
+        this(new AtomicLong(startMillis), ZoneOffset.UTC);
+    }
+
+    private VirtualClock(AtomicLong millis, ZoneId zone) {
+        this.millis = millis;
+        this.zone = zone;
+    }
+
+    /**
+     * Moves the clock forward; never goes back in time
+     */
+    public void advanceTo(long epochMillis) {
+        if (epochMillis > millis.get()) {
+            millis.set(epochMillis);
+        }
+    }
+
+    @Override
+    public long millis() {
+        return millis.get();
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(millis.get());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        // Views in other zones share the same time
+        return zone.equals(this.zone) ? this : new VirtualClock(millis, zone);
+    }
+}
@@ -0,0 +1,127 @@
+package com.tradebot.rbm.component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.stereotype.Component;
+
+import com.tradebot.rbm.utils.dto.Candle;
+import com.tradebot.rbm.utils.dto.CandleInterval;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Incremental OHLCV candle builder for every {@link CandleInterval} at once.
+ *
+ * Each trade updates the open candle of every interval in place, bucketed on
+ * the trade's exchange time rather than wall clock. A candle is closed and
+ * handed to the listeners as soon as a trade (or {@link #advanceTo}) moves past
+ * its interval; buckets without trades produce no candle.
+ *
+ * Single writer: called from the strategy thread only. Listeners run on that
+ * thread too and must hand off anything slow.
+ */
+@Slf4j
+@Component
+public class CandleEngine {
+
+    /**
+     * Receives every closed candle, of all intervals
+     */
+    @FunctionalInterface
+    public interface CandleListener {
+        void onCandleClosed(Candle candle);
+    }
+
+    private static final CandleInterval[] INTERVALS = CandleInterval.values();
+
+    private final List<CandleListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Open candle state per interval, indexed by ordinal
+    private final long[] openTimes = new long[INTERVALS.length];
+    private final double[] opens = new double[INTERVALS.length];
+    private final double[] highs = new double[INTERVALS.length];
+    private final double[] lows = new double[INTERVALS.length];
+    private final double[] closes = new double[INTERVALS.length];
+    private final double[] volumes = new double[INTERVALS.length];
+    private final double[] quoteVolumes = new double[INTERVALS.length];
+    private final int[] tradeCounts = new int[INTERVALS.length];
+
+    public void addListener(CandleListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(CandleListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Folds a trade into the open candle of every interval
+     */
+    public void onTrade(double price, double quantity, long time) {
+        for (int i = 0; i < INTERVALS.length; i++) {
+            long bucketStart = INTERVALS[i].bucketStart(time);
+            if (tradeCounts[i] > 0 && bucketStart > openTimes[i]) {
+                close(i);
+            }
+            if (tradeCounts[i] == 0) {
+                openTimes[i] = bucketStart;
+                opens[i] = price;
+                highs[i] = price;
+                lows[i] = price;
+            } else if (bucketStart < openTimes[i]) {
+                // Late trade for an already closed bucket, nothing to update
+                continue;
+            }
+            if (price > highs[i]) {
+                highs[i] = price;
+            }
+            if (price < lows[i]) {
+                lows[i] = price;
+            }
+            closes[i] = price;
+            volumes[i] += quantity;
+            quoteVolumes[i] += price * quantity;
+            tradeCounts[i]++;
+        }
+    }
+
+    /**
+     * Closes every open candle whose interval ended at or before the given
+     * exchange time, for quiet markets where no trade arrives to do it
+     */
+    public void advanceTo(long time) {
+        for (int i = 0; i < INTERVALS.length; i++) {
+            if (tradeCounts[i] > 0 && INTERVALS[i].bucketStart(time) > openTimes[i]) {
+                close(i);
+            }
+        }
+    }
+
+    private void close(int index) {
+        var interval = INTERVALS[index];
+        var candle = Candle.builder()
+                .interval(interval)
+                .openTime(openTimes[index])
+                .closeTime(openTimes[index] + interval.getMillis() - 1)
+                .open(opens[index])
+                .high(highs[index])
+                .low(lows[index])
+                .close(closes[index])
+                .volume(volumes[index])
+                .quoteVolume(quoteVolumes[index])
+                .tradeCount(tradeCounts[index])
+                .build();
+        volumes[index] = 0;
+        quoteVolumes[index] = 0;
+        tradeCounts[index] = 0;
+
+        for (var listener : listeners) {
+            try {
+                listener.onCandleClosed(candle);
+            } catch (Exception e) {
+                log.error("Candle listener failed for {} candle", interval.getCode(), e);
+            }
+        }
+    }
+}
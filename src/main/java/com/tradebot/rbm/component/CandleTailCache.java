@@ -0,0 +1,106 @@
+package com.tradebot.rbm.component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.tradebot.rbm.entity.PriceDataEntity;
+import com.tradebot.rbm.repository.PriceDataRepository;
+import com.tradebot.rbm.utils.dto.Candle;
+import com.tradebot.rbm.utils.dto.CandleInterval;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory tail of the last closed candles per interval, so indicator
+ * recomputation reads memory instead of querying the database.
+ *
+ * Appended by the strategy thread through the {@link CandleEngine} listener;
+ * each interval is a fixed ring guarded by its own lock, held only long enough
+ * to copy a few references.
+ */
+@Slf4j
+@Component
+public class CandleTailCache {
+
+    private final int capacity;
+    private final Map<CandleInterval, Tail> tails = new EnumMap<>(CandleInterval.class);
+
+    private static final class Tail {
+        private final Candle[] candles;
+        private long count;
+
+        private Tail(int capacity) {
+            this.candles = new Candle[capacity];
+        }
+    }
+
+    public CandleTailCache(CandleEngine candleEngine, PriceDataRepository priceDataRepository,
+            @Value("${tradebot.candles.tail-size:500}") int capacity) {
+        this.capacity = capacity;
+        for (var interval : CandleInterval.values()) {
+            var tail = new Tail(capacity);
+            tails.put(interval, tail);
+            warmUp(priceDataRepository, interval, tail);
+        }
+        // Registered at construction so the cache is updated before any later listener
+        candleEngine.addListener(this::append);
+    }
+
+    /**
+     * Loads the persisted history once at startup, before any candle is appended
+     */
+    private void warmUp(PriceDataRepository priceDataRepository, CandleInterval interval, Tail tail) {
+        try {
+            var page = PageRequest.of(0, capacity);
+            // Legacy rows without an interval are one minute candles
+            var persisted = interval == CandleInterval.ONE_MINUTE
+                    ? priceDataRepository.findByCandleIntervalOrCandleIntervalIsNullOrderByTimestampDesc(
+                            interval.getCode(), page)
+                    : priceDataRepository.findByCandleIntervalOrderByTimestampDesc(interval.getCode(), page);
+            // Oldest first so the newest ends up at the head of the ring
+            for (int i = persisted.size() - 1; i >= 0; i--) {
+                appendLocked(tail, persisted.get(i).toCandle());
+            }
+            log.info("Candle tail cache warmed up with {} {} candles", persisted.size(), interval.getCode());
+        } catch (Exception e) {
+            log.warn("Failed to warm up {} candle tail from the database", interval.getCode(), e);
+        }
+    }
+
+    public void append(Candle candle) {
+        var tail = tails.get(candle.getInterval());
+        synchronized (tail) {
+            appendLocked(tail, candle);
+        }
+    }
+
+    private void appendLocked(Tail tail, Candle candle) {
+        tail.candles[(int) (tail.count % capacity)] = candle;
+        tail.count++;
+    }
+
+    /**
+     * Up to {@code limit} most recent closed candles, newest first
+     */
+    public List<Candle> latest(CandleInterval interval, int limit) {
+        var tail = tails.get(interval);
+        synchronized (tail) {
+            int size = (int) Math.min(Math.min(tail.count, capacity), limit);
+            List<Candle> result = new ArrayList<>(size);
+            for (int i = 1; i <= size; i++) {
+                result.add(tail.candles[(int) ((tail.count - i) % capacity)]);
+            }
+            return result;
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
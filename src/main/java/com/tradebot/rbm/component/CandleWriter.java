@@ -0,0 +1,132 @@
+package com.tradebot.rbm.component;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.tradebot.rbm.entity.PriceDataEntity;
+import com.tradebot.rbm.repository.PriceDataRepository;
+import com.tradebot.rbm.utils.dto.Candle;
+import com.tradebot.rbm.utils.dto.CandleInterval;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind persistence of closed candles.
+ *
+ * The {@link CandleEngine} listener only offers the candle to a bounded queue;
+ * a background thread drains it and inserts whole batches through one
+ * {@code saveAll}, which Hibernate turns into JDBC batch inserts. If the
+ * database falls behind far enough to fill the queue, candles are dropped and
+ * counted rather than blocking the strategy thread.
+ */
+@Slf4j
+@Component
+public class CandleWriter implements ApplicationRunner {
+
+    private static final int QUEUE_CAPACITY = 4096;
+
+    private final PriceDataRepository priceDataRepository;
+    private final CandleEngine candleEngine;
+    private final BlockingQueue<Candle> pending = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Set<CandleInterval> persistedIntervals = EnumSet.noneOf(CandleInterval.class);
+    private final AtomicLong droppedCandles = new AtomicLong();
+
+    @Value("${tradebot.candles.batch-size:50}")
+    private int batchSize;
+
+    @Value("${tradebot.candles.flush-interval-ms:1000}")
+    private long flushIntervalMillis;
+
+    private volatile boolean running = true;
+    private Thread writerThread;
+
+    public CandleWriter(PriceDataRepository priceDataRepository, CandleEngine candleEngine,
+            @Value("${tradebot.candles.persist-intervals:1m,5m,1h}") List<String> intervals) {
+        this.priceDataRepository = priceDataRepository;
+        this.candleEngine = candleEngine;
+        for (var code : intervals) {
+            var interval = CandleInterval.fromCode(code.trim());
+            if (interval == null) {
+                throw new IllegalArgumentException("Unknown candle interval: " + code);
+            }
+            persistedIntervals.add(interval);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        candleEngine.addListener(candle -> {
+            if (persistedIntervals.contains(candle.getInterval()) && !pending.offer(candle)) {
+                long dropped = droppedCandles.incrementAndGet();
+                log.warn("Candle write queue full, dropped {} candles so far", dropped);
+            }
+        });
+
+        writerThread = new Thread(this::writeLoop);
+        writerThread.setName("CandleWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Candle writer started for intervals: {}", persistedIntervals);
+    }
+
+    private void writeLoop() {
+        List<Candle> batch = new ArrayList<>(batchSize);
+        while (running || !pending.isEmpty()) {
+            try {
+                var first = pending.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private void flush(List<Candle> batch) {
+        try {
+            List<PriceDataEntity> entities = new ArrayList<>(batch.size());
+            for (var candle : batch) {
+                entities.add(new PriceDataEntity(candle));
+            }
+            priceDataRepository.saveAll(entities);
+            log.debug("Persisted batch of {} candles", entities.size());
+        } catch (Exception e) {
+            log.error("Error persisting batch of {} candles", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(flushIntervalMillis * 2);
+        }
+    }
+
+    public long getDroppedCandles() {
+        return droppedCandles.get();
+    }
+
+    public int getQueueDepth() {
+        return pending.size();
+    }
+}
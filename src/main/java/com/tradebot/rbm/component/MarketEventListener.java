@@ -0,0 +1,13 @@
+package com.tradebot.rbm.component;
+
+import com.tradebot.rbm.utils.dto.MarketEvent;
+
+/**
+ * Receives every market event {@link MarketEventSequencer} takes off its ring,
+ * on the strategy thread and before the strategy handles it. The event is
+ * reused once the call returns, so copy what is needed instead of keeping it.
+ */
+public interface MarketEventListener {
+
+    void onMarketEvent(MarketEvent event);
+}
@@ -0,0 +1,406 @@
+package com.tradebot.rbm.component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.binance.connector.client.spot.websocket.stream.model.BookTickerResponse;
+import com.binance.connector.client.spot.websocket.stream.model.KlineResponse;
+import com.binance.connector.client.spot.websocket.stream.model.TradeResponse;
+import com.tradebot.rbm.backtest.TapeWriter;
+import com.tradebot.rbm.entity.dto.SequencerStatsDTO;
+import com.tradebot.rbm.journal.MarketDataJournal;
+import com.tradebot.rbm.service.WebsocketTradeService;
+import com.tradebot.rbm.utils.MpscRingBuffer;
+import com.tradebot.rbm.utils.dto.MarketEvent;
+import com.tradebot.rbm.utils.dto.OrderUpdate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single-writer event loops between the websocket streams and the strategies.
+ *
+ * Symbols are spread over {@code tradebot.strategy.shards} event loops, symbol
+ * {@code i} on shard {@code i % shards}. Trade, book ticker and kline streams
+ * publish into the lock-free ring of the symbol's shard and the shard's thread
+ * consumes the events in publish order, so each symbol's
+ * {@link WebsocketTradeService} is only ever entered by one thread and symbols
+ * on different shards run in parallel. Any {@link MarketEventListener} beans
+ * see each event first, on the shard thread. Order updates from the user data
+ * stream go through the same ring, so a strategy handles its fills on its own
+ * thread and in order with its market data.
+ *
+ * Tasks handed to a strategy's event loop, from its {@link TimerService}
+ * timers and its order request callbacks, go through an unbounded queue per
+ * shard that the shard thread drains along with the ring. Publishing into the
+ * bounded ring would stall the shared timer thread behind a busy shard, and
+ * deadlock a shard thread that hands itself a task while its ring is full.
+ *
+ * Before handing a trade or book ticker on, the shard thread appends it to the
+ * {@link MarketDataJournal} and, when {@code tradebot.replay.record-path} is
+ * set, to the symbol's tape for {@code BacktestRunner}, so that an event the
+ * strategy fails on is still recorded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MarketEventSequencer implements ApplicationRunner {
+
+    private static final int RING_CAPACITY = 1 << 13;
+    private static final int MAX_BATCH = 256;
+    private static final int SPINS_BEFORE_PARK = 1000;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final String SYMBOL_PLACEHOLDER = "{symbol}";
+
+    private final TradingSymbols tradingSymbols;
+    private final StrategyRegistry strategies;
+    private final MarketDataJournal journal;
+    // Resolved when the loops start so listeners may depend on the strategies
+    private final ObjectProvider<MarketEventListener> marketEventListeners;
+
+    @Value("${tradebot.strategy.shards:0}")
+    private int configuredShards;
+
+    @Value("${tradebot.replay.record-path:}")
+    private String recordPath;
+
+    private Shard[] shards;
+    private MarketEventListener[] listeners;
+    // One per symbol, each only touched by the thread of the symbol's shard
+    private TapeWriter[] tapeWriters;
+
+    /**
+     * Creates the rings up front so the streams can publish before the loops run
+     */
+    @PostConstruct
+    void createShards() {
+        int shardCount = configuredShards > 0 ? configuredShards : Runtime.getRuntime().availableProcessors();
+        shardCount = Math.max(1, Math.min(shardCount, tradingSymbols.size()));
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        tapeWriters = new TapeWriter[tradingSymbols.size()];
+        if (!recordPath.isBlank()) {
+            openTapes();
+        }
+        listeners = marketEventListeners.orderedStream().toArray(MarketEventListener[]::new);
+        for (int i = 0; i < strategies.size(); i++) {
+            int symbolIndex = i;
+            strategies.get(i).useEventLoop(task -> publishTimerTask(symbolIndex, task));
+        }
+        for (var shard : shards) {
+            shard.start();
+        }
+        log.info("Strategy event loops started for {} symbols on {} shards with ring capacity {}",
+                tradingSymbols.size(), shards.length, RING_CAPACITY);
+    }
+
+    /**
+     * Opens a tape per symbol when the record path has a {@code {symbol}}
+     * placeholder, otherwise one tape for the primary symbol
+     */
+    private void openTapes() {
+        boolean perSymbol = recordPath.contains(SYMBOL_PLACEHOLDER);
+        if (!perSymbol && tradingSymbols.size() > 1) {
+            log.warn("Record path {} has no {} placeholder, recording {} only", recordPath, SYMBOL_PLACEHOLDER,
+                    tradingSymbols.primary());
+        }
+        int count = perSymbol ? tradingSymbols.size() : 1;
+        for (int i = 0; i < count; i++) {
+            var symbol = tradingSymbols.get(i);
+            var path = recordPath.replace(SYMBOL_PLACEHOLDER, symbol);
+            try {
+                tapeWriters[i] = new TapeWriter(Path.of(path), symbol);
+                log.info("Recording {} market events to {}", symbol, path);
+            } catch (IOException e) {
+                log.error("Cannot record market events to {}", path, e);
+            }
+        }
+    }
+
+    /**
+     * Publishes a trade from the trade stream thread
+     *
+     * @param symbolIndex Index of the trade's symbol in {@link TradingSymbols}
+     */
+    public void publishTrade(int symbolIndex, TradeResponse trade) {
+        var ring = shardOf(symbolIndex).ring;
+        long sequence = ring.claim();
+        MarketEvent event = ring.get(sequence);
+        event.setType(MarketEvent.Type.TRADE);
+        event.setSymbolIndex(symbolIndex);
+        event.setSymbol(tradingSymbols.get(symbolIndex));
+        event.setTrade(trade);
+        event.setPublishNanos(System.nanoTime());
+        event.setReceiveMillis(System.currentTimeMillis());
+        ring.publish(sequence);
+    }
+
+    /**
+     * Publishes a book ticker update from the ticker stream thread
+     *
+     * @param symbolIndex Index of the ticker's symbol in {@link TradingSymbols}
+     */
+    public void publishTicker(int symbolIndex, BookTickerResponse ticker) {
+        var ring = shardOf(symbolIndex).ring;
+        long sequence = ring.claim();
+        MarketEvent event = ring.get(sequence);
+        event.setType(MarketEvent.Type.TICKER);
+        event.setSymbolIndex(symbolIndex);
+        event.setSymbol(tradingSymbols.get(symbolIndex));
+        event.setTicker(ticker);
+        event.setPublishNanos(System.nanoTime());
+        event.setReceiveMillis(System.currentTimeMillis());
+        ring.publish(sequence);
+    }
+
+    /**
+     * Publishes a kline update from the kline stream thread
+     *
+     * @param symbolIndex Index of the kline's symbol in {@link TradingSymbols}
+     */
+    public void publishKline(int symbolIndex, KlineResponse kline) {
+        var ring = shardOf(symbolIndex).ring;
+        long sequence = ring.claim();
+        MarketEvent event = ring.get(sequence);
+        event.setType(MarketEvent.Type.KLINE);
+        event.setSymbolIndex(symbolIndex);
+        event.setSymbol(tradingSymbols.get(symbolIndex));
+        event.setKline(kline);
+        event.setPublishNanos(System.nanoTime());
+        event.setReceiveMillis(System.currentTimeMillis());
+        ring.publish(sequence);
+    }
+
+    /**
+     * Publishes an order update from the user data stream thread, so that the
+     * strategy sees its fills in order with the market events of its symbol
+     *
+     * @param symbolIndex Index of the order's symbol in {@link TradingSymbols}
+     */
+    public void publishOrderUpdate(int symbolIndex, OrderUpdate update) {
+        var ring = shardOf(symbolIndex).ring;
+        long sequence = ring.claim();
+        MarketEvent event = ring.get(sequence);
+        event.setType(MarketEvent.Type.ORDER);
+        event.setSymbolIndex(symbolIndex);
+        event.setSymbol(tradingSymbols.get(symbolIndex));
+        event.setOrderUpdate(update);
+        event.setPublishNanos(System.nanoTime());
+        event.setReceiveMillis(System.currentTimeMillis());
+        ring.publish(sequence);
+    }
+
+    /**
+     * Hands a task to the strategy thread of the symbol. From the timer thread
+     * or an order response thread it is queued, never waiting for the shard;
+     * on the shard thread itself it runs at once.
+     *
+     * @param symbolIndex Index of the symbol in {@link TradingSymbols}
+     */
+    public void publishTimerTask(int symbolIndex, Runnable task) {
+        var shard = shardOf(symbolIndex);
+        if (Thread.currentThread() == shard.thread) {
+            shard.runTask(task);
+        } else {
+            shard.tasks.offer(task);
+        }
+    }
+
+    private Shard shardOf(int symbolIndex) {
+        return shards[symbolIndex % shards.length];
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        for (var shard : shards) {
+            shard.thread.interrupt();
+        }
+        for (var shard : shards) {
+            shard.thread.join(TimeUnit.SECONDS.toMillis(1));
+        }
+        if (tapeWriters != null) {
+            for (var tapeWriter : tapeWriters) {
+                if (tapeWriter != null) {
+                    try {
+                        tapeWriter.close();
+                    } catch (IOException e) {
+                        log.error("Error closing market event tape", e);
+                    }
+                }
+            }
+        }
+    }
+
+    private void record(MarketEvent event) {
+        int symbolIndex = event.getSymbolIndex();
+        var tapeWriter = tapeWriters[symbolIndex];
+        try {
+            if (event.getType() == MarketEvent.Type.TRADE) {
+                tapeWriter.writeTrade(event.getTrade());
+            } else {
+                tapeWriter.writeTicker(event.getReceiveMillis(), event.getTicker());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Stopped recording {} market events", event.getSymbol(), e);
+            try {
+                tapeWriter.close();
+            } catch (IOException closeError) {
+                e.addSuppressed(closeError);
+            }
+            tapeWriters[symbolIndex] = null;
+        }
+    }
+
+    /**
+     * Current queue depth and consumer lag over all event loops; lags are the
+     * worst shard's
+     */
+    public SequencerStatsDTO getStats() {
+        long queueDepth = 0;
+        long published = 0;
+        long processed = 0;
+        long lastLag = 0;
+        long maxLag = 0;
+        for (var shard : shards) {
+            queueDepth += shard.ring.size();
+            published += shard.ring.getClaimSequence();
+            processed += shard.processedEvents.get();
+            lastLag = Math.max(lastLag, shard.lastLagNanos);
+            maxLag = Math.max(maxLag, shard.maxLagNanos);
+        }
+        return SequencerStatsDTO.builder()
+                .shards(shards.length)
+                .capacity(RING_CAPACITY * shards.length)
+                .queueDepth(queueDepth)
+                .publishedEvents(published)
+                .processedEvents(processed)
+                .lastLagMicros(TimeUnit.NANOSECONDS.toMicros(lastLag))
+                .maxLagMicros(TimeUnit.NANOSECONDS.toMicros(maxLag))
+                .build();
+    }
+
+    /**
+     * Ring and event loop thread of the symbols assigned to one shard
+     */
+    private final class Shard {
+
+        private final MpscRingBuffer<MarketEvent> ring = new MpscRingBuffer<>(RING_CAPACITY, MarketEvent::new);
+        // Strategy tasks from other threads, unbounded so their producers never wait
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final Thread thread;
+
+        // Consumer lag metrics, written by the shard thread only
+        private volatile long lastLagNanos;
+        private volatile long maxLagNanos;
+        private final AtomicLong processedEvents = new AtomicLong();
+
+        Shard(int index) {
+            thread = new Thread(this::eventLoop);
+            thread.setName("StrategyEventLoop-" + index);
+            thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        private void eventLoop() {
+            int idleSpins = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                int handled = ring.drain(this::onEvent, MAX_BATCH) + runTasks();
+                if (handled > 0) {
+                    idleSpins = 0;
+                } else if (idleSpins < SPINS_BEFORE_PARK) {
+                    idleSpins++;
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            log.info("Strategy event loop {} stopped", thread.getName());
+        }
+
+        /**
+         * Runs up to a batch of the queued tasks, so a flood of them cannot
+         * starve the ring
+         */
+        private int runTasks() {
+            int ran = 0;
+            Runnable task;
+            while (ran < MAX_BATCH && (task = tasks.poll()) != null) {
+                runTask(task);
+                ran++;
+            }
+            return ran;
+        }
+
+        private void runTask(Runnable task) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Error running strategy task on {}", thread.getName(), e);
+            }
+        }
+
+        private void onEvent(MarketEvent event, long sequence) {
+            long lag = System.nanoTime() - event.getPublishNanos();
+            lastLagNanos = lag;
+            if (lag > maxLagNanos) {
+                maxLagNanos = lag;
+            }
+            try {
+                var strategy = strategies.get(event.getSymbolIndex());
+                if (event.getType() == MarketEvent.Type.ORDER) {
+                    // Not market data, so neither listeners nor journal see it
+                    strategy.onOrderUpdate(event.getOrderUpdate());
+                    return;
+                }
+                // Klines are only a clock, neither journaled nor recorded
+                if (event.getType() != MarketEvent.Type.KLINE) {
+                    journal.append(event);
+                    if (tapeWriters[event.getSymbolIndex()] != null) {
+                        record(event);
+                    }
+                }
+                for (var listener : listeners) {
+                    listener.onMarketEvent(event);
+                }
+                switch (event.getType()) {
+                    case TRADE:
+                        strategy.updateTrade(event.getTrade());
+                        break;
+                    case TICKER:
+                        strategy.updateTicker(event.getTicker());
+                        break;
+                    case KLINE:
+                        strategy.updateKline(event.getKline());
+                        break;
+                }
+            } catch (Exception e) {
+                log.error("Error processing {} market event {}", event.getSymbol(), sequence, e);
+            } finally {
+                event.clear();
+                processedEvents.lazySet(processedEvents.get() + 1);
+            }
+        }
+    }
+}
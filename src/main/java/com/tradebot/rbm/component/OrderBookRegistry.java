@@ -0,0 +1,57 @@
+package com.tradebot.rbm.component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.tradebot.rbm.utils.LocalOrderBook;
+
+/**
+ * One {@link LocalOrderBook} per traded symbol, created at startup.
+ *
+ * The map never changes afterwards, so lookups are safe from any thread.
+ */
+@Component
+public class OrderBookRegistry {
+
+    private final Map<String, LocalOrderBook> books;
+
+    @Autowired
+    public OrderBookRegistry(TradingSymbols tradingSymbols) {
+        Map<String, LocalOrderBook> created = new HashMap<>();
+        for (var symbol : tradingSymbols.all()) {
+            created.put(symbol, new LocalOrderBook());
+        }
+        this.books = Map.copyOf(created);
+    }
+
+    /**
+     * Fixed books, for running outside of Spring
+     */
+    public OrderBookRegistry(Map<String, LocalOrderBook> books) {
+        this.books = Map.copyOf(books);
+    }
+
+    /**
+     * Book of a symbol, in any case
+     *
+     * @throws IllegalArgumentException if the symbol is not traded
+     */
+    public LocalOrderBook get(String symbol) {
+        var book = find(symbol);
+        if (book == null) {
+            throw new IllegalArgumentException("No order book for: " + symbol);
+        }
+        return book;
+    }
+
+    /**
+     * Book of a symbol, in any case, or null if the symbol is not traded
+     */
+    public LocalOrderBook find(String symbol) {
+        var book = books.get(symbol);
+        return book != null ? book : books.get(symbol.toUpperCase());
+    }
+}
@@ -0,0 +1,280 @@
+package com.tradebot.rbm.component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.tradebot.rbm.utils.dto.OrderState;
+import com.tradebot.rbm.utils.dto.OrderUpdate;
+import com.tradebot.rbm.websocket.dto.ExecutionReportEvent;
+import com.tradebot.rbm.websocket.dto.ListStatusEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory state of the account's orders, keyed by exchange order ID and by
+ * client order ID and driven by the user data stream.
+ *
+ * Each {@code executionReport} moves its order along {@link OrderState}:
+ * PENDING_NEW, NEW, PARTIALLY_FILLED as fills come in, then one of the
+ * terminal states, with the cumulative filled quantity and quote alongside.
+ * Reports that would move an order backwards or repeat a fill already counted
+ * are dropped, so a late or duplicate report cannot undo a fill. Orders the
+ * strategy did not {@link #register}, such as the legs of an OCO or orders
+ * placed by hand, are picked up from their first report. {@code listStatus}
+ * events record the state of each order list and link its orders to it.
+ *
+ * Finished orders are kept for a while so that late reports still find them,
+ * then forgotten. Called from the user data stream and the strategy threads,
+ * every method is synchronized.
+ */
+@Slf4j
+@Component
+public class OrderTracker {
+
+    // Finished orders kept to recognize late reports
+    private static final int MAX_FINISHED_ORDERS = 1024;
+    private static final int MAX_ORDER_LISTS = 256;
+
+    private static final class TrackedOrder {
+        String symbol;
+        long orderId = -1;
+        String clientOrderId;
+        String side;
+        OrderState state;
+        long price;
+        long quantity;
+        long cumulativeQuantity;
+        long cumulativeQuote;
+        long commission;
+        String commissionAsset;
+        long orderListId = -1;
+        long transactionTime;
+    }
+
+    private final Map<Long, TrackedOrder> byOrderId = new HashMap<>();
+    private final Map<String, TrackedOrder> byClientOrderId = new HashMap<>();
+    private final ArrayDeque<TrackedOrder> finished = new ArrayDeque<>();
+    // Order list ID to its last list status type, e.g. EXEC_STARTED or ALL_DONE
+    private final Map<Long, String> orderLists = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > MAX_ORDER_LISTS;
+        }
+    };
+
+    private long updates;
+    private long droppedReports;
+
+    /**
+     * Starts tracking an order as it is sent, before the exchange acknowledges
+     * it
+     *
+     * @param price    Limit price at {@code FixedPoint.BALANCE_SCALE}
+     * @param quantity Quantity at {@code FixedPoint.BALANCE_SCALE}
+     */
+    public synchronized void register(String symbol, String clientOrderId, String side, long price, long quantity) {
+        var order = new TrackedOrder();
+        order.symbol = symbol;
+        order.clientOrderId = clientOrderId;
+        order.side = side;
+        order.state = OrderState.PENDING_NEW;
+        order.price = price;
+        order.quantity = quantity;
+        byClientOrderId.put(clientOrderId, order);
+    }
+
+    /**
+     * Stops tracking a registered order whose request failed, so that it does
+     * not stay pending and count as open. An order a report was seen for is
+     * kept, and a report arriving after all picks the order up again.
+     */
+    public synchronized void forget(String clientOrderId) {
+        var order = byClientOrderId.get(clientOrderId);
+        if (order != null && order.state == OrderState.PENDING_NEW && order.orderId < 0) {
+            byClientOrderId.remove(clientOrderId);
+        }
+    }
+
+    /**
+     * Applies an execution report
+     *
+     * @return The resulting state change, or null if the report was stale, a
+     *         duplicate or did not change the state
+     */
+    public synchronized OrderUpdate onExecutionReport(ExecutionReportEvent report) {
+        var next = OrderState.fromStatus(report.getOrderStatus());
+        if (next == null) {
+            return null;
+        }
+        var order = find(report);
+        if (order == null) {
+            order = adopt(report);
+        }
+        var previous = order.state;
+        if (previous != null && (!previous.canMoveTo(next)
+                || report.getCumulativeQuantity() < order.cumulativeQuantity
+                || (next == OrderState.PARTIALLY_FILLED
+                        && report.getCumulativeQuantity() == order.cumulativeQuantity))) {
+            droppedReports++;
+            log.debug("Dropping {} report for order {} in state {}", next, report.getOrderId(), previous);
+            return null;
+        }
+
+        if (order.orderId < 0) {
+            order.orderId = report.getOrderId();
+            byOrderId.put(order.orderId, order);
+        }
+        order.state = next;
+        order.price = report.getPrice();
+        order.quantity = report.getQuantity();
+        order.cumulativeQuantity = report.getCumulativeQuantity();
+        order.cumulativeQuote = report.getCumulativeQuoteQuantity();
+        order.orderListId = report.getOrderListId();
+        order.transactionTime = report.getTransactionTime();
+        if (report.getLastQuantity() > 0 && report.getCommissionAsset() != null) {
+            if (order.commissionAsset == null) {
+                order.commissionAsset = report.getCommissionAsset();
+            }
+            if (order.commissionAsset.equals(report.getCommissionAsset())) {
+                order.commission += report.getCommission();
+            }
+        }
+        if (next.isTerminal()) {
+            finish(order);
+        }
+        updates++;
+
+        return OrderUpdate.builder()
+                .symbol(order.symbol)
+                .orderId(order.orderId)
+                .clientOrderId(order.clientOrderId)
+                .side(order.side)
+                .previousState(previous)
+                .state(next)
+                .price(order.price)
+                .quantity(order.quantity)
+                .lastQuantity(report.getLastQuantity())
+                .lastPrice(report.getLastPrice())
+                .cumulativeQuantity(order.cumulativeQuantity)
+                .cumulativeQuote(order.cumulativeQuote)
+                .commission(order.commission)
+                .commissionAsset(order.commissionAsset)
+                .orderListId(order.orderListId)
+                .transactionTime(order.transactionTime)
+                .build();
+    }
+
+    /**
+     * Records the state of an order list and links its orders to it
+     */
+    public synchronized void onListStatus(ListStatusEvent event) {
+        orderLists.put(event.getOrderListId(), event.getListStatusType());
+        for (int i = 0; i < event.size(); i++) {
+            var order = byOrderId.get(event.orderId(i));
+            if (order == null && event.clientOrderId(i) != null) {
+                order = byClientOrderId.get(event.clientOrderId(i));
+            }
+            if (order != null) {
+                order.orderListId = event.getOrderListId();
+            }
+        }
+    }
+
+    /**
+     * The order a report is for: by exchange order ID, then by the original
+     * client order ID of a cancel, then by its client order ID
+     */
+    private TrackedOrder find(ExecutionReportEvent report) {
+        var order = byOrderId.get(report.getOrderId());
+        if (order == null && isSet(report.getOriginalClientOrderId())) {
+            order = byClientOrderId.get(report.getOriginalClientOrderId());
+        }
+        if (order == null && report.getClientOrderId() != null) {
+            order = byClientOrderId.get(report.getClientOrderId());
+        }
+        return order;
+    }
+
+    private TrackedOrder adopt(ExecutionReportEvent report) {
+        var order = new TrackedOrder();
+        order.symbol = report.getSymbol();
+        order.clientOrderId = isSet(report.getOriginalClientOrderId()) ? report.getOriginalClientOrderId()
+                : report.getClientOrderId();
+        order.side = report.getSide();
+        if (order.clientOrderId != null) {
+            byClientOrderId.put(order.clientOrderId, order);
+        }
+        return order;
+    }
+
+    // The exchange sends an empty original client order ID outside of cancels
+    private static boolean isSet(String clientOrderId) {
+        return clientOrderId != null && !clientOrderId.isEmpty();
+    }
+
+    private void finish(TrackedOrder order) {
+        finished.addLast(order);
+        if (finished.size() > MAX_FINISHED_ORDERS) {
+            var oldest = finished.removeFirst();
+            byOrderId.remove(oldest.orderId, oldest);
+            if (oldest.clientOrderId != null) {
+                byClientOrderId.remove(oldest.clientOrderId, oldest);
+            }
+        }
+    }
+
+    /**
+     * Current state of an order, or null if it is not tracked
+     */
+    public synchronized OrderState state(long orderId) {
+        var order = byOrderId.get(orderId);
+        return order == null ? null : order.state;
+    }
+
+    /**
+     * Current state of an order by client order ID, or null if it is not
+     * tracked
+     */
+    public synchronized OrderState state(String clientOrderId) {
+        var order = byClientOrderId.get(clientOrderId);
+        return order == null ? null : order.state;
+    }
+
+    /**
+     * Last list status type of an order list, or null if none was seen
+     */
+    public synchronized String listStatus(long orderListId) {
+        return orderLists.get(orderListId);
+    }
+
+    /**
+     * Orders tracked and not finished yet
+     */
+    public synchronized int openOrderCount() {
+        int open = 0;
+        for (var order : byClientOrderId.values()) {
+            if (order.state != null && !order.state.isTerminal()) {
+                open++;
+            }
+        }
+        return open;
+    }
+
+    /**
+     * State changes applied since startup
+     */
+    public synchronized long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Stale or duplicate reports dropped since startup
+     */
+    public synchronized long getDroppedReports() {
+        return droppedReports;
+    }
+}
@@ -1,50 +1,63 @@
 package com.tradebot.rbm.component;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
-import com.tradebot.rbm.entity.PriceDataEntity;
-import com.tradebot.rbm.repository.PriceDataRepository;
-import com.tradebot.rbm.utils.RecentTradeUtils;
+import com.tradebot.rbm.utils.StreamingBollingerBands;
+import com.tradebot.rbm.utils.StreamingStochasticOscillator;
 import com.tradebot.rbm.utils.TechnicalAnalysisDemo;
-import com.tradebot.rbm.utils.dto.stochasticOscilator.PriceBucket;
+import com.tradebot.rbm.utils.dto.Candle;
+import com.tradebot.rbm.utils.dto.CandleInterval;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Keeps one minute stochastic and Bollinger Bands indicators current, one
+ * closed candle at a time, and reruns the stochastic analysis every time
+ * {@link CandleEngine} closes a candle. The indicators are warmed up from
+ * {@link CandleTailCache} and updated on a processing thread, so neither the
+ * strategy thread nor the analysis waits on the database; persistence is
+ * handled by {@link CandleWriter}.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class RecentTradesProcessor implements ApplicationRunner {
+    // Stochastic results kept for the trend part of the analysis
+    private static final int ANALYSIS_HISTORY = 12;
+
     private Thread processingThread;
-    private final PriceDataRepository priceDataRepository;
+    private final CandleEngine candleEngine;
+    private final CandleTailCache candleTailCache;
+    private final BlockingQueue<Candle> closedCandles = new LinkedBlockingQueue<>();
+    private final StreamingBollingerBands bollingerBands = new StreamingBollingerBands();
+    private final StreamingStochasticOscillator stochastic = new StreamingStochasticOscillator(9, 3,
+            ANALYSIS_HISTORY);
+    private long lastCandleOpenTime = Long.MIN_VALUE;
 
     @Override
     public void run(ApplicationArguments args) throws Exception {
+        candleEngine.addListener(candle -> {
+            if (candle.getInterval() == CandleInterval.ONE_MINUTE) {
+                closedCandles.offer(candle);
+            }
+        });
+
         processingThread = new Thread(() -> {
+            var cachedCandles = candleTailCache.latest(CandleInterval.ONE_MINUTE, candleTailCache.getCapacity());
+            for (int i = cachedCandles.size() - 1; i >= 0; i--) {
+                updateIndicators(cachedCandles.get(i));
+            }
             while (true) {
                 try {
-                    Thread.sleep(60000);
-                    var newBucket = new PriceBucket(LocalDateTime.now());
-                    var tradeInQuestion = RecentTradeUtils.recentTrades.poll();
-                    while (RecentTradeUtils.recentTrades.size() > 1000) {
-                        var tradeData = tradeInQuestion.getTrade();
-                        var price = new BigDecimal(tradeData.getpLowerCase());
-                        var qty = new BigDecimal(tradeData.getqLowerCase());
-                        newBucket.addTrade(price, qty);
-                        tradeInQuestion = RecentTradeUtils.recentTrades.poll();
+                    if (updateIndicators(closedCandles.take()) && stochastic.isReady()) {
+                        TechnicalAnalysisDemo.demonstrateStochasticAnalysis(stochastic.analysis());
                     }
-                    priceDataRepository.save(new PriceDataEntity(newBucket));
-                    var pageable = PageRequest.of(0, 20, Sort.by("id").descending());
-                    var recenCandles = priceDataRepository.findAll(pageable);
-                    TechnicalAnalysisDemo
-                            .demonstrateStochasticAnalysis(recenCandles.map(PriceDataEntity::toPriceData).getContent());
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
@@ -58,4 +71,20 @@ public class RecentTradesProcessor implements ApplicationRunner {
         processingThread.start();
     }
 
+    private boolean updateIndicators(Candle candle) {
+        if (candle.getOpenTime() <= lastCandleOpenTime) {
+            // Already fed during warm-up
+            return false;
+        }
+        lastCandleOpenTime = candle.getOpenTime();
+        stochastic.onCandle(candle);
+        bollingerBands.onCandle(candle);
+        if (bollingerBands.isReady() && log.isDebugEnabled()) {
+            log.debug("1m Bollinger Bands: upper={} middle={} lower={} %B={} width={}% signal={}",
+                    bollingerBands.getUpperBand(), bollingerBands.getMiddleBand(), bollingerBands.getLowerBand(),
+                    bollingerBands.getPercentB(), bollingerBands.getBandWidth(), bollingerBands.getSignal());
+        }
+        return true;
+    }
+
 }
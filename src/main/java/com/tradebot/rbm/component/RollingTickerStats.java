@@ -0,0 +1,110 @@
+package com.tradebot.rbm.component;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.binance.connector.client.spot.rest.model.TickerResponse1;
+import com.tradebot.rbm.entity.dto.TickerDto;
+import com.tradebot.rbm.utils.FixedPoint;
+import com.tradebot.rbm.utils.RollingTickerWindow;
+import com.tradebot.rbm.utils.dto.MarketEvent;
+import com.tradebot.rbm.utils.dto.TickerStats;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rolling window tickers of every traded symbol computed from the trade
+ * stream, in place of the REST rolling window ticker.
+ *
+ * As a {@link MarketEventListener} it folds each trade into the symbol's
+ * {@link RollingTickerWindow} on the strategy thread. {@link #ticker} then
+ * answers with the same {@link TickerDto} the REST call returns, for any window
+ * up to {@code tradebot.ticker-stats.max-window-ms}, at no request weight. Until
+ * the stream has run for as long as the window, counted again from the last
+ * gap in trade IDs, it returns null, as the window would be missing trades.
+ */
+@Slf4j
+@Component
+public class RollingTickerStats implements MarketEventListener {
+
+    // Resolution of the window edges
+    private static final long BUCKET_MILLIS = 1000;
+
+    private final TradingSymbols tradingSymbols;
+    private final Clock clock;
+    private final RollingTickerWindow[] windows;
+
+    public RollingTickerStats(TradingSymbols tradingSymbols, Clock clock,
+            @Value("${tradebot.ticker-stats.max-window-ms:3600000}") long maxWindowMillis) {
+        this.tradingSymbols = tradingSymbols;
+        this.clock = clock;
+        this.windows = new RollingTickerWindow[tradingSymbols.size()];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new RollingTickerWindow(BUCKET_MILLIS, maxWindowMillis);
+        }
+        log.info("Rolling ticker statistics over windows of up to {} ms for symbols: {}", maxWindowMillis,
+                tradingSymbols.all());
+    }
+
+    @Override
+    public void onMarketEvent(MarketEvent event) {
+        if (event.getType() != MarketEvent.Type.TRADE) {
+            return;
+        }
+        var trade = event.getTrade();
+        var tradeId = trade.gettLowerCase();
+        windows[event.getSymbolIndex()].onTrade(tradeId != null ? tradeId : -1,
+                FixedPoint.parse(trade.getpLowerCase(), FixedPoint.BALANCE_SCALE),
+                FixedPoint.parse(trade.getqLowerCase(), FixedPoint.BALANCE_SCALE), trade.getT());
+    }
+
+    /**
+     * Rolling window ticker of a symbol ending now
+     *
+     * @return The ticker, or null if the symbol is not traded, the stream has
+     *         not run for the whole window yet or no trade fell into it
+     */
+    public TickerDto ticker(String symbol, long windowMillis) {
+        int symbolIndex = tradingSymbols.indexOf(symbol);
+        if (symbolIndex < 0) {
+            return null;
+        }
+        var window = windows[symbolIndex];
+        long now = clock.millis();
+        if (windowMillis > window.getMaxWindowMillis() || !window.covers(windowMillis, now)) {
+            return null;
+        }
+        var stats = window.snapshot(windowMillis, now);
+        return stats == null ? null : new TickerDto(toResponse(tradingSymbols.get(symbolIndex), stats));
+    }
+
+    private static TickerResponse1 toResponse(String symbol, TickerStats stats) {
+        var response = new TickerResponse1();
+        response.setSymbol(symbol);
+        response.setPriceChange(decimal(stats.getPriceChange()));
+        response.setPriceChangePercent(decimal(stats.getPriceChangePercent()));
+        response.setWeightedAvgPrice(decimal(stats.getWeightedAvgPrice()));
+        response.setOpenPrice(decimal(stats.getOpenPrice()));
+        response.setHighPrice(decimal(stats.getHighPrice()));
+        response.setLowPrice(decimal(stats.getLowPrice()));
+        response.setLastPrice(decimal(stats.getLastPrice()));
+        response.setVolume(decimal(stats.getVolume()));
+        response.setQuoteVolume(decimal(stats.getQuoteVolume()));
+        response.setOpenTime(stats.getOpenTime());
+        response.setCloseTime(stats.getCloseTime());
+        response.setCount(stats.getCount());
+        return response;
+    }
+
+    // The REST ticker's decimal strings, which the analysis parses as BigDecimal
+    private static String decimal(long value) {
+        return FixedPoint.toBigDecimal(value, FixedPoint.BALANCE_SCALE).toPlainString();
+    }
+
+    private static String decimal(double value) {
+        return BigDecimal.valueOf(value).toPlainString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.tradebot.rbm.component;
+
+import java.time.Clock;
+
+import org.springframework.stereotype.Component;
+
+import com.tradebot.rbm.service.OrderService;
+import com.tradebot.rbm.service.WebsocketTradeService;
+import com.tradebot.rbm.utils.AccountBalanceStore;
+
+/**
+ * One {@link WebsocketTradeService} per traded symbol, indexed like
+ * {@link TradingSymbols}.
+ *
+ * Each strategy owns its trade momentum window, its pending and replaced buy
+ * orders and the {@link TimerService} timers that expire them. Candles are
+ * persisted without a symbol, so only the primary symbol feeds the
+ * {@link CandleEngine}.
+ */
+@Component
+public class StrategyRegistry {
+
+    private final TradingSymbols tradingSymbols;
+    private final WebsocketTradeService[] strategies;
+
+    public StrategyRegistry(TradingSymbols tradingSymbols, OrderService orderService,
+            SymbolRulesRegistry symbolRulesRegistry, AccountBalanceStore balanceStore, OrderTracker orderTracker,
+            CandleEngine candleEngine, Clock clock, TimerService timerService) {
+        this.tradingSymbols = tradingSymbols;
+        this.strategies = new WebsocketTradeService[tradingSymbols.size()];
+        for (int i = 0; i < strategies.length; i++) {
+            var strategy = new WebsocketTradeService(orderService, symbolRulesRegistry, balanceStore,
+                    orderTracker, i == 0 ? candleEngine : null, clock, timerService);
+            strategy.useSymbol(tradingSymbols.get(i));
+            strategies[i] = strategy;
+        }
+    }
+
+    public WebsocketTradeService get(int symbolIndex) {
+        return strategies[symbolIndex];
+    }
+
+    /**
+     * Strategy of a symbol, in any case
+     *
+     * @throws IllegalArgumentException if the symbol is not traded
+     */
+    public WebsocketTradeService get(String symbol) {
+        int index = tradingSymbols.indexOf(symbol);
+        if (index < 0) {
+            throw new IllegalArgumentException("Symbol not traded: " + symbol);
+        }
+        return strategies[index];
+    }
+
+    public int size() {
+        return strategies.length;
+    }
+}
@@ -0,0 +1,101 @@
+package com.tradebot.rbm.component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.binance.connector.client.spot.rest.model.ExchangeInfoResponse;
+import com.tradebot.rbm.adapter.BinanceAdapter;
+import com.tradebot.rbm.utils.SymbolRules;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of precomputed {@link SymbolRules}, built at startup from the
+ * exchange info bean and refreshed periodically so filter changes made by the
+ * exchange are picked up without a restart.
+ *
+ * Lookups are a single read of an immutable map, safe from any thread.
+ */
+@Slf4j
+@Component
+public class SymbolRulesRegistry {
+
+    private final BinanceAdapter binanceAdapter;
+
+    private volatile Map<String, SymbolRules> rules;
+
+    @Autowired
+    public SymbolRulesRegistry(ExchangeInfoResponse tradingSymbol, BinanceAdapter binanceAdapter,
+            TradingSymbols tradingSymbols) {
+        this.binanceAdapter = binanceAdapter;
+        Map<String, SymbolRules> loaded = new HashMap<>(SymbolRules.fromExchangeInfo(tradingSymbol));
+        // The exchange info bean covers binance.trading.symbol, fetch any other traded symbol
+        for (var symbol : tradingSymbols.all()) {
+            if (!loaded.containsKey(symbol)) {
+                loaded.putAll(SymbolRules.fromExchangeInfo(binanceAdapter.exchangeInfo(symbol)));
+            }
+        }
+        this.rules = Map.copyOf(loaded);
+        log.info("Symbol rules loaded for: {}", rules.keySet());
+    }
+
+    /**
+     * Fixed rules that are never refreshed, for running without an exchange
+     * connection
+     */
+    public SymbolRulesRegistry(Map<String, SymbolRules> rules) {
+        this.binanceAdapter = null;
+        this.rules = Map.copyOf(rules);
+    }
+
+    /**
+     * Rules for a symbol, in any case
+     *
+     * @throws IllegalArgumentException if the symbol is not registered
+     */
+    public SymbolRules get(String symbol) {
+        var symbolRules = rules.get(symbol);
+        if (symbolRules == null) {
+            symbolRules = rules.get(symbol.toUpperCase());
+            if (symbolRules == null) {
+                throw new IllegalArgumentException("No symbol rules registered for: " + symbol);
+            }
+        }
+        return symbolRules;
+    }
+
+    /**
+     * Rules for a symbol, in any case, if registered
+     */
+    public Optional<SymbolRules> find(String symbol) {
+        var symbolRules = rules.get(symbol);
+        return Optional.ofNullable(symbolRules != null ? symbolRules : rules.get(symbol.toUpperCase()));
+    }
+
+    /**
+     * Re-reads the exchange info of every registered symbol. On failure the
+     * previous rules stay in place.
+     */
+    @Scheduled(fixedDelayString = "${binance.symbol-rules.refresh-interval-ms:3600000}",
+            initialDelayString = "${binance.symbol-rules.refresh-interval-ms:3600000}")
+    public void refresh() {
+        if (binanceAdapter == null) {
+            return;
+        }
+        Map<String, SymbolRules> refreshed = new HashMap<>(rules);
+        for (var symbol : rules.keySet()) {
+            try {
+                refreshed.putAll(SymbolRules.fromExchangeInfo(binanceAdapter.exchangeInfo(symbol)));
+            } catch (Exception e) {
+                log.warn("Failed to refresh symbol rules for {}, keeping previous rules", symbol, e);
+            }
+        }
+        rules = Map.copyOf(refreshed);
+        log.debug("Symbol rules refreshed for: {}", rules.keySet());
+    }
+}
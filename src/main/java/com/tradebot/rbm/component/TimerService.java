@@ -0,0 +1,171 @@
+package com.tradebot.rbm.component;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.tradebot.rbm.utils.TimerWheel;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The application's one timer: order time-outs, the listenKey keep-alive,
+ * stream reconnect back-off and candle closes all share a single
+ * {@link TimerWheel} instead of a sleeping thread each.
+ *
+ * Live, one daemon thread advances the wheel on the application clock every
+ * {@code tradebot.timers.tick-ms}. Any thread may schedule or cancel: both go
+ * through lock-free queues that the timer thread drains before each tick, so
+ * they are O(1) and never wait for it. Tasks run on the timer thread and must
+ * be short; a task that touches a strategy hands itself to the strategy's
+ * event loop.
+ *
+ * The tape replay never starts the thread; it calls {@link #advanceTo} itself
+ * with the virtual clock before each event, so timers fire on tape time.
+ */
+@Slf4j
+@Component
+public class TimerService {
+
+    /**
+     * A scheduled task, the handle to cancel it with
+     */
+    public static final class Timer {
+        private static final int PENDING = 0;
+        private static final int CANCELED = 1;
+        private static final int EXPIRED = 2;
+
+        private final long deadline;
+        private final Runnable task;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        // Set by the thread advancing the wheel once the timer is in it
+        private TimerWheel.Timeout timeout;
+
+        private Timer(long deadline, Runnable task) {
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Whether the task is still to run
+         */
+        public boolean isPending() {
+            return state.get() == PENDING;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(PENDING, EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Timer task failed", e);
+            }
+        }
+    }
+
+    private final Clock clock;
+    private final long tickMillis;
+    private final TimerWheel wheel;
+    private final ConcurrentLinkedQueue<Timer> scheduled = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Timer> canceled = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public TimerService(Clock clock, @Value("${tradebot.timers.tick-ms:10}") long tickMillis,
+            @Value("${tradebot.timers.wheel-size:512}") int wheelSize) {
+        this.clock = clock;
+        this.tickMillis = tickMillis;
+        this.wheel = new TimerWheel(tickMillis, wheelSize, clock.millis());
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        thread = new Thread(this::timerLoop);
+        thread.setName("TimerWheel");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Timer wheel started with a {} ms tick", tickMillis);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(1));
+        }
+    }
+
+    private void timerLoop() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        while (running && !Thread.currentThread().isInterrupted()) {
+            advanceTo(clock.millis());
+            LockSupport.parkNanos(tickNanos);
+        }
+    }
+
+    /**
+     * Runs a task once {@code delayMillis} have passed on the application clock
+     */
+    public Timer schedule(long delayMillis, Runnable task) {
+        return scheduleAt(clock.millis() + delayMillis, task);
+    }
+
+    /**
+     * Runs a task on the first tick at or past a time of the application clock
+     */
+    public Timer scheduleAt(long deadlineMillis, Runnable task) {
+        var timer = new Timer(deadlineMillis, task);
+        scheduled.offer(timer);
+        return timer;
+    }
+
+    /**
+     * Cancels a timer that has not run yet; null is ignored
+     *
+     * @return false if it already ran or was canceled
+     */
+    public boolean cancel(Timer timer) {
+        if (timer == null || !timer.state.compareAndSet(Timer.PENDING, Timer.CANCELED)) {
+            return false;
+        }
+        canceled.offer(timer);
+        return true;
+    }
+
+    /**
+     * Takes in the timers scheduled and canceled since the last call and runs
+     * those due by {@code nowMillis}. Only the timer thread, or the replay when
+     * the thread is not started, may call it.
+     *
+     * @return Number of tasks run
+     */
+    public int advanceTo(long nowMillis) {
+        Timer timer;
+        while ((timer = scheduled.poll()) != null) {
+            if (timer.isPending()) {
+                timer.timeout = wheel.schedule(timer.deadline, timer::expire);
+            }
+        }
+        while ((timer = canceled.poll()) != null) {
+            // Null when canceled before it reached the wheel
+            wheel.cancel(timer.timeout);
+        }
+        return wheel.advanceTo(nowMillis);
+    }
+}
@@ -0,0 +1,75 @@
+package com.tradebot.rbm.component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The symbols this process trades, from {@code binance.trading.symbols}, or
+ * the single {@code binance.trading.symbol} when no list is set.
+ *
+ * Each symbol has a fixed index in configuration order, so per-symbol state can
+ * live in arrays and hot paths can route events without a map lookup. The
+ * first symbol is the primary one, used by the components that still serve a
+ * single symbol.
+ */
+@Component
+public class TradingSymbols {
+
+    private final List<String> symbols;
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    public TradingSymbols(@Value("${binance.trading.symbols:${binance.trading.symbol:BTCUSDT}}") List<String> symbols) {
+        List<String> distinct = new ArrayList<>();
+        for (var symbol : symbols) {
+            var key = symbol.trim().toUpperCase();
+            if (!key.isEmpty() && !indexes.containsKey(key)) {
+                indexes.put(key, distinct.size());
+                distinct.add(key);
+            }
+        }
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("No trading symbols configured");
+        }
+        this.symbols = Collections.unmodifiableList(distinct);
+    }
+
+    /**
+     * Upper case symbols in index order
+     */
+    public List<String> all() {
+        return symbols;
+    }
+
+    public int size() {
+        return symbols.size();
+    }
+
+    public String get(int index) {
+        return symbols.get(index);
+    }
+
+    public String primary() {
+        return symbols.get(0);
+    }
+
+    /**
+     * Index of a symbol, in any case, or -1 if it is not traded
+     */
+    public int indexOf(String symbol) {
+        var index = indexes.get(symbol);
+        if (index == null) {
+            index = indexes.get(symbol.toUpperCase());
+        }
+        return index == null ? -1 : index;
+    }
+
+    public boolean contains(String symbol) {
+        return indexOf(symbol) >= 0;
+    }
+}
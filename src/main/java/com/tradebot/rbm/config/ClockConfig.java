@@ -0,0 +1,19 @@
+package com.tradebot.rbm.config;
+
+import java.time.Clock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Time source for the strategy. Live trading uses the system clock; the tape
+ * replay swaps in a virtual clock driven by event times.
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+}
@@ -19,7 +19,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.binance.connector.client.spot.rest.model.GetOpenOrdersResponse;
+import com.binance.connector.client.spot.websocket.api.model.OpenOrdersStatusResponse;
 import com.tradebot.rbm.entity.OrderEntity;
 import com.tradebot.rbm.entity.dto.PlaceOrderDto;
 import com.tradebot.rbm.service.OrderService;
@@ -37,13 +37,13 @@ public class OrderController {
     private final OrderService orderService;
 
     @GetMapping("/openOrders/{symbol}")
-    public ResponseEntity<GetOpenOrdersResponse> getOpenOrders(@PathVariable String symbol) {
-        return ResponseEntity.ok(orderService.getOpenOrders(symbol));
+    public ResponseEntity<OpenOrdersStatusResponse> getOpenOrders(@PathVariable String symbol) {
+        return ResponseEntity.ok(orderService.getOpenOrders(symbol).join());
     }
 
     @DeleteMapping("/deleteOrder/{symbol}/{id}")
     public ResponseEntity<Void> deleteOrderBinance(@PathVariable String symbol, @PathVariable Long id) {
-        orderService.deleteBinanceOrder(symbol, id);
+        orderService.deleteBinanceOrder(symbol, id).join();
         return ResponseEntity.noContent().build();
     }
 
@@ -1,5 +1,6 @@
 package com.tradebot.rbm.controller;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -7,8 +8,13 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.tradebot.rbm.component.MarketEventSequencer;
+import com.tradebot.rbm.entity.dto.SequencerStatsDTO;
+import com.tradebot.rbm.entity.dto.SimulatorStatsDTO;
 import com.tradebot.rbm.entity.dto.StreamStatusDTO;
+import com.tradebot.rbm.simulator.ExchangeSimulator;
 import com.tradebot.rbm.websocket.AccountListenerWebsocketStream;
+import com.tradebot.rbm.websocket.MarketStreamMultiplexer;
 import com.tradebot.rbm.websocket.TickerWebsocketStream;
 import com.tradebot.rbm.websocket.TradeWebsocketStream;
 
@@ -21,6 +27,10 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class WebSocketControlController {
 
+    private final MarketEventSequencer marketEventSequencer;
+    private final MarketStreamMultiplexer marketStreams;
+    private final ObjectProvider<ExchangeSimulator> exchangeSimulator;
+
     /**
      * Control trade stream listener
      * POST /api/websocket/trade?enabled=true/false
@@ -97,12 +107,36 @@ public class WebSocketControlController {
                 .tradeStreamEnabled(TradeWebsocketStream.shouldListenToTrades.get())
                 .tickerStreamEnabled(TickerWebsocketStream.shouldListenToTrades.get())
                 .accountStreamEnabled(AccountListenerWebsocketStream.shouldListenToAccount.get())
+                .marketStreamConnected(marketStreams.isConnected())
+                .marketStreamMessages(marketStreams.getMessages())
                 .accountStatusResponse(AccountListenerWebsocketStream.accountStatus)
                 .build();
 
         return ResponseEntity.ok(status);
     }
 
+    /**
+     * Get queue depth and consumer lag of the strategy event loop
+     * GET /api/websocket/sequencer
+     */
+    @GetMapping("/sequencer")
+    public ResponseEntity<SequencerStatsDTO> getSequencerStats() {
+        return ResponseEntity.ok(marketEventSequencer.getStats());
+    }
+
+    /**
+     * Get order counts, account and request latency of the exchange simulator
+     * GET /api/websocket/simulator
+     */
+    @GetMapping("/simulator")
+    public ResponseEntity<SimulatorStatsDTO> getSimulatorStats() {
+        var simulator = exchangeSimulator.getIfAvailable();
+        if (simulator == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(simulator.getStats());
+    }
+
     /**
      * Enable trade stream (convenience method)
      * POST /api/websocket/trade/enable
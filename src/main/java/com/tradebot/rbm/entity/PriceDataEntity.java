@@ -2,14 +2,19 @@ package com.tradebot.rbm.entity;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
+import com.tradebot.rbm.utils.dto.Candle;
+import com.tradebot.rbm.utils.dto.CandleInterval;
 import com.tradebot.rbm.utils.dto.stochasticOscilator.PriceBucket;
 import com.tradebot.rbm.utils.dto.stochasticOscilator.PriceData;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -22,8 +27,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class PriceDataEntity {
+    // Pooled sequence instead of IDENTITY so Hibernate can batch candle inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "price_data_seq")
+    @SequenceGenerator(name = "price_data_seq", sequenceName = "price_data_seq", schema = "tradebot", allocationSize = 50)
     private Long id;
     @NotNull
     private BigDecimal open;
@@ -35,10 +42,14 @@ public class PriceDataEntity {
     private BigDecimal close;
     @NotNull
     private BigDecimal volume;
+    private BigDecimal quoteVolume;
     @NotNull
     private int tradeCount;
     @NotNull
     private LocalDateTime timestamp;
+    // Interval code such as 1m; null for rows written before intervals existed
+    @Column(name = "candle_interval", length = 8)
+    private String candleInterval;
 
     public PriceDataEntity(PriceBucket bucket) {
         this.open = bucket.getOpen();
@@ -50,6 +61,12 @@ public class PriceDataEntity {
         this.timestamp = bucket.getTimestamp();
     }
 
+    public PriceDataEntity(Candle candle) {
+        this(candle.toPriceBucket());
+        this.quoteVolume = BigDecimal.valueOf(candle.getQuoteVolume());
+        this.candleInterval = candle.getInterval().getCode();
+    }
+
     public static PriceData toPriceData(PriceDataEntity entity) {
         return PriceData.builder()
                 .close(entity.getClose())
@@ -58,4 +75,25 @@ public class PriceDataEntity {
                 .timestamp(entity.getTimestamp())
                 .build();
     }
+
+    public Candle toCandle() {
+        var interval = CandleInterval.fromCode(candleInterval);
+        if (interval == null) {
+            // Rows from before intervals were recorded are one minute candles
+            interval = CandleInterval.ONE_MINUTE;
+        }
+        long openTime = timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return Candle.builder()
+                .interval(interval)
+                .openTime(openTime)
+                .closeTime(openTime + interval.getMillis() - 1)
+                .open(open.doubleValue())
+                .high(high.doubleValue())
+                .low(low.doubleValue())
+                .close(close.doubleValue())
+                .volume(volume.doubleValue())
+                .quoteVolume(quoteVolume == null ? 0 : quoteVolume.doubleValue())
+                .tradeCount(tradeCount)
+                .build();
+    }
 }
@@ -3,8 +3,8 @@ package com.tradebot.rbm.entity.dto;
 import java.math.BigDecimal;
 
 import com.binance.connector.client.spot.rest.model.GetAccountResponse;
-import com.binance.connector.client.spot.rest.model.GetOpenOrdersResponse;
 import com.binance.connector.client.spot.rest.model.TickerBookTickerResponse1;
+import com.binance.connector.client.spot.websocket.api.model.OpenOrdersStatusResponse;
 import com.tradebot.rbm.utils.dto.LiquidityAnalysis;
 import com.tradebot.rbm.utils.dto.MarketMomentum;
 import com.tradebot.rbm.utils.dto.ScalpingDecision;
@@ -47,7 +47,7 @@ public class ScalpingDTO {
 
     // Account and order information
     private GetAccountResponse accountInfo;
-    private GetOpenOrdersResponse openOrders;
+    private OpenOrdersStatusResponse openOrders;
     private boolean hasOpenOrders;
     private int openOrdersCount;
 
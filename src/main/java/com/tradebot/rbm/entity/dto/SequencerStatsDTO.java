@@ -0,0 +1,16 @@
+package com.tradebot.rbm.entity.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SequencerStatsDTO {
+    private int shards;
+    private int capacity;
+    private long queueDepth;
+    private long publishedEvents;
+    private long processedEvents;
+    private long lastLagMicros;
+    private long maxLagMicros;
+}
@@ -0,0 +1,21 @@
+package com.tradebot.rbm.entity.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SimulatorStatsDTO {
+    private long placedOrders;
+    private long rejectedOrders;
+    private long canceledOrders;
+    private long fills;
+    private long filledOrders;
+    private int openOrders;
+    private long requests;
+    private long averageRequestMicros;
+    private long maxRequestMicros;
+    private long deliveredEvents;
+    private String baseBalance;
+    private String quoteBalance;
+}
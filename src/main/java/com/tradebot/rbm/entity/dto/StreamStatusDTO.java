@@ -11,6 +11,8 @@ public class StreamStatusDTO {
     private boolean tradeStreamEnabled;
     private boolean tickerStreamEnabled;
     private boolean accountStreamEnabled;
+    private boolean marketStreamConnected;
+    private long marketStreamMessages;
     private AccountStatusResponse accountStatusResponse;
 
 }
@@ -0,0 +1,137 @@
+package com.tradebot.rbm.journal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import com.tradebot.rbm.utils.FixedPoint;
+
+/**
+ * On-disk layout of market data journal segments, shared by
+ * {@link MarketDataJournal} and {@link MarketDataJournalReader}.
+ *
+ * A segment is one preallocated file, little endian:
+ *
+ * <pre>
+ * [0, 64)                 header
+ * [64, 64 + 64 * capacity) fixed-width records, in arrival order
+ * [..., + 16 * indexCapacity) time index entries: event time, record number
+ * </pre>
+ *
+ * The writer fills a record or index entry with plain stores and then
+ * publishes it by bumping the matching count in the header with a release
+ * store, so readers that load the counts with acquire see whole records while
+ * the segment is still being written.
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x4A4D4252; // "RBMJ"
+    static final short VERSION = 1;
+    static final String SUFFIX = ".journal";
+
+    // Prices and quantities are scaled longs with 8 decimals, Binance's precision
+    static final int SCALE = FixedPoint.BALANCE_SCALE;
+
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 64;
+    static final int INDEX_ENTRY_SIZE = 16;
+    // Index capacity as a fraction of the record capacity
+    static final int RECORDS_PER_INDEX_ENTRY = 16;
+
+    // Header fields
+    static final int MAGIC_OFFSET = 0;
+    static final int VERSION_OFFSET = 4;
+    static final int RECORD_SIZE_OFFSET = 6;
+    static final int CAPACITY_OFFSET = 8;
+    static final int INDEX_CAPACITY_OFFSET = 12;
+    static final int RECORD_COUNT_OFFSET = 16;
+    static final int INDEX_COUNT_OFFSET = 24;
+    static final int FIRST_TIME_OFFSET = 32;
+    static final int SEALED_OFFSET = 40;
+    static final int SYMBOL_OFFSET = 44;
+    static final int MAX_SYMBOL_LENGTH = 19;
+
+    // Record fields. Trades and tickers share the layout, the last two slots
+    // hold the trade time or the ask side
+    static final int TYPE_OFFSET = 0;
+    static final int FLAGS_OFFSET = 4;
+    static final int EVENT_TIME_OFFSET = 8;
+    static final int RECEIVE_TIME_OFFSET = 16;
+    static final int ID_OFFSET = 24;
+    static final int PRICE_OFFSET = 32;
+    static final int QUANTITY_OFFSET = 40;
+    static final int TRADE_TIME_OFFSET = 48;
+    static final int ASK_PRICE_OFFSET = 48;
+    static final int ASK_QUANTITY_OFFSET = 56;
+
+    static final int TRADE = 1;
+    static final int TICKER = 2;
+    static final int BUYER_MAKER = 1;
+
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    // Ordered access to the header counts of a mapped segment
+    static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ORDER);
+    static final VarHandle INT = MethodHandles.byteBufferViewVarHandle(int[].class, ORDER);
+
+    private JournalFormat() {
+    }
+
+    /**
+     * Number of records that fit a segment of about {@code segmentBytes},
+     * leaving room for the header and its share of the index
+     */
+    static int capacity(long segmentBytes) {
+        // One index entry per group of records, and a mapping is limited to 2 GB
+        long groupSize = (long) RECORD_SIZE * RECORDS_PER_INDEX_ENTRY + INDEX_ENTRY_SIZE;
+        long capacity = (segmentBytes - HEADER_SIZE) / groupSize * RECORDS_PER_INDEX_ENTRY;
+        if (capacity < RECORDS_PER_INDEX_ENTRY || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Unsupported journal segment size: " + segmentBytes);
+        }
+        return (int) capacity;
+    }
+
+    static long segmentSize(int capacity, int indexCapacity) {
+        return HEADER_SIZE + (long) capacity * RECORD_SIZE + (long) indexCapacity * INDEX_ENTRY_SIZE;
+    }
+
+    static int recordOffset(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    static int indexOffset(int capacity, int entry) {
+        return HEADER_SIZE + capacity * RECORD_SIZE + entry * INDEX_ENTRY_SIZE;
+    }
+
+    /**
+     * Segment file name, ordered by sequence number when sorted as text
+     */
+    static String fileName(String symbol, long sequence) {
+        return String.format("%s-%010d%s", symbol, sequence, SUFFIX);
+    }
+
+    /**
+     * Sequence number of a segment file of the symbol, or -1 for other files
+     */
+    static long sequenceOf(Path file, String symbol) {
+        var name = file.getFileName().toString();
+        var prefix = symbol + "-";
+        if (!name.startsWith(prefix) || !name.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(prefix.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static byte[] symbolBytes(String symbol) {
+        var bytes = symbol.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > MAX_SYMBOL_LENGTH) {
+            throw new IllegalArgumentException("Symbol too long for the journal header: " + symbol);
+        }
+        return bytes;
+    }
+}
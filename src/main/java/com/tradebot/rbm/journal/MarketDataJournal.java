@@ -0,0 +1,110 @@
+package com.tradebot.rbm.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.tradebot.rbm.component.TradingSymbols;
+import com.tradebot.rbm.utils.dto.MarketEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of every trade and book ticker the strategy processes.
+ *
+ * Each traded symbol has its own series of segment files. Events are written
+ * as fixed-width binary records into memory-mapped segment files of
+ * {@code tradebot.journal.segment-size-mb}; when a segment is full the next one
+ * is created and the full one sealed. Each segment carries a sparse time index
+ * with an entry at most every {@code tradebot.journal.index-interval-ms}, which
+ * {@link MarketDataJournalReader#seek(long)} uses to find a point in time
+ * without scanning. See {@link JournalFormat} for the layout.
+ *
+ * Appending is a few stores into the mapped segment, done by the strategy
+ * thread just before it hands the event to the strategy, so the websocket
+ * threads never wait on the journal and nothing is serialized back to JSON.
+ * Records reach the page cache immediately and survive a process crash; the
+ * OS writes them back to disk, and only the open segments are forced at
+ * shutdown. If the journal cannot create a segment it logs the error and stops
+ * recording the symbol instead of disturbing trading.
+ *
+ * One writer per symbol; append from the event loop shard owning the symbol
+ * only.
+ */
+@Slf4j
+@Component
+public class MarketDataJournal {
+
+    private final boolean enabled;
+    private final Path directory;
+    private final SegmentWriter[] writers;
+
+    public MarketDataJournal(@Value("${tradebot.journal.enabled:false}") boolean enabled,
+            @Value("${tradebot.journal.directory:journal}") String directory,
+            TradingSymbols tradingSymbols,
+            @Value("${tradebot.journal.segment-size-mb:256}") long segmentSizeMb,
+            @Value("${tradebot.journal.index-interval-ms:1000}") long indexIntervalMillis) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        int capacity = JournalFormat.capacity(segmentSizeMb << 20);
+        this.writers = new SegmentWriter[tradingSymbols.size()];
+        for (int i = 0; i < writers.length; i++) {
+            writers[i] = new SegmentWriter(this.directory, tradingSymbols.get(i), capacity, indexIntervalMillis);
+        }
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        for (var writer : writers) {
+            writer.open();
+        }
+    }
+
+    /**
+     * Appends an event taken off the sequencer ring
+     */
+    public void append(MarketEvent event) {
+        var writer = writers[event.getSymbolIndex()];
+        if (event.getType() == MarketEvent.Type.TRADE) {
+            writer.appendTrade(event.getTrade(), event.getReceiveMillis());
+        } else if (event.getType() == MarketEvent.Type.TICKER) {
+            writer.appendTicker(event.getTicker(), event.getReceiveMillis());
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        for (var writer : writers) {
+            writer.close();
+        }
+    }
+
+    /**
+     * Records appended since startup, over all symbols
+     */
+    public long getAppendedRecords() {
+        long records = 0;
+        for (var writer : writers) {
+            records += writer.getAppendedRecords();
+        }
+        return records;
+    }
+
+    public boolean isEnabled() {
+        for (var writer : writers) {
+            if (writer.isOpen()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,268 @@
+package com.tradebot.rbm.journal;
+
+import static com.tradebot.rbm.journal.JournalFormat.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * Zero-copy cursor over the segments {@link MarketDataJournal} wrote for one
+ * symbol, for replay and analytics.
+ *
+ * Segments are mapped read only and every accessor reads the current record
+ * straight out of the mapping, so iterating allocates nothing. Prices and
+ * quantities are scaled longs at {@link #SCALE} decimals.
+ *
+ * The journal may be read while it is being written: {@link #next()} returns
+ * false once it has caught up with the writer and can simply be called again
+ * later to pick up new records, including across segment rolls.
+ *
+ * Not thread safe; use one reader per thread.
+ */
+public class MarketDataJournalReader {
+
+    public static final int SCALE = JournalFormat.SCALE;
+
+    private final Path directory;
+    private final String symbol;
+
+    private ByteBuffer segment;
+    private long sequence = -1;
+    // Next record to read and byte offset of the current one
+    private int position;
+    private int offset = -1;
+    // Set by seek to hand out the current record again on the next call
+    private boolean rewound;
+
+    public MarketDataJournalReader(Path directory, String symbol) {
+        this.directory = directory;
+        this.symbol = symbol.toUpperCase();
+    }
+
+    /**
+     * Moves to the next record
+     *
+     * @return false when there is no further record yet
+     */
+    public boolean next() throws IOException {
+        if (rewound) {
+            rewound = false;
+            return true;
+        }
+        while (true) {
+            if (segment == null && !openAfter(sequence)) {
+                return false;
+            }
+            // Read the seal first: once it is set the count is final
+            boolean sealed = (int) INT.getAcquire(segment, SEALED_OFFSET) != 0;
+            long count = (long) LONG.getAcquire(segment, RECORD_COUNT_OFFSET);
+            if (position < count) {
+                offset = recordOffset(position++);
+                return true;
+            }
+            if (!sealed) {
+                return false;
+            }
+            segment = null;
+        }
+    }
+
+    /**
+     * Positions the reader so that {@link #next()} returns the first record with
+     * an event time at or after {@code time}, or nothing if there is none yet.
+     * Uses the segment time indexes and then scans at most one index interval.
+     */
+    public void seek(long time) throws IOException {
+        // Last segment starting at or before the time, else the first one
+        long start = -1;
+        long first = -1;
+        for (long candidate : sequences()) {
+            long firstTime = firstTime(candidate);
+            if (firstTime == Long.MIN_VALUE) {
+                continue;
+            }
+            if (first < 0) {
+                first = candidate;
+            }
+            if (firstTime <= time) {
+                start = candidate;
+            }
+        }
+        start = start >= 0 ? start : first;
+        rewound = false;
+        offset = -1;
+        if (start < 0) {
+            segment = null;
+            sequence = -1;
+            return;
+        }
+        open(start);
+        position = indexedRecord(time);
+        while (next()) {
+            if (eventTime() >= time) {
+                rewound = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Record of the last index entry at or before the time, found by binary
+     * search, or the first record
+     */
+    private int indexedRecord(long time) {
+        int capacity = segment.getInt(CAPACITY_OFFSET);
+        int low = 0;
+        int high = (int) (long) LONG.getAcquire(segment, INDEX_COUNT_OFFSET) - 1;
+        int record = 0;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = indexOffset(capacity, middle);
+            if (segment.getLong(entry) <= time) {
+                record = (int) segment.getLong(entry + 8);
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return record;
+    }
+
+    private boolean openAfter(long previous) throws IOException {
+        long next = Long.MAX_VALUE;
+        for (long candidate : sequences()) {
+            if (candidate > previous && candidate < next) {
+                next = candidate;
+            }
+        }
+        if (next == Long.MAX_VALUE) {
+            return false;
+        }
+        open(next);
+        return true;
+    }
+
+    private void open(long segmentSequence) throws IOException {
+        try (var channel = FileChannel.open(directory.resolve(fileName(symbol, segmentSequence)),
+                StandardOpenOption.READ)) {
+            var mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ORDER);
+            if (mapped.getInt(MAGIC_OFFSET) != MAGIC || mapped.getShort(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Not a version " + VERSION + " journal segment: " + segmentSequence);
+            }
+            segment = mapped;
+        }
+        sequence = segmentSequence;
+        position = 0;
+    }
+
+    /**
+     * Event time of the first record of a segment, or Long.MIN_VALUE if it has
+     * none
+     */
+    private long firstTime(long segmentSequence) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+        try (var channel = FileChannel.open(directory.resolve(fileName(symbol, segmentSequence)),
+                StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete
+            }
+        }
+        if (header.hasRemaining() || header.getLong(RECORD_COUNT_OFFSET) == 0) {
+            return Long.MIN_VALUE;
+        }
+        return header.getLong(FIRST_TIME_OFFSET);
+    }
+
+    private long[] sequences() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new long[0];
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToLong(file -> sequenceOf(file, symbol)).filter(value -> value >= 0).sorted().toArray();
+        }
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Sequence number of the segment holding the current record
+     */
+    public long segmentSequence() {
+        return sequence;
+    }
+
+    public boolean isTrade() {
+        return segment.getInt(offset + TYPE_OFFSET) == TRADE;
+    }
+
+    public boolean isTicker() {
+        return segment.getInt(offset + TYPE_OFFSET) == TICKER;
+    }
+
+    /**
+     * Exchange event time of a trade, or receive time of a book ticker
+     */
+    public long eventTime() {
+        return segment.getLong(offset + EVENT_TIME_OFFSET);
+    }
+
+    /**
+     * Local time the stream received the event
+     */
+    public long receiveTime() {
+        return segment.getLong(offset + RECEIVE_TIME_OFFSET);
+    }
+
+    /**
+     * Trade ID, or order book update ID of a book ticker
+     */
+    public long id() {
+        return segment.getLong(offset + ID_OFFSET);
+    }
+
+    /**
+     * Trade price, or best bid price of a book ticker
+     */
+    public long price() {
+        return segment.getLong(offset + PRICE_OFFSET);
+    }
+
+    /**
+     * Trade quantity, or best bid quantity of a book ticker
+     */
+    public long quantity() {
+        return segment.getLong(offset + QUANTITY_OFFSET);
+    }
+
+    public boolean isBuyerMaker() {
+        return (segment.getInt(offset + FLAGS_OFFSET) & BUYER_MAKER) != 0;
+    }
+
+    /**
+     * Trade time of a trade
+     */
+    public long tradeTime() {
+        return segment.getLong(offset + TRADE_TIME_OFFSET);
+    }
+
+    /**
+     * Best ask price of a book ticker
+     */
+    public long askPrice() {
+        return segment.getLong(offset + ASK_PRICE_OFFSET);
+    }
+
+    /**
+     * Best ask quantity of a book ticker
+     */
+    public long askQuantity() {
+        return segment.getLong(offset + ASK_QUANTITY_OFFSET);
+    }
+}
@@ -0,0 +1,211 @@
+package com.tradebot.rbm.journal;
+
+import static com.tradebot.rbm.journal.JournalFormat.*;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.binance.connector.client.spot.websocket.stream.model.BookTickerResponse;
+import com.binance.connector.client.spot.websocket.stream.model.TradeResponse;
+import com.tradebot.rbm.utils.FixedPoint;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Segment files of one symbol in the {@link MarketDataJournal}.
+ *
+ * Single writer; only the event loop shard that owns the symbol appends.
+ */
+@Slf4j
+class SegmentWriter {
+
+    private final Path directory;
+    private final String symbol;
+    private final int capacity;
+    private final int indexCapacity;
+    private final long indexIntervalMillis;
+
+    private MappedByteBuffer segment;
+    private long sequence;
+    private int recordCount;
+    private int indexCount;
+    private long nextIndexTime;
+    private boolean failed;
+
+    private final AtomicLong appendedRecords = new AtomicLong();
+
+    SegmentWriter(Path directory, String symbol, int capacity, long indexIntervalMillis) {
+        this.directory = directory;
+        this.symbol = symbol;
+        this.capacity = capacity;
+        this.indexCapacity = capacity / RECORDS_PER_INDEX_ENTRY;
+        this.indexIntervalMillis = indexIntervalMillis;
+        symbolBytes(symbol);
+    }
+
+    void open() throws IOException {
+        // Seal what a previous run left open so readers move past it
+        long lastSequence = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (var file : (Iterable<Path>) files::iterator) {
+                long fileSequence = sequenceOf(file, symbol);
+                if (fileSequence >= 0) {
+                    sealExisting(file);
+                    lastSequence = Math.max(lastSequence, fileSequence);
+                }
+            }
+        }
+        sequence = lastSequence;
+        segment = createSegment(++sequence);
+        log.info("Market data journal writing {} to {}, {} records per segment", symbol, directory, capacity);
+    }
+
+    private void sealExisting(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() < HEADER_SIZE) {
+                return;
+            }
+            var header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE).order(ORDER);
+            if (header.getInt(MAGIC_OFFSET) == MAGIC && header.getInt(SEALED_OFFSET) == 0) {
+                header.putInt(SEALED_OFFSET, 1);
+                log.info("Sealed journal segment {} left open by a previous run", file.getFileName());
+            }
+        }
+    }
+
+    private MappedByteBuffer createSegment(long segmentSequence) throws IOException {
+        var path = directory.resolve(fileName(symbol, segmentSequence));
+        MappedByteBuffer mapped;
+        try (var channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize(capacity, indexCapacity));
+        }
+        mapped.order(ORDER);
+        mapped.putInt(MAGIC_OFFSET, MAGIC);
+        mapped.putShort(VERSION_OFFSET, VERSION);
+        mapped.putShort(RECORD_SIZE_OFFSET, (short) RECORD_SIZE);
+        mapped.putInt(CAPACITY_OFFSET, capacity);
+        mapped.putInt(INDEX_CAPACITY_OFFSET, indexCapacity);
+        var symbolBytes = symbolBytes(symbol);
+        mapped.put(SYMBOL_OFFSET, (byte) symbolBytes.length);
+        mapped.put(SYMBOL_OFFSET + 1, symbolBytes);
+        recordCount = 0;
+        indexCount = 0;
+        nextIndexTime = Long.MIN_VALUE;
+        return mapped;
+    }
+
+    void appendTrade(TradeResponse trade, long receiveTime) {
+        if (segment == null) {
+            return;
+        }
+        append(TRADE, Boolean.TRUE.equals(trade.getmLowerCase()) ? BUYER_MAKER : 0, orZero(trade.getE()),
+                receiveTime, orZero(trade.gettLowerCase()), FixedPoint.parse(trade.getpLowerCase(), SCALE),
+                FixedPoint.parse(trade.getqLowerCase(), SCALE), orZero(trade.getT()), 0);
+    }
+
+    /**
+     * Appends a book ticker, which has no event time of its own and is indexed by
+     * its receive time
+     */
+    void appendTicker(BookTickerResponse ticker, long receiveTime) {
+        if (segment == null) {
+            return;
+        }
+        append(TICKER, 0, receiveTime, receiveTime, orZero(ticker.getU()),
+                FixedPoint.parse(ticker.getbLowerCase(), SCALE), FixedPoint.parse(ticker.getB(), SCALE),
+                FixedPoint.parse(ticker.getaLowerCase(), SCALE), FixedPoint.parse(ticker.getA(), SCALE));
+    }
+
+    private void append(int type, int flags, long eventTime, long receiveTime, long id, long price, long quantity,
+            long slot6, long slot7) {
+        if (recordCount == capacity && !roll()) {
+            return;
+        }
+        var buffer = segment;
+        int offset = recordOffset(recordCount);
+        buffer.putInt(offset + TYPE_OFFSET, type);
+        buffer.putInt(offset + FLAGS_OFFSET, flags);
+        buffer.putLong(offset + EVENT_TIME_OFFSET, eventTime);
+        buffer.putLong(offset + RECEIVE_TIME_OFFSET, receiveTime);
+        buffer.putLong(offset + ID_OFFSET, id);
+        buffer.putLong(offset + PRICE_OFFSET, price);
+        buffer.putLong(offset + QUANTITY_OFFSET, quantity);
+        buffer.putLong(offset + TRADE_TIME_OFFSET, slot6);
+        buffer.putLong(offset + ASK_QUANTITY_OFFSET, slot7);
+        if (recordCount == 0) {
+            buffer.putLong(FIRST_TIME_OFFSET, eventTime);
+        }
+        int record = recordCount++;
+        LONG.setRelease(buffer, RECORD_COUNT_OFFSET, (long) recordCount);
+        appendedRecords.lazySet(appendedRecords.get() + 1);
+
+        if (eventTime >= nextIndexTime && indexCount < indexCapacity) {
+            int entry = indexOffset(capacity, indexCount++);
+            buffer.putLong(entry, eventTime);
+            buffer.putLong(entry + 8, record);
+            LONG.setRelease(buffer, INDEX_COUNT_OFFSET, (long) indexCount);
+            nextIndexTime = (eventTime / indexIntervalMillis + 1) * indexIntervalMillis;
+        }
+    }
+
+    /**
+     * Starts the next segment, then seals the full one so a reader that sees the
+     * seal always finds its successor
+     */
+    private boolean roll() {
+        if (failed) {
+            return false;
+        }
+        var full = segment;
+        try {
+            segment = createSegment(++sequence);
+        } catch (IOException e) {
+            failed = true;
+            segment = null;
+            log.error("Cannot create journal segment {} of {}, journaling of the symbol stopped", sequence, symbol,
+                    e);
+            return false;
+        } finally {
+            seal(full);
+        }
+        return true;
+    }
+
+    /**
+     * Marks a segment complete for readers. Its pages are left for the OS to
+     * write back: forcing a whole segment from the event loop would stall the
+     * shard's strategies on every roll.
+     */
+    private static void seal(MappedByteBuffer buffer) {
+        INT.setRelease(buffer, SEALED_OFFSET, 1);
+    }
+
+    void close() {
+        if (segment != null) {
+            seal(segment);
+            // Off the event loop at shutdown, so the last segment can be flushed
+            segment.force();
+            segment = null;
+            log.info("Market data journal of {} closed after {} records", symbol, appendedRecords.get());
+        }
+    }
+
+    long getAppendedRecords() {
+        return appendedRecords.get();
+    }
+
+    boolean isOpen() {
+        return segment != null;
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -1,9 +1,20 @@
 package com.tradebot.rbm.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.tradebot.rbm.entity.PriceDataEntity;
 
 public interface PriceDataRepository extends JpaRepository<PriceDataEntity, Long> {
 
+    List<PriceDataEntity> findByCandleIntervalOrderByTimestampDesc(String candleInterval, Pageable pageable);
+
+    /**
+     * Candles of an interval together with the rows written before intervals
+     * were recorded, which are one minute candles
+     */
+    List<PriceDataEntity> findByCandleIntervalOrCandleIntervalIsNullOrderByTimestampDesc(String candleInterval,
+            Pageable pageable);
 }
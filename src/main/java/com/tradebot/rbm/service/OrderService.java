@@ -1,20 +1,32 @@
 package com.tradebot.rbm.service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.binance.connector.client.common.ApiResponse;
 import com.binance.connector.client.spot.rest.model.DepthResponse;
-import com.binance.connector.client.spot.rest.model.GetOpenOrdersResponse;
-import com.binance.connector.client.spot.rest.model.OrderOcoRequest;
-import com.binance.connector.client.spot.rest.model.OrderOcoResponse;
+import com.binance.connector.client.spot.websocket.api.model.OpenOrdersStatusResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoResponse;
 import com.binance.connector.client.spot.websocket.api.model.OrderPlaceRequest;
-import com.tradebot.rbm.adapter.BinanceAdapter;
+import com.binance.connector.client.spot.websocket.api.model.OrderPlaceResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderType;
+import com.binance.connector.client.spot.websocket.api.model.Side;
+import com.binance.connector.client.spot.websocket.api.model.TimeInForce;
+import com.tradebot.rbm.adapter.OrderGateway;
+import com.tradebot.rbm.component.OrderBookRegistry;
+import com.tradebot.rbm.component.SymbolRulesRegistry;
 import com.tradebot.rbm.entity.OrderEntity;
 import com.tradebot.rbm.entity.dto.PlaceOrderDto;
 import com.tradebot.rbm.repository.OrderRepository;
@@ -30,7 +42,9 @@ import lombok.extern.slf4j.Slf4j;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final BinanceAdapter binanceAdapter;
+    private final OrderGateway orderGateway;
+    private final OrderBookRegistry orderBooks;
+    private final SymbolRulesRegistry symbolRulesRegistry;
 
     public OrderEntity createOrder(OrderEntity order) {
         log.info("Creating new order for symbol: {}, side: {}, quantity: {}",
@@ -175,34 +189,126 @@ public class OrderService {
         return orderRepository.countByStatus(status);
     }
 
-    public GetOpenOrdersResponse getOpenOrders(String symbol) {
-        return binanceAdapter.openOrders(symbol);
+    public CompletableFuture<OpenOrdersStatusResponse> getOpenOrders(String symbol) {
+        return orderGateway.openOrders(symbol);
     }
 
-    public void deleteBinanceOrder(String symbol, Long id) {
-        binanceAdapter.cancelOrder(symbol, id);
+    public CompletableFuture<OrderCancelResponse> deleteBinanceOrder(String symbol, Long id) {
+        return orderGateway.cancelOrder(symbol, id).whenComplete((response, error) -> {
+            if (error != null) {
+                log.warn("Cancel of order {} failed: {}", id, error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Cancels an order by its client order ID, for an order the exchange has not
+     * acknowledged yet
+     */
+    public CompletableFuture<OrderCancelResponse> cancelClientOrder(String symbol, String clientOrderId) {
+        return orderGateway.cancelClientOrder(symbol, clientOrderId).whenComplete((response, error) -> {
+            if (error != null) {
+                log.warn("Cancel of order {} failed: {}", clientOrderId, error.getMessage());
+            }
+        });
     }
 
     public void placeOrder(PlaceOrderDto order) {
-        var resultingOrder = binanceAdapter.placeOrder(order);
+        // Snap price, stop and amount to the symbol's tick and lot step sizes
+        symbolRulesRegistry.find(order.getTicker()).ifPresent(rules -> {
+            order.setPrice(rules.roundPrice(BigDecimal.valueOf(order.getPrice()), RoundingMode.HALF_UP).doubleValue());
+            order.setStop(rules.roundPrice(BigDecimal.valueOf(order.getStop()), RoundingMode.HALF_UP).doubleValue());
+            order.setAmount(rules.floorQuantity(BigDecimal.valueOf(order.getAmount())).doubleValue());
+        });
+        var request = new OrderPlaceRequest();
+        request.setSymbol(order.getTicker());
+        request.setSide(Side.fromValue(order.getSide().getValue()));
+        request.setType(OrderType.fromValue(order.getType().getValue()));
+        request.setPrice(order.getPrice());
+        request.setQuantity(order.getAmount());
+        request.setTimeInForce(TimeInForce.GTC);
+        if (request.getType() == OrderType.STOP_LOSS_LIMIT || request.getType() == OrderType.STOP_LOSS) {
+            request.setStopPrice(order.getStop());
+        }
+        var resultingOrder = orderGateway.placeOrder(request).join();
         log.info("Order placed successfully: {}", resultingOrder.toJson());
         // Save the order details to the database
         // orderRepository.save(new OrderEntity(resultingOrder));
     }
 
-    public void placeWsOrder(OrderPlaceRequest order, PendingBuyOrderDTO pendingOrder) {
-        binanceAdapter.placeWsOrder(order, pendingOrder);
+    /**
+     * Places an order and sets its exchange order ID on {@code pendingOrder} once
+     * acknowledged
+     *
+     * @return The response, completed exceptionally if the request failed
+     */
+    public CompletableFuture<OrderPlaceResponse> placeWsOrder(OrderPlaceRequest order,
+            PendingBuyOrderDTO pendingOrder) {
+        return orderGateway.placeOrder(order).whenComplete((response, error) -> {
+            if (error != null) {
+                log.error("Order {} failed: {}", order.getNewClientOrderId(), error.getMessage());
+            } else if (response.getResult() != null) {
+                pendingOrder.setBinanceOrderId(response.getResult().getOrderId());
+            }
+        });
     }
 
-    public OrderOcoResponse placeOcoOrder(OrderOcoRequest order) {
-        var resultingOrder = binanceAdapter.placeOcoOrder(order);
-        log.info("OCO Order placed successfully: {}", resultingOrder.toJson());
-        // Save the order details to the database
-        // orderRepository.save(new OrderEntity(resultingOrder));
-        return resultingOrder;
+    public CompletableFuture<OrderListPlaceOcoResponse> placeOcoOrder(OrderListPlaceOcoRequest order) {
+        return orderGateway.placeOcoOrder(order).whenComplete((response, error) -> {
+            if (error != null) {
+                log.error("OCO order {} failed: {}", order.getListClientOrderId(), error.getMessage());
+            } else {
+                log.info("OCO Order placed successfully: {}", response.toJson());
+            }
+        });
+    }
+
+    public CompletableFuture<OrderListPlaceOtoResponse> placeOtoOrder(OrderListPlaceOtoRequest order) {
+        return orderGateway.placeOtoOrder(order).whenComplete((response, error) -> {
+            if (error != null) {
+                log.error("OTO order {} failed: {}", order.getListClientOrderId(), error.getMessage());
+            } else {
+                log.info("OTO Order placed successfully: {}", response.toJson());
+            }
+        });
+    }
+
+    public CompletableFuture<OrderCancelReplaceResponse> cancelReplaceOrder(OrderCancelReplaceRequest order) {
+        return orderGateway.cancelReplaceOrder(order).whenComplete((response, error) -> {
+            if (error != null) {
+                log.warn("Cancel-replace of order {} failed: {}", order.getCancelOrderId(), error.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Order book depth served from the local book when it is in sync, falling
+     * back to the REST endpoint otherwise and for symbols that are not traded
+     */
+    public DepthResponse depth(String symbol, Integer limit) {
+        var orderBook = orderBooks.find(symbol);
+        if (orderBook != null && orderBook.isSynced()) {
+            return orderBook.depth(limit);
+        }
+        log.debug("No synced local order book for {}, fetching depth over REST", symbol);
+        return orderGateway.depthSnapshot(symbol.toUpperCase(), limit);
+    }
+
+    /**
+     * Best bid from the local order book, or null while it is not synced or the
+     * symbol is not traded. Never calls REST, so the strategy thread may use it.
+     */
+    public BigDecimal bestBid(String symbol) {
+        var orderBook = orderBooks.find(symbol);
+        return orderBook != null && orderBook.isSynced() ? orderBook.bestBid() : null;
     }
 
-    public ApiResponse<DepthResponse> depth(String symbol, Integer limit) {
-        return binanceAdapter.depth(symbol.toUpperCase(), limit);
+    /**
+     * Best ask from the local order book, or null while it is not synced or the
+     * symbol is not traded. Never calls REST, so the strategy thread may use it.
+     */
+    public BigDecimal bestAsk(String symbol) {
+        var orderBook = orderBooks.find(symbol);
+        return orderBook != null && orderBook.isSynced() ? orderBook.bestAsk() : null;
     }
 }
@@ -2,15 +2,20 @@ package com.tradebot.rbm.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.binance.connector.client.spot.rest.model.GetAccountResponse;
-import com.binance.connector.client.spot.rest.model.GetOpenOrdersResponse;
 import com.binance.connector.client.spot.rest.model.OrderType;
 import com.binance.connector.client.spot.rest.model.Side;
 import com.binance.connector.client.spot.rest.model.WindowSize;
+import com.binance.connector.client.spot.websocket.api.model.OpenOrdersStatusResponse;
+import com.tradebot.rbm.component.RollingTickerStats;
 import com.tradebot.rbm.entity.dto.PlaceOrderDto;
 import com.tradebot.rbm.entity.dto.ScalpingDTO;
 import com.tradebot.rbm.entity.dto.TickerDto;
@@ -20,19 +25,37 @@ import com.tradebot.rbm.utils.dto.MarketMomentum;
 import com.tradebot.rbm.utils.dto.ScalpingDecision;
 import com.tradebot.rbm.utils.dto.VolumeAnalysis;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * REST-driven scalping evaluation. The account, the three rolling ticker
+ * windows, the book ticker and the open orders it reads are independent, so
+ * they are fetched in parallel on Spring's application task executor, which
+ * runs on virtual threads with {@code spring.threads.virtual.enabled}. The
+ * rolling tickers come from {@link RollingTickerStats} once the trade stream
+ * covers their window, and only from REST before that.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class TradeService {
 
     private final WalletService walletService;
     private final SpotService spotService;
     private final OrderService orderService;
     private final VolumeAnalysisUtils volumeUtils;
+    private final RollingTickerStats tickerStats;
+    private final AsyncTaskExecutor fetchExecutor;
+
+    public TradeService(WalletService walletService, SpotService spotService, OrderService orderService,
+            VolumeAnalysisUtils volumeUtils, RollingTickerStats tickerStats,
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor fetchExecutor) {
+        this.walletService = walletService;
+        this.spotService = spotService;
+        this.orderService = orderService;
+        this.volumeUtils = volumeUtils;
+        this.tickerStats = tickerStats;
+        this.fetchExecutor = fetchExecutor;
+    }
 
     // Trading configuration - could be moved to application.yaml later
     private static final BigDecimal PROFIT_MARGIN_PERCENTAGE = new BigDecimal("0.3"); // 0.3%
@@ -41,6 +64,9 @@ public class TradeService {
     private static final BigDecimal PRICE_DROP_THRESHOLD = new BigDecimal("1.0"); // 1% price drop to trigger buy
     private static final int QUANTITY_PRECISION = 6; // Decimal places for quantity
     private static final int PRICE_PRECISION = 8; // Decimal places for price
+    private static final long SHORT_WINDOW_MILLIS = 60_000;
+    private static final long MID_WINDOW_MILLIS = 180_000;
+    private static final long LONG_WINDOW_MILLIS = 300_000;
 
     /**
      * Main trading method - executes the algorithmic trading strategy
@@ -53,31 +79,31 @@ public class TradeService {
         try {
             log.info("Starting trade analysis for symbol: {}", symbol);
 
-            // Step 1: Get account balance information
-            GetAccountResponse accountInfo = walletService.accountInfo();
-            if (accountInfo == null) {
+            // Steps 1 to 3 are independent, so the account, the market tickers and
+            // the open orders are fetched together: one round trip instead of six
+            CompletableFuture<GetAccountResponse> accountInfo = fetch(walletService::accountInfo);
+            CompletableFuture<TickerDto> shortTerm = ticker(symbol, WindowSize.WINDOW_SIZE_1m, SHORT_WINDOW_MILLIS);
+            CompletableFuture<TickerDto> midTerm = ticker(symbol, WindowSize.WINDOW_SIZE_3m, MID_WINDOW_MILLIS);
+            CompletableFuture<TickerDto> longTerm = ticker(symbol, WindowSize.WINDOW_SIZE_5m, LONG_WINDOW_MILLIS);
+            var book = fetch(() -> spotService.getBookTicker(symbol));
+            // Sent over the WebSocket API session, already asynchronous
+            CompletableFuture<OpenOrdersStatusResponse> openOrders = orderService.getOpenOrders(symbol);
+            awaitAll(accountInfo, shortTerm, midTerm, longTerm, book, openOrders);
+
+            if (accountInfo.join() == null) {
                 log.error("Failed to retrieve account information");
                 return "FAILED: Unable to get account info";
             }
-
-            // Step 2: Get market ticker information
-            TickerDto shortTerm = spotService.ticker(symbol, WindowSize.WINDOW_SIZE_1m);
-            TickerDto midTerm = spotService.ticker(symbol, WindowSize.WINDOW_SIZE_3m);
-            TickerDto longTerm = spotService.ticker(symbol, WindowSize.WINDOW_SIZE_5m);
-            var book = spotService.getBookTicker(symbol);
-
-            // Step 3: Check existing open orders
-            GetOpenOrdersResponse openOrders = orderService.getOpenOrders(symbol);
             var scalpingDTO = ScalpingDTO.builder()
                     .symbol(symbol)
                     .baseAsset(base)
                     .quoteAsset(quote)
-                    .tickerBook(book)
-                    .shortTermTicker(shortTerm)
-                    .midTermTicker(midTerm)
-                    .longTermTicker(longTerm)
-                    .accountInfo(accountInfo)
-                    .openOrders(openOrders)
+                    .tickerBook(book.join())
+                    .shortTermTicker(shortTerm.join())
+                    .midTermTicker(midTerm.join())
+                    .longTermTicker(longTerm.join())
+                    .accountInfo(accountInfo.join())
+                    .openOrders(openOrders.join())
                     .build();
             // Step 4: Analyze market conditions and execute trading strategy
             return executeScalpingStrategy(scalpingDTO);
@@ -88,6 +114,45 @@ public class TradeService {
         }
     }
 
+    /**
+     * Runs a blocking fetch on the fetch executor
+     */
+    private <T> CompletableFuture<T> fetch(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, fetchExecutor);
+    }
+
+    /**
+     * Rolling window ticker from the trade stream, or from REST while the
+     * stream does not cover the window yet
+     */
+    private CompletableFuture<TickerDto> ticker(String symbol, WindowSize windowSize, long windowMillis) {
+        var local = tickerStats.ticker(symbol, windowMillis);
+        if (local != null) {
+            return CompletableFuture.completedFuture(local);
+        }
+        return fetch(() -> spotService.ticker(symbol, windowSize));
+    }
+
+    /**
+     * Waits for every fetch, failing with the first error as soon as it occurs
+     * instead of waiting for the others; their results are then dropped
+     */
+    private static void awaitAll(CompletableFuture<?>... fetches) {
+        var all = CompletableFuture.allOf(fetches);
+        for (var fetch : fetches) {
+            fetch.whenComplete((result, error) -> {
+                if (error != null) {
+                    all.completeExceptionally(error);
+                }
+            });
+        }
+        try {
+            all.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
     /**
      * Executes the scalping trading strategy
      */
@@ -110,7 +175,7 @@ public class TradeService {
         log.info("Account balances - {}: {}, {}: {}", baseAsset, baseBalance, quoteAsset, quoteBalance);
 
         // Check if we have existing open orders
-        // TODO: Fix GetOpenOrdersResponse structure - need to check actual method names
+        // TODO: Fix OpenOrdersStatusResponse structure - need to check actual method names
         /*
          * if (openOrders.getOrders() != null && !openOrders.getOrders().isEmpty()) {
          * log.info("Found {} open orders for {}", openOrders.getOrders().size(),
@@ -259,15 +324,15 @@ public class TradeService {
     /**
      * Handles existing open orders
      */
-    private String handleExistingOrders(String symbol, GetOpenOrdersResponse openOrders,
+    private String handleExistingOrders(String symbol, OpenOrdersStatusResponse openOrders,
             BigDecimal currentPrice, BigDecimal baseBalance) {
-        // TODO: Implement order management logic after fixing GetOpenOrdersResponse
+        // TODO: Implement order management logic after fixing OpenOrdersStatusResponse
         // structure
         // - Check if orders should be cancelled (price moved too far)
         // - Adjust stop-loss orders
         // - Update trailing stops
 
-        // TODO: Fix GetOpenOrdersResponse method names
+        // TODO: Fix OpenOrdersStatusResponse method names
         /*
          * log.info("Managing {} existing orders for {}", openOrders.getOrders().size(),
          * symbol);
@@ -285,7 +350,7 @@ public class TradeService {
          */
 
         log.info("Checking existing orders for {}", symbol);
-        return "MONITORING_ORDERS: Need to fix GetOpenOrdersResponse structure";
+        return "MONITORING_ORDERS: Need to fix OpenOrdersStatusResponse structure";
     }
 
     /**
@@ -310,12 +375,12 @@ public class TradeService {
         try {
             log.warn("EMERGENCY STOP triggered for {}", symbol);
 
-            // TODO: Implement order cancellation when GetOpenOrdersResponse structure is
+            // TODO: Implement order cancellation when OpenOrdersStatusResponse structure is
             // fixed
-            // GetOpenOrdersResponse openOrders = orderService.getOpenOrders(symbol);
+            // OpenOrdersStatusResponse openOrders = orderService.getOpenOrders(symbol).join();
 
             log.info("Emergency stop requested for {} - need to implement proper order cancellation", symbol);
-            return "EMERGENCY_STOP_REQUESTED: Need to fix GetOpenOrdersResponse structure for " + symbol;
+            return "EMERGENCY_STOP_REQUESTED: Need to fix OpenOrdersStatusResponse structure for " + symbol;
 
         } catch (Exception e) {
             log.error("Emergency stop failed for {}: {}", symbol, e.getMessage(), e);
@@ -2,43 +2,70 @@ package com.tradebot.rbm.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.Clock;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicReference;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Service;
-
-import com.binance.connector.client.common.ApiResponse;
-import com.binance.connector.client.spot.rest.model.DepthResponse;
-import com.binance.connector.client.spot.rest.model.ExchangeInfoResponse;
-import com.binance.connector.client.spot.rest.model.OrderOcoRequest;
-import com.binance.connector.client.spot.rest.model.OrderOcoResponse;
-import com.binance.connector.client.spot.rest.model.Side;
+import com.binance.connector.client.spot.websocket.api.model.AboveType;
+import com.binance.connector.client.spot.websocket.api.model.BelowType;
+import com.binance.connector.client.spot.websocket.api.model.CancelReplaceMode;
+import com.binance.connector.client.spot.websocket.api.model.CancelRestrictions;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoRequest;
 import com.binance.connector.client.spot.websocket.api.model.OrderPlaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderType;
+import com.binance.connector.client.spot.websocket.api.model.Side;
 import com.binance.connector.client.spot.websocket.api.model.TimeInForce;
 import com.binance.connector.client.spot.websocket.stream.model.BookTickerResponse;
+import com.binance.connector.client.spot.websocket.stream.model.KlineResponse;
 import com.binance.connector.client.spot.websocket.stream.model.TradeResponse;
-import com.tradebot.rbm.utils.DoubleLimitExample;
-import com.tradebot.rbm.utils.RecentTradeUtils;
+import com.tradebot.rbm.component.CandleEngine;
+import com.tradebot.rbm.component.OrderTracker;
+import com.tradebot.rbm.component.SymbolRulesRegistry;
+import com.tradebot.rbm.component.TimerService;
+import com.tradebot.rbm.utils.AccountBalanceStore;
+import com.tradebot.rbm.utils.FixedPoint;
 import com.tradebot.rbm.utils.ScalpingAnalysis;
+import com.tradebot.rbm.utils.SymbolRules;
+import com.tradebot.rbm.utils.TradeMomentumWindow;
+import com.tradebot.rbm.utils.dto.CandleInterval;
+import com.tradebot.rbm.utils.dto.OrderState;
+import com.tradebot.rbm.utils.dto.OrderUpdate;
 import com.tradebot.rbm.utils.dto.PendingBuyOrderDTO;
 import com.tradebot.rbm.utils.dto.ScalpingAction;
-import com.tradebot.rbm.utils.dto.TradeData;
 import com.tradebot.rbm.utils.dto.TradeMomentum;
-import com.tradebot.rbm.websocket.AccountListenerWebsocketStream;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-@Service
+/**
+ * Scalping strategy for one symbol. {@code StrategyRegistry} creates one per
+ * traded symbol and the event loop shard that owns the symbol is the only
+ * thread calling it, so its state needs no synchronization.
+ *
+ * Its orders are followed through {@link OrderTracker}: the follow-up sell of
+ * a buy is placed from the buy's fills as the user data stream reports them.
+ * A buy that rests unfilled for {@code BUY_ORDER_TTL_MILLIS} is moved to the
+ * current bid with one cancel-replace request. Its time-out, like the candle
+ * close, is a {@link TimerService} timer whose task comes back to the strategy
+ * thread through the event loop given to {@link #useEventLoop}.
+ */
 @RequiredArgsConstructor
 @Slf4j
 public class WebsocketTradeService {
 
+    // Enough room for several minutes of a busy tape while keeping memory flat
+    private static final int MOMENTUM_WINDOW_CAPACITY = 1 << 16;
+
     private final OrderService orderService;
+    private final SymbolRulesRegistry symbolRulesRegistry;
+    private final AccountBalanceStore balanceStore;
+    private final OrderTracker orderTracker;
+    // Candles are only built for the primary symbol, null for the others
+    private final CandleEngine candleEngine;
+    private final Clock clock;
+    private final TimerService timerService;
 
-    @Value("${binance.trading.symbol:BTCUSDT}")
     private String tradingSymbol;
 
     // Scalping configuration
@@ -48,21 +75,95 @@ public class WebsocketTradeService {
     private static final BigDecimal MIN_TRADE_AMOUNT_QUOTE = new BigDecimal("0.008"); // Minimum trade amount in quote
                                                                                       // currency
     private static final BigDecimal MAX_POSITION_PERCENTAGE = new BigDecimal("1"); // Max 100% of balance per trade
+    private static final BigDecimal STOP_PRICE_FACTOR = new BigDecimal("0.997"); // Stop 0.3% below the sell price
     private static final long TRADE_ANALYSIS_WINDOW_SECONDS = 2400; // Analyze trades from last 240 seconds
+    private static final long BUY_ORDER_TTL_MILLIS = 10_000; // Requote a buy resting longer than this
+    private static final CandleInterval CANDLE_CLOSE_INTERVAL = CandleInterval.ONE_SECOND;
+    private static final long CANDLE_CLOSE_GRACE_MILLIS = 500; // Late trades of a bucket still count
+
+    private static final ScalpingAnalysis SPREAD_TOO_SMALL = ScalpingAnalysis.noTrade("Spread too small");
+    private static final ScalpingAnalysis NO_FAVORABLE_CONDITIONS = ScalpingAnalysis
+            .noTrade("No favorable conditions");
+
+    // Fixed-point view of the symbol and the configuration above, prices at the
+    // symbol's price scale and balances at FixedPoint.BALANCE_SCALE. Only touched
+    // by the strategy thread, see currentRules()
+    private SymbolRules rules;
+    private String symbolKey;
+    private int baseAssetId;
+    private int quoteAssetId;
+    private int bnbAssetId;
+    private long minSpread;
+    private long scalpMargin;
+    private long minTradeAmount;
+    private long minTradeAmountQuote;
 
     // Real-time data containers
     private final AtomicReference<BookTickerResponse> currentTicker = new AtomicReference<>();
-
-    private final ExchangeInfoResponse exchangeInfoResponse;
+    private final TradeMomentumWindow momentumWindow = new TradeMomentumWindow(
+            TRADE_ANALYSIS_WINDOW_SECONDS * 1000, MOMENTUM_WINDOW_CAPACITY);
+    private TradeResponse lastTrade;
 
     // Order tracking
     private final AtomicReference<PendingBuyOrderDTO> pendingBuyOrders = new AtomicReference<>();
-    private final AtomicReference<OrderOcoResponse> pendingSellOrders = new AtomicReference<>();
+    // List client order ID of the open OCO sell, its legs' IDs start with it
+    private final AtomicReference<String> pendingSellOrders = new AtomicReference<>();
+    // Buy that the last requote replaced, until its final report shows whether
+    // it filled before the cancel
+    private PendingBuyOrderDTO replacedBuyOrder;
+
+    // Runs timer tasks on the strategy thread
+    private Executor eventLoop;
+    private TimerService.Timer buyOrderTimer;
 
     // Trading state
     private volatile boolean isActivelyTradingTicker = false;
     private volatile boolean isActivelyTrading = true;
-    public static volatile LocalDateTime lastOrderTime = LocalDateTime.now().minus(1, ChronoUnit.MINUTES);
+
+    /**
+     * Binds the service to its symbol, before any event is passed in
+     */
+    public void useSymbol(String symbol) {
+        tradingSymbol = symbol;
+        symbolKey = tradingSymbol.toUpperCase();
+        currentRules();
+        log.info("Fixed-point precision for {} - Price scale: {}, Quantity scale: {}", rules.getSymbol(),
+                rules.getPriceScale(), rules.getQuantityScale());
+    }
+
+    /**
+     * Sets the event loop that runs the strategy, where its timer tasks are
+     * handed to, and starts the candle close timer
+     */
+    public void useEventLoop(Executor eventLoop) {
+        this.eventLoop = eventLoop;
+        if (candleEngine != null) {
+            scheduleCandleClose();
+        }
+    }
+
+    /**
+     * Current rules of the trading symbol, re-deriving the fixed-point thresholds
+     * whenever the registry hands out a refreshed instance
+     */
+    private SymbolRules currentRules() {
+        var current = symbolRulesRegistry.get(symbolKey);
+        if (current != rules) {
+            int priceScale = current.getPriceScale();
+            // Any non-zero spread threshold below one tick still requires at least a tick
+            minSpread = FixedPoint.fromBigDecimal(MIN_SPREAD_THRESHOLD, priceScale, RoundingMode.CEILING);
+            scalpMargin = FixedPoint.fromBigDecimal(SCALP_MARGIN, priceScale, RoundingMode.HALF_UP);
+            minTradeAmount = FixedPoint.fromBigDecimal(MIN_TRADE_AMOUNT, FixedPoint.BALANCE_SCALE,
+                    RoundingMode.HALF_UP);
+            minTradeAmountQuote = FixedPoint.fromBigDecimal(MIN_TRADE_AMOUNT_QUOTE, FixedPoint.BALANCE_SCALE,
+                    RoundingMode.HALF_UP);
+            baseAssetId = balanceStore.assetId(current.getBaseAsset());
+            quoteAssetId = balanceStore.assetId(current.getQuoteAsset());
+            bnbAssetId = balanceStore.assetId("BNB");
+            rules = current;
+        }
+        return current;
+    }
 
     /**
      * Updates the current ticker data from TickerWebsocketStream
@@ -80,13 +181,19 @@ public class WebsocketTradeService {
      * Updates with new trade data from TradeWebsocketStream
      */
     public void updateTrade(TradeResponse trade) {
-        RecentTradeUtils.lastTrade.set(trade);
-
-        // Add to recent trades queue
-        RecentTradeUtils.recentTrades.offer(new TradeData(trade));
-
-        // Check if any pending buy orders might have been executed
-        checkPendingOrderExecutions();
+        lastTrade = trade;
+
+        // Roll the momentum window forward and update the open candles
+        long price = rules.parsePrice(trade.getpLowerCase());
+        long quantity = rules.parseQuantity(trade.getqLowerCase());
+        long time = trade.getT();
+        boolean buyerMaker = Boolean.TRUE.equals(trade.getmLowerCase());
+        momentumWindow.onTrade(FixedPoint.multiply(price, rules.getPriceScale(), quantity, rules.getQuantityScale(),
+                FixedPoint.BALANCE_SCALE), time, buyerMaker);
+        if (candleEngine != null) {
+            candleEngine.onTrade(FixedPoint.toDouble(price, rules.getPriceScale()),
+                    FixedPoint.toDouble(quantity, rules.getQuantityScale()), time);
+        }
 
         // Trigger scalping analysis on new trade
         if (isActivelyTrading) {
@@ -95,35 +202,120 @@ public class WebsocketTradeService {
     }
 
     /**
-     * Checks if incoming trade data matches any pending buy orders
-     * This is a heuristic approach since we don't have direct order execution
-     * callbacks
+     * Closes the candles a quiet market left open shortly after each
+     * {@code CANDLE_CLOSE_INTERVAL} boundary, leaving late trades of the bucket
+     * {@code CANDLE_CLOSE_GRACE_MILLIS} to arrive
      */
-    private void checkPendingOrderExecutions() {
+    private void scheduleCandleClose() {
+        long now = clock.millis();
+        long nextClose = CANDLE_CLOSE_INTERVAL.bucketStart(now) + CANDLE_CLOSE_INTERVAL.getMillis()
+                + CANDLE_CLOSE_GRACE_MILLIS;
+        timerService.scheduleAt(nextClose, () -> eventLoop.execute(() -> {
+            candleEngine.advanceTo(clock.millis() - CANDLE_CLOSE_GRACE_MILLIS);
+            scheduleCandleClose();
+        }));
+    }
 
-        // Check each pending order to see if it could have been executed
-        if (pendingBuyOrders.get() != null) {
-            var pendingOrder = pendingBuyOrders.get();
-            var buyPrice = pendingOrder.getBuyPrice();
-            Integer limit = 5;
-            ApiResponse<DepthResponse> response = orderService.depth(tradingSymbol, limit);
-            var bid = new BigDecimal(response.getData().getBids().get(0).get(0));
+    /**
+     * Moves the candles to the kline's event time, closing those a quiet market
+     * left open
+     */
+    public void updateKline(KlineResponse kline) {
+        if (candleEngine != null && kline.getE() != null) {
+            candleEngine.advanceTo(kline.getE());
+        }
+    }
 
-            var tickerPrice = bid.add(SCALP_MARGIN.divide(BigDecimal.valueOf(2)));
-            var sellPrice = buyPrice.add(SCALP_MARGIN.multiply(BigDecimal.valueOf(2))).max(tickerPrice);
-            // Get account balances
+    /**
+     * Reacts to a state change of one of the symbol's orders, from the user data
+     * stream through the event loop
+     */
+    public void onOrderUpdate(OrderUpdate update) {
+        var pendingOrder = pendingBuyOrders.get();
+        if (pendingOrder != null && pendingOrder.getOrderId().equals(update.getClientOrderId())) {
+            onBuyOrderUpdate(pendingOrder, update);
+            return;
+        }
+        var replaced = replacedBuyOrder;
+        if (replaced != null && replaced.getOrderId().equals(update.getClientOrderId())) {
+            onReplacedBuyOrderUpdate(update);
+            return;
+        }
+
+        var sellOrder = pendingSellOrders.get();
+        if (sellOrder != null && update.getState().isTerminal() && update.getClientOrderId() != null
+                && update.getClientOrderId().startsWith(sellOrder)) {
+            log.info("SELL order list {} done - Order ID: {}, State: {}", update.getOrderListId(),
+                    update.getOrderId(), update.getState());
+            pendingSellOrders.set(null);
+        }
+    }
 
-            var baseAsset = extractBaseAsset(tradingSymbol);
-            // check balance from account
+    /**
+     * Follows the pending buy order and, once it is done, sells what it bought
+     */
+    private void onBuyOrderUpdate(PendingBuyOrderDTO pendingOrder, OrderUpdate update) {
+        if (pendingOrder.getBinanceOrderId() == null) {
+            pendingOrder.setBinanceOrderId(update.getOrderId());
+        }
+        if (update.getLastQuantity() > 0) {
+            pendingOrder.setExecuted(true);
+            log.info("BUY order filled - Order ID: {}, Price: {}, Quantity: {}, Cumulative: {}", update.getOrderId(),
+                    balance(update.getLastPrice()), balance(update.getLastQuantity()),
+                    balance(update.getCumulativeQuantity()));
+        }
+        if (!update.getState().isTerminal()) {
+            return;
+        }
+
+        pendingBuyOrders.set(null);
+        timerService.cancel(buyOrderTimer);
+        buyOrderTimer = null;
+        if (replacedBuyOrder == pendingOrder) {
+            replacedBuyOrder = null;
+        }
+        if (update.getCumulativeQuantity() == 0) {
+            log.info("BUY order {} ended {} without fills", update.getOrderId(), update.getState());
+            return;
+        }
+        sellBought(pendingOrder, update);
+    }
 
-            var quoteBalance = getAssetBalance(baseAsset);
+    /**
+     * Follows the buy a requote replaced: its cancel is refused once it has
+     * fills, and whatever it bought before its final report is sold like the
+     * fills of a pending buy
+     */
+    private void onReplacedBuyOrderUpdate(OrderUpdate update) {
+        if (!update.getState().isTerminal()) {
+            return;
+        }
+        var replaced = replacedBuyOrder;
+        replacedBuyOrder = null;
+        if (update.getCumulativeQuantity() > 0) {
+            log.info("Replaced BUY order {} ended {} with fills", update.getOrderId(), update.getState());
+            sellBought(replaced, update);
+        }
+    }
 
-            var canSell = quoteBalance.multiply(sellPrice).compareTo(MIN_TRADE_AMOUNT) > 0;
-            if (canSell) {
-                executeSellOrder(sellPrice, quoteBalance);
-                pendingBuyOrders.set(null);
-            }
+    /**
+     * Sells what a finished buy bought, net of a commission in the base asset
+     */
+    private void sellBought(PendingBuyOrderDTO pendingOrder, OrderUpdate update) {
+        long bought = update.getCumulativeQuantity();
+        // A commission paid in the base asset comes out of what was bought
+        if (currentRules().getBaseAsset().equals(update.getCommissionAsset())) {
+            bought -= update.getCommission();
+        }
+
+        var buyPrice = pendingOrder.getBuyPrice();
+        var sellPrice = buyPrice.add(SCALP_MARGIN.multiply(BigDecimal.valueOf(2)));
+        var bid = bestBid();
+        if (bid != null) {
+            var tickerPrice = bid.add(SCALP_MARGIN.divide(BigDecimal.valueOf(2)));
+            sellPrice = sellPrice.max(tickerPrice);
         }
+        executeSellOrder(sellPrice, balance(bought));
     }
 
     /**
@@ -132,24 +324,16 @@ public class WebsocketTradeService {
     private void analyzeScalpingOpportunity() {
         try {
             var ticker = currentTicker.get();
-            var trade = RecentTradeUtils.lastTrade.get();
-            var accountStatus = AccountListenerWebsocketStream.accountStatus;
+            var trade = lastTrade;
+            boolean balancesLoaded = balanceStore.isLoaded();
 
-            if (ticker == null || trade == null || accountStatus == null) {
+            if (ticker == null || trade == null || !balancesLoaded) {
                 log.debug("Missing data for scalping analysis - Ticker: {}, Trade: {}, Account: {}",
-                        ticker != null, trade != null, accountStatus != null);
-                return;
-            }
-
-            // Cancel current buy order if is sitting too long
-            if (ChronoUnit.SECONDS.between(lastOrderTime, LocalDateTime.now()) > 10 && pendingBuyOrders.get() != null) {
-                log.debug("Cancelling Buy order");
-                orderService.deleteBinanceOrder(tradingSymbol.toUpperCase(),
-                        pendingBuyOrders.get().getBinanceOrderId());
-                pendingBuyOrders.set(null);
+                        ticker != null, trade != null, balancesLoaded);
                 return;
             }
 
+            currentRules();
             ScalpingAnalysis analysis = performScalpingAnalysis(ticker, trade);
 
             if (analysis.shouldTrade()) {
@@ -162,118 +346,84 @@ public class WebsocketTradeService {
     }
 
     /**
-     * Performs comprehensive scalping analysis
+     * Performs comprehensive scalping analysis. Runs on fixed-point longs and only
+     * builds BigDecimal values once there is an order to place.
      */
     private ScalpingAnalysis performScalpingAnalysis(BookTickerResponse ticker, TradeResponse trade) {
 
-        var bidPrice = new BigDecimal(ticker.getbLowerCase());
-        var askPrice = new BigDecimal(ticker.getaLowerCase());
-        var lastTradePrice = new BigDecimal(trade.getpLowerCase());
-        var spread = askPrice.subtract(bidPrice);
+        long bidPrice = rules.parsePrice(ticker.getbLowerCase());
+        long askPrice = rules.parsePrice(ticker.getaLowerCase());
+        long lastTradePrice = rules.parsePrice(trade.getpLowerCase());
+        long spread = askPrice - bidPrice;
 
-        log.debug("Market Analysis - Bid: {}, Ask: {}, Last Trade: {}, Spread: {}",
-                bidPrice, askPrice, lastTradePrice, spread);
+        if (log.isDebugEnabled()) {
+            log.debug("Market Analysis - Bid: {}, Ask: {}, Last Trade: {}, Spread: {}",
+                    price(bidPrice), price(askPrice), price(lastTradePrice), price(spread));
+        }
 
         // Check if spread is sufficient for scalping
-        if (spread.compareTo(MIN_SPREAD_THRESHOLD) < 0) {
-            return ScalpingAnalysis.noTrade("Spread too small: " + spread);
+        if (spread < minSpread) {
+            return SPREAD_TOO_SMALL;
         }
 
-        // Analyze recent trade momentum
-        TradeMomentum momentum = analyzeRecentTradeMomentum();
-
         // Get account balances
-        String baseAsset = extractBaseAsset(tradingSymbol);
-        String quoteAsset = extractQuoteAsset(tradingSymbol);
-
-        BigDecimal baseBalance = getAssetBalance(baseAsset);
-        BigDecimal quoteBalance = getAssetBalance(quoteAsset);
-
-        // Determine scalping action
-        ScalpingAction action = determineScalpingAction(momentum, bidPrice, askPrice, lastTradePrice,
-                baseBalance, quoteBalance, spread);
+        long baseBalance = getAssetBalance(baseAssetId);
+        long quoteBalance = getAssetBalance(quoteAssetId);
+
+        // Determine scalping action from the recent trade momentum
+        ScalpingAction action = determineScalpingAction(momentumWindow.direction(clock.millis()), bidPrice, askPrice,
+                lastTradePrice, baseBalance, quoteBalance);
+        if (action == null) {
+            return NO_FAVORABLE_CONDITIONS;
+        }
 
-        return new ScalpingAnalysis(action, momentum, bidPrice, askPrice, lastTradePrice,
-                baseBalance, quoteBalance, spread);
+        return new ScalpingAnalysis(action, analyzeRecentTradeMomentum(), price(bidPrice), price(askPrice),
+                price(lastTradePrice), balance(baseBalance), balance(quoteBalance), price(spread));
     }
 
     /**
      * Analyzes recent trade momentum to determine market direction
      */
     private TradeMomentum analyzeRecentTradeMomentum() {
-        LocalDateTime cutoffTime = LocalDateTime.now().minus(TRADE_ANALYSIS_WINDOW_SECONDS, ChronoUnit.SECONDS);
-
-        long buyCount = 0;
-        long sellCount = 0;
-        BigDecimal buyVolume = BigDecimal.ZERO;
-        BigDecimal sellVolume = BigDecimal.ZERO;
-        BigDecimal totalVolume = BigDecimal.ZERO;
-
-        for (TradeData tradeData : RecentTradeUtils.recentTrades) {
-            if (tradeData.getTimestamp().isBefore(cutoffTime)) {
-                continue; // Skip old trades
-            }
-
-            BigDecimal tradeVolume = new BigDecimal(tradeData.getTrade().getqLowerCase())
-                    .multiply(new BigDecimal(tradeData.getTrade().getpLowerCase()));
-            totalVolume = totalVolume.add(tradeVolume);
-
-            // Determine if it's a buy or sell based on trade direction
-            // Note: You might need to adjust this logic based on actual TradeResponse
-            // structure
-            boolean isBuyerMaker = tradeData.getTrade().getmLowerCase(); // Assuming this field exists
-
-            if (isBuyerMaker) {
-                sellCount++; // If buyer is maker, it's actually a sell
-                sellVolume = sellVolume.add(tradeVolume);
-            } else {
-                buyCount++; // If buyer is taker, it's a buy
-                buyVolume = buyVolume.add(tradeVolume);
-            }
-        }
-
-        String direction = "NEUTRAL";
-        if (buyVolume.compareTo(sellVolume) > 0) {
-            direction = "BULLISH";
-        } else if (sellVolume.compareTo(buyVolume) > 0) {
-            direction = "BEARISH";
-        }
+        TradeMomentum momentum = momentumWindow.snapshot(clock.millis());
 
         log.debug("Trade momentum - Direction: {}, Buy trades: {}, Sell trades: {}, Buy volume: {}, Sell volume: {}",
-                direction, buyCount, sellCount, buyVolume, sellVolume);
+                momentum.getDirection(), momentum.getBuyCount(), momentum.getSellCount(), momentum.getBuyVolume(),
+                momentum.getSellVolume());
 
-        return new TradeMomentum(direction, buyCount, sellCount, buyVolume, sellVolume, totalVolume);
+        return momentum;
     }
 
     /**
      * Determines the scalping action based on analysis
+     *
+     * @return The action to take, or null when there are no favorable conditions
      */
-    private ScalpingAction determineScalpingAction(TradeMomentum momentum, BigDecimal bidPrice, BigDecimal askPrice,
-            BigDecimal lastTradePrice, BigDecimal baseBalance,
-            BigDecimal quoteBalance, BigDecimal spread) {
+    private ScalpingAction determineScalpingAction(String direction, long bidPrice, long askPrice,
+            long lastTradePrice, long baseBalance, long quoteBalance) {
 
         // Calculate potential order prices
-        BigDecimal buyOrderPrice = bidPrice.add(SCALP_MARGIN.negate()); // Slightly below bid
-        BigDecimal sellOrderPrice = askPrice.add(SCALP_MARGIN); // Slightly above ask
+        long buyOrderPrice = bidPrice - scalpMargin; // Slightly below bid
+        long sellOrderPrice = askPrice + scalpMargin; // Slightly above ask
 
         // Check if we have sufficient balance for buy order
-        boolean canBuy = quoteBalance.compareTo(MIN_TRADE_AMOUNT) > 0;
+        boolean canBuy = quoteBalance > minTradeAmount;
 
         // Check if we have base asset to sell
-        boolean canSell = baseBalance.multiply(lastTradePrice).compareTo(MIN_TRADE_AMOUNT) > 0;
+        boolean canSell = notional(baseBalance, lastTradePrice) > minTradeAmount;
 
         // Simple scalping logic based on momentum and position
-        if ("BULLISH".equals(momentum.getDirection()) && canBuy) {
-            BigDecimal quantity = calculateOptimalQuantity(quoteBalance, buyOrderPrice, true);
-            return new ScalpingAction("BUY", buyOrderPrice, quantity, "Bullish momentum detected");
+        if ("BULLISH".equals(direction) && canBuy) {
+            BigDecimal quantity = calculateOptimalQuantity(balance(quoteBalance), price(buyOrderPrice), true);
+            return new ScalpingAction("BUY", price(buyOrderPrice), quantity, "Bullish momentum detected");
         }
 
-        if ("BEARISH".equals(momentum.getDirection()) && canSell) {
-            BigDecimal quantity = calculateOptimalQuantity(baseBalance, sellOrderPrice, false);
-            return new ScalpingAction("SELL", sellOrderPrice, quantity, "Bearish momentum detected");
+        if ("BEARISH".equals(direction) && canSell) {
+            BigDecimal quantity = calculateOptimalQuantity(balance(baseBalance), price(sellOrderPrice), false);
+            return new ScalpingAction("SELL", price(sellOrderPrice), quantity, "Bearish momentum detected");
         }
 
-        return new ScalpingAction("NONE", BigDecimal.ZERO, BigDecimal.ZERO, "No favorable conditions");
+        return null;
     }
 
     /**
@@ -290,6 +440,11 @@ public class WebsocketTradeService {
         log.info("Executing scalping strategy - Action: {}, Price: {}, Quantity: {}, Reason: {}",
                 action.getType(), action.getPrice(), action.getQuantity(), action.getReason());
 
+        if ("BUY".equals(action.getType()) && pendingBuyOrders.get() != null) {
+            log.debug("BUY order {} still open", pendingBuyOrders.get().getOrderId());
+            return;
+        }
+
         try {
             if ("BUY".equals(action.getType())) {
                 executeBuyOrder(action.getPrice(), action.getQuantity());
@@ -297,8 +452,6 @@ public class WebsocketTradeService {
                 executeSellOrder(action.getPrice(), action.getQuantity());
             }
 
-            lastOrderTime = LocalDateTime.now();
-
         } catch (Exception e) {
             log.error("Error executing scalping order", e);
         }
@@ -308,43 +461,198 @@ public class WebsocketTradeService {
      * Executes a buy order and prepares for follow-up sell order
      */
     private void executeBuyOrder(BigDecimal price, BigDecimal quantity) {
+        price = rules.roundPrice(price, RoundingMode.DOWN);
+        quantity = rules.floorQuantity(quantity);
+        if (!rules.isTradable(price, quantity)) {
+            log.warn("BUY order rejected by symbol filters - Price: {}, Quantity: {}", price, quantity);
+            return;
+        }
         log.info("Placing BUY order - Symbol: {}, Price: {}, Quantity: {}", tradingSymbol, price, quantity);
 
-        try {
-            // Generate a unique order ID (you can replace this with actual order ID from
-            // your order service)
-            var orderId = "BUY_" + System.currentTimeMillis();
+        // Client order ID the user data stream reports the order's fills with
+        var orderId = "BUY_" + symbolKey + "_" + clock.millis();
 
-            // Calculate expected sell price with profit margin
-            // var currentTickerData = currentTicker.get();
-            Integer limit = 5;
-            ApiResponse<DepthResponse> response = orderService.depth(tradingSymbol, limit);
-            var ask = new BigDecimal(response.getData().getAsks().get(0).get(0));
+        // Calculate expected sell price with profit margin
+        var ask = bestAsk();
 
-            // Set sell price above current ask and with profit margin from buy price
-            var askBasedPrice = ask.add(SCALP_MARGIN.negate());
-            var expectedSellPrice = price.max(askBasedPrice);
+        // Set sell price above current ask and with profit margin from buy price
+        var expectedSellPrice = ask != null ? price.max(ask.add(SCALP_MARGIN.negate())) : price;
+        var pendingOrder = new PendingBuyOrderDTO(orderId, tradingSymbol, price, quantity, expectedSellPrice);
 
+        try {
             // Store the pending buy order
-            var pendingOrder = new PendingBuyOrderDTO(orderId, tradingSymbol, price, quantity,
-                    expectedSellPrice);
             pendingBuyOrders.set(pendingOrder);
 
             log.info("Buy order stored - ID: {}, Expected sell price: {}", orderId, expectedSellPrice);
 
             var orderDto = new OrderPlaceRequest();
             orderDto.setSymbol(tradingSymbol.toUpperCase());
-            orderDto.setSide(com.binance.connector.client.spot.websocket.api.model.Side.BUY);
-            orderDto.setType(com.binance.connector.client.spot.websocket.api.model.OrderType.LIMIT);
+            orderDto.setSide(Side.BUY);
+            orderDto.setType(OrderType.LIMIT);
             orderDto.setPrice(price.doubleValue());
             orderDto.setQuantity(quantity.doubleValue());
             orderDto.setTimeInForce(TimeInForce.GTC);
-            orderService.placeWsOrder(orderDto, pendingOrder);
+            orderDto.setNewClientOrderId(orderId);
+            orderTracker.register(symbolKey, orderId, "BUY",
+                    FixedPoint.fromBigDecimal(price, FixedPoint.BALANCE_SCALE, RoundingMode.HALF_UP),
+                    FixedPoint.fromBigDecimal(quantity, FixedPoint.BALANCE_SCALE, RoundingMode.DOWN));
+            // Armed first, so that a failure reported right away finds the timer
+            armBuyOrderTimer();
+            orderService.placeWsOrder(orderDto, pendingOrder).whenComplete((response, error) -> {
+                if (error != null) {
+                    eventLoop.execute(() -> onBuyOrderFailed(pendingOrder));
+                }
+            });
 
-            log.info("BUY order placed successfully - Monitoring for execution");
+            log.info("BUY order placed successfully - Waiting for its execution reports");
 
         } catch (Exception e) {
             log.error("Error placing buy order", e);
+            onBuyOrderFailed(pendingOrder);
+        }
+    }
+
+    /**
+     * Drops a buy the exchange refused. Its pending order and tracked state go,
+     * so that it neither blocks the next buy nor counts as open.
+     */
+    private void onBuyOrderFailed(PendingBuyOrderDTO pendingOrder) {
+        orderTracker.forget(pendingOrder.getOrderId());
+        if (pendingBuyOrders.compareAndSet(pendingOrder, null)) {
+            timerService.cancel(buyOrderTimer);
+            buyOrderTimer = null;
+        }
+    }
+
+    /**
+     * Restarts the resting time of the pending buy
+     */
+    private void armBuyOrderTimer() {
+        timerService.cancel(buyOrderTimer);
+        buyOrderTimer = timerService.schedule(BUY_ORDER_TTL_MILLIS, () -> eventLoop.execute(this::onBuyOrderExpired));
+    }
+
+    /**
+     * Runs once the pending buy has rested for {@code BUY_ORDER_TTL_MILLIS}:
+     * moves it to the current price in one cancel-replace request, or cancels it
+     * once it has fills so that its CANCELED report sells them. A buy whose
+     * acknowledgement is late is cancelled too, as it cannot be replaced yet.
+     */
+    private void onBuyOrderExpired() {
+        if (buyOrderTimer == null || buyOrderTimer.isPending()) {
+            // Handed over by a timer that was canceled or re-armed since
+            return;
+        }
+        var pendingOrder = pendingBuyOrders.get();
+        if (pendingOrder == null || pendingOrder.isCancelRequested()) {
+            return;
+        }
+        var ticker = currentTicker.get();
+        if (pendingOrder.getBinanceOrderId() == null || pendingOrder.isExecuted() || ticker == null) {
+            // The pending order is cleared by the CANCELED report, or by the fill
+            // that beat the cancel
+            cancelBuyOrder(pendingOrder);
+            return;
+        }
+
+        var price = rules.roundPrice(price(rules.parsePrice(ticker.getbLowerCase()) - scalpMargin),
+                RoundingMode.DOWN);
+        if (price.compareTo(pendingOrder.getBuyPrice()) == 0) {
+            // Still where it would be placed now
+            armBuyOrderTimer();
+            return;
+        }
+        requoteBuyOrder(pendingOrder, price);
+    }
+
+    /**
+     * Cancels the pending buy, by its client order ID while its acknowledgement
+     * is still on the way. A failed cancel re-arms the timer to try again.
+     */
+    private void cancelBuyOrder(PendingBuyOrderDTO pendingOrder) {
+        log.debug("Cancelling Buy order {}", pendingOrder.getOrderId());
+        pendingOrder.setCancelRequested(true);
+        var binanceOrderId = pendingOrder.getBinanceOrderId();
+        var cancel = binanceOrderId != null ? orderService.deleteBinanceOrder(symbolKey, binanceOrderId)
+                : orderService.cancelClientOrder(symbolKey, pendingOrder.getOrderId());
+        cancel.whenComplete((response, error) -> {
+            if (error != null) {
+                eventLoop.execute(() -> onBuyCancelFailed(pendingOrder));
+            }
+        });
+    }
+
+    private void onBuyCancelFailed(PendingBuyOrderDTO pendingOrder) {
+        pendingOrder.setCancelRequested(false);
+        if (pendingBuyOrders.get() == pendingOrder) {
+            armBuyOrderTimer();
+        }
+    }
+
+    /**
+     * Replaces the pending buy with the same quantity at a new price. The cancel
+     * is restricted to orders without fills, so a buy that starts filling keeps
+     * working and the request fails without placing the new one.
+     */
+    private void requoteBuyOrder(PendingBuyOrderDTO pendingOrder, BigDecimal price) {
+        var quantity = pendingOrder.getQuantity();
+        if (!rules.isTradable(price, quantity)) {
+            log.warn("BUY requote rejected by symbol filters - Price: {}, Quantity: {}", price, quantity);
+            armBuyOrderTimer();
+            return;
+        }
+        log.info("Requoting BUY order {} - Price: {} -> {}", pendingOrder.getOrderId(), pendingOrder.getBuyPrice(),
+                price);
+
+        var orderId = "BUY_" + symbolKey + "_" + clock.millis();
+        var requoted = new PendingBuyOrderDTO(orderId, tradingSymbol, price, quantity,
+                pendingOrder.getExpectedProfitPrice());
+        var request = new OrderCancelReplaceRequest();
+        request.setSymbol(symbolKey);
+        request.setCancelReplaceMode(CancelReplaceMode.STOP_ON_FAILURE);
+        request.setCancelRestrictions(CancelRestrictions.ONLY_NEW);
+        request.setCancelOrderId(pendingOrder.getBinanceOrderId());
+        request.setSide(Side.BUY);
+        request.setType(OrderType.LIMIT);
+        request.setTimeInForce(TimeInForce.GTC);
+        request.setPrice(price.doubleValue());
+        request.setQuantity(quantity.doubleValue());
+        request.setNewClientOrderId(orderId);
+        orderTracker.register(symbolKey, orderId, "BUY",
+                FixedPoint.fromBigDecimal(price, FixedPoint.BALANCE_SCALE, RoundingMode.HALF_UP),
+                FixedPoint.fromBigDecimal(quantity, FixedPoint.BALANCE_SCALE, RoundingMode.DOWN));
+
+        replacedBuyOrder = pendingOrder;
+        pendingBuyOrders.set(requoted);
+        armBuyOrderTimer();
+        orderService.cancelReplaceOrder(request).whenComplete((response, error) -> {
+            if (error != null) {
+                eventLoop.execute(() -> onRequoteFailed(pendingOrder, requoted));
+            }
+        });
+    }
+
+    /**
+     * The new order of a requote was not placed. Follows the old one again
+     * unless it is already done, its final report then went to the replaced
+     * buy. An old buy that started filling is cancelled on its next expiry
+     * rather than requoted again.
+     */
+    private void onRequoteFailed(PendingBuyOrderDTO pendingOrder, PendingBuyOrderDTO requoted) {
+        orderTracker.forget(requoted.getOrderId());
+        if (replacedBuyOrder == pendingOrder) {
+            replacedBuyOrder = null;
+        }
+        var oldState = orderTracker.state(pendingOrder.getOrderId());
+        boolean done = oldState != null && oldState.isTerminal();
+        if (!pendingBuyOrders.compareAndSet(requoted, done ? null : pendingOrder)) {
+            return;
+        }
+        if (done) {
+            timerService.cancel(buyOrderTimer);
+            buyOrderTimer = null;
+        } else if (oldState == OrderState.PARTIALLY_FILLED) {
+            pendingOrder.setExecuted(true);
         }
     }
 
@@ -352,18 +660,36 @@ public class WebsocketTradeService {
      * Executes a sell order
      */
     private void executeSellOrder(BigDecimal price, BigDecimal quantity) {
+        price = rules.roundPrice(price, RoundingMode.UP);
+        quantity = rules.floorQuantity(quantity);
+        if (!rules.isTradable(price, quantity)) {
+            log.warn("SELL order rejected by symbol filters - Price: {}, Quantity: {}", price, quantity);
+            return;
+        }
         log.info("Placing SELL order - Symbol: {}, Price: {}, Quantity: {}", tradingSymbol, price, quantity);
-        var stopPrice = price.doubleValue() - (price.doubleValue() * 0.003);
-        stopPrice = DoubleLimitExample.limitDecimal(stopPrice, 2);
+        var stopPrice = rules.roundPrice(price.multiply(STOP_PRICE_FACTOR), RoundingMode.HALF_UP).doubleValue();
         try {
-            var sellOrderDto = new OrderOcoRequest();
-            sellOrderDto.setSymbol(tradingSymbol.toUpperCase());
+            // Take profit above, stop loss below, sent over the WebSocket API like
+            // the buy. The legs are followed by their client order IDs, so the
+            // response is not waited for
+            var listId = "SELL_" + symbolKey + "_" + clock.millis();
+            var sellOrderDto = new OrderListPlaceOcoRequest();
+            sellOrderDto.setSymbol(symbolKey);
             sellOrderDto.setSide(Side.SELL);
-            sellOrderDto.setPrice(price.doubleValue());
-            sellOrderDto.setStopPrice(stopPrice);
-            sellOrderDto.setQuantity(adjustLotSize(new BigDecimal(quantity.doubleValue())).doubleValue());
-            var sellOrderResult = orderService.placeOcoOrder(sellOrderDto);
-            pendingSellOrders.set(sellOrderResult);
+            sellOrderDto.setQuantity(quantity.doubleValue());
+            sellOrderDto.setListClientOrderId(listId);
+            sellOrderDto.setAboveType(AboveType.LIMIT_MAKER);
+            sellOrderDto.setAbovePrice(price.doubleValue());
+            sellOrderDto.setAboveClientOrderId(listId + "_TP");
+            sellOrderDto.setBelowType(BelowType.STOP_LOSS);
+            sellOrderDto.setBelowStopPrice(stopPrice);
+            sellOrderDto.setBelowClientOrderId(listId + "_SL");
+            pendingSellOrders.set(listId);
+            orderService.placeOcoOrder(sellOrderDto).whenComplete((response, error) -> {
+                if (error != null) {
+                    pendingSellOrders.compareAndSet(listId, null);
+                }
+            });
         } catch (Exception e) {
             log.error("Error placing sell order", e);
         }
@@ -393,8 +719,7 @@ public class WebsocketTradeService {
                 // Calculate how many BNB can be bought with maxAmount FDUSD at the given price
                 maxAmount = maxAmount.divide(price, 8, RoundingMode.DOWN);
             }
-            maxAmount = adjustLotSize(maxAmount);
-            return BigDecimal.valueOf(DoubleLimitExample.limitDecimal(maxAmount.doubleValue(), 3));
+            return rules.floorQuantity(maxAmount);
 
         } else {
             // For sell orders, use the base balance directly
@@ -402,70 +727,54 @@ public class WebsocketTradeService {
         }
     }
 
-    private BigDecimal adjustLotSize(BigDecimal maxAmount) {
-        for (var symbol : exchangeInfoResponse.getSymbols()) {
-            for (var filter : symbol.getFilters()) {
-                if (filter.getFilterType().equals("LOT_SIZE")) {
-                    var stepSize = new BigDecimal(filter.getStepSize());
-                    // quantity % stepSize == 0
-                    BigDecimal steps = maxAmount.divide(stepSize, 0, RoundingMode.DOWN);
-                    maxAmount = steps.multiply(stepSize);
-                    continue;
-                }
-            }
+    /**
+     * Gets the free balance for a specific asset from the balance store, at
+     * {@link FixedPoint#BALANCE_SCALE}
+     */
+    private long getAssetBalance(int assetId) {
+        long freeBalance = balanceStore.free(assetId);
+        if (assetId == bnbAssetId && freeBalance < minTradeAmountQuote) {
+            return FixedPoint.roundHalfUp(rules.floorBalanceToStep(freeBalance), FixedPoint.BALANCE_SCALE, 3);
         }
-        return maxAmount;
+
+        return FixedPoint.roundHalfUp(freeBalance, FixedPoint.BALANCE_SCALE, 5);
     }
 
     /**
-     * Gets balance for a specific asset from account status
+     * Quote value of a base balance at the given price, at
+     * {@link FixedPoint#BALANCE_SCALE}
      */
-    private BigDecimal getAssetBalance(String asset) {
-        var acc = AccountListenerWebsocketStream.accountStatus.getResult();
-        var quoteBalance = acc.getBalances().stream()
-                .filter(balance -> asset.equals(balance.getAsset()))
-                .map(balance -> new BigDecimal(balance.getFree()))
-                .findFirst()
-                .orElse(BigDecimal.ZERO);
-        if (asset.equals("BNB") && quoteBalance.compareTo(MIN_TRADE_AMOUNT_QUOTE) < 0) {
-            quoteBalance = adjustLotSize(quoteBalance);
-            return BigDecimal.valueOf(DoubleLimitExample.limitDecimal(quoteBalance.doubleValue(), 3));
-        }
-
-        return BigDecimal.valueOf(DoubleLimitExample.limitDecimal(quoteBalance.doubleValue(), 5));
+    private long notional(long baseBalance, long price) {
+        return FixedPoint.multiply(baseBalance, FixedPoint.BALANCE_SCALE, price, rules.getPriceScale(),
+                FixedPoint.BALANCE_SCALE);
     }
 
     /**
-     * Extracts base asset from trading symbol (e.g., "BTC" from "BTCUSDT")
+     * Best bid of the local order book, or of the last book ticker while the
+     * book is not synced; null before either has arrived
      */
-    private String extractBaseAsset(String symbol) {
-        // Simple logic - you might need to adjust based on your symbol format
-        var symbolCompare = symbol.toUpperCase();
-        if (symbolCompare.endsWith("FDUSD")) {
-            return symbolCompare.substring(0, symbolCompare.length() - 5);
-        } else if (symbolCompare.endsWith("BTC") || symbolCompare.endsWith("DGB") || symbolCompare.endsWith("ETH")
-                || symbolCompare.endsWith("BNB")) {
-            return symbolCompare.substring(0, symbolCompare.length() - 3);
-        }
-        return symbolCompare.substring(0, symbolCompare.length() / 2); // Fallback
+    private BigDecimal bestBid() {
+        var bid = orderService.bestBid(tradingSymbol);
+        var ticker = currentTicker.get();
+        return bid != null || ticker == null ? bid : new BigDecimal(ticker.getbLowerCase());
     }
 
     /**
-     * Extracts quote asset from trading symbol (e.g., "USDT" from "BTCUSDT")
+     * Best ask of the local order book, or of the last book ticker while the
+     * book is not synced; null before either has arrived
      */
-    private String extractQuoteAsset(String symbol) {
-        // Simple logic - you might need to adjust based on your symbol format
-        var symbolCompare = symbol.toUpperCase();
-        if (symbolCompare.endsWith("FDUSD")) {
-            return "FDUSD";
-        } else if (symbolCompare.endsWith("BTC")) {
-            return "BTC";
-        } else if (symbolCompare.endsWith("ETH")) {
-            return "ETH";
-        } else if (symbolCompare.endsWith("BNB")) {
-            return "BNB";
-        }
-        return symbolCompare.substring(symbolCompare.length() / 2); // Fallback
+    private BigDecimal bestAsk() {
+        var ask = orderService.bestAsk(tradingSymbol);
+        var ticker = currentTicker.get();
+        return ask != null || ticker == null ? ask : new BigDecimal(ticker.getaLowerCase());
+    }
+
+    private BigDecimal price(long price) {
+        return FixedPoint.toBigDecimal(price, rules.getPriceScale());
+    }
+
+    private BigDecimal balance(long balance) {
+        return FixedPoint.toBigDecimal(balance, FixedPoint.BALANCE_SCALE);
     }
 
 }
@@ -0,0 +1,468 @@
+package com.tradebot.rbm.simulator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import com.binance.connector.client.spot.rest.model.DepthResponse;
+import com.binance.connector.client.spot.websocket.api.model.OpenOrdersStatusResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderPlaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderPlaceResponse;
+import com.tradebot.rbm.adapter.OrderGateway;
+import com.tradebot.rbm.component.MarketEventListener;
+import com.tradebot.rbm.component.OrderBookRegistry;
+import com.tradebot.rbm.component.SymbolRulesRegistry;
+import com.tradebot.rbm.component.TradingSymbols;
+import com.tradebot.rbm.entity.dto.SimulatorStatsDTO;
+import com.tradebot.rbm.utils.FixedPoint;
+import com.tradebot.rbm.utils.SymbolRules;
+import com.tradebot.rbm.utils.dto.MarketEvent;
+import com.tradebot.rbm.websocket.dto.AccountStatusResponse;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Local stand-in for the exchange's order entry, for load testing the order
+ * path without sending anything to Binance.
+ *
+ * When {@code tradebot.simulator.enabled} is set this replaces
+ * {@code BinanceAdapter} as the {@link OrderGateway}. Orders go to a
+ * {@link MatchingEngine} for the trading symbol, funded with
+ * {@code tradebot.simulator.base-balance} and {@code quote-balance}, which fills
+ * them against the live trades and book tickers it receives from the strategy
+ * event loop. Market data still comes from the exchange. Only the
+ * primary trading symbol is simulated; orders for the other traded symbols are
+ * rejected.
+ *
+ * The engine runs on its own thread. Every request and every response or event
+ * is delayed by {@code tradebot.simulator.latency-ms} plus up to
+ * {@code latency-jitter-ms} of random jitter, so the strategy sees the
+ * round trips it would see live. Like WebSocket API requests, order requests
+ * return at once and their futures complete when the response would arrive. Order and account changes are delivered as
+ * executionReport, listStatus and outboundAccountPosition messages in the
+ * user data stream format, in the order they happened, to the handlers
+ * registered with {@link #addUserDataHandler}.
+ *
+ * Open orders are only reported through those events; {@link #openOrders}
+ * answers empty, and depth snapshots come from the live local order book.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "tradebot.simulator.enabled", havingValue = "true")
+public class ExchangeSimulator implements OrderGateway, MarketEventListener, MatchingEngine.Listener {
+
+    private final SymbolRules rules;
+    private final OrderBookRegistry orderBooks;
+    private final Clock clock;
+    private final MatchingEngine engine;
+    private final ScheduledExecutorService executor;
+
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final Random random;
+
+    private final List<Consumer<String>> userDataHandlers = new CopyOnWriteArrayList<>();
+
+    // Engine thread only: messages waiting for their delivery time, in order
+    private final ArrayDeque<PendingMessage> pendingMessages = new ArrayDeque<>();
+    private final StringBuilder message = new StringBuilder(640);
+    private long lastDeliveryNanos;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong requestNanos = new AtomicLong();
+    private final AtomicLong maxRequestNanos = new AtomicLong();
+    private final AtomicLong deliveredEvents = new AtomicLong();
+
+    private static final class PendingMessage {
+        final long dueNanos;
+        final String message;
+
+        PendingMessage(long dueNanos, String message) {
+            this.dueNanos = dueNanos;
+            this.message = message;
+        }
+    }
+
+    public ExchangeSimulator(SymbolRulesRegistry symbolRulesRegistry, OrderBookRegistry orderBooks, Clock clock,
+            TradingSymbols tradingSymbols,
+            @Value("${tradebot.simulator.base-balance:0}") BigDecimal baseBalance,
+            @Value("${tradebot.simulator.quote-balance:1000}") BigDecimal quoteBalance,
+            @Value("${tradebot.simulator.fee:0.001}") BigDecimal fee,
+            @Value("${tradebot.simulator.latency-ms:5}") double latencyMillis,
+            @Value("${tradebot.simulator.latency-jitter-ms:2}") double jitterMillis,
+            @Value("${tradebot.simulator.seed:1}") long seed) {
+        this.rules = symbolRulesRegistry.get(tradingSymbols.primary());
+        this.orderBooks = orderBooks;
+        this.clock = clock;
+        this.engine = new MatchingEngine(rules, clock, fee, this);
+        this.latencyNanos = (long) (latencyMillis * 1_000_000);
+        this.jitterNanos = (long) (jitterMillis * 1_000_000);
+        this.random = new Random(seed);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "ExchangeSimulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        execute(() -> engine.deposit(
+                FixedPoint.fromBigDecimal(baseBalance, FixedPoint.BALANCE_SCALE, RoundingMode.DOWN),
+                FixedPoint.fromBigDecimal(quoteBalance, FixedPoint.BALANCE_SCALE, RoundingMode.DOWN)));
+        log.warn("Exchange simulator enabled for {}, orders are NOT sent to Binance", rules.getSymbol());
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Registers a receiver for user data stream messages
+     */
+    public void addUserDataHandler(Consumer<String> handler) {
+        userDataHandlers.add(handler);
+    }
+
+    /**
+     * The simulated account, in the format of the account status response
+     */
+    public AccountStatusResponse.AccountResult accountSnapshot() {
+        return await(executor.submit(() -> {
+            var account = new AccountStatusResponse.AccountResult();
+            account.setUpdateTime(clock.millis());
+            account.setBalances(List.of(
+                    balance(rules.getBaseAsset(), engine.getBaseFree(), engine.getBaseLocked()),
+                    balance(rules.getQuoteAsset(), engine.getQuoteFree(), engine.getQuoteLocked())));
+            return account;
+        }));
+    }
+
+    private static AccountStatusResponse.Balance balance(String asset, long free, long locked) {
+        var balance = new AccountStatusResponse.Balance();
+        balance.setAsset(asset);
+        balance.setFree(FixedPoint.toBigDecimal(free, FixedPoint.BALANCE_SCALE).toPlainString());
+        balance.setLocked(FixedPoint.toBigDecimal(locked, FixedPoint.BALANCE_SCALE).toPlainString());
+        return balance;
+    }
+
+    @Override
+    public CompletableFuture<OrderPlaceResponse> placeOrder(OrderPlaceRequest order) {
+        return submit(() -> SimulatedOrders.place(engine, order));
+    }
+
+    @Override
+    public CompletableFuture<OrderListPlaceOcoResponse> placeOcoOrder(OrderListPlaceOcoRequest order) {
+        return submit(() -> SimulatedOrders.placeOco(engine, order));
+    }
+
+    @Override
+    public CompletableFuture<OrderListPlaceOtoResponse> placeOtoOrder(OrderListPlaceOtoRequest order) {
+        return submit(() -> SimulatedOrders.placeOto(engine, order));
+    }
+
+    @Override
+    public CompletableFuture<OrderCancelResponse> cancelOrder(String symbol, Long id) {
+        return submit(() -> SimulatedOrders.cancel(engine, symbol, id));
+    }
+
+    @Override
+    public CompletableFuture<OrderCancelResponse> cancelClientOrder(String symbol, String clientOrderId) {
+        return submit(() -> SimulatedOrders.cancel(engine, symbol, clientOrderId));
+    }
+
+    @Override
+    public CompletableFuture<OrderCancelReplaceResponse> cancelReplaceOrder(OrderCancelReplaceRequest order) {
+        return submit(() -> SimulatedOrders.cancelReplace(engine, order));
+    }
+
+    @Override
+    public CompletableFuture<OpenOrdersStatusResponse> openOrders(String symbol) {
+        return CompletableFuture.completedFuture(new OpenOrdersStatusResponse());
+    }
+
+    @Override
+    public DepthResponse depthSnapshot(String symbol, Integer limit) {
+        return orderBooks.get(symbol).depth(limit);
+    }
+
+    /**
+     * Hands the event's prices to the engine thread, parsed here so the event
+     * can be reused. Events of other symbols are ignored.
+     */
+    @Override
+    public void onMarketEvent(MarketEvent event) {
+        if (!rules.getSymbol().equals(event.getSymbol())) {
+            return;
+        }
+        if (event.getType() == MarketEvent.Type.TRADE) {
+            var trade = event.getTrade();
+            long price = rules.parsePrice(trade.getpLowerCase());
+            long quantity = rules.parseQuantity(trade.getqLowerCase());
+            execute(() -> engine.onMarketTrade(price, quantity));
+        } else if (event.getType() == MarketEvent.Type.TICKER) {
+            var ticker = event.getTicker();
+            long bidPrice = rules.parsePrice(ticker.getbLowerCase());
+            long bidQuantity = rules.parseQuantity(ticker.getB());
+            long askPrice = rules.parsePrice(ticker.getaLowerCase());
+            long askQuantity = rules.parseQuantity(ticker.getA());
+            execute(() -> engine.onMarketTicker(bidPrice, bidQuantity, askPrice, askQuantity));
+        }
+    }
+
+    /**
+     * Order counts, account and request latency so far
+     */
+    public SimulatorStatsDTO getStats() {
+        long count = requests.get();
+        return await(executor.submit(() -> SimulatorStatsDTO.builder()
+                .placedOrders(engine.getPlacedOrders())
+                .rejectedOrders(engine.getRejectedOrders())
+                .canceledOrders(engine.getCanceledOrders())
+                .fills(engine.getFills())
+                .filledOrders(engine.getFilledOrders())
+                .openOrders(engine.getOpenOrders().size())
+                .requests(count)
+                .averageRequestMicros(count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(requestNanos.get() / count))
+                .maxRequestMicros(TimeUnit.NANOSECONDS.toMicros(maxRequestNanos.get()))
+                .deliveredEvents(deliveredEvents.get())
+                .baseBalance(FixedPoint.toBigDecimal(engine.getBaseFree() + engine.getBaseLocked(),
+                        FixedPoint.BALANCE_SCALE).toPlainString())
+                .quoteBalance(FixedPoint.toBigDecimal(engine.getQuoteFree() + engine.getQuoteLocked(),
+                        FixedPoint.BALANCE_SCALE).toPlainString())
+                .build()));
+    }
+
+    /**
+     * Runs a request on the engine thread after the request latency and
+     * completes the returned future with its result, or its rejection, after the
+     * response latency
+     */
+    private <T> CompletableFuture<T> submit(Callable<T> request) {
+        long start = System.nanoTime();
+        var response = new CompletableFuture<T>();
+        executor.schedule(() -> {
+            T result;
+            try {
+                result = request.call();
+            } catch (Exception e) {
+                executor.schedule(() -> {
+                    recordRequest(start);
+                    response.completeExceptionally(e);
+                }, latency(), TimeUnit.NANOSECONDS);
+                return;
+            }
+            executor.schedule(() -> {
+                recordRequest(start);
+                response.complete(result);
+            }, latency(), TimeUnit.NANOSECONDS);
+        }, latency(), TimeUnit.NANOSECONDS);
+        return response;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the exchange simulator", e);
+        }
+    }
+
+    private void execute(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Exchange simulator task failed", e);
+            }
+        });
+    }
+
+    private void recordRequest(long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        requests.incrementAndGet();
+        requestNanos.addAndGet(elapsed);
+        maxRequestNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    private long latency() {
+        return jitterNanos > 0 ? latencyNanos + random.nextLong(jitterNanos + 1) : latencyNanos;
+    }
+
+    @Override
+    public void onExecution(MatchingEngine.Order order, MatchingEngine.ExecutionType executionType,
+            long lastQuantity, long lastPrice, long commission, long tradeId, boolean maker) {
+        long now = clock.millis();
+        var json = startMessage("executionReport", now);
+        json.append(",\"c\":\"").append(order.getClientOrderId()).append('"');
+        json.append(",\"S\":\"").append(order.isBuy() ? "BUY" : "SELL").append('"');
+        json.append(",\"o\":\"").append(order.getType()).append('"');
+        json.append(",\"f\":\"GTC\",\"q\":\"");
+        appendDecimal(json, order.getQuantity(), rules.getQuantityScale());
+        json.append("\",\"p\":\"");
+        appendDecimal(json, order.getPrice(), rules.getPriceScale());
+        json.append("\",\"P\":\"");
+        appendDecimal(json, order.getStopPrice(), rules.getPriceScale());
+        json.append("\",\"F\":\"0.00000000\",\"g\":")
+                .append(order.getOrderList() != null ? order.getOrderList().getOrderListId() : -1);
+        json.append(",\"C\":\"\",\"x\":\"").append(executionType).append('"');
+        json.append(",\"X\":\"").append(order.getStatus()).append('"');
+        json.append(",\"r\":\"NONE\",\"i\":").append(order.getOrderId());
+        json.append(",\"l\":\"");
+        appendDecimal(json, lastQuantity, rules.getQuantityScale());
+        json.append("\",\"z\":\"");
+        appendDecimal(json, order.getExecutedQuantity(), rules.getQuantityScale());
+        json.append("\",\"L\":\"");
+        appendDecimal(json, lastPrice, rules.getPriceScale());
+        json.append("\",\"n\":\"");
+        appendDecimal(json, commission, FixedPoint.BALANCE_SCALE);
+        json.append("\",\"N\":");
+        if (executionType == MatchingEngine.ExecutionType.TRADE) {
+            json.append('"').append(order.isBuy() ? rules.getBaseAsset() : rules.getQuoteAsset()).append('"');
+        } else {
+            json.append("null");
+        }
+        json.append(",\"T\":").append(order.getUpdateTime());
+        json.append(",\"t\":").append(executionType == MatchingEngine.ExecutionType.TRADE ? tradeId : -1);
+        // On the book: open, placed and not a stop still waiting for its trigger
+        json.append(",\"w\":").append(!order.isDone() && order.getStatus() != MatchingEngine.OrderStatus.PENDING_NEW
+                && (order.isWorking() || !order.isStop()));
+        json.append(",\"m\":").append(maker);
+        json.append(",\"M\":false,\"O\":").append(order.getCreationTime());
+        json.append(",\"Z\":\"");
+        appendDecimal(json, order.getCumulativeQuote(), FixedPoint.BALANCE_SCALE);
+        json.append("\",\"Y\":\"");
+        appendDecimal(json, FixedPoint.multiply(lastPrice, rules.getPriceScale(), lastQuantity,
+                rules.getQuantityScale(), FixedPoint.BALANCE_SCALE), FixedPoint.BALANCE_SCALE);
+        json.append("\",\"Q\":\"0.00000000\"}");
+        deliver(json.toString());
+    }
+
+    @Override
+    public void onListStatus(MatchingEngine.OrderList orderList) {
+        var status = orderList.isDone() ? "ALL_DONE" : "EXEC_STARTED";
+        var json = startMessage("listStatus", clock.millis());
+        json.append(",\"g\":").append(orderList.getOrderListId());
+        json.append(",\"c\":\"").append(orderList.getContingencyType());
+        json.append("\",\"l\":\"").append(status);
+        json.append("\",\"L\":\"").append(orderList.isDone() ? "ALL_DONE" : "EXECUTING");
+        json.append("\",\"r\":\"NONE\",\"C\":\"").append(orderList.getListClientOrderId());
+        json.append("\",\"T\":").append(orderList.getTransactionTime());
+        json.append(",\"O\":[");
+        var orders = orderList.getOrders();
+        for (int i = 0; i < orders.size(); i++) {
+            var order = orders.get(i);
+            json.append(i == 0 ? "{" : ",{");
+            json.append("\"s\":\"").append(rules.getSymbol());
+            json.append("\",\"i\":").append(order.getOrderId());
+            json.append(",\"c\":\"").append(order.getClientOrderId()).append("\"}");
+        }
+        json.append("]}");
+        deliver(json.toString());
+    }
+
+    @Override
+    public void onBalances(long time) {
+        var json = message;
+        json.setLength(0);
+        json.append("{\"e\":\"outboundAccountPosition\",\"E\":").append(time);
+        json.append(",\"u\":").append(time).append(",\"B\":[");
+        appendBalance(json, rules.getBaseAsset(), engine.getBaseFree(), engine.getBaseLocked());
+        json.append(',');
+        appendBalance(json, rules.getQuoteAsset(), engine.getQuoteFree(), engine.getQuoteLocked());
+        json.append("]}");
+        deliver(json.toString());
+    }
+
+    private StringBuilder startMessage(String eventType, long eventTime) {
+        var json = message;
+        json.setLength(0);
+        json.append("{\"e\":\"").append(eventType).append("\",\"E\":").append(eventTime);
+        json.append(",\"s\":\"").append(rules.getSymbol()).append('"');
+        return json;
+    }
+
+    private static void appendBalance(StringBuilder json, String asset, long free, long locked) {
+        json.append("{\"a\":\"").append(asset).append("\",\"f\":\"");
+        appendDecimal(json, free, FixedPoint.BALANCE_SCALE);
+        json.append("\",\"l\":\"");
+        appendDecimal(json, locked, FixedPoint.BALANCE_SCALE);
+        json.append("\"}");
+    }
+
+    /**
+     * Appends a scaled long with 8 decimals, the way the exchange formats
+     * amounts
+     */
+    private static void appendDecimal(StringBuilder json, long value, int scale) {
+        long units = FixedPoint.rescale(value, scale, FixedPoint.BALANCE_SCALE);
+        if (units < 0) {
+            json.append('-');
+            units = -units;
+        }
+        long unit = FixedPoint.pow10(FixedPoint.BALANCE_SCALE);
+        json.append(units / unit).append('.');
+        long fraction = units % unit;
+        for (long digit = unit / 10; digit > 1 && fraction < digit; digit /= 10) {
+            json.append('0');
+        }
+        json.append(fraction);
+    }
+
+    /**
+     * Queues a message for delivery after the response latency, never before
+     * the messages queued earlier
+     */
+    private void deliver(String userData) {
+        long due = Math.max(System.nanoTime() + latency(), lastDeliveryNanos);
+        lastDeliveryNanos = due;
+        pendingMessages.add(new PendingMessage(due, userData));
+        executor.schedule(this::deliverDue, due - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private void deliverDue() {
+        long now = System.nanoTime();
+        PendingMessage pending;
+        while ((pending = pendingMessages.peek()) != null && pending.dueNanos - now <= 0) {
+            pendingMessages.poll();
+            for (var handler : userDataHandlers) {
+                try {
+                    handler.accept(pending.message);
+                } catch (RuntimeException e) {
+                    log.error("User data handler failed on simulated message {}", pending.message, e);
+                }
+            }
+            deliveredEvents.incrementAndGet();
+        }
+    }
+}
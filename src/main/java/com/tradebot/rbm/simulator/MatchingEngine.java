@@ -0,0 +1,764 @@
+package com.tradebot.rbm.simulator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.tradebot.rbm.utils.FixedPoint;
+import com.tradebot.rbm.utils.SymbolRules;
+
+import lombok.Getter;
+
+/**
+ * In-process matching engine for one symbol and one account, standing in for
+ * the exchange.
+ *
+ * Resting limit orders are kept per price level in arrival order and matched
+ * with price-time priority. Besides the account's own resting orders, takers
+ * can fill against the market's best bid and ask from {@link #onMarketTicker},
+ * up to the quantity shown there, and public trades from
+ * {@link #onMarketTrade} fill resting orders they trade at or through, up to
+ * the trade quantity. Both produce partial fills. Stop orders wait until a
+ * trade reaches their stop price and then enter as market or limit orders. An
+ * OCO is a limit maker leg and a stop leg sharing one balance lock; once either
+ * leg fills or triggers, the other expires. An OTO is a working limit order and
+ * a pending order that waits, without a lock, until the working order is fully
+ * filled.
+ *
+ * Balances are locked when an order is placed and settled per fill, with the
+ * commission taken from the received asset, as on the exchange. Every change
+ * is reported to the {@link Listener} in the order it happens.
+ *
+ * Prices are at the symbol's price scale, quantities at its quantity scale and
+ * balances and quote amounts at {@link FixedPoint#BALANCE_SCALE}.
+ *
+ * Not thread safe; drive it from one thread.
+ */
+public class MatchingEngine {
+
+    public enum OrderType {
+        LIMIT, LIMIT_MAKER, MARKET, STOP_LOSS, STOP_LOSS_LIMIT
+    }
+
+    public enum OrderStatus {
+        PENDING_NEW, NEW, PARTIALLY_FILLED, FILLED, CANCELED, EXPIRED
+    }
+
+    public enum ContingencyType {
+        OCO, OTO
+    }
+
+    public enum ExecutionType {
+        NEW, TRADE, CANCELED, EXPIRED
+    }
+
+    /**
+     * Receives the engine's order and account updates, on the engine's thread
+     */
+    public interface Listener {
+
+        /**
+         * An order changed; the fill fields are only set for {@code TRADE}
+         */
+        void onExecution(Order order, ExecutionType executionType, long lastQuantity, long lastPrice,
+                long commission, long tradeId, boolean maker);
+
+        void onListStatus(OrderList orderList);
+
+        /**
+         * Balances changed, after the executions that changed them
+         */
+        void onBalances(long time);
+    }
+
+    @Getter
+    public static final class Order {
+        private final long orderId;
+        private final String clientOrderId;
+        private final OrderList orderList;
+        private final boolean buy;
+        private final OrderType type;
+        private final long price;
+        private final long stopPrice;
+        private final long quantity;
+        private final long creationTime;
+
+        private long executedQuantity;
+        private long cumulativeQuote;
+        private OrderStatus status = OrderStatus.NEW;
+        // False for a stop that has not triggered yet
+        private boolean working;
+        private long updateTime;
+        // Quote (buys) or base (sells) still locked for the order
+        private long locked;
+
+        Order(long orderId, String clientOrderId, OrderList orderList, boolean buy, OrderType type, long price,
+                long stopPrice, long quantity, long creationTime) {
+            this.orderId = orderId;
+            this.clientOrderId = clientOrderId;
+            this.orderList = orderList;
+            this.buy = buy;
+            this.type = type;
+            this.price = price;
+            this.stopPrice = stopPrice;
+            this.quantity = quantity;
+            this.creationTime = creationTime;
+            this.updateTime = creationTime;
+        }
+
+        public long getRemainingQuantity() {
+            return quantity - executedQuantity;
+        }
+
+        public boolean isDone() {
+            return status == OrderStatus.FILLED || status == OrderStatus.CANCELED
+                    || status == OrderStatus.EXPIRED;
+        }
+
+        boolean isStop() {
+            return type == OrderType.STOP_LOSS || type == OrderType.STOP_LOSS_LIMIT;
+        }
+    }
+
+    @Getter
+    public static final class OrderList {
+        private final long orderListId;
+        private final String listClientOrderId;
+        private final ContingencyType contingencyType;
+        // OCO: stop leg, limit leg. OTO: working order, pending order
+        private final List<Order> orders = new ArrayList<>(2);
+        private long transactionTime;
+        private boolean done;
+
+        OrderList(long orderListId, String listClientOrderId, ContingencyType contingencyType) {
+            this.orderListId = orderListId;
+            this.listClientOrderId = listClientOrderId;
+            this.contingencyType = contingencyType;
+        }
+    }
+
+    private final SymbolRules rules;
+    private final Clock clock;
+    private final Listener listener;
+    // Commission rate at FixedPoint.BALANCE_SCALE
+    private final long feeRate;
+
+    // Resting limit orders per price level, best level first
+    private final TreeMap<Long, ArrayDeque<Order>> bids = new TreeMap<>(Comparator.reverseOrder());
+    private final TreeMap<Long, ArrayDeque<Order>> asks = new TreeMap<>();
+    // Stops waiting for their trigger, in arrival order
+    private final List<Order> pendingStops = new ArrayList<>();
+    // Pending OTO orders whose working order filled, to place once the current
+    // match is done
+    private final ArrayDeque<Order> releasedPendingOrders = new ArrayDeque<>();
+    private final Map<Long, Order> openOrders = new HashMap<>();
+
+    // Market top of book offered to takers, quantities used up by fills
+    private long marketBid;
+    private long marketBidQuantity;
+    private long marketAsk;
+    private long marketAskQuantity;
+    @Getter
+    private long lastTradePrice;
+
+    @Getter
+    private long baseFree;
+    @Getter
+    private long baseLocked;
+    @Getter
+    private long quoteFree;
+    @Getter
+    private long quoteLocked;
+
+    private long nextOrderId = 1;
+    private long nextOrderListId = 1;
+    private long nextTradeId = 1;
+    private boolean balancesChanged;
+
+    @Getter
+    private long placedOrders;
+    @Getter
+    private long rejectedOrders;
+    @Getter
+    private long fills;
+    @Getter
+    private long filledOrders;
+    @Getter
+    private long canceledOrders;
+
+    public MatchingEngine(SymbolRules rules, Clock clock, BigDecimal feeRate, Listener listener) {
+        this.rules = rules;
+        this.clock = clock;
+        this.listener = listener;
+        this.feeRate = FixedPoint.fromBigDecimal(feeRate, FixedPoint.BALANCE_SCALE, RoundingMode.HALF_UP);
+    }
+
+    public SymbolRules getRules() {
+        return rules;
+    }
+
+    /**
+     * Adds free balance, at {@link FixedPoint#BALANCE_SCALE}
+     */
+    public void deposit(long base, long quote) {
+        baseFree += base;
+        quoteFree += quote;
+        listener.onBalances(clock.millis());
+    }
+
+    /**
+     * Places an order and matches it right away
+     *
+     * @param price     Limit price, unused for market and stop loss orders
+     * @param stopPrice Trigger price of stop orders
+     * @throws OrderRejectedException if the exchange would reject the order
+     */
+    public Order place(String clientOrderId, boolean buy, OrderType type, long price, long stopPrice,
+            long quantity) {
+        var order = newOrder(clientOrderId, null, buy, type, price, stopPrice, quantity);
+        if (type == OrderType.LIMIT_MAKER && crossesBook(order)) {
+            throw reject("Order would immediately match and take.");
+        }
+        accept(order, lockFor(order));
+        activate(order);
+        placeReleasedPendingOrders();
+        triggerStops();
+        flushBalances();
+        return order;
+    }
+
+    /**
+     * Places a one-cancels-the-other pair: a limit maker leg at {@code price}
+     * and a stop leg at {@code stopPrice}, a stop loss limit one when
+     * {@code stopLimitPrice} is positive
+     *
+     * @param limitClientOrderId Client order ID of the limit leg, null to derive
+     *                           one from the list's
+     * @param stopClientOrderId  Client order ID of the stop leg, null to derive
+     *                           one from the list's
+     * @throws OrderRejectedException if the exchange would reject either leg
+     */
+    public OrderList placeOco(String listClientOrderId, String limitClientOrderId, String stopClientOrderId,
+            boolean buy, long price, long stopPrice, long stopLimitPrice, long quantity) {
+        if (buy ? stopPrice <= price : stopPrice >= price) {
+            throw reject("The relationship of the prices for the orders is not correct.");
+        }
+        var list = new OrderList(nextOrderListId, listClientOrderId, ContingencyType.OCO);
+        var stopType = stopLimitPrice > 0 ? OrderType.STOP_LOSS_LIMIT : OrderType.STOP_LOSS;
+        var stop = newOrder(stopClientOrderId != null ? stopClientOrderId : listClientOrderId + "-stop", list, buy,
+                stopType, stopLimitPrice, stopPrice, quantity);
+        var limit = newOrder(limitClientOrderId != null ? limitClientOrderId : listClientOrderId + "-limit", list,
+                buy, OrderType.LIMIT_MAKER, price, 0, quantity);
+        if (crossesBook(limit)) {
+            throw reject("Order would immediately match and take.");
+        }
+        // One lock covers both legs and moves to whichever leg is left working
+        long lock = Math.max(lockFor(limit), lockFor(stop));
+        if (lock > (buy ? quoteFree : baseFree)) {
+            throw reject("Account has insufficient balance for requested action.");
+        }
+        nextOrderListId++;
+        list.orders.add(stop);
+        list.orders.add(limit);
+        list.transactionTime = clock.millis();
+        accept(stop, 0);
+        accept(limit, lock);
+        listener.onListStatus(list);
+        activate(stop);
+        activate(limit);
+        flushBalances();
+        return list;
+    }
+
+    /**
+     * Places a one-triggers-the-other pair: a limit or limit maker working order
+     * that is matched right away, and a pending order that is only placed, and
+     * only locks funds, once the working order is fully filled. The pending
+     * order expires if the balance does not cover it by then.
+     *
+     * @throws OrderRejectedException if the exchange would reject either order
+     */
+    public OrderList placeOto(String listClientOrderId, String workingClientOrderId, boolean workingBuy,
+            OrderType workingType, long workingPrice, long workingQuantity, String pendingClientOrderId,
+            boolean pendingBuy, OrderType pendingType, long pendingPrice, long pendingStopPrice,
+            long pendingQuantity) {
+        if (workingType != OrderType.LIMIT && workingType != OrderType.LIMIT_MAKER) {
+            throw reject("Unsupported order type for the working order.");
+        }
+        var list = new OrderList(nextOrderListId, listClientOrderId, ContingencyType.OTO);
+        var working = newOrder(workingClientOrderId != null ? workingClientOrderId : listClientOrderId + "-working",
+                list, workingBuy, workingType, workingPrice, 0, workingQuantity);
+        var pending = newOrder(pendingClientOrderId != null ? pendingClientOrderId : listClientOrderId + "-pending",
+                list, pendingBuy, pendingType, pendingPrice, pendingStopPrice, pendingQuantity);
+        if (workingType == OrderType.LIMIT_MAKER && crossesBook(working)) {
+            throw reject("Order would immediately match and take.");
+        }
+        long lock = lockFor(working);
+        if (lock > (workingBuy ? quoteFree : baseFree)) {
+            throw reject("Account has insufficient balance for requested action.");
+        }
+        nextOrderListId++;
+        list.orders.add(working);
+        list.orders.add(pending);
+        list.transactionTime = clock.millis();
+        accept(working, lock);
+        pending.status = OrderStatus.PENDING_NEW;
+        accept(pending, 0);
+        listener.onListStatus(list);
+        activate(working);
+        placeReleasedPendingOrders();
+        triggerStops();
+        flushBalances();
+        return list;
+    }
+
+    /**
+     * Cancels an open order, and the other leg when it belongs to an OCO
+     *
+     * @return false if the order is unknown or already done
+     */
+    public boolean cancel(long orderId) {
+        var order = openOrders.get(orderId);
+        if (order == null) {
+            return false;
+        }
+        finish(order, OrderStatus.CANCELED);
+        canceledOrders++;
+        if (order.orderList != null) {
+            for (var leg : order.orderList.orders) {
+                if (!leg.isDone()) {
+                    finish(leg, OrderStatus.CANCELED);
+                    canceledOrders++;
+                }
+            }
+        }
+        flushBalances();
+        return true;
+    }
+
+    /**
+     * Updates the market top of book that takers fill against
+     */
+    public void onMarketTicker(long bidPrice, long bidQuantity, long askPrice, long askQuantity) {
+        marketBid = bidPrice;
+        marketBidQuantity = bidQuantity;
+        marketAsk = askPrice;
+        marketAskQuantity = askQuantity;
+    }
+
+    /**
+     * Fills resting orders that a public trade prints at or through, best price
+     * and then earliest first, up to the trade quantity, then triggers stops
+     */
+    public void onMarketTrade(long price, long quantity) {
+        long remaining = quantity;
+        // A print at or below a bid could have hit it, at or above an ask lifted it
+        remaining = fillFromMarket(bids, price, remaining, true);
+        fillFromMarket(asks, price, remaining, false);
+        lastTradePrice = price;
+        placeReleasedPendingOrders();
+        triggerStops();
+        flushBalances();
+    }
+
+    private long fillFromMarket(TreeMap<Long, ArrayDeque<Order>> side, long tradePrice, long remaining,
+            boolean buySide) {
+        while (remaining > 0 && !side.isEmpty()) {
+            long level = side.firstKey();
+            if (buySide ? tradePrice > level : tradePrice < level) {
+                break;
+            }
+            var queue = side.get(level);
+            var order = queue.peekFirst();
+            long quantity = Math.min(remaining, order.getRemainingQuantity());
+            fill(order, quantity, level, true);
+            remaining -= quantity;
+        }
+        return remaining;
+    }
+
+    private Order newOrder(String clientOrderId, OrderList list, boolean buy, OrderType type, long price,
+            long stopPrice, long quantity) {
+        boolean needsPrice = type == OrderType.LIMIT || type == OrderType.LIMIT_MAKER
+                || type == OrderType.STOP_LOSS_LIMIT;
+        if (quantity <= 0 || (needsPrice && price <= 0)
+                || ((type == OrderType.STOP_LOSS || type == OrderType.STOP_LOSS_LIMIT) && stopPrice <= 0)) {
+            throw reject("Invalid price, stop price or quantity.");
+        }
+        long referencePrice = needsPrice ? price : type == OrderType.MARKET ? lastTradePrice : stopPrice;
+        if (referencePrice > 0 && !rules.isTradable(referencePrice, quantity)) {
+            throw reject("Filter failure: NOTIONAL or LOT_SIZE or PRICE_FILTER.");
+        }
+        if ((type == OrderType.STOP_LOSS || type == OrderType.STOP_LOSS_LIMIT) && isTriggered(buy, stopPrice)) {
+            throw reject("Stop price would trigger immediately.");
+        }
+        return new Order(nextOrderId++, clientOrderId, list, buy, type, price, stopPrice, quantity,
+                clock.millis());
+    }
+
+    /**
+     * Amount to lock for an order: its quantity for sells, and its quote value at
+     * the limit or stop price for buys. Market buys lock nothing and are bounded
+     * by the free quote balance as they fill.
+     */
+    private long lockFor(Order order) {
+        if (!order.buy) {
+            return base(order.quantity);
+        }
+        long price = order.type == OrderType.STOP_LOSS ? order.stopPrice : order.price;
+        return price > 0 ? rules.notional(price, order.quantity) : 0;
+    }
+
+    private void accept(Order order, long lock) {
+        if (lock > (order.buy ? quoteFree : baseFree)) {
+            throw reject("Account has insufficient balance for requested action.");
+        }
+        lock(order, lock);
+        placedOrders++;
+        openOrders.put(order.orderId, order);
+        listener.onExecution(order, ExecutionType.NEW, 0, 0, 0, -1, false);
+    }
+
+    private void lock(Order order, long lock) {
+        if (order.buy) {
+            quoteFree -= lock;
+            quoteLocked += lock;
+        } else {
+            baseFree -= lock;
+            baseLocked += lock;
+        }
+        order.locked = lock;
+        balancesChanged |= lock > 0;
+    }
+
+    /**
+     * Places the pending orders of OTO lists whose working order filled, in the
+     * order the working orders filled
+     */
+    private void placeReleasedPendingOrders() {
+        Order pending;
+        while ((pending = releasedPendingOrders.pollFirst()) != null) {
+            if (pending.status != OrderStatus.PENDING_NEW) {
+                continue;
+            }
+            long lock = lockFor(pending);
+            if (lock > (pending.buy ? quoteFree : baseFree)
+                    || (pending.type == OrderType.LIMIT_MAKER && crossesBook(pending))) {
+                finish(pending, OrderStatus.EXPIRED);
+                continue;
+            }
+            lock(pending, lock);
+            pending.status = OrderStatus.NEW;
+            pending.updateTime = clock.millis();
+            listener.onExecution(pending, ExecutionType.NEW, 0, 0, 0, -1, false);
+            activate(pending);
+        }
+    }
+
+    /**
+     * Matches a new order, rests what is left of a limit order and parks stops
+     */
+    private void activate(Order order) {
+        if (order.isStop()) {
+            pendingStops.add(order);
+            return;
+        }
+        order.working = true;
+        if (order.type != OrderType.LIMIT_MAKER) {
+            match(order);
+        }
+        if (order.isDone()) {
+            return;
+        }
+        if (order.type == OrderType.MARKET) {
+            // Nothing left to fill against
+            finish(order, OrderStatus.EXPIRED);
+        } else {
+            (order.buy ? bids : asks).computeIfAbsent(order.price, key -> new ArrayDeque<>()).addLast(order);
+        }
+    }
+
+    private boolean crossesBook(Order order) {
+        if (order.buy) {
+            long bestAsk = asks.isEmpty() ? Long.MAX_VALUE : asks.firstKey();
+            return order.price >= bestAsk || (marketAskQuantity > 0 && order.price >= marketAsk);
+        }
+        long bestBid = bids.isEmpty() ? Long.MIN_VALUE : bids.firstKey();
+        return order.price <= bestBid || (marketBidQuantity > 0 && order.price <= marketBid);
+    }
+
+    /**
+     * Takes liquidity for an incoming order: resting orders of the opposite side
+     * and the market top of book, whichever is better priced first
+     */
+    private void match(Order taker) {
+        var opposite = taker.buy ? asks : bids;
+        boolean limited = taker.type != OrderType.MARKET;
+        while (!taker.isDone() && taker.getRemainingQuantity() > 0) {
+            long bookPrice = opposite.isEmpty() ? 0 : opposite.firstKey();
+            long marketPrice = taker.buy ? (marketAskQuantity > 0 ? marketAsk : 0)
+                    : (marketBidQuantity > 0 ? marketBid : 0);
+            boolean useBook = bookPrice > 0
+                    && (marketPrice == 0 || (taker.buy ? bookPrice <= marketPrice : bookPrice >= marketPrice));
+            long price = useBook ? bookPrice : marketPrice;
+            if (price == 0 || (limited && (taker.buy ? price > taker.price : price < taker.price))) {
+                return;
+            }
+
+            long quantity = taker.getRemainingQuantity();
+            if (!useBook) {
+                quantity = Math.min(quantity, taker.buy ? marketAskQuantity : marketBidQuantity);
+            } else {
+                quantity = Math.min(quantity, opposite.get(bookPrice).peekFirst().getRemainingQuantity());
+            }
+            if (taker.buy && (taker.type == OrderType.MARKET || taker.type == OrderType.STOP_LOSS)) {
+                quantity = affordable(quantity, price, quoteFree + taker.locked);
+                if (quantity <= 0) {
+                    return;
+                }
+            }
+
+            if (useBook) {
+                var maker = opposite.get(bookPrice).peekFirst();
+                fill(maker, quantity, price, true);
+            } else if (taker.buy) {
+                marketAskQuantity -= quantity;
+            } else {
+                marketBidQuantity -= quantity;
+            }
+            fill(taker, quantity, price, false);
+        }
+    }
+
+    /**
+     * Largest quantity up to {@code quantity} that a market buy can pay for at the
+     * price out of {@code available} quote
+     */
+    private long affordable(long quantity, long price, long available) {
+        if (rules.notional(price, quantity) <= available) {
+            return quantity;
+        }
+        var affordable = FixedPoint.toBigDecimal(available, FixedPoint.BALANCE_SCALE)
+                .divide(FixedPoint.toBigDecimal(price, rules.getPriceScale()), rules.getQuantityScale(),
+                        RoundingMode.DOWN);
+        return rules.floorQuantity(affordable.unscaledValue().longValueExact());
+    }
+
+    private void fill(Order order, long quantity, long price, boolean maker) {
+        long quote = rules.notional(price, quantity);
+        long commission;
+        if (order.buy) {
+            long spent = Math.min(quote, order.locked);
+            order.locked -= spent;
+            quoteLocked -= spent;
+            quoteFree -= quote - spent;
+            commission = fee(base(quantity));
+            baseFree += base(quantity) - commission;
+        } else {
+            long sold = Math.min(base(quantity), order.locked);
+            order.locked -= sold;
+            baseLocked -= sold;
+            baseFree -= base(quantity) - sold;
+            commission = fee(quote);
+            quoteFree += quote - commission;
+        }
+        balancesChanged = true;
+
+        order.executedQuantity += quantity;
+        order.cumulativeQuote += quote;
+        order.updateTime = clock.millis();
+        if (!maker) {
+            lastTradePrice = price;
+        }
+        fills++;
+        boolean filled = order.executedQuantity == order.quantity;
+        order.status = filled ? OrderStatus.FILLED : OrderStatus.PARTIALLY_FILLED;
+        if (filled) {
+            remove(order);
+            release(order);
+            filledOrders++;
+        }
+        listener.onExecution(order, ExecutionType.TRADE, quantity, price, commission, nextTradeId++, maker);
+
+        var list = order.orderList;
+        if (list == null) {
+            return;
+        }
+        if (list.contingencyType == ContingencyType.OCO) {
+            // Any fill of an OCO leg ends the other one
+            expireOtherLegs(order);
+        } else if (filled && order == list.orders.get(0)) {
+            releasedPendingOrders.addLast(list.orders.get(1));
+        } else if (filled) {
+            completeList(list);
+        }
+    }
+
+    private boolean isTriggered(boolean buy, long stopPrice) {
+        return lastTradePrice > 0 && (buy ? lastTradePrice >= stopPrice : lastTradePrice <= stopPrice);
+    }
+
+    /**
+     * Activates stops reached by the last trade price, repeating while their own
+     * fills move the price into further stops
+     */
+    private void triggerStops() {
+        boolean triggeredAny = true;
+        while (triggeredAny && !pendingStops.isEmpty()) {
+            triggeredAny = false;
+            for (var stop : List.copyOf(pendingStops)) {
+                if (stop.isDone() || !isTriggered(stop.buy, stop.stopPrice) || !pendingStops.remove(stop)) {
+                    continue;
+                }
+                triggeredAny = true;
+                if (stop.orderList != null && stop.orderList.contingencyType == ContingencyType.OCO) {
+                    // The triggered leg takes over the lock of the list
+                    expireOtherLegs(stop);
+                }
+                stop.working = true;
+                match(stop);
+                placeReleasedPendingOrders();
+                if (stop.isDone()) {
+                    continue;
+                }
+                if (stop.type == OrderType.STOP_LOSS) {
+                    finish(stop, OrderStatus.EXPIRED);
+                } else {
+                    (stop.buy ? bids : asks).computeIfAbsent(stop.price, key -> new ArrayDeque<>())
+                            .addLast(stop);
+                }
+            }
+        }
+    }
+
+    private void expireOtherLegs(Order order) {
+        var list = order.orderList;
+        for (var leg : list.orders) {
+            if (leg != order && !leg.isDone()) {
+                // Hand the shared lock to the leg that keeps working
+                order.locked += leg.locked;
+                leg.locked = 0;
+                finish(leg, OrderStatus.EXPIRED);
+            }
+        }
+        if (order.isDone()) {
+            release(order);
+            completeList(list);
+        }
+    }
+
+    /**
+     * Takes an order off the book with a final status and unlocks what it still
+     * held
+     */
+    private void finish(Order order, OrderStatus status) {
+        remove(order);
+        release(order);
+        order.status = status;
+        order.updateTime = clock.millis();
+        listener.onExecution(order, status == OrderStatus.CANCELED ? ExecutionType.CANCELED
+                : ExecutionType.EXPIRED, 0, 0, 0, -1, false);
+        if (order.orderList != null && order.orderList.orders.stream().allMatch(Order::isDone)) {
+            completeList(order.orderList);
+        }
+    }
+
+    private void completeList(OrderList list) {
+        if (list.done || !list.orders.stream().allMatch(Order::isDone)) {
+            return;
+        }
+        list.done = true;
+        list.transactionTime = clock.millis();
+        listener.onListStatus(list);
+    }
+
+    private void remove(Order order) {
+        openOrders.remove(order.orderId);
+        if (order.isStop() && !order.working) {
+            pendingStops.remove(order);
+            return;
+        }
+        var side = order.buy ? bids : asks;
+        var queue = side.get(order.price);
+        if (queue != null && queue.remove(order) && queue.isEmpty()) {
+            side.remove(order.price);
+        }
+    }
+
+    private void release(Order order) {
+        if (order.locked == 0) {
+            return;
+        }
+        if (order.buy) {
+            quoteLocked -= order.locked;
+            quoteFree += order.locked;
+        } else {
+            baseLocked -= order.locked;
+            baseFree += order.locked;
+        }
+        order.locked = 0;
+        balancesChanged = true;
+    }
+
+    private void flushBalances() {
+        if (balancesChanged) {
+            balancesChanged = false;
+            listener.onBalances(clock.millis());
+        }
+    }
+
+    private OrderRejectedException reject(String reason) {
+        rejectedOrders++;
+        return new OrderRejectedException(reason);
+    }
+
+    /**
+     * Quantity at {@link FixedPoint#BALANCE_SCALE}
+     */
+    private long base(long quantity) {
+        return FixedPoint.rescale(quantity, rules.getQuantityScale(), FixedPoint.BALANCE_SCALE);
+    }
+
+    private long fee(long amount) {
+        return FixedPoint.multiply(amount, FixedPoint.BALANCE_SCALE, feeRate, FixedPoint.BALANCE_SCALE,
+                FixedPoint.BALANCE_SCALE);
+    }
+
+    public Order getOrder(long orderId) {
+        return openOrders.get(orderId);
+    }
+
+    /**
+     * Open orders, including untriggered stops, in no particular order
+     */
+    public List<Order> getOpenOrders() {
+        return Collections.unmodifiableList(new ArrayList<>(openOrders.values()));
+    }
+
+    /**
+     * Resting quantity per price level, best first, as price and quantity pairs
+     */
+    public List<long[]> levels(boolean bidSide, int limit) {
+        var side = bidSide ? bids : asks;
+        List<long[]> levels = new ArrayList<>(Math.min(limit, side.size()));
+        for (var entry : side.entrySet()) {
+            if (levels.size() >= limit) {
+                break;
+            }
+            long quantity = 0;
+            for (var order : entry.getValue()) {
+                quantity += order.getRemainingQuantity();
+            }
+            levels.add(new long[] { entry.getKey(), quantity });
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,11 @@
+package com.tradebot.rbm.simulator;
+
+/**
+ * An order the simulated exchange refuses, with the exchange's error message
+ */
+public class OrderRejectedException extends RuntimeException {
+
+    public OrderRejectedException(String message) {
+        super(message);
+    }
+}
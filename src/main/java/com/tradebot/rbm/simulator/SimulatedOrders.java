@@ -0,0 +1,201 @@
+package com.tradebot.rbm.simulator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.binance.connector.client.spot.websocket.api.model.CancelReplaceMode;
+import com.binance.connector.client.spot.websocket.api.model.CancelRestrictions;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelReplaceResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderCancelResponseResult;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOcoResponseResult;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderListPlaceOtoResponseResult;
+import com.binance.connector.client.spot.websocket.api.model.OrderPlaceRequest;
+import com.binance.connector.client.spot.websocket.api.model.OrderPlaceResponse;
+import com.binance.connector.client.spot.websocket.api.model.OrderPlaceResponseResult;
+import com.tradebot.rbm.utils.FixedPoint;
+import com.tradebot.rbm.utils.SymbolRules;
+
+/**
+ * Translates the connector's WebSocket API order requests into
+ * {@link MatchingEngine} calls and its results back into connector responses,
+ * for the gateways built on the engine. Responses carry the IDs the strategy
+ * needs; fills and statuses come as execution reports like on the exchange.
+ */
+public final class SimulatedOrders {
+
+    private SimulatedOrders() {
+    }
+
+    public static OrderPlaceResponse place(MatchingEngine engine, OrderPlaceRequest order) {
+        var rules = engine.getRules();
+        checkSymbol(rules, order.getSymbol());
+        var type = type(order.getType().getValue());
+        var clientOrderId = order.getNewClientOrderId() != null ? order.getNewClientOrderId() : clientOrderId("ws");
+        var placed = engine.place(clientOrderId, isBuy(order.getSide().getValue()), type,
+                price(rules, order.getPrice()), price(rules, order.getStopPrice()),
+                quantity(rules, order.getQuantity()));
+        var result = new OrderPlaceResponseResult();
+        result.setSymbol(rules.getSymbol());
+        result.setOrderId(placed.getOrderId());
+        result.setClientOrderId(placed.getClientOrderId());
+        var response = new OrderPlaceResponse();
+        response.setResult(result);
+        return response;
+    }
+
+    /**
+     * Places an OCO as the engine's limit maker and stop pair: for a sell the
+     * above leg is the limit maker and the below leg the stop, for a buy the
+     * other way around
+     */
+    public static OrderListPlaceOcoResponse placeOco(MatchingEngine engine, OrderListPlaceOcoRequest order) {
+        var rules = engine.getRules();
+        checkSymbol(rules, order.getSymbol());
+        boolean buy = isBuy(order.getSide().getValue());
+        var aboveType = order.getAboveType().getValue();
+        var belowType = order.getBelowType().getValue();
+        var limitType = buy ? belowType : aboveType;
+        var stopType = buy ? aboveType : belowType;
+        if (!"LIMIT_MAKER".equals(limitType) || !stopType.startsWith("STOP_LOSS")) {
+            throw new OrderRejectedException("Unsupported order types: " + aboveType + " and " + belowType);
+        }
+        var listClientOrderId = order.getListClientOrderId() != null ? order.getListClientOrderId()
+                : clientOrderId("oco");
+        var list = engine.placeOco(listClientOrderId,
+                buy ? order.getBelowClientOrderId() : order.getAboveClientOrderId(),
+                buy ? order.getAboveClientOrderId() : order.getBelowClientOrderId(), buy,
+                price(rules, buy ? order.getBelowPrice() : order.getAbovePrice()),
+                price(rules, buy ? order.getAboveStopPrice() : order.getBelowStopPrice()),
+                "STOP_LOSS_LIMIT".equals(stopType)
+                        ? price(rules, buy ? order.getAbovePrice() : order.getBelowPrice())
+                        : 0,
+                quantity(rules, order.getQuantity()));
+        var result = new OrderListPlaceOcoResponseResult();
+        result.setOrderListId(list.getOrderListId());
+        result.setListClientOrderId(list.getListClientOrderId());
+        result.setSymbol(rules.getSymbol());
+        var response = new OrderListPlaceOcoResponse();
+        response.setResult(result);
+        return response;
+    }
+
+    public static OrderListPlaceOtoResponse placeOto(MatchingEngine engine, OrderListPlaceOtoRequest order) {
+        var rules = engine.getRules();
+        checkSymbol(rules, order.getSymbol());
+        var listClientOrderId = order.getListClientOrderId() != null ? order.getListClientOrderId()
+                : clientOrderId("oto");
+        var list = engine.placeOto(listClientOrderId, order.getWorkingClientOrderId(),
+                isBuy(order.getWorkingSide().getValue()), type(order.getWorkingType().getValue()),
+                price(rules, order.getWorkingPrice()), quantity(rules, order.getWorkingQuantity()),
+                order.getPendingClientOrderId(), isBuy(order.getPendingSide().getValue()),
+                type(order.getPendingType().getValue()), price(rules, order.getPendingPrice()),
+                price(rules, order.getPendingStopPrice()), quantity(rules, order.getPendingQuantity()));
+        var result = new OrderListPlaceOtoResponseResult();
+        result.setOrderListId(list.getOrderListId());
+        result.setListClientOrderId(list.getListClientOrderId());
+        result.setSymbol(rules.getSymbol());
+        var response = new OrderListPlaceOtoResponse();
+        response.setResult(result);
+        return response;
+    }
+
+    public static OrderCancelResponse cancel(MatchingEngine engine, String symbol, Long orderId) {
+        checkSymbol(engine.getRules(), symbol);
+        if (orderId == null || !engine.cancel(orderId)) {
+            throw new OrderRejectedException("Unknown order sent.");
+        }
+        var result = new OrderCancelResponseResult();
+        result.setSymbol(engine.getRules().getSymbol());
+        result.setOrderId(orderId);
+        var response = new OrderCancelResponse();
+        response.setResult(result);
+        return response;
+    }
+
+    /**
+     * Cancels an open order by its client order ID
+     */
+    public static OrderCancelResponse cancel(MatchingEngine engine, String symbol, String clientOrderId) {
+        checkSymbol(engine.getRules(), symbol);
+        for (var order : engine.getOpenOrders()) {
+            if (order.getClientOrderId().equals(clientOrderId)) {
+                return cancel(engine, symbol, order.getOrderId());
+            }
+        }
+        throw new OrderRejectedException("Unknown order sent.");
+    }
+
+    /**
+     * Cancels the order and places the new one in the same engine step, so no
+     * trade can fall between them. A failed cancel, including one its cancel
+     * restrictions forbid, rejects the request unless the mode allows placing
+     * the new order anyway.
+     */
+    public static OrderCancelReplaceResponse cancelReplace(MatchingEngine engine, OrderCancelReplaceRequest order) {
+        var rules = engine.getRules();
+        checkSymbol(rules, order.getSymbol());
+        var canceledOrder = order.getCancelOrderId() != null ? engine.getOrder(order.getCancelOrderId()) : null;
+        boolean allowed = canceledOrder != null
+                && (order.getCancelRestrictions() != CancelRestrictions.ONLY_NEW
+                        || canceledOrder.getStatus() == MatchingEngine.OrderStatus.NEW)
+                && (order.getCancelRestrictions() != CancelRestrictions.ONLY_PARTIALLY_FILLED
+                        || canceledOrder.getStatus() == MatchingEngine.OrderStatus.PARTIALLY_FILLED);
+        boolean canceled = allowed && engine.cancel(canceledOrder.getOrderId());
+        if (!canceled && order.getCancelReplaceMode() != CancelReplaceMode.ALLOW_FAILURE) {
+            throw new OrderRejectedException("Order cancel-replace failed: Unknown order sent.");
+        }
+        var clientOrderId = order.getNewClientOrderId() != null ? order.getNewClientOrderId() : clientOrderId("ws");
+        engine.place(clientOrderId, isBuy(order.getSide().getValue()), type(order.getType().getValue()),
+                price(rules, order.getPrice()), price(rules, order.getStopPrice()),
+                quantity(rules, order.getQuantity()));
+        return new OrderCancelReplaceResponse();
+    }
+
+    /**
+     * The engine trades one symbol; orders that name another one are rejected
+     */
+    static void checkSymbol(SymbolRules rules, String symbol) {
+        if (symbol != null && !symbol.equalsIgnoreCase(rules.getSymbol())) {
+            throw new OrderRejectedException("Unsupported symbol: " + symbol);
+        }
+    }
+
+    static MatchingEngine.OrderType type(String type) {
+        try {
+            return MatchingEngine.OrderType.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            throw new OrderRejectedException("Unsupported order type: " + type);
+        }
+    }
+
+    /**
+     * Price at the symbol's scale, zero when absent
+     */
+    static long price(SymbolRules rules, Double price) {
+        return price == null ? 0
+                : FixedPoint.fromBigDecimal(BigDecimal.valueOf(price), rules.getPriceScale(), RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Quantity at the symbol's scale, rounded down
+     */
+    static long quantity(SymbolRules rules, Double quantity) {
+        return quantity == null ? 0
+                : FixedPoint.fromBigDecimal(BigDecimal.valueOf(quantity), rules.getQuantityScale(),
+                        RoundingMode.DOWN);
+    }
+
+    private static boolean isBuy(String side) {
+        return "BUY".equals(side);
+    }
+
+    private static String clientOrderId(String prefix) {
+        return prefix + "_" + System.nanoTime();
+    }
+}
@@ -0,0 +1,183 @@
+package com.tradebot.rbm.utils;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.stereotype.Component;
+
+import com.tradebot.rbm.websocket.dto.AccountStatusResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Account balances indexed by an interned asset ID, kept current by the user
+ * data stream.
+ *
+ * Free and locked amounts are fixed-point longs at
+ * {@link FixedPoint#BALANCE_SCALE}. Callers on the hot path resolve the asset
+ * ID once with {@link #assetId(String)} and then read through it, which is a
+ * couple of array loads under a per-asset sequence lock and never blocks.
+ * Writes are rare and serialized.
+ */
+@Slf4j
+@Component
+public class AccountBalanceStore {
+
+    public static final int MAX_ASSETS = 2048;
+
+    private final ConcurrentHashMap<String, Integer> assetIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextAssetId = new AtomicInteger();
+    private final String[] assets = new String[MAX_ASSETS];
+
+    private final AtomicLongArray free = new AtomicLongArray(MAX_ASSETS);
+    private final AtomicLongArray locked = new AtomicLongArray(MAX_ASSETS);
+    // Exchange time of the last absolute position per asset
+    private final AtomicLongArray updateTimes = new AtomicLongArray(MAX_ASSETS);
+    // Per-asset sequence lock, odd while the asset is being written
+    private final AtomicLongArray assetVersions = new AtomicLongArray(MAX_ASSETS);
+
+    // Bumped on every change to any balance
+    private final AtomicLong version = new AtomicLong();
+
+    // Account status entries kept in step with the store for the status endpoint
+    private final AccountStatusResponse.Balance[] statusBalances = new AccountStatusResponse.Balance[MAX_ASSETS];
+
+    private volatile boolean loaded = false;
+
+    /**
+     * Interned ID of an asset, assigned on first use. Asset names are matched
+     * case-insensitively.
+     */
+    public int assetId(String asset) {
+        Integer id = assetIds.get(asset);
+        if (id != null) {
+            return id;
+        }
+        return assetIds.computeIfAbsent(asset.toUpperCase(), key -> {
+            int next = nextAssetId.getAndIncrement();
+            if (next >= MAX_ASSETS) {
+                throw new IllegalStateException("Too many assets in balance store: " + key);
+            }
+            assets[next] = key;
+            return next;
+        });
+    }
+
+    public String asset(int assetId) {
+        return assets[assetId];
+    }
+
+    /**
+     * Loads the full balance list of an account status response
+     */
+    public synchronized void loadSnapshot(AccountStatusResponse.AccountResult account) {
+        List<AccountStatusResponse.Balance> balances = account.getBalances();
+        if (balances == null) {
+            return;
+        }
+        for (var balance : balances) {
+            int id = assetId(balance.getAsset());
+            statusBalances[id] = balance;
+            if (account.getUpdateTime() < updateTimes.get(id)) {
+                // The stream already delivered a newer position
+                continue;
+            }
+            write(id, FixedPoint.parse(balance.getFree(), FixedPoint.BALANCE_SCALE),
+                    FixedPoint.parse(balance.getLocked(), FixedPoint.BALANCE_SCALE), account.getUpdateTime());
+        }
+        loaded = true;
+        log.info("Balance store loaded with {} assets", balances.size());
+    }
+
+    /**
+     * Applies an absolute position from an {@code outboundAccountPosition}
+     * event, amounts at {@link FixedPoint#BALANCE_SCALE}
+     */
+    public synchronized void updatePosition(String asset, long freeAmount, long lockedAmount, long lastUpdateTime) {
+        int id = assetId(asset);
+        if (lastUpdateTime < updateTimes.get(id)) {
+            // Older than what the store already holds
+            return;
+        }
+        write(id, freeAmount, lockedAmount, lastUpdateTime);
+        var statusBalance = statusBalances[id];
+        if (statusBalance != null) {
+            statusBalance.setFree(format(freeAmount));
+            statusBalance.setLocked(format(lockedAmount));
+        }
+    }
+
+    /**
+     * Applies a free balance delta at {@link FixedPoint#BALANCE_SCALE} from a
+     * {@code balanceUpdate} event, unless an absolute position at or after its
+     * clear time was already applied
+     */
+    public synchronized void applyDelta(String asset, long delta, long clearTime) {
+        int id = assetId(asset);
+        if (clearTime <= updateTimes.get(id)) {
+            return;
+        }
+        long nextFree = free.get(id) + delta;
+        write(id, nextFree, locked.get(id), updateTimes.get(id));
+        var statusBalance = statusBalances[id];
+        if (statusBalance != null) {
+            statusBalance.setFree(format(nextFree));
+        }
+    }
+
+    private static String format(long amount) {
+        return FixedPoint.toBigDecimal(amount, FixedPoint.BALANCE_SCALE).toPlainString();
+    }
+
+    private void write(int id, long freeAmount, long lockedAmount, long updateTime) {
+        long assetVersion = assetVersions.get(id);
+        assetVersions.set(id, assetVersion + 1);
+        free.set(id, freeAmount);
+        locked.set(id, lockedAmount);
+        updateTimes.set(id, updateTime);
+        assetVersions.set(id, assetVersion + 2);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Free balance at {@link FixedPoint#BALANCE_SCALE}
+     */
+    public long free(int assetId) {
+        return free.get(assetId);
+    }
+
+    /**
+     * Locked balance at {@link FixedPoint#BALANCE_SCALE}
+     */
+    public long locked(int assetId) {
+        return locked.get(assetId);
+    }
+
+    /**
+     * Free plus locked balance, read consistently
+     */
+    public long total(int assetId) {
+        long before;
+        long total;
+        do {
+            before = assetVersions.get(assetId);
+            total = free.get(assetId) + locked.get(assetId);
+        } while ((before & 1) != 0 || before != assetVersions.get(assetId));
+        return total;
+    }
+
+    /**
+     * Incremented on every balance change, lets readers skip work when nothing
+     * moved
+     */
+    public long version() {
+        return version.get();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+}
@@ -0,0 +1,37 @@
+package com.tradebot.rbm.utils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exponential back-off for reconnect attempts: the delay doubles with every
+ * attempt from the initial delay up to the maximum, and starts over once a
+ * connection succeeds
+ */
+public class Backoff {
+
+    private final long initialMillis;
+    private final long maxMillis;
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    public Backoff(long initialMillis, long maxMillis) {
+        this.initialMillis = initialMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Delay before the next attempt, counting it
+     */
+    public long nextDelayMillis() {
+        int attempt = attempts.getAndIncrement();
+        // Past 30 doublings any sane maximum is reached
+        return Math.min(maxMillis, initialMillis << Math.min(attempt, 30));
+    }
+
+    public void reset() {
+        attempts.set(0);
+    }
+
+    public int getAttempts() {
+        return attempts.get();
+    }
+}
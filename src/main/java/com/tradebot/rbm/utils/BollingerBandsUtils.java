@@ -327,9 +327,38 @@ public class BollingerBandsUtils {
                     (period + 10) + " data points");
         }
 
-        // Calculate Bollinger Bands for all available data
-        List<BollingerBandsResult> results = calculateBollingerBands(priceData, period, standardDeviationMultiplier);
+        // Columnar backfill through the array kernels
+        int size = priceData.size();
+        double[] prices = new double[size];
+        double[] volumes = new double[size];
+        for (int i = 0; i < size; i++) {
+            PricePoint point = priceData.get(i);
+            prices[i] = point.getPrice().doubleValue();
+            volumes[i] = point.getVolume().doubleValue();
+        }
+        double[] upper = new double[size];
+        double[] middle = new double[size];
+        double[] lower = new double[size];
+        IndicatorKernels.bollinger(prices, period, standardDeviationMultiplier.doubleValue(), upper, middle, lower);
+
+        List<BollingerBandsResult> results = new ArrayList<>(size - period + 1);
+        for (int i = period - 1; i < size; i++) {
+            BollingerSignal signal = i == period - 1
+                    ? StreamingBollingerBands.determineSignal(prices[i], volumes[i], upper[i], lower[i],
+                            Double.NaN, Double.NaN, Double.NaN)
+                    : StreamingBollingerBands.determineSignal(prices[i], volumes[i], upper[i], lower[i],
+                            prices[i - 1], upper[i - 1], lower[i - 1]);
+            results.add(new BollingerBandsResult(BigDecimal.valueOf(upper[i]), BigDecimal.valueOf(middle[i]),
+                    BigDecimal.valueOf(lower[i]), priceData.get(i).getPrice(), signal,
+                    priceData.get(i).getTimestamp()));
+        }
+        return analyze(results);
+    }
 
+    /**
+     * Builds the analysis from a series of band results, oldest first
+     */
+    static BollingerBandsAnalysis analyze(List<BollingerBandsResult> results) {
         if (results.isEmpty()) {
             throw new IllegalStateException("Unable to calculate Bollinger Bands");
         }
@@ -352,144 +381,6 @@ public class BollingerBandsUtils {
         return performCompleteAnalysis(priceData, DEFAULT_PERIOD, DEFAULT_STANDARD_DEVIATION_MULTIPLIER);
     }
 
-    /**
-     * Calculate Bollinger Bands for the entire dataset
-     */
-    private static List<BollingerBandsResult> calculateBollingerBands(List<PricePoint> priceData,
-            int period, BigDecimal standardDeviationMultiplier) {
-        List<BollingerBandsResult> results = new ArrayList<>();
-
-        for (int i = period - 1; i < priceData.size(); i++) {
-            List<PricePoint> subset = priceData.subList(i - period + 1, i + 1);
-
-            BigDecimal movingAverage = calculateSimpleMovingAverage(subset);
-            BigDecimal standardDeviation = calculateStandardDeviation(subset, movingAverage);
-
-            BigDecimal upperBand = movingAverage.add(standardDeviation.multiply(standardDeviationMultiplier));
-            BigDecimal lowerBand = movingAverage.subtract(standardDeviation.multiply(standardDeviationMultiplier));
-
-            PricePoint currentPoint = priceData.get(i);
-            BollingerSignal signal = determineSignal(currentPoint, upperBand, movingAverage, lowerBand, results);
-
-            results.add(new BollingerBandsResult(upperBand, movingAverage, lowerBand,
-                    currentPoint.getPrice(), signal, currentPoint.getTimestamp()));
-        }
-
-        return results;
-    }
-
-    /**
-     * Calculate Simple Moving Average
-     */
-    private static BigDecimal calculateSimpleMovingAverage(List<PricePoint> priceData) {
-        BigDecimal sum = priceData.stream()
-                .map(PricePoint::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return sum.divide(BigDecimal.valueOf(priceData.size()), SCALE, RoundingMode.HALF_UP);
-    }
-
-    /**
-     * Calculate Standard Deviation
-     */
-    private static BigDecimal calculateStandardDeviation(List<PricePoint> priceData, BigDecimal mean) {
-        BigDecimal sumSquaredDifferences = BigDecimal.ZERO;
-
-        for (PricePoint point : priceData) {
-            BigDecimal difference = point.getPrice().subtract(mean);
-            sumSquaredDifferences = sumSquaredDifferences.add(difference.multiply(difference));
-        }
-
-        BigDecimal variance = sumSquaredDifferences.divide(BigDecimal.valueOf(priceData.size()), SCALE,
-                RoundingMode.HALF_UP);
-
-        // Calculate square root using Newton's method
-        return sqrt(variance);
-    }
-
-    /**
-     * Calculate square root using Newton's method
-     */
-    private static BigDecimal sqrt(BigDecimal value) {
-        if (value.compareTo(BigDecimal.ZERO) == 0) {
-            return BigDecimal.ZERO;
-        }
-
-        BigDecimal x = value;
-        BigDecimal lastX = BigDecimal.ZERO;
-
-        for (int i = 0; i < 50 && !x.equals(lastX); i++) {
-            lastX = x;
-            x = x.add(value.divide(x, SCALE, RoundingMode.HALF_UP)).divide(new BigDecimal("2"), SCALE,
-                    RoundingMode.HALF_UP);
-        }
-
-        return x;
-    }
-
-    /**
-     * Determine the current signal based on price position relative to bands
-     */
-    private static BollingerSignal determineSignal(PricePoint currentPoint, BigDecimal upperBand,
-            BigDecimal middleBand, BigDecimal lowerBand,
-            List<BollingerBandsResult> history) {
-        BigDecimal price = currentPoint.getPrice();
-        BigDecimal volume = currentPoint.getVolume();
-
-        // Check for band touches/breaks
-        boolean touchingUpperBand = price.compareTo(upperBand.multiply(new BigDecimal("0.98"))) >= 0;
-        boolean touchingLowerBand = price.compareTo(lowerBand.multiply(new BigDecimal("1.02"))) <= 0;
-        boolean breakingUpperBand = price.compareTo(upperBand) > 0;
-        boolean breakingLowerBand = price.compareTo(lowerBand) < 0;
-
-        // Analyze volume if available
-        boolean highVolume = volume.compareTo(BigDecimal.ZERO) > 0; // Simplified - you might want to compare to average
-                                                                    // volume
-
-        // Check for squeeze/expansion
-        if (!history.isEmpty()) {
-            BollingerBandsResult previous = history.get(history.size() - 1);
-            BigDecimal currentWidth = upperBand.subtract(lowerBand);
-            BigDecimal previousWidth = previous.getUpperBand().subtract(previous.getLowerBand());
-
-            boolean isSqueeze = currentWidth.compareTo(previousWidth.multiply(new BigDecimal("0.95"))) < 0;
-            boolean isExpansion = currentWidth.compareTo(previousWidth.multiply(new BigDecimal("1.05"))) > 0;
-
-            if (isSqueeze) {
-                return BollingerSignal.SQUEEZE;
-            } else if (isExpansion) {
-                return BollingerSignal.EXPANSION;
-            }
-        }
-
-        // Determine primary signals
-        if (breakingLowerBand && highVolume) {
-            return BollingerSignal.STRONG_BUY;
-        } else if (breakingUpperBand && highVolume) {
-            return BollingerSignal.STRONG_SELL;
-        } else if (touchingLowerBand) {
-            // Check if it's a bounce (reversal)
-            if (!history.isEmpty()) {
-                BollingerBandsResult previous = history.get(history.size() - 1);
-                if (previous.getCurrentPrice().compareTo(lowerBand) < 0 && price.compareTo(lowerBand) > 0) {
-                    return BollingerSignal.REVERSAL_UP;
-                }
-            }
-            return BollingerSignal.BUY;
-        } else if (touchingUpperBand) {
-            // Check if it's a bounce (reversal)
-            if (!history.isEmpty()) {
-                BollingerBandsResult previous = history.get(history.size() - 1);
-                if (previous.getCurrentPrice().compareTo(upperBand) > 0 && price.compareTo(upperBand) < 0) {
-                    return BollingerSignal.REVERSAL_DOWN;
-                }
-            }
-            return BollingerSignal.SELL;
-        } else {
-            return BollingerSignal.NEUTRAL;
-        }
-    }
-
     /**
      * Analyze volatility based on band width history
      */
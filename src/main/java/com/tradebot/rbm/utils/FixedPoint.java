@@ -0,0 +1,171 @@
+package com.tradebot.rbm.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Scaled-long decimal arithmetic for the strategy hot path.
+ *
+ * A value is a plain {@code long} holding the unscaled amount, paired with a
+ * scale (number of fractional digits) known from context, e.g. 600.12 at scale
+ * 2 is {@code 60012}. Nothing here allocates except the explicit
+ * {@link BigDecimal} conversions, which are meant for the order submission
+ * boundary.
+ */
+public final class FixedPoint {
+
+    // Binance balances and stream decimals carry at most 8 fractional digits
+    public static final int BALANCE_SCALE = 8;
+
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    public static long pow10(int exponent) {
+        return POWERS_OF_TEN[exponent];
+    }
+
+    /**
+     * Parses a plain decimal string such as {@code "600.12000000"} straight into a
+     * scaled long, rounding half up on digits beyond {@code scale}
+     */
+    public static long parse(CharSequence text, int scale) {
+        return parse(text, 0, text.length(), scale);
+    }
+
+    /**
+     * Parses the decimal in {@code text[from, to)} into a scaled long, rounding
+     * half up on digits beyond {@code scale}
+     */
+    public static long parse(CharSequence text, int from, int to, int scale) {
+        if (from >= to) {
+            throw new NumberFormatException("Empty decimal");
+        }
+        int i = from;
+        boolean negative = false;
+        char first = text.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long value = 0;
+        int fractionDigits = 0;
+        boolean inFraction = false;
+        boolean hasDigits = false;
+        boolean roundUp = false;
+        for (; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '.') {
+                if (inFraction) {
+                    throw new NumberFormatException("Invalid decimal: " + text.subSequence(from, to));
+                }
+                inFraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Invalid decimal: " + text.subSequence(from, to));
+            }
+            hasDigits = true;
+            if (inFraction) {
+                if (fractionDigits == scale) {
+                    // First dropped digit decides the rounding, the rest are ignored
+                    roundUp = c >= '5';
+                    fractionDigits++;
+                    continue;
+                } else if (fractionDigits > scale) {
+                    continue;
+                }
+                fractionDigits++;
+            }
+            value = Math.addExact(Math.multiplyExact(value, 10), c - '0');
+        }
+        if (!hasDigits) {
+            throw new NumberFormatException("Invalid decimal: " + text.subSequence(from, to));
+        }
+
+        int keptDigits = Math.min(fractionDigits, scale);
+        value = Math.multiplyExact(value, POWERS_OF_TEN[scale - keptDigits]);
+        if (roundUp) {
+            value++;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Converts between scales, truncating toward zero when reducing the scale
+     */
+    public static long rescale(long value, int fromScale, int toScale) {
+        if (toScale >= fromScale) {
+            return Math.multiplyExact(value, POWERS_OF_TEN[toScale - fromScale]);
+        }
+        return value / POWERS_OF_TEN[fromScale - toScale];
+    }
+
+    /**
+     * Multiplies two scaled values into {@code resultScale}, truncating toward
+     * zero. Products too wide for a long fall back to {@link BigDecimal}.
+     */
+    public static long multiply(long a, int aScale, long b, int bScale, int resultScale) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if ((high == 0 && low >= 0) || (high == -1 && low < 0)) {
+            return rescale(low, aScale + bScale, resultScale);
+        }
+        return fromBigDecimal(toBigDecimal(a, aScale).multiply(toBigDecimal(b, bScale)), resultScale,
+                RoundingMode.DOWN);
+    }
+
+    /**
+     * Rounds half up to {@code places} fractional digits while keeping
+     * {@code scale}
+     */
+    public static long roundHalfUp(long value, int scale, int places) {
+        if (places >= scale) {
+            return value;
+        }
+        long unit = POWERS_OF_TEN[scale - places];
+        long remainder = value % unit;
+        long rounded = value - remainder;
+        if (Math.abs(remainder) * 2 >= unit) {
+            rounded += value < 0 ? -unit : unit;
+        }
+        return rounded;
+    }
+
+    /**
+     * Rounds down to a multiple of {@code step}, e.g. a tick or lot step size in
+     * the same scale
+     */
+    public static long floorToStep(long value, long step) {
+        return value - Math.floorMod(value, step);
+    }
+
+    public static double toDouble(long value, int scale) {
+        return value / (double) POWERS_OF_TEN[scale];
+    }
+
+    public static BigDecimal toBigDecimal(long value, int scale) {
+        return BigDecimal.valueOf(value, scale);
+    }
+
+    public static long fromBigDecimal(BigDecimal value, int scale, RoundingMode roundingMode) {
+        return value.setScale(scale, roundingMode).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Number of significant fractional digits of a filter value such as a tick
+     * size, e.g. {@code "0.01000000"} has scale 2
+     */
+    public static int scaleOf(String decimal) {
+        return Math.max(0, new BigDecimal(decimal).stripTrailingZeros().scale());
+    }
+}
@@ -0,0 +1,274 @@
+package com.tradebot.rbm.utils;
+
+import java.util.Arrays;
+
+/**
+ * Columnar indicator kernels over primitive arrays.
+ *
+ * Every rolling kernel takes an input column and writes one value per input
+ * index into a caller supplied output column of the same length; indices
+ * before the first full window are set to {@link Double#NaN}. Columns are
+ * plain {@code double[]} so backfills run as tight loops over contiguous
+ * memory, with the element-wise passes (sums, %K, band offsets) written as
+ * simple counted loops the JIT can unroll and vectorize. Rolling sums are
+ * recomputed exactly every {@link #RESYNC_INTERVAL} elements to bound
+ * rounding drift on long series.
+ *
+ * The BigDecimal APIs in {@link BollingerBandsUtils},
+ * {@link StochasticOscillatorUtils} and {@link VolumeAnalysisUtils} convert
+ * their inputs to columns and delegate here.
+ */
+public final class IndicatorKernels {
+
+    static final int RESYNC_INTERVAL = 1024;
+
+    private IndicatorKernels() {
+    }
+
+    /**
+     * Sum of {@code values[from, to)}
+     */
+    public static double sum(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sum of {@code a[i] * b[i]} over {@code [from, to)}
+     */
+    public static double dot(double[] a, double[] b, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Simple moving average
+     */
+    public static void sma(double[] values, int period, double[] out) {
+        check(values, period, out);
+        int n = values.length;
+        int first = Math.min(period - 1, n);
+        Arrays.fill(out, 0, first, Double.NaN);
+        if (n < period) {
+            return;
+        }
+        double sum = sum(values, 0, period);
+        out[period - 1] = sum / period;
+        for (int i = period; i < n; i++) {
+            if ((i & (RESYNC_INTERVAL - 1)) == 0) {
+                sum = sum(values, i - period + 1, i + 1);
+            } else {
+                sum += values[i] - values[i - period];
+            }
+            out[i] = sum / period;
+        }
+    }
+
+    /**
+     * Exponential moving average with smoothing {@code 2 / (period + 1)}, seeded
+     * with the simple average of the first window
+     */
+    public static void ema(double[] values, int period, double[] out) {
+        check(values, period, out);
+        int n = values.length;
+        int first = Math.min(period - 1, n);
+        Arrays.fill(out, 0, first, Double.NaN);
+        if (n < period) {
+            return;
+        }
+        double alpha = 2.0 / (period + 1);
+        double ema = sum(values, 0, period) / period;
+        out[period - 1] = ema;
+        for (int i = period; i < n; i++) {
+            ema += alpha * (values[i] - ema);
+            out[i] = ema;
+        }
+    }
+
+    /**
+     * Rolling population standard deviation, using the sliding-window form of
+     * Welford's algorithm
+     */
+    public static void stdDev(double[] values, int period, double[] out) {
+        check(values, period, out);
+        int n = values.length;
+        int first = Math.min(period - 1, n);
+        Arrays.fill(out, 0, first, Double.NaN);
+        if (n < period) {
+            return;
+        }
+        double mean = sum(values, 0, period) / period;
+        double m2 = squaredDeviations(values, 0, period, mean);
+        out[period - 1] = Math.sqrt(m2 / period);
+        for (int i = period; i < n; i++) {
+            if ((i & (RESYNC_INTERVAL - 1)) == 0) {
+                mean = sum(values, i - period + 1, i + 1) / period;
+                m2 = squaredDeviations(values, i - period + 1, i + 1, mean);
+            } else {
+                double oldest = values[i - period];
+                double previousMean = mean;
+                mean += (values[i] - oldest) / period;
+                m2 += (values[i] - oldest) * (values[i] - mean + oldest - previousMean);
+            }
+            out[i] = Math.sqrt(Math.max(0, m2 / period));
+        }
+    }
+
+    private static double squaredDeviations(double[] values, int from, int to, double mean) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            double difference = values[i] - mean;
+            sum += difference * difference;
+        }
+        return sum;
+    }
+
+    /**
+     * Rolling maximum, amortized O(1) per element with a monotonic deque
+     */
+    public static void rollingMax(double[] values, int period, double[] out) {
+        rollingExtreme(values, period, out, true);
+    }
+
+    /**
+     * Rolling minimum, amortized O(1) per element with a monotonic deque
+     */
+    public static void rollingMin(double[] values, int period, double[] out) {
+        rollingExtreme(values, period, out, false);
+    }
+
+    private static void rollingExtreme(double[] values, int period, double[] out, boolean max) {
+        check(values, period, out);
+        int n = values.length;
+        // Indices with monotonically decreasing (max) or increasing (min) values
+        int[] deque = new int[period];
+        int head = 0;
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (size > 0 && deque[head] == i - period) {
+                head = (head + 1) % period;
+                size--;
+            }
+            double value = values[i];
+            while (size > 0) {
+                double back = values[deque[(head + size - 1) % period]];
+                if (max ? back > value : back < value) {
+                    break;
+                }
+                size--;
+            }
+            deque[(head + size) % period] = i;
+            size++;
+            out[i] = i >= period - 1 ? values[deque[head]] : Double.NaN;
+        }
+    }
+
+    /**
+     * Bollinger Bands: middle is the simple average, upper and lower are
+     * {@code multiplier} population standard deviations away
+     */
+    public static void bollinger(double[] closes, int period, double multiplier, double[] upper, double[] middle,
+            double[] lower) {
+        sma(closes, period, middle);
+        stdDev(closes, period, upper);
+        for (int i = 0; i < closes.length; i++) {
+            double offset = upper[i] * multiplier;
+            lower[i] = middle[i] - offset;
+            upper[i] = middle[i] + offset;
+        }
+    }
+
+    /**
+     * Stochastic %K = 100 * (close - lowest low) / (highest high - lowest low),
+     * 50 when the window has no range
+     */
+    public static void stochasticK(double[] highs, double[] lows, double[] closes, int period, double[] out) {
+        if (highs.length != closes.length || lows.length != closes.length) {
+            throw new IllegalArgumentException("High, low and close columns must have the same length");
+        }
+        double[] lowest = new double[closes.length];
+        rollingMax(highs, period, out);
+        rollingMin(lows, period, lowest);
+        for (int i = 0; i < closes.length; i++) {
+            double range = out[i] - lowest[i];
+            out[i] = range == 0 ? 50 : (closes[i] - lowest[i]) / range * 100;
+        }
+    }
+
+    /**
+     * Stochastic %D, the simple average of %K; NaN until {@code kPeriod +
+     * dPeriod - 1} values have been seen
+     */
+    public static void stochasticD(double[] kValues, int kPeriod, int dPeriod, double[] out) {
+        check(kValues, dPeriod, out);
+        int n = kValues.length;
+        int first = Math.min(kPeriod + dPeriod - 2, n);
+        Arrays.fill(out, 0, first, Double.NaN);
+        if (n <= first) {
+            return;
+        }
+        double sum = sum(kValues, first - dPeriod + 1, first + 1);
+        out[first] = sum / dPeriod;
+        for (int i = first + 1; i < n; i++) {
+            if ((i & (RESYNC_INTERVAL - 1)) == 0) {
+                sum = sum(kValues, i - dPeriod + 1, i + 1);
+            } else {
+                sum += kValues[i] - kValues[i - dPeriod];
+            }
+            out[i] = sum / dPeriod;
+        }
+    }
+
+    /**
+     * Volume weighted average price of {@code [from, to)}, NaN without volume
+     */
+    public static double vwap(double[] prices, double[] volumes, int from, int to) {
+        double volume = sum(volumes, from, to);
+        return volume == 0 ? Double.NaN : dot(prices, volumes, from, to) / volume;
+    }
+
+    /**
+     * Rolling volume weighted average price
+     */
+    public static void vwap(double[] prices, double[] volumes, int period, double[] out) {
+        check(prices, period, out);
+        if (volumes.length != prices.length) {
+            throw new IllegalArgumentException("Price and volume columns must have the same length");
+        }
+        int n = prices.length;
+        int first = Math.min(period - 1, n);
+        Arrays.fill(out, 0, first, Double.NaN);
+        if (n < period) {
+            return;
+        }
+        double notional = dot(prices, volumes, 0, period);
+        double volume = sum(volumes, 0, period);
+        out[period - 1] = volume == 0 ? Double.NaN : notional / volume;
+        for (int i = period; i < n; i++) {
+            if ((i & (RESYNC_INTERVAL - 1)) == 0) {
+                notional = dot(prices, volumes, i - period + 1, i + 1);
+                volume = sum(volumes, i - period + 1, i + 1);
+            } else {
+                notional += prices[i] * volumes[i] - prices[i - period] * volumes[i - period];
+                volume += volumes[i] - volumes[i - period];
+            }
+            out[i] = volume == 0 ? Double.NaN : notional / volume;
+        }
+    }
+
+    private static void check(double[] values, int period, double[] out) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be positive: " + period);
+        }
+        if (out.length != values.length) {
+            throw new IllegalArgumentException("Output column length " + out.length + " does not match input "
+                    + values.length);
+        }
+    }
+}
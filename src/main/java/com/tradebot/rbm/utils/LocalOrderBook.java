@@ -0,0 +1,163 @@
+package com.tradebot.rbm.utils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import com.binance.connector.client.spot.rest.model.DepthResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Locally maintained order book for one symbol, built from a REST depth
+ * snapshot and kept current with the sequenced diff-depth stream. See
+ * {@code OrderBookRegistry} for the book of each traded symbol.
+ *
+ * Written only by the depth stream thread; read concurrently by the strategy
+ * through the sorted concurrent maps, so best bid/ask and top-N lookups never
+ * leave the process. A snapshot is built into new maps and published with one
+ * volatile write, so readers see either the old book or the new one and never
+ * a cleared side.
+ */
+@Slf4j
+public class LocalOrderBook {
+
+    private volatile Sides sides = new Sides();
+
+    private volatile long lastUpdateId = -1;
+    private volatile boolean synced = false;
+
+    /**
+     * Replaces the book with a REST snapshot
+     */
+    public void applySnapshot(long snapshotUpdateId, List<List<String>> snapshotBids,
+            List<List<String>> snapshotAsks) {
+        var snapshot = new Sides();
+        applyLevels(snapshot.bids, snapshotBids);
+        applyLevels(snapshot.asks, snapshotAsks);
+        sides = snapshot;
+        lastUpdateId = snapshotUpdateId;
+        synced = true;
+        log.info("Order book snapshot applied - Last update ID: {}, Bids: {}, Asks: {}",
+                snapshotUpdateId, snapshot.bids.size(), snapshot.asks.size());
+    }
+
+    /**
+     * Replaces the book with a single best bid and ask level, for feeds that only
+     * carry the book ticker such as the tape replay
+     */
+    public void applyTopOfBook(long updateId, String bidPrice, String bidQuantity, String askPrice,
+            String askQuantity) {
+        var top = new Sides();
+        top.bids.put(new BigDecimal(bidPrice), new BigDecimal(bidQuantity));
+        top.asks.put(new BigDecimal(askPrice), new BigDecimal(askQuantity));
+        sides = top;
+        lastUpdateId = updateId;
+        synced = true;
+    }
+
+    /**
+     * Applies a diff-depth event.
+     *
+     * @return false if the event does not continue the current sequence, in which
+     *         case the book is marked out of sync and needs a new snapshot
+     */
+    public boolean applyDiff(long firstUpdateId, long finalUpdateId, List<List<String>> bidUpdates,
+            List<List<String>> askUpdates) {
+        if (!synced) {
+            return false;
+        }
+        if (finalUpdateId <= lastUpdateId) {
+            // Already covered by the snapshot or a previous event
+            return true;
+        }
+        if (firstUpdateId > lastUpdateId + 1) {
+            log.warn("Order book sequence gap - Expected: {}, Received: {}", lastUpdateId + 1, firstUpdateId);
+            synced = false;
+            return false;
+        }
+        var current = sides;
+        applyLevels(current.bids, bidUpdates);
+        applyLevels(current.asks, askUpdates);
+        lastUpdateId = finalUpdateId;
+        return true;
+    }
+
+    private void applyLevels(ConcurrentSkipListMap<BigDecimal, BigDecimal> side, List<List<String>> levels) {
+        if (levels == null) {
+            return;
+        }
+        for (List<String> level : levels) {
+            var price = new BigDecimal(level.get(0));
+            var quantity = new BigDecimal(level.get(1));
+            if (quantity.signum() == 0) {
+                side.remove(price);
+            } else {
+                side.put(price, quantity);
+            }
+        }
+    }
+
+    public void invalidate() {
+        synced = false;
+    }
+
+    public boolean isSynced() {
+        return synced;
+    }
+
+    public long getLastUpdateId() {
+        return lastUpdateId;
+    }
+
+    /**
+     * Best bid price, or null when the book is empty
+     */
+    public BigDecimal bestBid() {
+        var entry = sides.bids.firstEntry();
+        return entry == null ? null : entry.getKey();
+    }
+
+    /**
+     * Best ask price, or null when the book is empty
+     */
+    public BigDecimal bestAsk() {
+        var entry = sides.asks.firstEntry();
+        return entry == null ? null : entry.getKey();
+    }
+
+    /**
+     * Top {@code limit} levels in the same shape as the REST depth endpoint
+     */
+    public DepthResponse depth(int limit) {
+        var current = sides;
+        var response = new DepthResponse();
+        response.setLastUpdateId(lastUpdateId);
+        response.setBids(topLevels(current.bids, limit));
+        response.setAsks(topLevels(current.asks, limit));
+        return response;
+    }
+
+    private List<List<String>> topLevels(ConcurrentSkipListMap<BigDecimal, BigDecimal> side, int limit) {
+        List<List<String>> levels = new ArrayList<>(limit);
+        for (Map.Entry<BigDecimal, BigDecimal> entry : side.entrySet()) {
+            if (levels.size() >= limit) {
+                break;
+            }
+            levels.add(List.of(entry.getKey().toPlainString(), entry.getValue().toPlainString()));
+        }
+        return levels;
+    }
+
+    /**
+     * Both sides of the book, replaced together by a snapshot
+     */
+    private static final class Sides {
+        private final ConcurrentSkipListMap<BigDecimal, BigDecimal> bids = new ConcurrentSkipListMap<>(
+                Collections.reverseOrder());
+        private final ConcurrentSkipListMap<BigDecimal, BigDecimal> asks = new ConcurrentSkipListMap<>();
+    }
+}
@@ -0,0 +1,127 @@
+package com.tradebot.rbm.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Bounded multi-producer / single-consumer ring of preallocated entries, in the
+ * style of the LMAX disruptor.
+ *
+ * Producers claim a sequence, fill the entry in place and publish it; the
+ * single consumer drains published entries strictly in sequence order. No locks
+ * are taken on either side. When the ring is full, producers spin until the
+ * consumer frees a slot.
+ */
+public class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final Object[] entries;
+    // Sequence published into each slot, -1 while the slot has never been used
+    private final AtomicLongArray published;
+
+    // Next sequence handed out to producers
+    private final AtomicLong claimSequence = new AtomicLong(0);
+    // Next sequence the consumer will read
+    private final AtomicLong consumerSequence = new AtomicLong(0);
+
+    /**
+     * Handler invoked by the consumer for every published entry
+     */
+    @FunctionalInterface
+    public interface EventHandler<E> {
+        void onEvent(E event, long sequence);
+    }
+
+    /**
+     * @param capacity Number of slots, rounded up to a power of two
+     * @param factory  Creates the preallocated entries
+     */
+    public MpscRingBuffer(int capacity, Supplier<E> factory) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.entries = new Object[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            entries[i] = factory.get();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Claims the next sequence, waiting while the ring is full. The caller must
+     * fill {@link #get(long)} and then {@link #publish(long)} it.
+     */
+    public long claim() {
+        long sequence = claimSequence.getAndIncrement();
+        while (sequence - consumerSequence.get() >= capacity) {
+            Thread.onSpinWait();
+        }
+        return sequence;
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) (sequence & mask)];
+    }
+
+    /**
+     * Makes a claimed and filled entry visible to the consumer
+     */
+    public void publish(long sequence) {
+        published.lazySet((int) (sequence & mask), sequence);
+    }
+
+    /**
+     * Consumes up to {@code maxBatch} published entries in order. Must only be
+     * called from the consumer thread.
+     *
+     * @return Number of entries handled
+     */
+    public int drain(EventHandler<E> handler, int maxBatch) {
+        long next = consumerSequence.get();
+        int handled = 0;
+        while (handled < maxBatch) {
+            int slot = (int) (next & mask);
+            if (published.get(slot) != next) {
+                break;
+            }
+            try {
+                handler.onEvent(get(next), next);
+            } finally {
+                next++;
+                handled++;
+                // Release the slot back to producers
+                consumerSequence.lazySet(next);
+            }
+        }
+        return handled;
+    }
+
+    /**
+     * Number of claimed entries not yet consumed
+     */
+    public long size() {
+        return Math.max(0, claimSequence.get() - consumerSequence.get());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public long getClaimSequence() {
+        return claimSequence.get();
+    }
+
+    public long getConsumerSequence() {
+        return consumerSequence.get();
+    }
+}
@@ -0,0 +1,206 @@
+package com.tradebot.rbm.utils;
+
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+import com.tradebot.rbm.utils.dto.TickerStats;
+
+/**
+ * Rolling window ticker statistics of one symbol built from its trades: open,
+ * high, low and last price, volume, quote volume and trade count for any
+ * window up to the maximum, like the exchange's rolling window ticker but with
+ * no request. Prices and volumes are {@link FixedPoint} longs at
+ * {@link FixedPoint#BALANCE_SCALE}.
+ *
+ * Trades are folded into a ring of fixed-width buckets, so a trade costs O(1)
+ * and a snapshot reads one bucket per bucket width of the window. Windows are
+ * whole buckets: the oldest one, which the window's start falls into, is left
+ * out, so a window can be short by up to one bucket but never spans more.
+ *
+ * A jump in trade IDs, as after a stream reconnect, means trades were missed:
+ * coverage then starts again from the first trade after the gap.
+ *
+ * Single writer: {@link #onTrade} must only be called from the symbol's
+ * strategy thread. Readers on other threads take a consistent snapshot through
+ * a sequence lock and never block the writer.
+ */
+public class RollingTickerWindow {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long bucketMillis;
+    private final int buckets;
+
+    // Per-bucket aggregates, indexed by bucket start modulo the ring size
+    private final long[] starts;
+    private final long[] opens;
+    private final long[] highs;
+    private final long[] lows;
+    private final long[] closes;
+    private final long[] volumes;
+    private final long[] quoteVolumes;
+    private final long[] counts;
+
+    // Odd while the writer updates a bucket
+    private volatile long version;
+    // Time of the first trade since the last gap
+    private volatile long coveredSince = EMPTY;
+    private long lastTradeId = EMPTY;
+
+    /**
+     * @param bucketMillis    Bucket width, the resolution of the window edges
+     * @param maxWindowMillis Longest window a snapshot can cover
+     */
+    public RollingTickerWindow(long bucketMillis, long maxWindowMillis) {
+        if (bucketMillis <= 0 || maxWindowMillis < bucketMillis) {
+            throw new IllegalArgumentException("Bucket must be positive and at most the window: " + bucketMillis
+                    + ", " + maxWindowMillis);
+        }
+        this.bucketMillis = bucketMillis;
+        this.buckets = (int) ((maxWindowMillis + bucketMillis - 1) / bucketMillis);
+        this.starts = new long[buckets];
+        this.opens = new long[buckets];
+        this.highs = new long[buckets];
+        this.lows = new long[buckets];
+        this.closes = new long[buckets];
+        this.volumes = new long[buckets];
+        this.quoteVolumes = new long[buckets];
+        this.counts = new long[buckets];
+        Arrays.fill(starts, EMPTY);
+    }
+
+    /**
+     * Folds a trade into the bucket of its exchange time. Trades older than
+     * the ring and repeated trade IDs are dropped.
+     *
+     * @param tradeId  Exchange trade ID, negative if unknown
+     * @param price    Price at {@link FixedPoint#BALANCE_SCALE}
+     * @param quantity Quantity at {@link FixedPoint#BALANCE_SCALE}
+     */
+    public void onTrade(long tradeId, long price, long quantity, long time) {
+        if (tradeId >= 0) {
+            if (lastTradeId != EMPTY && tradeId <= lastTradeId) {
+                return;
+            }
+            if (lastTradeId != EMPTY && tradeId != lastTradeId + 1) {
+                // Trades were missed, the buckets before now are incomplete
+                coveredSince = EMPTY;
+            }
+            lastTradeId = tradeId;
+        }
+        long start = time - Math.floorMod(time, bucketMillis);
+        int slot = slot(start);
+        long current = starts[slot];
+        if (start < current) {
+            return;
+        }
+
+        long currentVersion = version;
+        version = currentVersion + 1;
+        // Keep the bucket writes after the odd version
+        VarHandle.releaseFence();
+        if (start != current) {
+            // The bucket is reused for a new time, one revolution or more later
+            starts[slot] = start;
+            opens[slot] = price;
+            highs[slot] = price;
+            lows[slot] = price;
+            volumes[slot] = 0;
+            quoteVolumes[slot] = 0;
+            counts[slot] = 0;
+        } else if (price > highs[slot]) {
+            highs[slot] = price;
+        } else if (price < lows[slot]) {
+            lows[slot] = price;
+        }
+        closes[slot] = price;
+        volumes[slot] += quantity;
+        quoteVolumes[slot] += FixedPoint.multiply(price, FixedPoint.BALANCE_SCALE, quantity,
+                FixedPoint.BALANCE_SCALE, FixedPoint.BALANCE_SCALE);
+        counts[slot]++;
+        if (coveredSince == EMPTY) {
+            coveredSince = time;
+        }
+        version = currentVersion + 2;
+    }
+
+    /**
+     * Whether trades were seen without a gap since before the window ending now
+     * started, so that a snapshot of it is complete
+     */
+    public boolean covers(long windowMillis, long nowMillis) {
+        long since = coveredSince;
+        return since != EMPTY && since <= nowMillis - windowMillis;
+    }
+
+    /**
+     * Statistics of the trades in the window ending at {@code nowMillis}
+     *
+     * @return The statistics, or null if no trade fell into the window
+     */
+    public TickerStats snapshot(long windowMillis, long nowMillis) {
+        if (windowMillis <= 0 || windowMillis > getMaxWindowMillis()) {
+            throw new IllegalArgumentException("Window must be positive and at most "
+                    + getMaxWindowMillis() + " ms: " + windowMillis);
+        }
+        // The first bucket starting after the window's start
+        long from = nowMillis - windowMillis;
+        from += bucketMillis - Math.floorMod(from, bucketMillis);
+        long to = nowMillis - Math.floorMod(nowMillis, bucketMillis);
+
+        long openTime;
+        long closeTime;
+        long open;
+        long high;
+        long low;
+        long last;
+        long volume;
+        long quoteVolume;
+        long count;
+        long before;
+        do {
+            before = version;
+            openTime = EMPTY;
+            closeTime = EMPTY;
+            open = 0;
+            high = Long.MIN_VALUE;
+            low = Long.MAX_VALUE;
+            last = 0;
+            volume = 0;
+            quoteVolume = 0;
+            count = 0;
+            for (long start = from; start <= to; start += bucketMillis) {
+                int slot = slot(start);
+                if (starts[slot] != start || counts[slot] == 0) {
+                    continue;
+                }
+                if (openTime == EMPTY) {
+                    openTime = start;
+                    open = opens[slot];
+                }
+                closeTime = start + bucketMillis - 1;
+                high = Math.max(high, highs[slot]);
+                low = Math.min(low, lows[slot]);
+                last = closes[slot];
+                volume += volumes[slot];
+                quoteVolume += quoteVolumes[slot];
+                count += counts[slot];
+            }
+            // Keep the bucket reads before the version check
+            VarHandle.acquireFence();
+        } while ((before & 1) != 0 || before != version);
+
+        if (count == 0) {
+            return null;
+        }
+        return new TickerStats(openTime, closeTime, open, high, low, last, volume, quoteVolume, count);
+    }
+
+    public long getMaxWindowMillis() {
+        return buckets * bucketMillis;
+    }
+
+    private int slot(long bucketStart) {
+        return (int) Math.floorMod(Math.floorDiv(bucketStart, bucketMillis), (long) buckets);
+    }
+}
@@ -1,7 +1,6 @@
 package com.tradebot.rbm.utils;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -24,7 +23,6 @@ public class StochasticOscillatorUtils {
     private static final int DEFAULT_D_PERIOD = 3;
     private static final BigDecimal OVERBOUGHT_THRESHOLD = new BigDecimal("80");
     private static final BigDecimal OVERSOLD_THRESHOLD = new BigDecimal("20");
-    private static final int SCALE = 8;
 
     /**
      * Main entry point for complete Stochastic Oscillator analysis
@@ -42,9 +40,39 @@ public class StochasticOscillatorUtils {
                     (Math.max(kPeriod, dPeriod) + 5) + " data points");
         }
 
-        // Calculate stochastic values for all available data
-        List<StochasticResult> results = calculateStochasticValues(priceData, kPeriod, dPeriod);
+        // Columnar backfill through the array kernels
+        int size = priceData.size();
+        double[] highs = new double[size];
+        double[] lows = new double[size];
+        double[] closes = new double[size];
+        for (int i = 0; i < size; i++) {
+            PriceData point = priceData.get(i);
+            highs[i] = point.getHigh().doubleValue();
+            lows[i] = point.getLow().doubleValue();
+            closes[i] = point.getClose().doubleValue();
+        }
+        double[] kValues = new double[size];
+        double[] dValues = new double[size];
+        IndicatorKernels.stochasticK(highs, lows, closes, kPeriod, kValues);
+        IndicatorKernels.stochasticD(kValues, kPeriod, dPeriod, dValues);
+
+        int first = kPeriod + dPeriod - 2;
+        List<StochasticResult> results = new ArrayList<>(Math.max(0, size - first));
+        for (int i = first; i < size; i++) {
+            StochasticSignal signal = i == first
+                    ? StreamingStochasticOscillator.determineSignal(kValues[i], dValues[i], Double.NaN, Double.NaN)
+                    : StreamingStochasticOscillator.determineSignal(kValues[i], dValues[i], kValues[i - 1],
+                            dValues[i - 1]);
+            results.add(new StochasticResult(BigDecimal.valueOf(kValues[i]), BigDecimal.valueOf(dValues[i]), signal,
+                    priceData.get(i).getTimestamp()));
+        }
+        return analyze(results);
+    }
 
+    /**
+     * Builds the analysis from a series of stochastic results, oldest first
+     */
+    static StochasticAnalysis analyze(List<StochasticResult> results) {
         if (results.isEmpty()) {
             throw new IllegalStateException("Unable to calculate stochastic values");
         }
@@ -64,104 +92,6 @@ public class StochasticOscillatorUtils {
         return performCompleteAnalysis(priceData, DEFAULT_K_PERIOD, DEFAULT_D_PERIOD);
     }
 
-    /**
-     * Calculate %K and %D values for the entire dataset
-     */
-    private static List<StochasticResult> calculateStochasticValues(List<PriceData> priceData,
-            int kPeriod, int dPeriod) {
-        List<StochasticResult> results = new ArrayList<>();
-        List<BigDecimal> kValues = new ArrayList<>();
-
-        for (int i = kPeriod - 1; i < priceData.size(); i++) {
-            // Get the subset for %K calculation
-            List<PriceData> subset = priceData.subList(i - kPeriod + 1, i + 1);
-
-            BigDecimal kPercent = calculateKPercent(subset, priceData.get(i).getClose());
-            kValues.add(kPercent);
-
-            // Calculate %D only if we have enough %K values
-            if (kValues.size() >= dPeriod) {
-                List<BigDecimal> dSubset = kValues.subList(kValues.size() - dPeriod, kValues.size());
-                BigDecimal dPercent = calculateMovingAverage(dSubset);
-
-                StochasticSignal signal = determineSignal(kPercent, dPercent, results);
-                results.add(new StochasticResult(kPercent, dPercent, signal, priceData.get(i).getTimestamp()));
-            }
-        }
-
-        return results;
-    }
-
-    /**
-     * Calculate %K = 100 * (Close - Lowest Low) / (Highest High - Lowest Low)
-     */
-    private static BigDecimal calculateKPercent(List<PriceData> priceData, BigDecimal currentClose) {
-        BigDecimal highestHigh = priceData.stream()
-                .map(PriceData::getHigh)
-                .max(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
-
-        BigDecimal lowestLow = priceData.stream()
-                .map(PriceData::getLow)
-                .min(BigDecimal::compareTo)
-                .orElse(BigDecimal.ZERO);
-
-        BigDecimal range = highestHigh.subtract(lowestLow);
-
-        if (range.compareTo(BigDecimal.ZERO) == 0) {
-            return new BigDecimal("50"); // Neutral value when no range
-        }
-
-        BigDecimal numerator = currentClose.subtract(lowestLow);
-        return numerator.divide(range, SCALE, RoundingMode.HALF_UP)
-                .multiply(new BigDecimal("100"));
-    }
-
-    /**
-     * Calculate moving average for %D
-     */
-    private static BigDecimal calculateMovingAverage(List<BigDecimal> values) {
-        BigDecimal sum = values.stream()
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return sum.divide(BigDecimal.valueOf(values.size()), SCALE, RoundingMode.HALF_UP);
-    }
-
-    /**
-     * Determine the current signal based on %K, %D, and historical data
-     */
-    private static StochasticSignal determineSignal(BigDecimal kPercent, BigDecimal dPercent,
-            List<StochasticResult> history) {
-        boolean isOverbought = kPercent.compareTo(OVERBOUGHT_THRESHOLD) > 0;
-        boolean isOversold = kPercent.compareTo(OVERSOLD_THRESHOLD) < 0;
-
-        // Check for crossovers if we have previous data
-        if (!history.isEmpty()) {
-            StochasticResult previous = history.get(history.size() - 1);
-            boolean wasKBelowD = previous.getKPercent().compareTo(previous.getDPercent()) < 0;
-            boolean isKAboveD = kPercent.compareTo(dPercent) > 0;
-
-            // Bullish crossover in oversold territory
-            if (wasKBelowD && isKAboveD && isOversold) {
-                return StochasticSignal.STRONG_BUY;
-            }
-
-            // Bearish crossover in overbought territory
-            if (!wasKBelowD && !isKAboveD && isOverbought) {
-                return StochasticSignal.STRONG_SELL;
-            }
-        }
-
-        // Standard signals
-        if (isOversold) {
-            return StochasticSignal.BUY;
-        } else if (isOverbought) {
-            return StochasticSignal.SELL;
-        } else {
-            return StochasticSignal.NEUTRAL;
-        }
-    }
-
     /**
      * Analyze trend based on recent stochastic results
      */
@@ -0,0 +1,264 @@
+package com.tradebot.rbm.utils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tradebot.rbm.utils.BollingerBandsUtils.BollingerBandsAnalysis;
+import com.tradebot.rbm.utils.BollingerBandsUtils.BollingerBandsResult;
+import com.tradebot.rbm.utils.BollingerBandsUtils.BollingerSignal;
+import com.tradebot.rbm.utils.dto.Candle;
+
+/**
+ * Incremental Bollinger Bands over a sliding window of closes.
+ *
+ * Each update is O(1): the window mean and sum of squared deviations are
+ * maintained with the sliding-window form of Welford's algorithm, which stays
+ * stable for prices with a large level and a small variance. Rounding drift is
+ * removed by an exact recomputation every {@link #RESYNC_INTERVAL} updates,
+ * which keeps the amortized cost constant.
+ *
+ * The last {@code historySize} results are kept in primitive columns so
+ * {@link #analysis()} can expose the same {@link BollingerBandsAnalysis} as
+ * {@link BollingerBandsUtils#performCompleteAnalysis} without a full replay.
+ *
+ * Not thread safe; feed and read it from one thread.
+ */
+public class StreamingBollingerBands {
+
+    private static final int RESYNC_INTERVAL = 1024;
+
+    private final int period;
+    private final double multiplier;
+
+    // Sliding window of closes
+    private final double[] window;
+    private long count;
+    private double mean;
+    private double m2;
+
+    // Recent results, oldest overwritten first
+    private final int historySize;
+    private final double[] upperBands;
+    private final double[] middleBands;
+    private final double[] lowerBands;
+    private final double[] prices;
+    private final long[] times;
+    private final BollingerSignal[] signals;
+    private long results;
+
+    public StreamingBollingerBands(int period, double multiplier, int historySize) {
+        if (period <= 1 || historySize <= 0) {
+            throw new IllegalArgumentException("Period must be above 1 and history size positive");
+        }
+        this.period = period;
+        this.multiplier = multiplier;
+        this.window = new double[period];
+        this.historySize = historySize;
+        this.upperBands = new double[historySize];
+        this.middleBands = new double[historySize];
+        this.lowerBands = new double[historySize];
+        this.prices = new double[historySize];
+        this.times = new long[historySize];
+        this.signals = new BollingerSignal[historySize];
+    }
+
+    /**
+     * Default 20 period, 2 standard deviation bands keeping 50 results
+     */
+    public StreamingBollingerBands() {
+        this(20, 2.0, 50);
+    }
+
+    public void onCandle(Candle candle) {
+        onPrice(candle.getClose(), candle.getVolume(), candle.getOpenTime());
+    }
+
+    /**
+     * Adds a close and, once the window is full, records the new band
+     */
+    public void onPrice(double price, double volume, long time) {
+        int slot = (int) (count % period);
+        if (count < period) {
+            // Growing window: plain Welford update
+            double delta = price - mean;
+            mean += delta / (count + 1);
+            m2 += delta * (price - mean);
+        } else {
+            // Sliding window: replace the oldest close
+            double oldest = window[slot];
+            double previousMean = mean;
+            mean += (price - oldest) / period;
+            m2 += (price - oldest) * (price - mean + oldest - previousMean);
+        }
+        window[slot] = price;
+        count++;
+
+        if (count % RESYNC_INTERVAL == 0) {
+            resync();
+        }
+        if (count >= period) {
+            record(price, volume, time);
+        }
+    }
+
+    private void resync() {
+        int size = (int) Math.min(count, period);
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += window[i];
+        }
+        double exactMean = sum / size;
+        double squares = 0;
+        for (int i = 0; i < size; i++) {
+            double difference = window[i] - exactMean;
+            squares += difference * difference;
+        }
+        mean = exactMean;
+        m2 = squares;
+    }
+
+    private void record(double price, double volume, long time) {
+        // Population standard deviation, matching BollingerBandsUtils
+        double standardDeviation = Math.sqrt(Math.max(0, m2 / period));
+        double upper = mean + standardDeviation * multiplier;
+        double lower = mean - standardDeviation * multiplier;
+        BollingerSignal signal = determineSignal(price, volume, upper, lower);
+
+        int slot = (int) (results % historySize);
+        upperBands[slot] = upper;
+        middleBands[slot] = mean;
+        lowerBands[slot] = lower;
+        prices[slot] = price;
+        times[slot] = time;
+        signals[slot] = signal;
+        results++;
+    }
+
+    private BollingerSignal determineSignal(double price, double volume, double upper, double lower) {
+        if (results == 0) {
+            return determineSignal(price, volume, upper, lower, Double.NaN, Double.NaN, Double.NaN);
+        }
+        int previous = (int) ((results - 1) % historySize);
+        return determineSignal(price, volume, upper, lower, prices[previous], upperBands[previous],
+                lowerBands[previous]);
+    }
+
+    /**
+     * Signal from the price position relative to the bands and the previous
+     * result, whose values are NaN for the first band
+     */
+    static BollingerSignal determineSignal(double price, double volume, double upper, double lower,
+            double previousPrice, double previousUpper, double previousLower) {
+        boolean touchingUpperBand = price >= upper * 0.98;
+        boolean touchingLowerBand = price <= lower * 1.02;
+        boolean breakingUpperBand = price > upper;
+        boolean breakingLowerBand = price < lower;
+        // Simplified - any traded volume counts as high volume
+        boolean highVolume = volume > 0;
+        boolean hasPrevious = !Double.isNaN(previousPrice);
+
+        if (hasPrevious) {
+            double currentWidth = upper - lower;
+            double previousWidth = previousUpper - previousLower;
+            if (currentWidth < previousWidth * 0.95) {
+                return BollingerSignal.SQUEEZE;
+            } else if (currentWidth > previousWidth * 1.05) {
+                return BollingerSignal.EXPANSION;
+            }
+        }
+
+        if (breakingLowerBand && highVolume) {
+            return BollingerSignal.STRONG_BUY;
+        } else if (breakingUpperBand && highVolume) {
+            return BollingerSignal.STRONG_SELL;
+        } else if (touchingLowerBand) {
+            if (hasPrevious && previousPrice < lower && price > lower) {
+                return BollingerSignal.REVERSAL_UP;
+            }
+            return BollingerSignal.BUY;
+        } else if (touchingUpperBand) {
+            if (hasPrevious && previousPrice > upper && price < upper) {
+                return BollingerSignal.REVERSAL_DOWN;
+            }
+            return BollingerSignal.SELL;
+        }
+        return BollingerSignal.NEUTRAL;
+    }
+
+    /**
+     * True once a full period has been seen
+     */
+    public boolean isReady() {
+        return results > 0;
+    }
+
+    private int latest() {
+        if (results == 0) {
+            throw new IllegalStateException("Not enough data, need " + period + " prices");
+        }
+        return (int) ((results - 1) % historySize);
+    }
+
+    public double getUpperBand() {
+        return upperBands[latest()];
+    }
+
+    public double getMiddleBand() {
+        return middleBands[latest()];
+    }
+
+    public double getLowerBand() {
+        return lowerBands[latest()];
+    }
+
+    public double getPrice() {
+        return prices[latest()];
+    }
+
+    public BollingerSignal getSignal() {
+        return signals[latest()];
+    }
+
+    /**
+     * Position of the price within the bands, 0 at the lower and 1 at the upper
+     * band
+     */
+    public double getPercentB() {
+        int slot = latest();
+        double width = upperBands[slot] - lowerBands[slot];
+        return width == 0 ? 0.5 : (prices[slot] - lowerBands[slot]) / width;
+    }
+
+    /**
+     * Band width as a percentage of the middle band
+     */
+    public double getBandWidth() {
+        int slot = latest();
+        return (upperBands[slot] - lowerBands[slot]) / middleBands[slot] * 100;
+    }
+
+    /**
+     * Full analysis over the retained history, built from the current state
+     */
+    public BollingerBandsAnalysis analysis() {
+        latest();
+        int size = (int) Math.min(results, historySize);
+        List<BollingerBandsResult> history = new ArrayList<>(size);
+        for (long i = results - size; i < results; i++) {
+            int slot = (int) (i % historySize);
+            history.add(new BollingerBandsResult(BigDecimal.valueOf(upperBands[slot]),
+                    BigDecimal.valueOf(middleBands[slot]), BigDecimal.valueOf(lowerBands[slot]),
+                    BigDecimal.valueOf(prices[slot]), signals[slot],
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(times[slot]), ZoneOffset.UTC)));
+        }
+        return BollingerBandsUtils.analyze(history);
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+}
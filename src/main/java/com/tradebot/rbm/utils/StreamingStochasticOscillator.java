@@ -0,0 +1,252 @@
+package com.tradebot.rbm.utils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tradebot.rbm.utils.dto.Candle;
+import com.tradebot.rbm.utils.dto.stochasticOscilator.StochasticAnalysis;
+import com.tradebot.rbm.utils.dto.stochasticOscilator.StochasticResult;
+import com.tradebot.rbm.utils.dto.stochasticOscilator.StochasticSignal;
+
+/**
+ * Incremental Stochastic Oscillator over a sliding window of candles.
+ *
+ * The highest high and lowest low of the %K window are tracked with monotonic
+ * deques of candle sequence numbers, so each candle is pushed and popped at
+ * most once and an update is amortized O(1). %D is a rolling sum over the last
+ * {@code dPeriod} %K values.
+ *
+ * The last {@code historySize} results are kept in primitive columns so
+ * {@link #analysis()} can expose the same {@link StochasticAnalysis} as
+ * {@link StochasticOscillatorUtils#performCompleteAnalysis} from the latest
+ * state.
+ *
+ * Not thread safe; feed and read it from one thread.
+ */
+public class StreamingStochasticOscillator {
+
+    private static final double OVERBOUGHT_THRESHOLD = 80;
+    private static final double OVERSOLD_THRESHOLD = 20;
+
+    private final int kPeriod;
+    private final int dPeriod;
+
+    // Highs and lows of the %K window, indexed by sequence modulo kPeriod
+    private final double[] highs;
+    private final double[] lows;
+    private long count;
+
+    // Monotonic deques of sequence numbers: decreasing highs, increasing lows
+    private final long[] maxDeque;
+    private int maxHead;
+    private int maxSize;
+    private final long[] minDeque;
+    private int minHead;
+    private int minSize;
+
+    // Last dPeriod %K values with their running sum
+    private final double[] kValues;
+    private long kCount;
+    private double kSum;
+
+    // Recent results, oldest overwritten first
+    private final int historySize;
+    private final double[] kPercents;
+    private final double[] dPercents;
+    private final long[] times;
+    private final StochasticSignal[] signals;
+    private long results;
+
+    public StreamingStochasticOscillator(int kPeriod, int dPeriod, int historySize) {
+        if (kPeriod <= 0 || dPeriod <= 0 || historySize <= 0) {
+            throw new IllegalArgumentException("Periods and history size must be positive");
+        }
+        this.kPeriod = kPeriod;
+        this.dPeriod = dPeriod;
+        this.highs = new double[kPeriod];
+        this.lows = new double[kPeriod];
+        this.maxDeque = new long[kPeriod];
+        this.minDeque = new long[kPeriod];
+        this.kValues = new double[dPeriod];
+        this.historySize = historySize;
+        this.kPercents = new double[historySize];
+        this.dPercents = new double[historySize];
+        this.times = new long[historySize];
+        this.signals = new StochasticSignal[historySize];
+    }
+
+    /**
+     * Default 9 period %K and 3 period %D keeping 50 results
+     */
+    public StreamingStochasticOscillator() {
+        this(9, 3, 50);
+    }
+
+    public void onCandle(Candle candle) {
+        onPrice(candle.getHigh(), candle.getLow(), candle.getClose(), candle.getOpenTime());
+    }
+
+    /**
+     * Adds a candle and, once both windows are full, records the new %K and %D
+     */
+    public void onPrice(double high, double low, double close, long time) {
+        long sequence = count++;
+        int slot = (int) (sequence % kPeriod);
+        highs[slot] = high;
+        lows[slot] = low;
+
+        // Drop the sequence that just left the window
+        long oldest = sequence - kPeriod;
+        if (maxSize > 0 && maxDeque[maxHead] == oldest) {
+            maxHead = (maxHead + 1) % kPeriod;
+            maxSize--;
+        }
+        if (minSize > 0 && minDeque[minHead] == oldest) {
+            minHead = (minHead + 1) % kPeriod;
+            minSize--;
+        }
+
+        // Pop dominated entries from the back, then push this candle
+        while (maxSize > 0 && highs[(int) (maxDeque[(maxHead + maxSize - 1) % kPeriod] % kPeriod)] <= high) {
+            maxSize--;
+        }
+        maxDeque[(maxHead + maxSize) % kPeriod] = sequence;
+        maxSize++;
+        while (minSize > 0 && lows[(int) (minDeque[(minHead + minSize - 1) % kPeriod] % kPeriod)] >= low) {
+            minSize--;
+        }
+        minDeque[(minHead + minSize) % kPeriod] = sequence;
+        minSize++;
+
+        if (count < kPeriod) {
+            return;
+        }
+
+        double highestHigh = highs[(int) (maxDeque[maxHead] % kPeriod)];
+        double lowestLow = lows[(int) (minDeque[minHead] % kPeriod)];
+        double range = highestHigh - lowestLow;
+        // Neutral value when there is no range
+        double kPercent = range == 0 ? 50 : (close - lowestLow) / range * 100;
+
+        int kSlot = (int) (kCount % dPeriod);
+        if (kCount >= dPeriod) {
+            kSum -= kValues[kSlot];
+        }
+        kValues[kSlot] = kPercent;
+        kSum += kPercent;
+        kCount++;
+        if (kSlot == dPeriod - 1) {
+            // Resum once per window to drop accumulated rounding error
+            kSum = 0;
+            for (double value : kValues) {
+                kSum += value;
+            }
+        }
+
+        if (kCount >= dPeriod) {
+            record(kPercent, kSum / dPeriod, time);
+        }
+    }
+
+    private void record(double kPercent, double dPercent, long time) {
+        StochasticSignal signal = determineSignal(kPercent, dPercent);
+        int slot = (int) (results % historySize);
+        kPercents[slot] = kPercent;
+        dPercents[slot] = dPercent;
+        times[slot] = time;
+        signals[slot] = signal;
+        results++;
+    }
+
+    private StochasticSignal determineSignal(double kPercent, double dPercent) {
+        if (results == 0) {
+            return determineSignal(kPercent, dPercent, Double.NaN, Double.NaN);
+        }
+        int previous = (int) ((results - 1) % historySize);
+        return determineSignal(kPercent, dPercent, kPercents[previous], dPercents[previous]);
+    }
+
+    /**
+     * Signal from the %K level and its crossover of %D since the previous
+     * result, whose values are NaN for the first result
+     */
+    static StochasticSignal determineSignal(double kPercent, double dPercent, double previousK,
+            double previousD) {
+        boolean isOverbought = kPercent > OVERBOUGHT_THRESHOLD;
+        boolean isOversold = kPercent < OVERSOLD_THRESHOLD;
+
+        if (!Double.isNaN(previousK)) {
+            boolean wasKBelowD = previousK < previousD;
+            boolean isKAboveD = kPercent > dPercent;
+
+            // Bullish crossover in oversold territory
+            if (wasKBelowD && isKAboveD && isOversold) {
+                return StochasticSignal.STRONG_BUY;
+            }
+            // Bearish crossover in overbought territory
+            if (!wasKBelowD && !isKAboveD && isOverbought) {
+                return StochasticSignal.STRONG_SELL;
+            }
+        }
+
+        if (isOversold) {
+            return StochasticSignal.BUY;
+        } else if (isOverbought) {
+            return StochasticSignal.SELL;
+        }
+        return StochasticSignal.NEUTRAL;
+    }
+
+    /**
+     * True once the %K and %D windows are both full
+     */
+    public boolean isReady() {
+        return results > 0;
+    }
+
+    private int latest() {
+        if (results == 0) {
+            throw new IllegalStateException("Not enough data, need " + (kPeriod + dPeriod - 1) + " candles");
+        }
+        return (int) ((results - 1) % historySize);
+    }
+
+    public double getKPercent() {
+        return kPercents[latest()];
+    }
+
+    public double getDPercent() {
+        return dPercents[latest()];
+    }
+
+    public StochasticSignal getSignal() {
+        return signals[latest()];
+    }
+
+    /**
+     * Full analysis over the retained history, built from the current state
+     */
+    public StochasticAnalysis analysis() {
+        latest();
+        int size = (int) Math.min(results, historySize);
+        List<StochasticResult> history = new ArrayList<>(size);
+        for (long i = results - size; i < results; i++) {
+            int slot = (int) (i % historySize);
+            history.add(new StochasticResult(BigDecimal.valueOf(kPercents[slot]), BigDecimal.valueOf(dPercents[slot]),
+                    signals[slot], LocalDateTime.ofInstant(Instant.ofEpochMilli(times[slot]), ZoneOffset.UTC)));
+        }
+        return StochasticOscillatorUtils.analyze(history);
+    }
+
+    public int getKPeriod() {
+        return kPeriod;
+    }
+
+    public int getDPeriod() {
+        return dPeriod;
+    }
+}
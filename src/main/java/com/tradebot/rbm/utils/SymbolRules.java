@@ -0,0 +1,182 @@
+package com.tradebot.rbm.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.binance.connector.client.spot.rest.model.ExchangeInfoResponse;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Trading rules of one symbol, precomputed from its exchange info filters.
+ *
+ * Prices are fixed-point longs at {@link #priceScale} (PRICE_FILTER tick size),
+ * quantities at {@link #quantityScale} (LOT_SIZE step size) and notionals at
+ * {@link FixedPoint#BALANCE_SCALE}, so every rounding helper is a couple of
+ * long operations. The BigDecimal helpers are meant for order builders.
+ */
+@Getter
+@Builder
+public class SymbolRules {
+
+    private final String symbol;
+    private final String baseAsset;
+    private final String quoteAsset;
+
+    private final int priceScale;
+    private final int quantityScale;
+
+    // At priceScale; zero max means no upper limit
+    private final long tickSize;
+    private final long minPrice;
+    private final long maxPrice;
+
+    // At quantityScale; zero max means no upper limit
+    private final long stepSize;
+    private final long minQuantity;
+    private final long maxQuantity;
+
+    // At FixedPoint.BALANCE_SCALE
+    private final long minNotional;
+
+    /**
+     * Builds the rules of every symbol in an exchange info response, keyed by the
+     * upper case symbol
+     */
+    public static Map<String, SymbolRules> fromExchangeInfo(ExchangeInfoResponse exchangeInfo) {
+        Map<String, SymbolRules> rules = new HashMap<>();
+        for (var symbolInfo : exchangeInfo.getSymbols()) {
+            String tickSize = null;
+            String minPrice = null;
+            String maxPrice = null;
+            String stepSize = null;
+            String minQuantity = null;
+            String maxQuantity = null;
+            String minNotional = null;
+            for (var filter : symbolInfo.getFilters()) {
+                switch (filter.getFilterType()) {
+                    case "PRICE_FILTER" -> {
+                        tickSize = filter.getTickSize();
+                        minPrice = filter.getMinPrice();
+                        maxPrice = filter.getMaxPrice();
+                    }
+                    case "LOT_SIZE" -> {
+                        stepSize = filter.getStepSize();
+                        minQuantity = filter.getMinQty();
+                        maxQuantity = filter.getMaxQty();
+                    }
+                    case "NOTIONAL", "MIN_NOTIONAL" -> minNotional = filter.getMinNotional();
+                    default -> {
+                    }
+                }
+            }
+
+            int priceScale = tickSize == null ? FixedPoint.BALANCE_SCALE : FixedPoint.scaleOf(tickSize);
+            int quantityScale = stepSize == null ? FixedPoint.BALANCE_SCALE : FixedPoint.scaleOf(stepSize);
+            var symbol = symbolInfo.getSymbol().toUpperCase();
+            rules.put(symbol, SymbolRules.builder()
+                    .symbol(symbol)
+                    .baseAsset(symbolInfo.getBaseAsset())
+                    .quoteAsset(symbolInfo.getQuoteAsset())
+                    .priceScale(priceScale)
+                    .quantityScale(quantityScale)
+                    .tickSize(Math.max(1, parseOrZero(tickSize, priceScale)))
+                    .minPrice(parseOrZero(minPrice, priceScale))
+                    .maxPrice(parseOrZero(maxPrice, priceScale))
+                    .stepSize(Math.max(1, parseOrZero(stepSize, quantityScale)))
+                    .minQuantity(parseOrZero(minQuantity, quantityScale))
+                    .maxQuantity(parseOrZero(maxQuantity, quantityScale))
+                    .minNotional(parseOrZero(minNotional, FixedPoint.BALANCE_SCALE))
+                    .build());
+        }
+        return rules;
+    }
+
+    private static long parseOrZero(String value, int scale) {
+        return value == null ? 0 : FixedPoint.parse(value, scale);
+    }
+
+    public long parsePrice(CharSequence text) {
+        return FixedPoint.parse(text, priceScale);
+    }
+
+    public long parseQuantity(CharSequence text) {
+        return FixedPoint.parse(text, quantityScale);
+    }
+
+    /**
+     * Rounds a price down to the tick size
+     */
+    public long floorPrice(long price) {
+        return FixedPoint.floorToStep(price, tickSize);
+    }
+
+    /**
+     * Rounds a price up to the tick size
+     */
+    public long ceilPrice(long price) {
+        long floor = FixedPoint.floorToStep(price, tickSize);
+        return floor == price ? price : floor + tickSize;
+    }
+
+    /**
+     * Rounds a quantity down to the lot step size
+     */
+    public long floorQuantity(long quantity) {
+        return FixedPoint.floorToStep(quantity, stepSize);
+    }
+
+    /**
+     * Rounds a quantity at {@link FixedPoint#BALANCE_SCALE} down to the lot step
+     * size, keeping the balance scale
+     */
+    public long floorBalanceToStep(long balance) {
+        long quantity = FixedPoint.rescale(balance, FixedPoint.BALANCE_SCALE, quantityScale);
+        return FixedPoint.rescale(floorQuantity(quantity), quantityScale, FixedPoint.BALANCE_SCALE);
+    }
+
+    /**
+     * Quote value of a quantity at a price, at {@link FixedPoint#BALANCE_SCALE}
+     */
+    public long notional(long price, long quantity) {
+        return FixedPoint.multiply(price, priceScale, quantity, quantityScale, FixedPoint.BALANCE_SCALE);
+    }
+
+    /**
+     * Checks the quantity, price and notional limits of an order
+     */
+    public boolean isTradable(long price, long quantity) {
+        if (quantity < minQuantity || (maxQuantity > 0 && quantity > maxQuantity)) {
+            return false;
+        }
+        if (price < minPrice || (maxPrice > 0 && price > maxPrice)) {
+            return false;
+        }
+        return notional(price, quantity) >= minNotional;
+    }
+
+    /**
+     * Rounds a price to a multiple of the tick size for an order request, in
+     * whole ticks and in one step so that e.g. HALF_UP rounds at half a tick
+     */
+    public BigDecimal roundPrice(BigDecimal price, RoundingMode roundingMode) {
+        var tick = FixedPoint.toBigDecimal(tickSize, priceScale);
+        return price.divide(tick, 0, roundingMode).multiply(tick);
+    }
+
+    /**
+     * Rounds a quantity down to the lot step size for an order request
+     */
+    public BigDecimal floorQuantity(BigDecimal quantity) {
+        long units = FixedPoint.fromBigDecimal(quantity, quantityScale, RoundingMode.DOWN);
+        return FixedPoint.toBigDecimal(floorQuantity(units), quantityScale);
+    }
+
+    public boolean isTradable(BigDecimal price, BigDecimal quantity) {
+        return isTradable(FixedPoint.fromBigDecimal(price, priceScale, RoundingMode.HALF_UP),
+                FixedPoint.fromBigDecimal(quantity, quantityScale, RoundingMode.DOWN));
+    }
+}
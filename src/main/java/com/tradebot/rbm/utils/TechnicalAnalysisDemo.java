@@ -28,8 +28,18 @@ public class TechnicalAnalysisDemo {
 
         try {
             // Perform complete Stochastic Oscillator analysis
-            StochasticAnalysis stochasticAnalysis = StochasticOscillatorUtils.performCompleteAnalysis(priceDataList);
+            demonstrateStochasticAnalysis(StochasticOscillatorUtils.performCompleteAnalysis(priceDataList));
+        } catch (Exception e) {
+            System.err.println("Error in Stochastic analysis: " + e.getMessage());
+        }
+    }
 
+    /**
+     * Prints and acts on an analysis already computed, e.g. by a
+     * {@link StreamingStochasticOscillator}
+     */
+    public static void demonstrateStochasticAnalysis(StochasticAnalysis stochasticAnalysis) {
+        try {
             System.out.println("=== STOCHASTIC OSCILLATOR ANALYSIS ===");
             System.out.println("Current Result: " + stochasticAnalysis.getCurrent());
             System.out.println("Trend: " + stochasticAnalysis.getTrend());
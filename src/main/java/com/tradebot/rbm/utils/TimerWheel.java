@@ -0,0 +1,233 @@
+package com.tradebot.rbm.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Hashed timing wheel: timers hashed by deadline tick into a ring of buckets,
+ * so scheduling and canceling are O(1) and advancing only looks at the buckets
+ * of the ticks that passed, however many timers are pending.
+ *
+ * Time is whatever the owner passes to {@link #advanceTo}, usually its clock
+ * on every event, so the wheel runs on the virtual clock in a replay just as
+ * on the wall clock live. Deadlines are rounded up to the tick; a timer fires
+ * on the first advance at or past its tick, never early. Deadlines more than
+ * one revolution ahead wait in their bucket until their turn comes round, and
+ * an advance over more than a revolution, such as a replay's first jump to
+ * the tape's time, visits each bucket once rather than every tick.
+ *
+ * Not thread safe; the owner's thread schedules, cancels and advances it, and
+ * timer tasks run on that thread from {@link #advanceTo}.
+ */
+public class TimerWheel {
+
+    /**
+     * A scheduled task, the handle to cancel it with
+     */
+    public static final class Timeout {
+        private final long deadline;
+        private final Runnable task;
+        private final long sequence;
+        private long tick;
+        private int bucket = -1;
+        private Timeout previous;
+        private Timeout next;
+        private boolean canceled;
+        private boolean done;
+
+        private Timeout(long deadline, Runnable task, long sequence) {
+            this.deadline = deadline;
+            this.task = task;
+            this.sequence = sequence;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Whether the task is still to run
+         */
+        public boolean isPending() {
+            return !done && !canceled;
+        }
+    }
+
+    private static final Comparator<Timeout> DUE_ORDER = Comparator.<Timeout>comparingLong(timeout -> timeout.tick)
+            .thenComparingLong(timeout -> timeout.sequence);
+
+    private final long tickMillis;
+    private final int mask;
+    // Head of each bucket's doubly linked list
+    private final Timeout[] buckets;
+    // Timers of the tick being processed, taken off their bucket before running
+    private final ArrayDeque<Timeout> expired = new ArrayDeque<>();
+
+    // Next tick to process
+    private long currentTick;
+    private int size;
+    private long nextSequence;
+
+    /**
+     * @param tickMillis    Timer resolution
+     * @param ticksPerWheel Buckets, rounded up to a power of two
+     * @param startMillis   Current time, ticks before it are never processed
+     */
+    public TimerWheel(long tickMillis, int ticksPerWheel, long startMillis) {
+        if (tickMillis <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive: " + tickMillis + ", "
+                    + ticksPerWheel);
+        }
+        int wheelSize = Integer.highestOneBit(ticksPerWheel);
+        if (wheelSize < ticksPerWheel) {
+            wheelSize <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new Timeout[wheelSize];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Schedules a task to run on the first advance at or past the deadline; one
+     * already past runs on the next advance
+     */
+    public Timeout schedule(long deadlineMillis, Runnable task) {
+        var timeout = new Timeout(deadlineMillis, task, nextSequence++);
+        timeout.tick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), currentTick);
+        link(timeout, (int) (timeout.tick & mask));
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a timer that has not run yet
+     *
+     * @return false if it already ran or was canceled
+     */
+    public boolean cancel(Timeout timeout) {
+        if (timeout == null || !timeout.isPending()) {
+            return false;
+        }
+        timeout.canceled = true;
+        if (timeout.bucket >= 0) {
+            unlink(timeout);
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Runs the tasks of every tick up to {@code nowMillis}, in tick order and
+     * then in scheduling order within a tick. Tasks may schedule and cancel
+     * timers; ones they schedule for now run on the next advance.
+     *
+     * @return Number of tasks run
+     */
+    public int advanceTo(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        if (size == 0) {
+            // Nothing to visit on the way
+            currentTick = Math.max(currentTick, nowTick + 1);
+            return 0;
+        }
+        if (nowTick - currentTick >= buckets.length) {
+            // Every bucket is due at least once, so take what is due from each
+            // and run it in deadline order
+            var due = new ArrayList<Timeout>();
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                collectDue(bucket, nowTick, due);
+            }
+            due.sort(DUE_ORDER);
+            expired.addAll(due);
+            currentTick = nowTick + 1;
+            return runExpired();
+        }
+        int ran = 0;
+        while (currentTick <= nowTick && size > 0) {
+            long tick = currentTick++;
+            collectDue((int) (tick & mask), tick, expired);
+            ran += runExpired();
+        }
+        currentTick = Math.max(currentTick, nowTick + 1);
+        return ran;
+    }
+
+    /**
+     * Moves the timers of a bucket due by a tick to {@code due}, in scheduling
+     * order
+     */
+    private void collectDue(int bucket, long tick, Collection<Timeout> due) {
+        var timeout = buckets[bucket];
+        while (timeout != null) {
+            var next = timeout.next;
+            if (timeout.tick <= tick) {
+                unlink(timeout);
+                due.add(timeout);
+            }
+            timeout = next;
+        }
+    }
+
+    private int runExpired() {
+        int ran = 0;
+        Timeout timeout;
+        while ((timeout = expired.pollFirst()) != null) {
+            if (timeout.canceled) {
+                continue;
+            }
+            timeout.done = true;
+            size--;
+            timeout.task.run();
+            ran++;
+        }
+        return ran;
+    }
+
+    /**
+     * Timers scheduled and not run or canceled yet
+     */
+    public int size() {
+        return size;
+    }
+
+    private void link(Timeout timeout, int bucket) {
+        var head = buckets[bucket];
+        if (head == null) {
+            timeout.previous = timeout;
+        } else {
+            // The head's previous is the tail, so appending keeps scheduling order
+            timeout.previous = head.previous;
+            head.previous.next = timeout;
+            head.previous = timeout;
+        }
+        timeout.next = null;
+        timeout.bucket = bucket;
+        if (head == null) {
+            buckets[bucket] = timeout;
+        }
+    }
+
+    private void unlink(Timeout timeout) {
+        int bucket = timeout.bucket;
+        var head = buckets[bucket];
+        if (timeout == head) {
+            buckets[bucket] = timeout.next;
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+        } else {
+            timeout.previous.next = timeout.next;
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                head.previous = timeout.previous;
+            }
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+}
@@ -0,0 +1,204 @@
+package com.tradebot.rbm.utils;
+
+import com.tradebot.rbm.utils.dto.TradeMomentum;
+
+/**
+ * Sliding time window of trades keeping running buy/sell counts and quote
+ * volumes, so a momentum snapshot costs O(1) no matter how many trades the
+ * window holds. Quote volumes are fixed-point longs at
+ * {@link FixedPoint#BALANCE_SCALE}, so evicting a trade subtracts exactly what
+ * adding it added.
+ *
+ * Single writer: {@link #onTrade} and {@link #advanceTo} must only be called
+ * from the trade stream thread. Readers on other threads take a consistent
+ * snapshot through a sequence lock and never block the writer; the writer
+ * thread reads through {@link #snapshot(long)} and {@link #direction(long)},
+ * which first evict what the current time has pushed out of the window, so a
+ * quiet market does not keep old trades in it.
+ *
+ * The window is bounded by {@code capacity} trades; if the tape is busy enough
+ * to exceed it, the oldest trades are evicted early.
+ */
+public class TradeMomentumWindow {
+
+    private final long windowMillis;
+    private final int mask;
+
+    // Per-trade contributions, kept so they can be subtracted again on eviction
+    private final long[] quoteVolumes;
+    private final long[] times;
+    private final boolean[] buyerMaker;
+
+    // Writer-side cursors: [tail, head) are the trades inside the window
+    private long head;
+    private long tail;
+
+    // Writer-side aggregates, published below
+    private long nextBuyCount;
+    private long nextSellCount;
+    private long nextBuyVolume;
+    private long nextSellVolume;
+
+    // Running aggregates guarded by the version sequence lock
+    private volatile long version;
+    private volatile long buyCount;
+    private volatile long sellCount;
+    private volatile long buyVolume;
+    private volatile long sellVolume;
+
+    /**
+     * @param windowMillis Window length in exchange time
+     * @param capacity     Maximum number of trades kept, rounded up to a power of
+     *                     two
+     */
+    public TradeMomentumWindow(long windowMillis, int capacity) {
+        if (windowMillis <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Window and capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.windowMillis = windowMillis;
+        this.mask = size - 1;
+        this.quoteVolumes = new long[size];
+        this.times = new long[size];
+        this.buyerMaker = new boolean[size];
+    }
+
+    /**
+     * Adds a trade and evicts everything older than the window relative to the
+     * trade's exchange time.
+     *
+     * @param quoteVolume Price times quantity at {@link FixedPoint#BALANCE_SCALE}
+     */
+    public void onTrade(long quoteVolume, long time, boolean isBuyerMaker) {
+        evict(time - windowMillis);
+
+        // If buyer is maker, it's actually a sell; if buyer is taker, it's a buy
+        int slot = (int) (head & mask);
+        quoteVolumes[slot] = quoteVolume;
+        times[slot] = time;
+        buyerMaker[slot] = isBuyerMaker;
+        head++;
+        if (isBuyerMaker) {
+            nextSellCount++;
+            nextSellVolume += quoteVolume;
+        } else {
+            nextBuyCount++;
+            nextBuyVolume += quoteVolume;
+        }
+        publish();
+    }
+
+    /**
+     * Evicts everything older than the window relative to {@code nowMillis},
+     * for when no trade has moved the window forward
+     */
+    public void advanceTo(long nowMillis) {
+        if (evict(nowMillis - windowMillis)) {
+            publish();
+        }
+    }
+
+    /**
+     * Makes room if the window is full, then drops trades older than the cutoff
+     *
+     * @return Whether any trade was dropped
+     */
+    private boolean evict(long cutoff) {
+        long oldTail = tail;
+        while (tail < head && (head - tail > mask || times[(int) (tail & mask)] < cutoff)) {
+            int slot = (int) (tail & mask);
+            if (buyerMaker[slot]) {
+                nextSellCount--;
+                nextSellVolume -= quoteVolumes[slot];
+            } else {
+                nextBuyCount--;
+                nextBuyVolume -= quoteVolumes[slot];
+            }
+            tail++;
+        }
+        return tail != oldTail;
+    }
+
+    private void publish() {
+        long currentVersion = version;
+        version = currentVersion + 1;
+        buyCount = nextBuyCount;
+        sellCount = nextSellCount;
+        buyVolume = nextBuyVolume;
+        sellVolume = nextSellVolume;
+        version = currentVersion + 2;
+    }
+
+    /**
+     * Snapshot of the window ending at {@code nowMillis}, from the writer
+     * thread
+     */
+    public TradeMomentum snapshot(long nowMillis) {
+        advanceTo(nowMillis);
+        return snapshot();
+    }
+
+    /**
+     * Direction of the window ending at {@code nowMillis}, from the writer
+     * thread
+     */
+    public String direction(long nowMillis) {
+        advanceTo(nowMillis);
+        return direction();
+    }
+
+    /**
+     * Takes a consistent snapshot of the window aggregates
+     */
+    public TradeMomentum snapshot() {
+        long buys;
+        long sells;
+        long buyQuote;
+        long sellQuote;
+        long before;
+        do {
+            before = version;
+            buys = buyCount;
+            sells = sellCount;
+            buyQuote = buyVolume;
+            sellQuote = sellVolume;
+        } while ((before & 1) != 0 || before != version);
+
+        String direction = direction(buyQuote, sellQuote);
+        return new TradeMomentum(direction, buys, sells,
+                FixedPoint.toBigDecimal(buyQuote, FixedPoint.BALANCE_SCALE),
+                FixedPoint.toBigDecimal(sellQuote, FixedPoint.BALANCE_SCALE),
+                FixedPoint.toBigDecimal(buyQuote + sellQuote, FixedPoint.BALANCE_SCALE));
+    }
+
+    /**
+     * Momentum direction only, without building a snapshot object
+     */
+    public String direction() {
+        long buyQuote;
+        long sellQuote;
+        long before;
+        do {
+            before = version;
+            buyQuote = buyVolume;
+            sellQuote = sellVolume;
+        } while ((before & 1) != 0 || before != version);
+        return direction(buyQuote, sellQuote);
+    }
+
+    private static String direction(long buyQuote, long sellQuote) {
+        if (buyQuote > sellQuote) {
+            return "BULLISH";
+        } else if (sellQuote > buyQuote) {
+            return "BEARISH";
+        }
+        return "NEUTRAL";
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+}
@@ -0,0 +1,57 @@
+package com.tradebot.rbm.utils.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import com.tradebot.rbm.utils.dto.stochasticOscilator.PriceBucket;
+import com.tradebot.rbm.utils.dto.stochasticOscilator.PriceData;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Closed OHLCV candle, times are exchange epoch millis
+ */
+@Data
+@Builder
+public class Candle {
+    private CandleInterval interval;
+    private long openTime;
+    private long closeTime;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private double volume;
+    private double quoteVolume;
+    private int tradeCount;
+
+    /**
+     * Open time as a UTC date time, matching how candles are persisted
+     */
+    public LocalDateTime getOpenDateTime() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(openTime), ZoneOffset.UTC);
+    }
+
+    public PriceBucket toPriceBucket() {
+        var bucket = new PriceBucket(getOpenDateTime());
+        bucket.setOpen(BigDecimal.valueOf(open));
+        bucket.setHigh(BigDecimal.valueOf(high));
+        bucket.setLow(BigDecimal.valueOf(low));
+        bucket.setClose(BigDecimal.valueOf(close));
+        bucket.setVolume(BigDecimal.valueOf(volume));
+        bucket.setTradeCount(tradeCount);
+        return bucket;
+    }
+
+    public PriceData toPriceData() {
+        return PriceData.builder()
+                .close(BigDecimal.valueOf(close))
+                .high(BigDecimal.valueOf(high))
+                .low(BigDecimal.valueOf(low))
+                .timestamp(getOpenDateTime())
+                .build();
+    }
+}
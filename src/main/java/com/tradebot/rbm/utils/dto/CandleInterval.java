@@ -0,0 +1,46 @@
+package com.tradebot.rbm.utils.dto;
+
+/**
+ * Candle intervals built by the candle engine, aligned on exchange time
+ */
+public enum CandleInterval {
+    ONE_SECOND("1s", 1_000L),
+    ONE_MINUTE("1m", 60_000L),
+    FIVE_MINUTES("5m", 300_000L),
+    ONE_HOUR("1h", 3_600_000L);
+
+    private final String code;
+    private final long millis;
+
+    CandleInterval(String code, long millis) {
+        this.code = code;
+        this.millis = millis;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * Interval for a code such as {@code 1m}, or null if unknown
+     */
+    public static CandleInterval fromCode(String code) {
+        for (var interval : values()) {
+            if (interval.code.equals(code)) {
+                return interval;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Start of the interval bucket containing the given exchange time
+     */
+    public long bucketStart(long time) {
+        return time - Math.floorMod(time, millis);
+    }
+}
@@ -0,0 +1,49 @@
+package com.tradebot.rbm.utils.dto;
+
+import com.binance.connector.client.spot.websocket.stream.model.BookTickerResponse;
+import com.binance.connector.client.spot.websocket.stream.model.KlineResponse;
+import com.binance.connector.client.spot.websocket.stream.model.TradeResponse;
+
+import lombok.Data;
+
+/**
+ * Reusable ring entry carrying one market data event from a websocket stream
+ * or one order update from the user data stream to the strategy thread
+ */
+@Data
+public class MarketEvent {
+    private Type type;
+    // Index of the symbol in TradingSymbols, and the symbol itself
+    private int symbolIndex;
+    private String symbol;
+    private TradeResponse trade;
+    private BookTickerResponse ticker;
+    private KlineResponse kline;
+    private OrderUpdate orderUpdate;
+    // System.nanoTime() when the stream published the event
+    private long publishNanos;
+    // Wall clock time when the stream published the event
+    private long receiveMillis;
+
+    public enum Type {
+        TRADE, // Public trade from the trade stream
+        TICKER, // Best bid/ask update from the book ticker stream
+        KLINE, // Kline update, only used as a clock for the candles
+        ORDER // State change of one of the account's orders
+    }
+
+    /**
+     * Drops payload references once the event has been processed
+     */
+    public void clear() {
+        type = null;
+        symbolIndex = 0;
+        symbol = null;
+        trade = null;
+        ticker = null;
+        kline = null;
+        orderUpdate = null;
+        publishNanos = 0;
+        receiveMillis = 0;
+    }
+}
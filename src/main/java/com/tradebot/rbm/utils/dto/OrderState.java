@@ -0,0 +1,63 @@
+package com.tradebot.rbm.utils.dto;
+
+/**
+ * Lifecycle of an order as the exchange reports it, in the order an order
+ * moves through it: an order only ever moves to a later state, or stays
+ * {@code PARTIALLY_FILLED} while more fills arrive.
+ */
+public enum OrderState {
+    PENDING_NEW, // Sent, or waiting on another order of its list, not working yet
+    NEW,
+    PARTIALLY_FILLED,
+    FILLED,
+    CANCELED,
+    REJECTED,
+    EXPIRED;
+
+    public boolean isTerminal() {
+        return ordinal() >= FILLED.ordinal();
+    }
+
+    /**
+     * Whether a report moving an order from this state to {@code next} is
+     * news rather than a duplicate or a report that was overtaken
+     */
+    public boolean canMoveTo(OrderState next) {
+        if (isTerminal()) {
+            return false;
+        }
+        return next.ordinal() > ordinal() || (this == PARTIALLY_FILLED && next == PARTIALLY_FILLED);
+    }
+
+    /**
+     * State of an exchange order status such as the {@code X} field of an
+     * {@code executionReport}
+     *
+     * @return The state, or null for a status that does not change it, such as
+     *         {@code PENDING_CANCEL}
+     */
+    public static OrderState fromStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        switch (status) {
+            case "PENDING_NEW":
+                return PENDING_NEW;
+            case "NEW":
+                return NEW;
+            case "PARTIALLY_FILLED":
+                return PARTIALLY_FILLED;
+            case "FILLED":
+                return FILLED;
+            case "CANCELED":
+                return CANCELED;
+            case "REJECTED":
+                return REJECTED;
+            case "EXPIRED":
+            case "EXPIRED_IN_MATCH":
+                return EXPIRED;
+            default:
+                return null;
+        }
+    }
+}
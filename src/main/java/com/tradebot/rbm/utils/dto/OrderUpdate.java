@@ -0,0 +1,38 @@
+package com.tradebot.rbm.utils.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * One state change of an order, as produced by {@code OrderTracker} for the
+ * strategy. Quantities, prices and commissions are fixed-point longs at
+ * {@code FixedPoint.BALANCE_SCALE}.
+ */
+@Data
+@Builder
+public class OrderUpdate {
+    private String symbol;
+    private long orderId;
+    // Client order ID the order was placed with, also for cancel reports
+    private String clientOrderId;
+    private String side;
+    private OrderState previousState;
+    private OrderState state;
+    private long price;
+    private long quantity;
+    // Fill of this update, zero unless it is a trade
+    private long lastQuantity;
+    private long lastPrice;
+    private long cumulativeQuantity;
+    private long cumulativeQuote;
+    // Commission summed over the fills so far, in commissionAsset
+    private long commission;
+    private String commissionAsset;
+    // -1 outside an order list
+    private long orderListId;
+    private long transactionTime;
+
+    public boolean isBuy() {
+        return "BUY".equals(side);
+    }
+}
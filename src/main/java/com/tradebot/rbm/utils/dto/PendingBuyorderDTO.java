@@ -9,12 +9,15 @@ import lombok.Data;
 public class PendingBuyOrderDTO {
     final String orderId;
     final String symbol;
-    private Long binanceOrderId;
+    // Set from the order response on the WebSocket API thread
+    private volatile Long binanceOrderId;
     final BigDecimal buyPrice;
     final BigDecimal quantity;
     final LocalDateTime timestamp;
     final BigDecimal expectedProfitPrice;
     boolean isExecuted;
+    // Set once a cancel was sent, until the exchange reports the outcome
+    boolean cancelRequested;
 
     public PendingBuyOrderDTO(String orderId, String symbol, BigDecimal buyPrice, BigDecimal quantity,
             BigDecimal expectedProfitPrice) {
@@ -0,0 +1,56 @@
+package com.tradebot.rbm.utils.dto;
+
+import java.math.RoundingMode;
+
+import com.tradebot.rbm.utils.FixedPoint;
+
+import lombok.Data;
+
+/**
+ * Rolling window statistics of a symbol's trades, the same figures as the
+ * exchange's rolling window ticker. Prices and volumes are at
+ * {@link FixedPoint#BALANCE_SCALE}.
+ */
+@Data
+public class TickerStats {
+    // Start of the first and end of the last one-second bucket in the window
+    private final long openTime;
+    private final long closeTime;
+    private final long openPrice;
+    private final long highPrice;
+    private final long lowPrice;
+    private final long lastPrice;
+    private final long volume;
+    private final long quoteVolume;
+    private final long count;
+
+    public TickerStats(long openTime, long closeTime, long openPrice, long highPrice, long lowPrice,
+            long lastPrice, long volume, long quoteVolume, long count) {
+        this.openTime = openTime;
+        this.closeTime = closeTime;
+        this.openPrice = openPrice;
+        this.highPrice = highPrice;
+        this.lowPrice = lowPrice;
+        this.lastPrice = lastPrice;
+        this.volume = volume;
+        this.quoteVolume = quoteVolume;
+        this.count = count;
+    }
+
+    public long getPriceChange() {
+        return lastPrice - openPrice;
+    }
+
+    public double getPriceChangePercent() {
+        return openPrice == 0 ? 0 : (lastPrice - openPrice) * 100.0 / openPrice;
+    }
+
+    public long getWeightedAvgPrice() {
+        if (volume == 0) {
+            return 0;
+        }
+        return FixedPoint.fromBigDecimal(FixedPoint.toBigDecimal(quoteVolume, FixedPoint.BALANCE_SCALE)
+                .divide(FixedPoint.toBigDecimal(volume, FixedPoint.BALANCE_SCALE), FixedPoint.BALANCE_SCALE,
+                        RoundingMode.HALF_UP), FixedPoint.BALANCE_SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -2,10 +2,11 @@ package com.tradebot.rbm.websocket;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tradebot.rbm.websocket.dto.AccountStatusResponse;
 
@@ -25,15 +26,26 @@ public class AccountListenerWebsocketStream {
     public final static AtomicBoolean shouldListenToAccount = new AtomicBoolean(true);
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
-    public static void handleAccountStatusResponse(JSONObject response) {
+    /**
+     * Reads an account status response into {@link #accountStatus}
+     *
+     * @param parser Parser inside the response, on the field after its id, as
+     *               handed over by {@link UserDataDecoder}
+     * @return The response, or null if it could not be read
+     */
+    public static AccountStatusResponse handleAccountStatusResponse(String requestId, JsonParser parser) {
         try {
-            // Convert JSONObject to String and then to DTO
-            String jsonString = response.toString();
-            AccountListenerWebsocketStream.accountStatus = objectMapper.readValue(jsonString,
-                    AccountStatusResponse.class);
+            // The mapper picks up the remaining fields in the same pass as the decoder
+            var response = objectMapper.readValue(parser, AccountStatusResponse.class);
+            response.setId(requestId);
 
             // Access the structured data
-            AccountStatusResponse.AccountResult result = accountStatus.getResult();
+            AccountStatusResponse.AccountResult result = response.getResult();
+            if (result == null) {
+                log.warn("Account status request {} failed with status {}", requestId, response.getStatus());
+                return null;
+            }
+            AccountListenerWebsocketStream.accountStatus = response;
 
             log.info("Account Status - Can Trade: {}, Can Withdraw: {}, Can Deposit: {}",
                     result.isCanTrade(),
@@ -84,42 +96,40 @@ public class AccountListenerWebsocketStream {
                             rateLimit.getCount());
                 });
             }
+            return response;
 
         } catch (Exception e) {
             log.error("Error handling account status response", e);
-            // Fallback to the original JSON parsing if DTO fails
-            handleAccountStatusResponseFallback(response);
+            return null;
         }
     }
 
-    private static void handleAccountStatusResponseFallback(JSONObject response) {
+    /**
+     * Logs the standard commission rates of a commission rates response
+     *
+     * @param parser Parser inside the response, on the field after its id
+     */
+    public static void handleCommissionRatesResponse(JsonParser parser) {
         try {
-            if (response.has("result")) {
-                JSONObject result = response.getJSONObject("result");
-                log.info("Account Status (Fallback) - Can Trade: {}, Can Withdraw: {}, Can Deposit: {}",
-                        result.getBoolean("canTrade"),
-                        result.getBoolean("canWithdraw"),
-                        result.getBoolean("canDeposit"));
-
-                if (result.has("balances")) {
-                    log.info("Account balances received, count: {}", result.getJSONArray("balances").length());
+            if (!UserDataDecoder.moveToField(parser, "result") || parser.currentToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            String symbol = null;
+            AccountStatusResponse.CommissionRates rates = null;
+            String name;
+            while ((name = parser.nextFieldName()) != null) {
+                parser.nextToken();
+                if ("symbol".equals(name)) {
+                    symbol = parser.getText();
+                } else if ("standardCommission".equals(name)) {
+                    rates = objectMapper.readValue(parser, AccountStatusResponse.CommissionRates.class);
+                } else {
+                    parser.skipChildren();
                 }
             }
-        } catch (Exception e) {
-            log.error("Error in fallback account status response handler", e);
-        }
-    }
-
-    public static void handleCommissionRatesResponse(JSONObject response) {
-        try {
-            if (response.has("result")) {
-                JSONObject result = response.getJSONObject("result");
+            if (rates != null) {
                 log.info("Commission Rates for {} - Maker: {}, Taker: {}, Buyer: {}, Seller: {}",
-                        result.getString("symbol"),
-                        result.getString("standardCommission.maker"),
-                        result.getString("standardCommission.taker"),
-                        result.getString("standardCommission.buyer"),
-                        result.getString("standardCommission.seller"));
+                        symbol, rates.getMaker(), rates.getTaker(), rates.getBuyer(), rates.getSeller());
             }
         } catch (Exception e) {
             log.error("Error handling commission rates response", e);
@@ -0,0 +1,177 @@
+package com.tradebot.rbm.websocket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.stereotype.Component;
+
+import com.binance.connector.client.spot.rest.model.DepthResponse;
+import com.binance.connector.client.spot.websocket.stream.model.DiffBookDepthResponse;
+import com.tradebot.rbm.adapter.BinanceAdapter;
+import com.tradebot.rbm.component.OrderBookRegistry;
+import com.tradebot.rbm.component.TradingSymbols;
+import com.tradebot.rbm.utils.LocalOrderBook;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the {@link LocalOrderBook} of every traded symbol in sync with its
+ * diff-depth stream, following Binance's snapshot plus buffered deltas
+ * procedure.
+ *
+ * Depth events arrive on the {@link MarketStreamMultiplexer} reader thread,
+ * which is the only thread writing the books. REST snapshots are fetched on a
+ * separate thread so a resync never stalls the other streams; the reader
+ * thread picks the snapshot up with the next event and replays the buffered
+ * events on top of it. At most {@code MAX_PENDING_EVENTS} events are buffered
+ * per symbol; a buffer that fills up before a snapshot catches up with it is
+ * dropped and the resync starts over.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DepthWebsocketStream {
+
+    private static final int SNAPSHOT_LIMIT = 1000;
+    // Over a minute and a half of 100 ms updates
+    private static final int MAX_PENDING_EVENTS = 1000;
+
+    public final static AtomicBoolean shouldListenToDepth = new AtomicBoolean(true);
+    private final MarketStreamMultiplexer marketStreams;
+    private final BinanceAdapter binanceAdapter;
+    private final OrderBookRegistry orderBooks;
+    private final TradingSymbols tradingSymbols;
+
+    private final ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "DepthSnapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private SymbolDepth[] depths;
+
+    @PostConstruct
+    void subscribe() {
+        depths = new SymbolDepth[tradingSymbols.size()];
+        for (int i = 0; i < depths.length; i++) {
+            var symbol = tradingSymbols.get(i);
+            depths[i] = new SymbolDepth(symbol, orderBooks.get(symbol));
+        }
+        marketStreams.onDepth(this::onDepthEvent);
+    }
+
+    @PreDestroy
+    void stop() {
+        snapshotExecutor.shutdownNow();
+    }
+
+    private void onDepthEvent(int symbolIndex, DiffBookDepthResponse event) {
+        var depth = depths[symbolIndex];
+        if (!shouldListenToDepth.get()) {
+            depth.stop();
+            return;
+        }
+        depth.onDepthEvent(event);
+    }
+
+    /**
+     * Sync state of one symbol's book, only used by the reader thread apart from
+     * the snapshot hand-over
+     */
+    private final class SymbolDepth {
+
+        private final String symbol;
+        private final LocalOrderBook orderBook;
+
+        // Events received while the book is waiting for a snapshot
+        private final List<DiffBookDepthResponse> pendingEvents = new ArrayList<>();
+        // Snapshot fetched by the snapshot thread, not yet applied
+        private final AtomicReference<DepthResponse> fetchedSnapshot = new AtomicReference<>();
+        private final AtomicBoolean snapshotRequested = new AtomicBoolean();
+
+        SymbolDepth(String symbol, LocalOrderBook orderBook) {
+            this.symbol = symbol;
+            this.orderBook = orderBook;
+        }
+
+        void onDepthEvent(DiffBookDepthResponse event) {
+            if (orderBook.isSynced()) {
+                if (orderBook.applyDiff(event.getU(), event.getuLowerCase(), event.getbLowerCase(),
+                        event.getaLowerCase())) {
+                    return;
+                }
+                log.warn("{} order book out of sync, requesting new snapshot", symbol);
+            }
+
+            if (pendingEvents.size() >= MAX_PENDING_EVENTS) {
+                log.warn("{} depth buffer full at {} events, restarting the resync", symbol, pendingEvents.size());
+                pendingEvents.clear();
+            }
+            pendingEvents.add(event);
+            var snapshot = fetchedSnapshot.getAndSet(null);
+            if (snapshot == null || !synchronizeBook(snapshot)) {
+                requestSnapshot();
+            }
+        }
+
+        void stop() {
+            if (orderBook.isSynced()) {
+                orderBook.invalidate();
+            }
+            pendingEvents.clear();
+        }
+
+        private void requestSnapshot() {
+            if (!snapshotRequested.compareAndSet(false, true)) {
+                return;
+            }
+            snapshotExecutor.execute(() -> {
+                try {
+                    fetchedSnapshot.set(binanceAdapter.depth(symbol, SNAPSHOT_LIMIT).getData());
+                } catch (Exception e) {
+                    log.error("Error fetching {} order book snapshot", symbol, e);
+                } finally {
+                    snapshotRequested.set(false);
+                }
+            });
+        }
+
+        /**
+         * Applies a REST snapshot and replays the buffered events on top of it
+         *
+         * @return Whether the book is now in sync
+         */
+        private boolean synchronizeBook(DepthResponse snapshot) {
+            long snapshotUpdateId = snapshot.getLastUpdateId();
+
+            // Snapshot is older than the buffered stream, wait for a newer one
+            if (snapshotUpdateId < pendingEvents.get(0).getU()) {
+                log.debug("Depth snapshot {} older than first buffered event {}", snapshotUpdateId,
+                        pendingEvents.get(0).getU());
+                return false;
+            }
+
+            orderBook.applySnapshot(snapshotUpdateId, snapshot.getBids(), snapshot.getAsks());
+            for (var event : pendingEvents) {
+                if (event.getuLowerCase() <= snapshotUpdateId) {
+                    continue;
+                }
+                if (!orderBook.applyDiff(event.getU(), event.getuLowerCase(), event.getbLowerCase(),
+                        event.getaLowerCase())) {
+                    // Gap between snapshot and stream, start buffering again from scratch
+                    pendingEvents.clear();
+                    return false;
+                }
+            }
+            pendingEvents.clear();
+            log.info("{} order book synchronized at update ID: {}", symbol, orderBook.getLastUpdateId());
+            return true;
+        }
+    }
+}
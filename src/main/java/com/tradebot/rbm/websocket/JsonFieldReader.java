@@ -0,0 +1,125 @@
+package com.tradebot.rbm.websocket;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.tradebot.rbm.utils.FixedPoint;
+
+/**
+ * Reads the current value of a streaming parser without turning it into a
+ * String where that can be avoided.
+ *
+ * Decimals are parsed straight out of the parser's character buffer into
+ * fixed-point longs. Short values drawn from a small set, such as symbols,
+ * assets, sides and statuses, go through a fixed-size cache keyed by their
+ * characters, so after warm-up each resolves to the same String instance
+ * without allocating. Not thread safe, every decoder owns its own reader.
+ */
+final class JsonFieldReader {
+
+    // Power of two, well above the number of distinct short values in use
+    private static final int CACHE_SIZE = 1024;
+    private static final int MAX_CACHED_LENGTH = 32;
+
+    private final String[] cache = new String[CACHE_SIZE];
+    private final CharSlice slice = new CharSlice();
+
+    /**
+     * Current value as a fixed-point long, from a quoted or bare decimal
+     */
+    long decimal(JsonParser parser, int scale) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NUMBER_INT
+                && token != JsonToken.VALUE_NUMBER_FLOAT) {
+            throw new JsonParseException(parser, "Expected a decimal but got " + token);
+        }
+        slice.wrap(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        return FixedPoint.parse(slice, scale);
+    }
+
+    /**
+     * Current value as a shared String instance, or null for a JSON null.
+     * Meant for values from a small set; unique values such as order IDs should
+     * use {@link #text} so they do not evict the shared ones.
+     */
+    String intern(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        if (length > MAX_CACHED_LENGTH) {
+            return new String(chars, offset, length);
+        }
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+        String cached = cache[slot];
+        if (cached != null && matches(cached, chars, offset, length)) {
+            return cached;
+        }
+        String value = new String(chars, offset, length);
+        cache[slot] = value;
+        return value;
+    }
+
+    private static boolean matches(String value, char[] chars, int offset, int length) {
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Current value as a new String, or null for a JSON null
+     */
+    String text(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    /**
+     * Read-only view of a range of the parser's character buffer, valid until
+     * the parser advances
+     */
+    private static final class CharSlice implements CharSequence {
+        private char[] chars;
+        private int offset;
+        private int length;
+
+        void wrap(char[] chars, int offset, int length) {
+            this.chars = chars;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars[offset + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, offset, length);
+        }
+    }
+}
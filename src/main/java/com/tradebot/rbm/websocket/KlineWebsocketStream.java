@@ -0,0 +1,41 @@
+package com.tradebot.rbm.websocket;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.binance.connector.client.spot.websocket.stream.model.KlineResponse;
+import com.tradebot.rbm.component.CandleEngine;
+import com.tradebot.rbm.component.MarketEventSequencer;
+import com.tradebot.rbm.component.TradingSymbols;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publishes the primary symbol's kline events to {@link MarketEventSequencer}.
+ *
+ * Klines are pushed every second or two whether or not there are trades, so
+ * their event time lets {@link CandleEngine} close candles in quiet markets.
+ */
+@Component
+@RequiredArgsConstructor
+public class KlineWebsocketStream {
+
+    private final MarketStreamMultiplexer marketStreams;
+    private final MarketEventSequencer marketEventSequencer;
+    private final TradingSymbols tradingSymbols;
+
+    @Value("${tradebot.market-stream.kline-interval:1s}")
+    private String klineInterval;
+
+    @PostConstruct
+    void subscribe() {
+        if (!klineInterval.isBlank()) {
+            marketStreams.onKline(tradingSymbols.primary(), klineInterval, this::onKline);
+        }
+    }
+
+    private void onKline(int symbolIndex, KlineResponse kline) {
+        marketEventSequencer.publishKline(symbolIndex, kline);
+    }
+}
@@ -0,0 +1,173 @@
+package com.tradebot.rbm.websocket;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.binance.connector.client.spot.websocket.stream.model.BookTickerResponse;
+import com.binance.connector.client.spot.websocket.stream.model.DiffBookDepthResponse;
+import com.binance.connector.client.spot.websocket.stream.model.KlineResponse;
+import com.binance.connector.client.spot.websocket.stream.model.TradeResponse;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Decodes market stream payloads field by field from a streaming parser
+ * positioned on the payload's opening brace, leaving it on the closing one.
+ *
+ * The payloads still land in the connector models, which the strategy, tapes
+ * and journal consume, so each event gets its own model and its decimals stay
+ * strings; what goes away is the reflective mapping. Only the fields the
+ * application reads are set, the rest are skipped. Not thread safe, owned by
+ * the reader thread of one connection.
+ */
+final class MarketEventDecoder {
+
+    private final JsonFieldReader fields = new JsonFieldReader();
+
+    /**
+     * Shared instance of the current string value, for stream names
+     */
+    String streamName(JsonParser parser) throws IOException {
+        return fields.intern(parser);
+    }
+
+    TradeResponse trade(JsonParser parser) throws IOException {
+        expectObject(parser);
+        var trade = new TradeResponse();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "E":
+                    trade.setE(parser.getLongValue());
+                    break;
+                case "s":
+                    trade.setS(fields.intern(parser));
+                    break;
+                case "t":
+                    trade.settLowerCase(parser.getLongValue());
+                    break;
+                case "p":
+                    trade.setpLowerCase(parser.getText());
+                    break;
+                case "q":
+                    trade.setqLowerCase(parser.getText());
+                    break;
+                case "T":
+                    trade.setT(parser.getLongValue());
+                    break;
+                case "m":
+                    trade.setmLowerCase(parser.getBooleanValue());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return trade;
+    }
+
+    BookTickerResponse bookTicker(JsonParser parser) throws IOException {
+        expectObject(parser);
+        var ticker = new BookTickerResponse();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "u":
+                    ticker.setU(parser.getLongValue());
+                    break;
+                case "s":
+                    ticker.setS(fields.intern(parser));
+                    break;
+                case "b":
+                    ticker.setbLowerCase(parser.getText());
+                    break;
+                case "B":
+                    ticker.setB(parser.getText());
+                    break;
+                case "a":
+                    ticker.setaLowerCase(parser.getText());
+                    break;
+                case "A":
+                    ticker.setA(parser.getText());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return ticker;
+    }
+
+    DiffBookDepthResponse depth(JsonParser parser) throws IOException {
+        expectObject(parser);
+        var depth = new DiffBookDepthResponse();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "U":
+                    depth.setU(parser.getLongValue());
+                    break;
+                case "u":
+                    depth.setuLowerCase(parser.getLongValue());
+                    break;
+                case "b":
+                    depth.setbLowerCase(levels(parser));
+                    break;
+                case "a":
+                    depth.setaLowerCase(levels(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return depth;
+    }
+
+    /**
+     * Decodes the kline's event time, the only part the candles use
+     */
+    KlineResponse kline(JsonParser parser) throws IOException {
+        expectObject(parser);
+        var kline = new KlineResponse();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            if ("E".equals(name)) {
+                kline.setE(parser.getLongValue());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return kline;
+    }
+
+    /**
+     * Reads {@code [["price","quantity"],...]}
+     */
+    private static List<List<String>> levels(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected price levels but got " + parser.currentToken());
+        }
+        var levels = new ArrayList<List<String>>();
+        while (parser.nextToken() == JsonToken.START_ARRAY) {
+            parser.nextToken();
+            String price = parser.getText();
+            parser.nextToken();
+            String quantity = parser.getText();
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                parser.skipChildren();
+            }
+            levels.add(List.of(price, quantity));
+        }
+        return levels;
+    }
+
+    static void expectObject(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected an object but got " + parser.currentToken());
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.tradebot.rbm.websocket;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WebSocketListener;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import com.binance.connector.client.spot.websocket.stream.model.BookTickerResponse;
+import com.binance.connector.client.spot.websocket.stream.model.DiffBookDepthResponse;
+import com.binance.connector.client.spot.websocket.stream.model.KlineResponse;
+import com.binance.connector.client.spot.websocket.stream.model.TradeResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.tradebot.rbm.component.TimerService;
+import com.tradebot.rbm.component.TradingSymbols;
+import com.tradebot.rbm.utils.Backoff;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * One combined-stream connection carrying the trade, book ticker, diff-depth
+ * and kline streams of every traded symbol.
+ *
+ * Components register a typed handler per stream kind while the context
+ * starts; {@link #run} then opens a single connection for every registered
+ * stream. Each message is dispatched by its stream name straight from the
+ * websocket reader thread: the envelope and the payload are read in one pass
+ * of a streaming parser, the payload straight into the stream's model by
+ * {@link MarketEventDecoder}, with no tree, queue or thread hop in between.
+ * Handlers therefore run on the reader thread and must hand off anything slow.
+ *
+ * The connection is reopened after a close or error, on the shared
+ * {@link TimerService} with a back-off that doubles while attempts fail.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MarketStreamMultiplexer implements ApplicationRunner {
+
+    private static final String DEPTH_UPDATE_SPEED = "100ms";
+    private static final long RECONNECT_DELAY_MILLIS = 3000;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 60_000;
+
+    /**
+     * Receives the events of one stream kind
+     */
+    @FunctionalInterface
+    public interface StreamHandler<T> {
+        void onEvent(int symbolIndex, T event);
+    }
+
+    @FunctionalInterface
+    private interface PayloadDecoder<T> {
+        T decode(JsonParser parser) throws IOException;
+    }
+
+    private static final class Route {
+        final int symbolIndex;
+        final PayloadDecoder<Object> decoder;
+        final StreamHandler<Object> handler;
+
+        Route(int symbolIndex, PayloadDecoder<Object> decoder, StreamHandler<Object> handler) {
+            this.symbolIndex = symbolIndex;
+            this.decoder = decoder;
+            this.handler = handler;
+        }
+
+        void dispatch(JsonParser parser) throws IOException {
+            handler.onEvent(symbolIndex, decoder.decode(parser));
+        }
+    }
+
+    private final TradingSymbols tradingSymbols;
+    private final TimerService timerService;
+
+    @Value("${tradebot.market-stream.url:wss://stream.binance.com:9443/stream}")
+    private String streamUrl;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    // Only used from the reader thread
+    private final MarketEventDecoder decoder = new MarketEventDecoder();
+    // Stream name to handler, filled before the connection opens and read only after
+    private final Map<String, Route> routes = new HashMap<>();
+
+    private final AtomicBoolean reconnecting = new AtomicBoolean();
+    private final Backoff reconnectBackoff = new Backoff(RECONNECT_DELAY_MILLIS, MAX_RECONNECT_DELAY_MILLIS);
+    private final AtomicLong messages = new AtomicLong();
+    private volatile boolean connected;
+    private volatile boolean running = true;
+    private WebSocketClient client;
+
+    /**
+     * Subscribes to the trade stream of every traded symbol
+     */
+    public void onTrade(StreamHandler<TradeResponse> handler) {
+        for (int i = 0; i < tradingSymbols.size(); i++) {
+            add(streamName(i, "trade"), i, decoder::trade, handler);
+        }
+    }
+
+    /**
+     * Subscribes to the book ticker stream of every traded symbol
+     */
+    public void onBookTicker(StreamHandler<BookTickerResponse> handler) {
+        for (int i = 0; i < tradingSymbols.size(); i++) {
+            add(streamName(i, "bookTicker"), i, decoder::bookTicker, handler);
+        }
+    }
+
+    /**
+     * Subscribes to the diff-depth stream of every traded symbol
+     */
+    public void onDepth(StreamHandler<DiffBookDepthResponse> handler) {
+        for (int i = 0; i < tradingSymbols.size(); i++) {
+            add(streamName(i, "depth@" + DEPTH_UPDATE_SPEED), i, decoder::depth, handler);
+        }
+    }
+
+    /**
+     * Subscribes to the kline stream of one traded symbol
+     *
+     * @param interval Kline interval code such as {@code 1s} or {@code 1m}
+     */
+    public void onKline(String symbol, String interval, StreamHandler<KlineResponse> handler) {
+        int index = tradingSymbols.indexOf(symbol);
+        if (index < 0) {
+            throw new IllegalArgumentException("Symbol not traded: " + symbol);
+        }
+        add(streamName(index, "kline_" + interval), index, decoder::kline, handler);
+    }
+
+    private String streamName(int symbolIndex, String stream) {
+        return tradingSymbols.get(symbolIndex).toLowerCase() + "@" + stream;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> void add(String streamName, int symbolIndex, PayloadDecoder<T> payloadDecoder,
+            StreamHandler<T> handler) {
+        if (client != null) {
+            throw new IllegalStateException("Streams must be registered before the connection opens");
+        }
+        var route = new Route(symbolIndex, (PayloadDecoder<Object>) payloadDecoder, (StreamHandler<Object>) handler);
+        if (routes.putIfAbsent(streamName, route) != null) {
+            throw new IllegalStateException("Stream already has a handler: " + streamName);
+        }
+    }
+
+    @Override
+    public synchronized void run(ApplicationArguments args) throws Exception {
+        if (routes.isEmpty()) {
+            log.info("No market streams registered, combined stream not opened");
+            return;
+        }
+        client = new WebSocketClient();
+        client.start();
+        connect();
+    }
+
+    private void connect() {
+        var uri = URI.create(streamUrl + "?streams=" + String.join("/", routes.keySet()));
+        log.info("Opening combined market stream with {} streams for symbols: {}", routes.size(),
+                tradingSymbols.all());
+        try {
+            client.connect(new Listener(), uri);
+        } catch (Exception e) {
+            log.error("Failed to open combined market stream", e);
+            scheduleReconnect();
+        }
+    }
+
+    private void scheduleReconnect() {
+        if (!running || !reconnecting.compareAndSet(false, true)) {
+            return;
+        }
+        long delay = reconnectBackoff.nextDelayMillis();
+        log.info("Reconnecting combined market stream in {} ms", delay);
+        timerService.schedule(delay, () -> {
+            reconnecting.set(false);
+            if (running && !connected) {
+                log.info("Reconnecting combined market stream...");
+                connect();
+            }
+        });
+    }
+
+    @PreDestroy
+    void stop() throws Exception {
+        running = false;
+        if (client != null) {
+            client.stop();
+        }
+    }
+
+    /**
+     * Routes a combined-stream message, {@code {"stream":...,"data":{...}}}, to
+     * the handler of its stream
+     */
+    void dispatch(String message) {
+        try (var parser = jsonFactory.createParser(message)) {
+            parser.nextToken();
+            MarketEventDecoder.expectObject(parser);
+            Route route = null;
+            boolean skippedData = false;
+            String name;
+            while ((name = parser.nextFieldName()) != null) {
+                parser.nextToken();
+                if ("stream".equals(name)) {
+                    route = routes.get(decoder.streamName(parser));
+                } else if ("data".equals(name) && route != null) {
+                    route.dispatch(parser);
+                    return;
+                } else {
+                    // Payload ahead of the stream name is skipped and read again below
+                    skippedData |= "data".equals(name);
+                    parser.skipChildren();
+                }
+            }
+            if (route != null && skippedData) {
+                dispatchData(message, route);
+            } else {
+                log.debug("Combined market stream message without a registered stream: {}", message);
+            }
+        } catch (Exception e) {
+            log.error("Error dispatching combined market stream message: {}", message, e);
+        }
+    }
+
+    /**
+     * Second pass over a message whose payload came before its stream name
+     */
+    private void dispatchData(String message, Route route) throws IOException {
+        try (var parser = jsonFactory.createParser(message)) {
+            parser.nextToken();
+            String name;
+            while ((name = parser.nextFieldName()) != null) {
+                if (parser.nextToken() == JsonToken.START_OBJECT && "data".equals(name)) {
+                    route.dispatch(parser);
+                    return;
+                }
+                parser.skipChildren();
+            }
+        }
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Messages received since startup, over all streams
+     */
+    public long getMessages() {
+        return messages.get();
+    }
+
+    private final class Listener implements WebSocketListener {
+
+        @Override
+        public void onWebSocketConnect(Session session) {
+            connected = true;
+            reconnectBackoff.reset();
+            log.info("Combined market stream connected");
+        }
+
+        @Override
+        public void onWebSocketText(String message) {
+            messages.lazySet(messages.get() + 1);
+            dispatch(message);
+        }
+
+        @Override
+        public void onWebSocketClose(int statusCode, String reason) {
+            connected = false;
+            log.warn("Combined market stream closed: {} - {}", statusCode, reason);
+            scheduleReconnect();
+        }
+
+        @Override
+        public void onWebSocketError(Throwable cause) {
+            connected = false;
+            log.error("Combined market stream error", cause);
+            scheduleReconnect();
+        }
+    }
+}
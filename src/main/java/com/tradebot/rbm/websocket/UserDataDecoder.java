@@ -0,0 +1,439 @@
+package com.tradebot.rbm.websocket;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.tradebot.rbm.utils.FixedPoint;
+import com.tradebot.rbm.websocket.dto.AccountPositionEvent;
+import com.tradebot.rbm.websocket.dto.BalanceUpdateEvent;
+import com.tradebot.rbm.websocket.dto.ExecutionReportEvent;
+import com.tradebot.rbm.websocket.dto.ListStatusEvent;
+
+/**
+ * Decodes user data messages in a single pass of a streaming parser, straight
+ * into one reusable event object per event type.
+ *
+ * Handles the three shapes a message arrives in: a WebSocket API response
+ * {@code {"id":...,"status":...,"result":...}}, a combined-stream wrapper
+ * {@code {"stream":...,"data":{...}}} and a bare event. Responses are handed
+ * to the listener with the parser still inside the message, so whoever knows
+ * the request reads the rest without a second parse. Decimals become
+ * fixed-point longs at {@link FixedPoint#BALANCE_SCALE} and repeated values
+ * such as symbols and statuses shared strings, so a decoded event allocates
+ * nothing but its client order IDs.
+ *
+ * The event objects are overwritten by the next message, and a decoder must
+ * only be used from one thread at a time.
+ */
+public class UserDataDecoder {
+
+    /**
+     * Receives decoded messages, on the thread that called
+     * {@link UserDataDecoder#decode}
+     */
+    public interface Listener {
+
+        /**
+         * A WebSocket API response. The parser is on the name of the field
+         * after {@code id}, usually {@code status}, and the listener reads as
+         * much of the rest as it needs, e.g. with
+         * {@link UserDataDecoder#moveToField} or an object mapper.
+         */
+        void onResponse(String requestId, JsonParser parser) throws IOException;
+
+        void onExecutionReport(ExecutionReportEvent event);
+
+        void onAccountPosition(AccountPositionEvent event);
+
+        void onBalanceUpdate(BalanceUpdateEvent event);
+
+        void onListStatus(ListStatusEvent event);
+
+        default void onOtherEvent(String eventType) {
+        }
+    }
+
+    private static final int SCALE = FixedPoint.BALANCE_SCALE;
+
+    private final JsonFactory jsonFactory;
+    private final Listener listener;
+    private final JsonFieldReader fields = new JsonFieldReader();
+
+    private final ExecutionReportEvent executionReport = new ExecutionReportEvent();
+    private final AccountPositionEvent accountPosition = new AccountPositionEvent();
+    private final BalanceUpdateEvent balanceUpdate = new BalanceUpdateEvent();
+    private final ListStatusEvent listStatus = new ListStatusEvent();
+
+    public UserDataDecoder(JsonFactory jsonFactory, Listener listener) {
+        this.jsonFactory = jsonFactory;
+        this.listener = listener;
+    }
+
+    /**
+     * Decodes one message and passes it to the listener
+     *
+     * @return false if the message was not a response or a user data event
+     */
+    public boolean decode(String message) throws IOException {
+        try (var parser = jsonFactory.createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            String name = parser.nextFieldName();
+            if (name == null) {
+                return false;
+            }
+            parser.nextToken();
+            switch (name) {
+                case "id":
+                    String requestId = fields.text(parser);
+                    parser.nextToken();
+                    listener.onResponse(requestId, parser);
+                    return true;
+                case "e":
+                    return decodeEvent(fields.intern(parser), parser);
+                case "stream":
+                    parser.skipChildren();
+                    while ((name = parser.nextFieldName()) != null) {
+                        if (parser.nextToken() == JsonToken.START_OBJECT && "data".equals(name)) {
+                            return decodeWrapped(parser);
+                        }
+                        parser.skipChildren();
+                    }
+                    return false;
+                default:
+                    // The exchange puts the event type first; anything else gets a second pass
+                    return decodeReordered(message);
+            }
+        }
+    }
+
+    /**
+     * Moves forward through the fields of the current object, from the parser
+     * being on a field name, until the named one
+     *
+     * @return true with the parser on the field's value, or false with it on
+     *         the end of the object
+     */
+    public static boolean moveToField(JsonParser parser, String field) throws IOException {
+        while (parser.currentToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            if (field.equals(name)) {
+                return true;
+            }
+            parser.skipChildren();
+            parser.nextToken();
+        }
+        return false;
+    }
+
+    /**
+     * Decodes the object the parser is on, whose first field is the event type
+     */
+    private boolean decodeWrapped(JsonParser parser) throws IOException {
+        if (!"e".equals(parser.nextFieldName())) {
+            return false;
+        }
+        parser.nextToken();
+        return decodeEvent(fields.intern(parser), parser);
+    }
+
+    /**
+     * Finds the event type of a message with the fields in another order, then
+     * decodes it in a second pass
+     */
+    private boolean decodeReordered(String message) throws IOException {
+        String eventType = null;
+        try (var parser = jsonFactory.createParser(message)) {
+            parser.nextToken();
+            String name;
+            while ((name = parser.nextFieldName()) != null) {
+                parser.nextToken();
+                if ("e".equals(name)) {
+                    eventType = fields.intern(parser);
+                    break;
+                }
+                parser.skipChildren();
+            }
+        }
+        if (eventType == null) {
+            return false;
+        }
+        try (var parser = jsonFactory.createParser(message)) {
+            parser.nextToken();
+            return decodeEvent(eventType, parser);
+        }
+    }
+
+    /**
+     * Decodes the remaining fields of an event object, skipping its {@code e}
+     * field if it comes up again
+     */
+    private boolean decodeEvent(String eventType, JsonParser parser) throws IOException {
+        if (eventType == null) {
+            return false;
+        }
+        switch (eventType) {
+            case "executionReport":
+                listener.onExecutionReport(readExecutionReport(parser));
+                return true;
+            case "outboundAccountPosition":
+                listener.onAccountPosition(readAccountPosition(parser));
+                return true;
+            case "balanceUpdate":
+                listener.onBalanceUpdate(readBalanceUpdate(parser));
+                return true;
+            case "listStatus":
+                listener.onListStatus(readListStatus(parser));
+                return true;
+            default:
+                listener.onOtherEvent(eventType);
+                return true;
+        }
+    }
+
+    private ExecutionReportEvent readExecutionReport(JsonParser parser) throws IOException {
+        var event = executionReport;
+        event.clear();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "E":
+                    event.setEventTime(parser.getLongValue());
+                    break;
+                case "s":
+                    event.setSymbol(fields.intern(parser));
+                    break;
+                case "c":
+                    event.setClientOrderId(fields.text(parser));
+                    break;
+                case "S":
+                    event.setSide(fields.intern(parser));
+                    break;
+                case "o":
+                    event.setOrderType(fields.intern(parser));
+                    break;
+                case "f":
+                    event.setTimeInForce(fields.intern(parser));
+                    break;
+                case "q":
+                    event.setQuantity(fields.decimal(parser, SCALE));
+                    break;
+                case "p":
+                    event.setPrice(fields.decimal(parser, SCALE));
+                    break;
+                case "P":
+                    event.setStopPrice(fields.decimal(parser, SCALE));
+                    break;
+                case "g":
+                    event.setOrderListId(parser.getLongValue());
+                    break;
+                case "C":
+                    // Empty unless the report is for a cancel
+                    event.setOriginalClientOrderId(parser.getTextLength() == 0 ? null : fields.text(parser));
+                    break;
+                case "x":
+                    event.setExecutionType(fields.intern(parser));
+                    break;
+                case "X":
+                    event.setOrderStatus(fields.intern(parser));
+                    break;
+                case "r":
+                    event.setRejectReason(fields.intern(parser));
+                    break;
+                case "i":
+                    event.setOrderId(parser.getLongValue());
+                    break;
+                case "l":
+                    event.setLastQuantity(fields.decimal(parser, SCALE));
+                    break;
+                case "z":
+                    event.setCumulativeQuantity(fields.decimal(parser, SCALE));
+                    break;
+                case "L":
+                    event.setLastPrice(fields.decimal(parser, SCALE));
+                    break;
+                case "n":
+                    event.setCommission(fields.decimal(parser, SCALE));
+                    break;
+                case "N":
+                    event.setCommissionAsset(fields.intern(parser));
+                    break;
+                case "T":
+                    event.setTransactionTime(parser.getLongValue());
+                    break;
+                case "t":
+                    event.setTradeId(parser.getLongValue());
+                    break;
+                case "w":
+                    event.setWorking(parser.getBooleanValue());
+                    break;
+                case "m":
+                    event.setMaker(parser.getBooleanValue());
+                    break;
+                case "O":
+                    event.setCreationTime(parser.getLongValue());
+                    break;
+                case "Z":
+                    event.setCumulativeQuoteQuantity(fields.decimal(parser, SCALE));
+                    break;
+                case "Y":
+                    event.setLastQuoteQuantity(fields.decimal(parser, SCALE));
+                    break;
+                case "Q":
+                    event.setQuoteOrderQuantity(fields.decimal(parser, SCALE));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return event;
+    }
+
+    private AccountPositionEvent readAccountPosition(JsonParser parser) throws IOException {
+        var event = accountPosition;
+        event.clear();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "E":
+                    event.setEventTime(parser.getLongValue());
+                    break;
+                case "u":
+                    event.setLastUpdateTime(parser.getLongValue());
+                    break;
+                case "B":
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readBalance(parser, event);
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return event;
+    }
+
+    private void readBalance(JsonParser parser, AccountPositionEvent event) throws IOException {
+        String asset = null;
+        long free = 0;
+        long locked = 0;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "a":
+                    asset = fields.intern(parser);
+                    break;
+                case "f":
+                    free = fields.decimal(parser, SCALE);
+                    break;
+                case "l":
+                    locked = fields.decimal(parser, SCALE);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (asset != null) {
+            event.addBalance(asset, free, locked);
+        }
+    }
+
+    private BalanceUpdateEvent readBalanceUpdate(JsonParser parser) throws IOException {
+        var event = balanceUpdate;
+        event.clear();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "E":
+                    event.setEventTime(parser.getLongValue());
+                    break;
+                case "a":
+                    event.setAsset(fields.intern(parser));
+                    break;
+                case "d":
+                    event.setDelta(fields.decimal(parser, SCALE));
+                    break;
+                case "T":
+                    event.setClearTime(parser.getLongValue());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return event;
+    }
+
+    private ListStatusEvent readListStatus(JsonParser parser) throws IOException {
+        var event = listStatus;
+        event.clear();
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "E":
+                    event.setEventTime(parser.getLongValue());
+                    break;
+                case "s":
+                    event.setSymbol(fields.intern(parser));
+                    break;
+                case "g":
+                    event.setOrderListId(parser.getLongValue());
+                    break;
+                case "c":
+                    event.setContingencyType(fields.intern(parser));
+                    break;
+                case "l":
+                    event.setListStatusType(fields.intern(parser));
+                    break;
+                case "L":
+                    event.setListOrderStatus(fields.intern(parser));
+                    break;
+                case "r":
+                    event.setListRejectReason(fields.intern(parser));
+                    break;
+                case "C":
+                    event.setListClientOrderId(fields.text(parser));
+                    break;
+                case "T":
+                    event.setTransactionTime(parser.getLongValue());
+                    break;
+                case "O":
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readListOrder(parser, event);
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return event;
+    }
+
+    private void readListOrder(JsonParser parser, ListStatusEvent event) throws IOException {
+        long orderId = 0;
+        String clientOrderId = null;
+        String name;
+        while ((name = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (name) {
+                case "i":
+                    orderId = parser.getLongValue();
+                    break;
+                case "c":
+                    clientOrderId = fields.text(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        event.addOrder(orderId, clientOrderId);
+    }
+}
@@ -1,12 +1,17 @@
 package com.tradebot.rbm.websocket;
 
+import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.WebSocketListener;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
 import org.json.JSONObject;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.scheduling.annotation.Async;
@@ -15,33 +20,89 @@ import org.springframework.stereotype.Component;
 import com.binance.connector.client.impl.WebSocketApiClientImpl;
 import com.binance.connector.client.impl.websocketapi.WebSocketApiUserDataStream;
 import com.binance.connector.client.spot.websocket.stream.api.SpotWebSocketStreams;
-import com.tradebot.rbm.service.WebsocketTradeService;
-
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.tradebot.rbm.component.MarketEventSequencer;
+import com.tradebot.rbm.component.OrderTracker;
+import com.tradebot.rbm.component.TimerService;
+import com.tradebot.rbm.component.TradingSymbols;
+import com.tradebot.rbm.simulator.ExchangeSimulator;
+import com.tradebot.rbm.utils.AccountBalanceStore;
+import com.tradebot.rbm.utils.Backoff;
+import com.tradebot.rbm.utils.FixedPoint;
+import com.tradebot.rbm.websocket.dto.AccountPositionEvent;
+import com.tradebot.rbm.websocket.dto.BalanceUpdateEvent;
+import com.tradebot.rbm.websocket.dto.ExecutionReportEvent;
+import com.tradebot.rbm.websocket.dto.ListStatusEvent;
+
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Follows the account's user data: the WebSocket API connection that starts
+ * and pings the listen key, and the stream connection the events arrive on.
+ *
+ * Reconnects and pings are scheduled on the shared {@link TimerService}, whose
+ * tasks only hand them to a reconnect thread, as connecting and the listen key
+ * requests block. The stream connections all go through one Jetty client.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class UserListenerWebsocketStream implements ApplicationRunner {
 
-    @Value("${binance.trading.symbol:BTCUSDT}")
-    private String tradingSymbol;
-
     public static final AtomicBoolean shouldListenToUserData = new AtomicBoolean(true);
+    // Binance recommends a listenKey ping every 30 seconds
+    private static final long PING_INTERVAL_MILLIS = 30_000;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 60_000;
+
     private final WebSocketApiClientImpl userDataWebsocketClient;
-    private final WebsocketTradeService websocketTradeService;
+    private final TradingSymbols tradingSymbols;
     private final SpotWebSocketStreams spotWebSocketStreams;
+    private final AccountBalanceStore balanceStore;
+    private final OrderTracker orderTracker;
+    private final MarketEventSequencer sequencer;
+    private final ObjectProvider<ExchangeSimulator> exchangeSimulator;
+    private final TimerService timerService;
 
     // Store the listen key for pinging and closing the stream
     private final AtomicReference<String> currentListenKey = new AtomicReference<>();
     private volatile boolean isStreamActive = true;
+    private volatile TimerService.Timer pingTimer;
+    private final Backoff apiReconnectBackoff = new Backoff(5_000, MAX_RECONNECT_DELAY_MILLIS);
+    private final Backoff streamReconnectBackoff = new Backoff(3_000, MAX_RECONNECT_DELAY_MILLIS);
+
+    // Runs the blocking work of reconnects and pings off the timer thread
+    private final ExecutorService reconnectExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "UserDataReconnect");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Started with the first stream connection and reused by every reconnect
+    private WebSocketClient streamClient;
+    // Latest stream connection, closed before a new one is opened
+    private volatile Session streamSession;
 
     protected boolean userDataStreamSubscribed;
 
+    // One decoder per connection, as each delivers on its own thread
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final UserDataDecoder apiDecoder = new UserDataDecoder(jsonFactory, new UserDataListener());
+    private final UserDataDecoder streamDecoder = new UserDataDecoder(jsonFactory, new UserDataListener());
+
     @Override
     @Async
     public void run(ApplicationArguments args) throws Exception {
+        var simulator = exchangeSimulator.getIfAvailable();
+        if (simulator != null) {
+            // Orders go to the simulator, so its account and events replace the real ones
+            log.info("Listening to the exchange simulator instead of the User Data WebSocket stream");
+            balanceStore.loadSnapshot(simulator.accountSnapshot());
+            simulator.addUserDataHandler(this::handleUserDataStreamMessage);
+            return;
+        }
         log.info("Starting User Data WebSocket stream...");
         connect();
     }
@@ -53,6 +114,7 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
                     // onOpen callback
                     response -> {
                         log.info("User Data WebSocket API connected successfully");
+                        apiReconnectBackoff.reset();
                         startUserDataStream();
                     },
                     // onMessage callback
@@ -120,46 +182,71 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
 
     private void handleUserDataMessage(String message) {
         try {
-            JSONObject jsonMessage = new JSONObject(message);
-
-            // Handle response to userDataStream.start request
-            if (jsonMessage.has("id") && jsonMessage.has("result")) {
-                String requestId = jsonMessage.getString("id");
-
-                if (requestId.startsWith("start_user_data")) {
-                    handleUserDataStreamStartResponse(jsonMessage);
-                } else if (requestId.startsWith("ping_user_data")) {
-                    handleUserDataStreamPingResponse(jsonMessage);
-                } else if (requestId.startsWith("account_status")) {
-                    AccountListenerWebsocketStream.handleAccountStatusResponse(jsonMessage);
-                } else if (requestId.startsWith("commission_rates")) {
-                    AccountListenerWebsocketStream.handleCommissionRatesResponse(jsonMessage);
-                }
-                return;
+            if (!apiDecoder.decode(message)) {
+                log.debug("Unhandled user data message: {}", message);
             }
+        } catch (Exception e) {
+            log.error("Error handling user data message: {}", message, e);
+        }
+    }
+
+    /**
+     * Routes WebSocket API responses by the prefix of their request ID and user
+     * data events to their handlers
+     */
+    private final class UserDataListener implements UserDataDecoder.Listener {
 
-            // Handle user data stream events
-            if (jsonMessage.has("stream") && jsonMessage.has("data")) {
-                handleUserDataStreamEvent(jsonMessage);
+        @Override
+        public void onResponse(String requestId, JsonParser parser) throws IOException {
+            if (requestId == null) {
                 return;
             }
-
-            // Handle direct stream data (without stream wrapper)
-            if (jsonMessage.has("e")) {
-                handleUserDataEvent(jsonMessage);
+            if (requestId.startsWith("start_user_data")) {
+                handleUserDataStreamStartResponse(parser);
+            } else if (requestId.startsWith("ping_user_data")) {
+                handleUserDataStreamPingResponse(parser);
+            } else if (requestId.startsWith("account_status")) {
+                var accountStatus = AccountListenerWebsocketStream.handleAccountStatusResponse(requestId, parser);
+                if (accountStatus != null && accountStatus.getResult() != null) {
+                    balanceStore.loadSnapshot(accountStatus.getResult());
+                }
+            } else if (requestId.startsWith("commission_rates")) {
+                AccountListenerWebsocketStream.handleCommissionRatesResponse(parser);
             }
+        }
 
-        } catch (Exception e) {
-            log.error("Error handling user data message: {}", message, e);
+        @Override
+        public void onExecutionReport(ExecutionReportEvent event) {
+            handleOrderExecutionReport(event);
+        }
+
+        @Override
+        public void onAccountPosition(AccountPositionEvent event) {
+            handleAccountPositionUpdate(event);
+        }
+
+        @Override
+        public void onBalanceUpdate(BalanceUpdateEvent event) {
+            handleBalanceUpdate(event);
+        }
+
+        @Override
+        public void onListStatus(ListStatusEvent event) {
+            handleOrderListStatus(event);
+        }
+
+        @Override
+        public void onOtherEvent(String eventType) {
+            log.debug("Unhandled user data event type: {}", eventType);
         }
     }
 
-    private void handleUserDataStreamStartResponse(JSONObject response) {
+    private void handleUserDataStreamStartResponse(JsonParser parser) {
         try {
-            if (response.has("result")) {
-                JSONObject result = response.getJSONObject("result");
-                if (result.has("listenKey")) {
-                    String listenKey = result.getString("listenKey");
+            if (UserDataDecoder.moveToField(parser, "result") && parser.currentToken() == JsonToken.START_OBJECT) {
+                parser.nextToken();
+                if (UserDataDecoder.moveToField(parser, "listenKey")) {
+                    String listenKey = parser.getText();
                     currentListenKey.set(listenKey);
                     isStreamActive = true;
 
@@ -196,20 +283,31 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
         }
     }
 
-    private void connectToUserDataStreamDirectly(String streamUrl) {
+    private synchronized void connectToUserDataStreamDirectly(String streamUrl) {
         try {
-            // Create WebSocket client configuration
-            var client = new org.eclipse.jetty.websocket.client.WebSocketClient();
-
-            client.start();
+            if (streamClient == null) {
+                streamClient = new WebSocketClient();
+                streamClient.start();
+            }
+            // A new listen key replaces the stream, the old connection must not deliver twice
+            var previous = streamSession;
+            streamSession = null;
+            if (previous != null && previous.isOpen()) {
+                previous.close();
+            }
 
             // Create WebSocket listener
             var listener = new WebSocketListener() {
 
+                private Session session;
+
                 @Override
-                public void onWebSocketConnect(org.eclipse.jetty.websocket.api.Session session) {
+                public void onWebSocketConnect(Session session) {
                     log.info("User data stream WebSocket connected");
+                    this.session = session;
+                    streamSession = session;
                     userDataStreamSubscribed = true;
+                    streamReconnectBackoff.reset();
                 }
 
                 @Override
@@ -221,6 +319,9 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
                 @Override
                 public void onWebSocketClose(int statusCode, String reason) {
                     log.warn("User data stream WebSocket closed: {} - {}", statusCode, reason);
+                    if (isReplaced()) {
+                        return;
+                    }
                     userDataStreamSubscribed = false;
 
                     if (shouldListenToUserData.get() && isStreamActive) {
@@ -231,17 +332,25 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
                 @Override
                 public void onWebSocketError(Throwable cause) {
                     log.error("User data stream WebSocket error", cause);
+                    if (isReplaced()) {
+                        return;
+                    }
                     userDataStreamSubscribed = false;
 
                     if (shouldListenToUserData.get() && isStreamActive) {
                         scheduleUserDataStreamReconnect();
                     }
                 }
+
+                // A connection closed for a newer one leaves the state to the newer one
+                private boolean isReplaced() {
+                    return session != null && session != streamSession;
+                }
             };
 
             // Connect to the user data stream
             URI streamUri = URI.create(streamUrl);
-            client.connect(listener, streamUri);
+            streamClient.connect(listener, streamUri);
 
         } catch (Exception e) {
             log.error("Error creating direct user data stream connection", e);
@@ -250,29 +359,22 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
     }
 
     private void scheduleUserDataStreamReconnect() {
-        new Thread(() -> {
-            try {
-                Thread.sleep(3000); // Wait 3 seconds before reconnecting
-                String listenKey = currentListenKey.get();
-                if (shouldListenToUserData.get() && isStreamActive &&
-                        listenKey != null && !userDataStreamSubscribed) {
-                    log.info("Attempting to reconnect user data stream...");
-                    subscribeToUserDataStream(listenKey);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+        long delay = streamReconnectBackoff.nextDelayMillis();
+        log.info("Reconnecting user data stream in {} ms", delay);
+        timerService.schedule(delay, () -> reconnectExecutor.execute(() -> {
+            String listenKey = currentListenKey.get();
+            if (shouldListenToUserData.get() && isStreamActive &&
+                    listenKey != null && !userDataStreamSubscribed) {
+                log.info("Attempting to reconnect user data stream...");
+                subscribeToUserDataStream(listenKey);
             }
-        }).start();
+        }));
     }
 
     private void handleUserDataStreamMessage(String message) {
         try {
-            JSONObject eventData = new JSONObject(message);
-
             // These events come directly from the stream
-            if (eventData.has("e")) {
-                handleUserDataEvent(eventData);
-            } else {
+            if (!streamDecoder.decode(message)) {
                 log.debug("Received non-event message from user data stream: {}", message);
             }
 
@@ -281,9 +383,9 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
         }
     }
 
-    private void handleUserDataStreamPingResponse(JSONObject response) {
+    private void handleUserDataStreamPingResponse(JsonParser parser) {
         try {
-            if (response.has("result")) {
+            if (UserDataDecoder.moveToField(parser, "result")) {
                 log.debug("User data stream ping successful");
             }
         } catch (Exception e) {
@@ -291,77 +393,20 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
         }
     }
 
-    private void handleUserDataStreamEvent(JSONObject streamMessage) {
+    private void handleAccountPositionUpdate(AccountPositionEvent event) {
         try {
-            String streamName = streamMessage.getString("stream");
-            JSONObject data = streamMessage.getJSONObject("data");
-
-            log.debug("User data stream event received from stream: {}", streamName);
-            handleUserDataEvent(data);
-
-        } catch (Exception e) {
-            log.error("Error handling user data stream event", e);
-        }
-    }
+            long lastUpdateTime = event.getLastUpdateTime();
 
-    private void handleUserDataEvent(JSONObject eventData) {
-        try {
-            String eventType = eventData.getString("e");
-
-            switch (eventType) {
-                case "outboundAccountPosition":
-                    handleAccountPositionUpdate(eventData);
-                    break;
-                case "balanceUpdate":
-                    handleBalanceUpdate(eventData);
-                    break;
-                case "executionReport":
-                    handleOrderExecutionReport(eventData);
-                    break;
-                case "listStatus":
-                    handleOrderListStatus(eventData);
-                    break;
-                default:
-                    log.debug("Unhandled user data event type: {}", eventType);
-                    log.debug("Event data: {}", eventData.toString());
-            }
+            log.info("Account position update - Event time: {}, Last update: {}", event.getEventTime(),
+                    lastUpdateTime);
+            log.info("Balance updates received for {} assets:", event.size());
 
-        } catch (Exception e) {
-            log.error("Error handling user data event", e);
-        }
-    }
+            for (int i = 0; i < event.size(); i++) {
+                String asset = event.asset(i);
+                balanceStore.updatePosition(asset, event.free(i), event.locked(i), lastUpdateTime);
 
-    private void handleAccountPositionUpdate(JSONObject eventData) {
-        try {
-            long eventTime = eventData.getLong("E");
-            long lastUpdateTime = eventData.getLong("u");
-
-            log.info("Account position update - Event time: {}, Last update: {}", eventTime, lastUpdateTime);
-
-            if (eventData.has("B")) {
-                var balances = eventData.getJSONArray("B");
-
-                log.info("Balance updates received for {} assets:", balances.length());
-
-                for (int i = 0; i < balances.length(); i++) {
-                    JSONObject balance = balances.getJSONObject(i);
-                    String asset = balance.getString("a");
-                    String free = balance.getString("f");
-                    String locked = balance.getString("l");
-
-                    double freeAmount = Double.parseDouble(free);
-                    double lockedAmount = Double.parseDouble(locked);
-
-                    if (freeAmount > 0 || lockedAmount > 0) {
-                        log.info("  {} - Free: {}, Locked: {}", asset, free, locked);
-                    }
-
-                    AccountListenerWebsocketStream.accountStatus.getResult().getBalances().forEach((acBalance) -> {
-                        if (acBalance.getAsset().toUpperCase().equals(asset.toUpperCase())) {
-                            acBalance.setFree(free);
-                            acBalance.setLocked(locked);
-                        }
-                    });
+                if (balanceStore.total(balanceStore.assetId(asset)) > 0) {
+                    log.info("  {} - Free: {}, Locked: {}", asset, format(event.free(i)), format(event.locked(i)));
                 }
             }
 
@@ -370,43 +415,30 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
         }
     }
 
-    private void handleBalanceUpdate(JSONObject eventData) {
+    private void handleBalanceUpdate(BalanceUpdateEvent event) {
         try {
-            long eventTime = eventData.getLong("E");
-            String asset = eventData.getString("a");
-            String balanceDelta = eventData.getString("d");
-            long clearTime = eventData.getLong("T");
-
             log.info("Balance update - Asset: {}, Delta: {}, Event time: {}, Clear time: {}",
-                    asset, balanceDelta, eventTime, clearTime);
+                    event.getAsset(), format(event.getDelta()), event.getEventTime(), event.getClearTime());
 
-            // Notify the WebsocketTradeService about balance changes
-            // This can be useful for tracking if orders were executed
-            double delta = Double.parseDouble(balanceDelta);
-            if (Math.abs(delta) > 0.000001) { // Only log significant changes
-                log.info("Significant balance change detected for {}: {}", asset, balanceDelta);
-            }
+            balanceStore.applyDelta(event.getAsset(), event.getDelta(), event.getClearTime());
 
         } catch (Exception e) {
             log.error("Error handling balance update", e);
         }
     }
 
-    private void handleOrderExecutionReport(JSONObject eventData) {
+    private void handleOrderExecutionReport(ExecutionReportEvent event) {
         try {
-            String symbol = eventData.getString("s");
-            String clientOrderId = eventData.getString("c");
-            String side = eventData.getString("S");
-            String orderType = eventData.getString("o");
-            String orderStatus = eventData.getString("X");
-            String executionType = eventData.getString("x");
+            String symbol = event.getSymbol();
+            String clientOrderId = event.getClientOrderId();
+            String executionType = event.getExecutionType();
 
             log.info("Order execution report - Symbol: {}, Side: {}, Type: {}, Status: {}, Execution: {}",
-                    symbol, side, orderType, orderStatus, executionType);
+                    symbol, event.getSide(), event.getOrderType(), event.getOrderStatus(), executionType);
 
-            // Check if this is our trading symbol
-            if (symbol.equals(tradingSymbol)) {
-                String orderId = String.valueOf(eventData.getLong("i"));
+            // Check if this is one of our trading symbols
+            if (symbol != null && executionType != null && tradingSymbols.contains(symbol)) {
+                long orderId = event.getOrderId();
 
                 // Handle different execution types
                 switch (executionType) {
@@ -414,7 +446,7 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
                         log.info("New order placed - Order ID: {}, Client Order ID: {}", orderId, clientOrderId);
                         break;
                     case "TRADE":
-                        handleTradeExecution(eventData, orderId);
+                        handleTradeExecution(event);
                         break;
                     case "CANCELED":
                         log.info("Order canceled - Order ID: {}, Client Order ID: {}", orderId, clientOrderId);
@@ -428,82 +460,67 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
                 }
             }
 
+            // Hand the state change to the symbol's strategy, on its event loop
+            var update = orderTracker.onExecutionReport(event);
+            int symbolIndex = symbol == null ? -1 : tradingSymbols.indexOf(symbol);
+            if (update != null && symbolIndex >= 0) {
+                sequencer.publishOrderUpdate(symbolIndex, update);
+            }
+
         } catch (Exception e) {
             log.error("Error handling order execution report", e);
         }
     }
 
-    private void handleTradeExecution(JSONObject eventData, String orderId) {
-        try {
-            String side = eventData.getString("S");
-            String lastExecutedPrice = eventData.getString("L");
-            String lastExecutedQuantity = eventData.getString("l");
-            String cumulativeFilledQuantity = eventData.getString("z");
-
-            log.info("Trade executed - Order ID: {}, Side: {}, Price: {}, Quantity: {}, Cumulative: {}",
-                    orderId, side, lastExecutedPrice, lastExecutedQuantity, cumulativeFilledQuantity);
-
-            // If this is a BUY order execution, notify the WebsocketTradeService
-            if ("BUY".equals(side)) {
-                try {
-                    // websocketTradeService.onBuyOrderExecuted(
-                    // orderId,
-                    // new java.math.BigDecimal(lastExecutedPrice),
-                    // new java.math.BigDecimal(lastExecutedQuantity));
-
-                    log.info("Notified WebsocketTradeService of buy order execution: {}", orderId);
-
-                } catch (Exception e) {
-                    log.error("Error notifying WebsocketTradeService of order execution", e);
-                }
-            }
-
-        } catch (Exception e) {
-            log.error("Error handling trade execution", e);
-        }
+    private void handleTradeExecution(ExecutionReportEvent event) {
+        log.info("Trade executed - Order ID: {}, Side: {}, Price: {}, Quantity: {}, Cumulative: {}",
+                event.getOrderId(), event.getSide(), format(event.getLastPrice()), format(event.getLastQuantity()),
+                format(event.getCumulativeQuantity()));
     }
 
-    private void handleOrderListStatus(JSONObject eventData) {
+    private void handleOrderListStatus(ListStatusEvent event) {
         try {
-            String orderListId = String.valueOf(eventData.getLong("g"));
-            String contingencyType = eventData.getString("c");
-            String listStatusType = eventData.getString("l");
-            String listOrderStatus = eventData.getString("L");
-
             log.info("Order list status - ID: {}, Type: {}, Status: {}, Order Status: {}",
-                    orderListId, contingencyType, listStatusType, listOrderStatus);
+                    event.getOrderListId(), event.getContingencyType(), event.getListStatusType(),
+                    event.getListOrderStatus());
+
+            orderTracker.onListStatus(event);
 
         } catch (Exception e) {
             log.error("Error handling order list status", e);
         }
     }
 
+    /**
+     * Plain decimal for the logs, from an amount at
+     * {@link FixedPoint#BALANCE_SCALE}
+     */
+    private static String format(long amount) {
+        return FixedPoint.toBigDecimal(amount, FixedPoint.BALANCE_SCALE).toPlainString();
+    }
+
     private void startPingScheduler() {
-        // Schedule periodic pings to keep the user data stream alive
-        Thread pingThread = new Thread(() -> {
-            while (shouldListenToUserData.get() && isStreamActive) {
-                try {
-                    Thread.sleep(30000); // Ping every 30 seconds (recommended by Binance)
-
-                    String listenKey = currentListenKey.get();
-                    if (listenKey != null && isStreamActive) {
-                        pingUserDataStream(listenKey);
-                    }
+        // A reconnect starts the stream again, replacing the previous pings
+        timerService.cancel(pingTimer);
+        schedulePing();
+        log.info("User data stream ping scheduler started");
+    }
 
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
-                } catch (Exception e) {
-                    log.error("Error in ping scheduler", e);
-                }
+    /**
+     * Pings the listen key on the timer every {@link #PING_INTERVAL_MILLIS}
+     * until the user data stream is stopped
+     */
+    private void schedulePing() {
+        pingTimer = timerService.schedule(PING_INTERVAL_MILLIS, () -> reconnectExecutor.execute(() -> {
+            if (!shouldListenToUserData.get()) {
+                return;
             }
-        });
-
-        pingThread.setName("UserDataStreamPing");
-        pingThread.setDaemon(true);
-        pingThread.start();
-
-        log.info("User data stream ping scheduler started");
+            String listenKey = currentListenKey.get();
+            if (listenKey != null && isStreamActive) {
+                pingUserDataStream(listenKey);
+            }
+            schedulePing();
+        }));
     }
 
     private void pingUserDataStream(String listenKey) {
@@ -525,23 +542,20 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
     }
 
     private void scheduleReconnect() {
-        // Simple reconnect logic - you can enhance this with exponential backoff
-        new Thread(() -> {
-            try {
-                Thread.sleep(5000); // Wait 5 seconds before reconnecting
-                if (shouldListenToUserData.get()) {
-                    log.info("Attempting to reconnect User Data WebSocket...");
-                    connect();
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+        long delay = apiReconnectBackoff.nextDelayMillis();
+        log.info("Reconnecting User Data WebSocket in {} ms", delay);
+        timerService.schedule(delay, () -> reconnectExecutor.execute(() -> {
+            if (shouldListenToUserData.get()) {
+                log.info("Attempting to reconnect User Data WebSocket...");
+                connect();
             }
-        }).start();
+        }));
     }
 
     public void disconnect() {
         shouldListenToUserData.set(false);
         isStreamActive = false;
+        timerService.cancel(pingTimer);
 
         // Stop the user data stream
         String listenKey = currentListenKey.get();
@@ -566,10 +580,33 @@ public class UserListenerWebsocketStream implements ApplicationRunner {
         if (userDataWebsocketClient != null) {
             userDataWebsocketClient.close();
         }
+        stopStreamClient();
 
         log.info("User Data WebSocket disconnected");
     }
 
+    @PreDestroy
+    void stop() {
+        reconnectExecutor.shutdownNow();
+        stopStreamClient();
+    }
+
+    /**
+     * Stops the Jetty client, closing the stream connection with it
+     */
+    private synchronized void stopStreamClient() {
+        if (streamClient == null) {
+            return;
+        }
+        try {
+            streamClient.stop();
+        } catch (Exception e) {
+            log.error("Error stopping user data stream client", e);
+        }
+        streamClient = null;
+        streamSession = null;
+    }
+
     /**
      * Gets the current listen key
      */
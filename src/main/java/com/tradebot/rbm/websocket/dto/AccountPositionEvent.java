@@ -0,0 +1,72 @@
+package com.tradebot.rbm.websocket.dto;
+
+import java.util.Arrays;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reusable {@code outboundAccountPosition} event from the user data stream.
+ *
+ * The balances are kept in parallel arrays that grow to the largest position
+ * seen and are then reused, amounts as fixed-point longs at
+ * {@code FixedPoint.BALANCE_SCALE}.
+ */
+@Getter
+@Setter
+public class AccountPositionEvent {
+    private long eventTime; // E
+    private long lastUpdateTime; // u
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String[] assets = new String[4];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long[] free = new long[4];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long[] locked = new long[4];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int size;
+
+    /**
+     * Number of balances in the event
+     */
+    public int size() {
+        return size;
+    }
+
+    public String asset(int index) {
+        return assets[index];
+    }
+
+    public long free(int index) {
+        return free[index];
+    }
+
+    public long locked(int index) {
+        return locked[index];
+    }
+
+    public void addBalance(String asset, long freeAmount, long lockedAmount) {
+        if (size == assets.length) {
+            assets = Arrays.copyOf(assets, size * 2);
+            free = Arrays.copyOf(free, size * 2);
+            locked = Arrays.copyOf(locked, size * 2);
+        }
+        assets[size] = asset;
+        free[size] = freeAmount;
+        locked[size] = lockedAmount;
+        size++;
+    }
+
+    public void clear() {
+        eventTime = 0;
+        lastUpdateTime = 0;
+        Arrays.fill(assets, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.tradebot.rbm.websocket.dto;
+
+import lombok.Data;
+
+/**
+ * Reusable {@code balanceUpdate} event from the user data stream, with the
+ * delta as a fixed-point long at {@code FixedPoint.BALANCE_SCALE}
+ */
+@Data
+public class BalanceUpdateEvent {
+    private long eventTime; // E
+    private String asset; // a
+    private long delta; // d
+    private long clearTime; // T
+
+    public void clear() {
+        eventTime = 0;
+        asset = null;
+        delta = 0;
+        clearTime = 0;
+    }
+}
@@ -0,0 +1,74 @@
+package com.tradebot.rbm.websocket.dto;
+
+import lombok.Data;
+
+/**
+ * Reusable {@code executionReport} event from the user data stream.
+ *
+ * Decimals are fixed-point longs at {@code FixedPoint.BALANCE_SCALE}. Symbol,
+ * side, type and status values are shared instances, so they can be compared
+ * with {@code equals} cheaply but the event itself is overwritten by the next
+ * report: copy what is needed before returning.
+ */
+@Data
+public class ExecutionReportEvent {
+    private long eventTime; // E
+    private String symbol; // s
+    private String clientOrderId; // c
+    private String side; // S
+    private String orderType; // o
+    private String timeInForce; // f
+    private long quantity; // q
+    private long price; // p
+    private long stopPrice; // P
+    private long orderListId; // g, -1 outside a list
+    private String originalClientOrderId; // C, set on cancels
+    private String executionType; // x
+    private String orderStatus; // X
+    private String rejectReason; // r
+    private long orderId; // i
+    private long lastQuantity; // l
+    private long cumulativeQuantity; // z
+    private long lastPrice; // L
+    private long commission; // n
+    private String commissionAsset; // N, null until the first fill
+    private long transactionTime; // T
+    private long tradeId; // t, -1 unless a trade
+    private boolean working; // w
+    private boolean maker; // m
+    private long creationTime; // O
+    private long cumulativeQuoteQuantity; // Z
+    private long lastQuoteQuantity; // Y
+    private long quoteOrderQuantity; // Q
+
+    public void clear() {
+        eventTime = 0;
+        symbol = null;
+        clientOrderId = null;
+        side = null;
+        orderType = null;
+        timeInForce = null;
+        quantity = 0;
+        price = 0;
+        stopPrice = 0;
+        orderListId = -1;
+        originalClientOrderId = null;
+        executionType = null;
+        orderStatus = null;
+        rejectReason = null;
+        orderId = 0;
+        lastQuantity = 0;
+        cumulativeQuantity = 0;
+        lastPrice = 0;
+        commission = 0;
+        commissionAsset = null;
+        transactionTime = 0;
+        tradeId = -1;
+        working = false;
+        maker = false;
+        creationTime = 0;
+        cumulativeQuoteQuantity = 0;
+        lastQuoteQuantity = 0;
+        quoteOrderQuantity = 0;
+    }
+}
@@ -0,0 +1,76 @@
+package com.tradebot.rbm.websocket.dto;
+
+import java.util.Arrays;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reusable {@code listStatus} event from the user data stream.
+ *
+ * The member orders are kept in parallel arrays that grow to the largest list
+ * seen and are then reused.
+ */
+@Getter
+@Setter
+public class ListStatusEvent {
+    private long eventTime; // E
+    private String symbol; // s
+    private long orderListId; // g
+    private String contingencyType; // c
+    private String listStatusType; // l
+    private String listOrderStatus; // L
+    private String listRejectReason; // r
+    private String listClientOrderId; // C
+    private long transactionTime; // T
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long[] orderIds = new long[3];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String[] clientOrderIds = new String[3];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int size;
+
+    /**
+     * Number of orders in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    public long orderId(int index) {
+        return orderIds[index];
+    }
+
+    public String clientOrderId(int index) {
+        return clientOrderIds[index];
+    }
+
+    public void addOrder(long orderId, String clientOrderId) {
+        if (size == orderIds.length) {
+            orderIds = Arrays.copyOf(orderIds, size * 2);
+            clientOrderIds = Arrays.copyOf(clientOrderIds, size * 2);
+        }
+        orderIds[size] = orderId;
+        clientOrderIds[size] = clientOrderId;
+        size++;
+    }
+
+    public void clear() {
+        eventTime = 0;
+        symbol = null;
+        orderListId = -1;
+        contingencyType = null;
+        listStatusType = null;
+        listOrderStatus = null;
+        listRejectReason = null;
+        listClientOrderId = null;
+        transactionTime = 0;
+        Arrays.fill(clientOrderIds, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,112 @@
+package com.tradebot.rbm.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.tradebot.rbm.utils.dto.Candle;
+import com.tradebot.rbm.utils.dto.CandleInterval;
+
+class CandleEngineTest {
+
+    private final List<Candle> closed = new ArrayList<>();
+    private final CandleEngine engine = new CandleEngine();
+
+    CandleEngineTest() {
+        engine.addListener(closed::add);
+    }
+
+    @Test
+    void foldsTradesIntoTheOpenCandle() {
+        engine.onTrade(10, 1, 1_100);
+        engine.onTrade(12, 2, 1_500);
+        engine.onTrade(9, 0.5, 1_900);
+        assertEquals(List.of(), closed);
+
+        // The next second closes the one second candle only
+        engine.onTrade(11, 1, 2_000);
+        assertEquals(1, closed.size());
+        var candle = closed.get(0);
+        assertEquals(CandleInterval.ONE_SECOND, candle.getInterval());
+        assertEquals(1_000, candle.getOpenTime());
+        assertEquals(1_999, candle.getCloseTime());
+        assertEquals(10.0, candle.getOpen());
+        assertEquals(12.0, candle.getHigh());
+        assertEquals(9.0, candle.getLow());
+        assertEquals(9.0, candle.getClose());
+        assertEquals(3.5, candle.getVolume());
+        assertEquals(38.5, candle.getQuoteVolume());
+        assertEquals(3, candle.getTradeCount());
+    }
+
+    @Test
+    void advanceToClosesCandlesOfQuietMarkets() {
+        engine.onTrade(10, 1, 59_000);
+        engine.advanceTo(59_999);
+        assertEquals(List.of(), closed);
+
+        engine.advanceTo(60_000);
+        assertEquals(2, closed.size());
+        assertEquals(CandleInterval.ONE_SECOND, closed.get(0).getInterval());
+        assertEquals(CandleInterval.ONE_MINUTE, closed.get(1).getInterval());
+        assertEquals(0, closed.get(1).getOpenTime());
+        assertEquals(59_999, closed.get(1).getCloseTime());
+
+        // The longer intervals close at their own boundaries
+        engine.advanceTo(3_600_000);
+        assertEquals(4, closed.size());
+        assertEquals(CandleInterval.FIVE_MINUTES, closed.get(2).getInterval());
+        assertEquals(CandleInterval.ONE_HOUR, closed.get(3).getInterval());
+        assertEquals(3_599_999, closed.get(3).getCloseTime());
+
+        // Nothing is open any more, so nothing closes again
+        engine.advanceTo(7_200_000);
+        assertEquals(4, closed.size());
+    }
+
+    @Test
+    void bucketsWithoutTradesProduceNoCandle() {
+        engine.onTrade(10, 1, 1_000);
+        engine.onTrade(11, 1, 5_000);
+        engine.advanceTo(6_000);
+
+        assertEquals(List.of(1_000L, 5_000L), closed.stream().map(Candle::getOpenTime).toList());
+    }
+
+    @Test
+    void lateTradesOnlyReachTheLongerIntervals() {
+        engine.onTrade(10, 1, 1_500);
+        engine.onTrade(11, 1, 2_000);
+        // Its second is already closed, its minute is not
+        engine.onTrade(20, 1, 1_900);
+        engine.advanceTo(60_000);
+
+        assertEquals(3, closed.size());
+        var second = closed.get(1);
+        assertEquals(2_000, second.getOpenTime());
+        assertEquals(11.0, second.getHigh());
+        assertEquals(1, second.getTradeCount());
+        var minute = closed.get(2);
+        assertEquals(CandleInterval.ONE_MINUTE, minute.getInterval());
+        assertEquals(20.0, minute.getHigh());
+        assertEquals(20.0, minute.getClose());
+        assertEquals(3, minute.getTradeCount());
+    }
+
+    @Test
+    void failingListenerDoesNotStopTheOthers() {
+        var engine = new CandleEngine();
+        List<Candle> seen = new ArrayList<>();
+        engine.addListener(candle -> {
+            throw new IllegalStateException("listener failure");
+        });
+        engine.addListener(seen::add);
+
+        engine.onTrade(10, 1, 1_000);
+        engine.advanceTo(2_000);
+        assertEquals(1, seen.size());
+    }
+}
@@ -0,0 +1,105 @@
+package com.tradebot.rbm.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.tradebot.rbm.utils.dto.OrderState;
+import com.tradebot.rbm.websocket.dto.ExecutionReportEvent;
+
+class OrderTrackerTest {
+
+    private static final long ONE = 100_000_000L;
+
+    private final OrderTracker tracker = new OrderTracker();
+
+    @Test
+    void followsAnOrderThroughItsFills() {
+        tracker.register("BNBFDUSD", "BUY_1", "BUY", 600 * ONE, 2 * ONE);
+        assertEquals(OrderState.PENDING_NEW, tracker.state("BUY_1"));
+        assertEquals(1, tracker.openOrderCount());
+
+        assertNotNull(tracker.onExecutionReport(report("BUY_1", "NEW", 0, 0)));
+        var partial = tracker.onExecutionReport(report("BUY_1", "PARTIALLY_FILLED", ONE, ONE));
+        assertEquals(OrderState.NEW, partial.getPreviousState());
+        assertEquals(ONE, partial.getCumulativeQuantity());
+        var filled = tracker.onExecutionReport(report("BUY_1", "FILLED", ONE, 2 * ONE));
+        assertEquals(OrderState.FILLED, filled.getState());
+        assertEquals(OrderState.FILLED, tracker.state(7L));
+        assertEquals(0, tracker.openOrderCount());
+        assertEquals(3, tracker.getUpdates());
+    }
+
+    @Test
+    void dropsDuplicateAndStaleReports() {
+        tracker.register("BNBFDUSD", "BUY_1", "BUY", 600 * ONE, 2 * ONE);
+        tracker.onExecutionReport(report("BUY_1", "NEW", 0, 0));
+        tracker.onExecutionReport(report("BUY_1", "PARTIALLY_FILLED", ONE, ONE));
+
+        // The same fill again, a NEW overtaken by the fill, a fill going backwards
+        assertNull(tracker.onExecutionReport(report("BUY_1", "PARTIALLY_FILLED", ONE, ONE)));
+        assertNull(tracker.onExecutionReport(report("BUY_1", "NEW", 0, 0)));
+        assertNull(tracker.onExecutionReport(report("BUY_1", "PARTIALLY_FILLED", ONE / 2, ONE / 2)));
+        assertEquals(3, tracker.getDroppedReports());
+
+        tracker.onExecutionReport(report("BUY_1", "CANCELED", 0, ONE));
+        assertNull(tracker.onExecutionReport(report("BUY_1", "PARTIALLY_FILLED", ONE, 2 * ONE)));
+        assertEquals(OrderState.CANCELED, tracker.state("BUY_1"));
+        assertEquals(4, tracker.getDroppedReports());
+    }
+
+    @Test
+    void ignoresStatusesThatDoNotChangeTheState() {
+        tracker.register("BNBFDUSD", "BUY_1", "BUY", 600 * ONE, 2 * ONE);
+        tracker.onExecutionReport(report("BUY_1", "NEW", 0, 0));
+
+        assertNull(tracker.onExecutionReport(report("BUY_1", "PENDING_CANCEL", 0, 0)));
+        assertEquals(OrderState.NEW, tracker.state("BUY_1"));
+        assertEquals(0, tracker.getDroppedReports());
+    }
+
+    @Test
+    void findsACanceledOrderByItsOriginalClientOrderId() {
+        tracker.register("BNBFDUSD", "BUY_1", "BUY", 600 * ONE, 2 * ONE);
+        var cancel = report("cancel-1", "CANCELED", 0, 0);
+        cancel.setOriginalClientOrderId("BUY_1");
+
+        var update = tracker.onExecutionReport(cancel);
+        assertEquals("BUY_1", update.getClientOrderId());
+        assertEquals(OrderState.PENDING_NEW, update.getPreviousState());
+        assertEquals(0, tracker.openOrderCount());
+    }
+
+    @Test
+    void forgetsOnlyOrdersNoReportWasSeenFor() {
+        tracker.register("BNBFDUSD", "BUY_1", "BUY", 600 * ONE, 2 * ONE);
+        tracker.register("BNBFDUSD", "BUY_2", "BUY", 600 * ONE, 2 * ONE);
+        tracker.onExecutionReport(report("BUY_2", "NEW", 0, 0));
+
+        tracker.forget("BUY_1");
+        tracker.forget("BUY_2");
+        assertNull(tracker.state("BUY_1"));
+        assertEquals(OrderState.NEW, tracker.state("BUY_2"));
+        assertEquals(1, tracker.openOrderCount());
+    }
+
+    private static ExecutionReportEvent report(String clientOrderId, String status, long lastQuantity,
+            long cumulativeQuantity) {
+        var report = new ExecutionReportEvent();
+        report.setSymbol("BNBFDUSD");
+        report.setClientOrderId(clientOrderId);
+        report.setSide("BUY");
+        report.setOrderStatus(status);
+        report.setOrderId(7);
+        report.setOrderListId(-1);
+        report.setPrice(600 * ONE);
+        report.setQuantity(2 * ONE);
+        report.setLastQuantity(lastQuantity);
+        report.setLastPrice(lastQuantity > 0 ? 600 * ONE : 0);
+        report.setCumulativeQuantity(cumulativeQuantity);
+        report.setCumulativeQuoteQuantity(cumulativeQuantity * 600);
+        return report;
+    }
+}
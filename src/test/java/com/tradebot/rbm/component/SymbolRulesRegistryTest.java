@@ -0,0 +1,42 @@
+package com.tradebot.rbm.component;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.tradebot.rbm.utils.SymbolRules;
+
+class SymbolRulesRegistryTest {
+
+    private final SymbolRules rules = SymbolRules.builder()
+            .symbol("BNBFDUSD")
+            .priceScale(2)
+            .quantityScale(3)
+            .tickSize(1)
+            .stepSize(1)
+            .build();
+    private final SymbolRulesRegistry registry = new SymbolRulesRegistry(Map.of("BNBFDUSD", rules));
+
+    @Test
+    void findsRulesInAnyCase() {
+        assertSame(rules, registry.get("BNBFDUSD"));
+        assertSame(rules, registry.get("bnbfdusd"));
+        assertSame(rules, registry.find("bnbFDUSD").orElseThrow());
+    }
+
+    @Test
+    void refusesUnknownSymbols() {
+        assertTrue(registry.find("BTCUSDT").isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> registry.get("BTCUSDT"));
+    }
+
+    @Test
+    void fixedRulesSurviveARefresh() {
+        registry.refresh();
+        assertSame(rules, registry.get("BNBFDUSD"));
+    }
+}
@@ -0,0 +1,174 @@
+package com.tradebot.rbm.simulator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.tradebot.rbm.simulator.MatchingEngine.ExecutionType;
+import com.tradebot.rbm.simulator.MatchingEngine.OrderStatus;
+import com.tradebot.rbm.simulator.MatchingEngine.OrderType;
+import com.tradebot.rbm.utils.FixedPoint;
+import com.tradebot.rbm.utils.SymbolRules;
+
+class MatchingEngineTest {
+
+    // Balances at FixedPoint.BALANCE_SCALE
+    private static final long ONE = 100_000_000L;
+
+    private final List<String> events = new ArrayList<>();
+    private final List<MatchingEngine.OrderList> finishedLists = new ArrayList<>();
+    private final MatchingEngine engine = new MatchingEngine(rules(), Clock.fixed(Instant.EPOCH, ZoneOffset.UTC),
+            BigDecimal.ZERO, new MatchingEngine.Listener() {
+                @Override
+                public void onExecution(MatchingEngine.Order order, ExecutionType executionType, long lastQuantity,
+                        long lastPrice, long commission, long tradeId, boolean maker) {
+                    events.add(order.getClientOrderId() + " " + executionType + " " + order.getStatus() + " "
+                            + lastQuantity);
+                }
+
+                @Override
+                public void onListStatus(MatchingEngine.OrderList orderList) {
+                    if (orderList.isDone()) {
+                        finishedLists.add(orderList);
+                    }
+                }
+
+                @Override
+                public void onBalances(long time) {
+                }
+            });
+
+    @Test
+    void tradesFillARestingBuyPartially() {
+        engine.deposit(0, 1000 * ONE);
+        // 1.000 at 100.00
+        var buy = engine.place("buy", true, OrderType.LIMIT, 10000, 0, 1000);
+        assertEquals(100 * ONE, engine.getQuoteLocked());
+
+        // A print above the bid does not reach it
+        engine.onMarketTrade(10100, 1000);
+        assertEquals(0, buy.getExecutedQuantity());
+
+        engine.onMarketTrade(10000, 400);
+        assertEquals(OrderStatus.PARTIALLY_FILLED, buy.getStatus());
+        assertEquals(400, buy.getExecutedQuantity());
+        assertEquals(ONE * 4 / 10, engine.getBaseFree());
+        assertEquals(60 * ONE, engine.getQuoteLocked());
+
+        // A print through the bid fills the rest at the order's price
+        engine.onMarketTrade(9900, 5000);
+        assertEquals(OrderStatus.FILLED, buy.getStatus());
+        assertEquals(ONE, engine.getBaseFree());
+        assertEquals(0, engine.getQuoteLocked());
+        assertEquals(900 * ONE, engine.getQuoteFree());
+        assertEquals(List.of("buy NEW NEW 0", "buy TRADE PARTIALLY_FILLED 400", "buy TRADE FILLED 600"), events);
+    }
+
+    @Test
+    void takerIsLimitedByTheMarketQuantity() {
+        engine.deposit(0, 1000 * ONE);
+        engine.onMarketTicker(9990, 1000, 10010, 300);
+
+        var buy = engine.place("buy", true, OrderType.LIMIT, 10010, 0, 1000);
+        assertEquals(OrderStatus.PARTIALLY_FILLED, buy.getStatus());
+        assertEquals(300, buy.getExecutedQuantity());
+        assertTrue(engine.getOpenOrders().contains(buy));
+    }
+
+    @Test
+    void triggeredStopLegTakesOverTheOcoLock() {
+        engine.deposit(ONE, 0);
+        engine.onMarketTicker(8990, 400, 9010, 1000);
+        // Sell 1.000: take profit at 110.00, stop at 90.00 limit 89.00
+        var list = engine.placeOco("oco", "tp", "sl", false, 11000, 9000, 8900, 1000);
+        var stop = list.getOrders().get(0);
+        var limit = list.getOrders().get(1);
+        assertEquals(ONE, engine.getBaseLocked());
+        assertEquals(ONE, limit.getLocked());
+        assertEquals(0, stop.getLocked());
+
+        engine.onMarketTrade(9000, 1);
+
+        assertEquals(OrderStatus.EXPIRED, limit.getStatus());
+        assertEquals(0, limit.getLocked());
+        // 0.400 sold to the market bid, the rest rests at 89.00 with the lock
+        assertEquals(OrderStatus.PARTIALLY_FILLED, stop.getStatus());
+        assertEquals(400, stop.getExecutedQuantity());
+        assertEquals(ONE * 6 / 10, stop.getLocked());
+        assertEquals(ONE * 6 / 10, engine.getBaseLocked());
+        assertEquals(0, engine.getBaseFree());
+        assertEquals(FixedPoint.parse("35.96", FixedPoint.BALANCE_SCALE), engine.getQuoteFree());
+        assertEquals(List.of("sl NEW NEW 0", "tp NEW NEW 0", "tp EXPIRED EXPIRED 0", "sl TRADE PARTIALLY_FILLED 400"),
+                events);
+        assertTrue(finishedLists.isEmpty());
+    }
+
+    @Test
+    void filledLimitLegExpiresTheStopAndReleasesTheLock() {
+        engine.deposit(ONE, 0);
+        var list = engine.placeOco("oco", "tp", "sl", false, 11000, 9000, 0, 1000);
+        var stop = list.getOrders().get(0);
+        var limit = list.getOrders().get(1);
+
+        engine.onMarketTrade(11000, 1000);
+
+        assertEquals(OrderStatus.FILLED, limit.getStatus());
+        assertEquals(OrderStatus.EXPIRED, stop.getStatus());
+        assertEquals(0, engine.getBaseLocked());
+        assertEquals(0, engine.getBaseFree());
+        assertEquals(110 * ONE, engine.getQuoteFree());
+        assertEquals(List.of(list), finishedLists);
+        assertTrue(engine.getOpenOrders().isEmpty());
+    }
+
+    @Test
+    void cancelingOneOcoLegCancelsTheOther() {
+        engine.deposit(ONE, 0);
+        var list = engine.placeOco("oco", "tp", "sl", false, 11000, 9000, 0, 1000);
+
+        assertTrue(engine.cancel(list.getOrders().get(1).getOrderId()));
+        assertEquals(OrderStatus.CANCELED, list.getOrders().get(0).getStatus());
+        assertEquals(ONE, engine.getBaseFree());
+        assertEquals(0, engine.getBaseLocked());
+        assertFalse(engine.cancel(list.getOrders().get(0).getOrderId()));
+    }
+
+    @Test
+    void rejectsOrdersTheExchangeWouldReject() {
+        engine.deposit(0, 10 * ONE);
+        engine.onMarketTicker(9990, 1000, 10010, 1000);
+
+        // Above the balance, under the minimum notional, a maker that would take
+        assertThrows(OrderRejectedException.class, () -> engine.place("a", true, OrderType.LIMIT, 10000, 0, 1000));
+        assertThrows(OrderRejectedException.class, () -> engine.place("b", true, OrderType.LIMIT, 10000, 0, 10));
+        assertThrows(OrderRejectedException.class,
+                () -> engine.place("c", true, OrderType.LIMIT_MAKER, 10010, 0, 50));
+        assertEquals(3, engine.getRejectedOrders());
+        assertEquals(10 * ONE, engine.getQuoteFree());
+    }
+
+    private static SymbolRules rules() {
+        // Tick 0.01, step 0.001, minimum notional 5
+        return SymbolRules.builder()
+                .symbol("BNBFDUSD")
+                .baseAsset("BNB")
+                .quoteAsset("FDUSD")
+                .priceScale(2)
+                .quantityScale(3)
+                .tickSize(1)
+                .stepSize(1)
+                .minQuantity(1)
+                .minNotional(5 * ONE)
+                .build();
+    }
+}
@@ -0,0 +1,121 @@
+package com.tradebot.rbm.utils;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Random;
+
+/**
+ * Reference indicators computed window by window in BigDecimal at scale 8,
+ * the way the utils did before they moved onto the double kernels. The
+ * streaming and columnar implementations are checked against these.
+ */
+final class BigDecimalIndicators {
+
+    private static final int SCALE = 8;
+
+    private BigDecimalIndicators() {
+    }
+
+    /**
+     * Random walk of prices in cents around the given start, so every price is
+     * exact both as a BigDecimal and as a double
+     */
+    static BigDecimal[] randomWalk(long seed, int size, long startCents, int maxStepCents) {
+        var random = new Random(seed);
+        var prices = new BigDecimal[size];
+        long cents = startCents;
+        for (int i = 0; i < size; i++) {
+            cents = Math.max(1, cents + random.nextInt(2 * maxStepCents + 1) - maxStepCents);
+            prices[i] = BigDecimal.valueOf(cents, 2);
+        }
+        return prices;
+    }
+
+    static double[] toDoubles(BigDecimal[] values) {
+        var doubles = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            doubles[i] = values[i].doubleValue();
+        }
+        return doubles;
+    }
+
+    /**
+     * Simple average of the window ending at {@code end}
+     */
+    static BigDecimal sma(BigDecimal[] values, int end, int period) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = end - period + 1; i <= end; i++) {
+            sum = sum.add(values[i]);
+        }
+        return sum.divide(BigDecimal.valueOf(period), SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Population standard deviation of the window ending at {@code end}
+     */
+    static BigDecimal stdDev(BigDecimal[] values, int end, int period) {
+        BigDecimal mean = sma(values, end, period);
+        BigDecimal squares = BigDecimal.ZERO;
+        for (int i = end - period + 1; i <= end; i++) {
+            BigDecimal difference = values[i].subtract(mean);
+            squares = squares.add(difference.multiply(difference));
+        }
+        return squares.divide(BigDecimal.valueOf(period), SCALE, RoundingMode.HALF_UP)
+                .sqrt(MathContext.DECIMAL64);
+    }
+
+    /**
+     * Upper, middle and lower band of the window ending at {@code end}
+     */
+    static BigDecimal[] bollinger(BigDecimal[] closes, int end, int period, BigDecimal multiplier) {
+        BigDecimal middle = sma(closes, end, period);
+        BigDecimal offset = stdDev(closes, end, period).multiply(multiplier);
+        return new BigDecimal[] { middle.add(offset), middle, middle.subtract(offset) };
+    }
+
+    /**
+     * Stochastic %K of the window ending at {@code end}, 50 without a range
+     */
+    static BigDecimal kPercent(BigDecimal[] highs, BigDecimal[] lows, BigDecimal[] closes, int end, int period) {
+        BigDecimal highestHigh = highs[end];
+        BigDecimal lowestLow = lows[end];
+        for (int i = end - period + 1; i < end; i++) {
+            highestHigh = highestHigh.max(highs[i]);
+            lowestLow = lowestLow.min(lows[i]);
+        }
+        BigDecimal range = highestHigh.subtract(lowestLow);
+        if (range.signum() == 0) {
+            return new BigDecimal("50");
+        }
+        return closes[end].subtract(lowestLow).divide(range, SCALE, RoundingMode.HALF_UP)
+                .multiply(new BigDecimal("100"));
+    }
+
+    /**
+     * Stochastic %D at {@code end}, the average of the last {@code dPeriod} %K
+     * values
+     */
+    static BigDecimal dPercent(BigDecimal[] highs, BigDecimal[] lows, BigDecimal[] closes, int end, int kPeriod,
+            int dPeriod) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = end - dPeriod + 1; i <= end; i++) {
+            sum = sum.add(kPercent(highs, lows, closes, i, kPeriod));
+        }
+        return sum.divide(BigDecimal.valueOf(dPeriod), SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Shifts every value by up to {@code maxCents}, up or down, to derive highs
+     * and lows around a series of closes
+     */
+    static BigDecimal[] spread(BigDecimal[] values, long seed, int maxCents, boolean up) {
+        var random = new Random(seed);
+        var shifted = new BigDecimal[values.length];
+        for (int i = 0; i < values.length; i++) {
+            var offset = BigDecimal.valueOf(random.nextInt(maxCents + 1), 2);
+            shifted[i] = up ? values[i].add(offset) : values[i].subtract(offset);
+        }
+        return shifted;
+    }
+}
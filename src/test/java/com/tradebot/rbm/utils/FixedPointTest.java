@@ -0,0 +1,87 @@
+package com.tradebot.rbm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.jupiter.api.Test;
+
+class FixedPointTest {
+
+    @Test
+    void parsesPlainDecimals() {
+        assertEquals(60012, FixedPoint.parse("600.12000000", 2));
+        assertEquals(500_000_000L, FixedPoint.parse("5", 8));
+        assertEquals(5, FixedPoint.parse(".5", 1));
+        assertEquals(10, FixedPoint.parse("1.", 1));
+        assertEquals(-150, FixedPoint.parse("-1.5", 2));
+        assertEquals(150, FixedPoint.parse("+1.5", 2));
+        assertEquals(1234, FixedPoint.parse("x12.34y", 1, 6, 2));
+    }
+
+    @Test
+    void parseRoundsHalfUpOnTheFirstDroppedDigit() {
+        assertEquals(13, FixedPoint.parse("0.125", 2));
+        assertEquals(12, FixedPoint.parse("0.1249999", 2));
+        assertEquals(1, FixedPoint.parse("0.5", 0));
+        // Away from zero for negative values
+        assertEquals(-13, FixedPoint.parse("-0.125", 2));
+    }
+
+    @Test
+    void parseRejectsMalformedInput() {
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("", 2));
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("-", 2));
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse(".", 2));
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("1.2.3", 2));
+        assertThrows(NumberFormatException.class, () -> FixedPoint.parse("1e5", 2));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.parse("99999999999999999999", 0));
+        assertThrows(ArithmeticException.class, () -> FixedPoint.parse("999999999999", 8));
+    }
+
+    @Test
+    void roundHalfUpKeepsTheScale() {
+        assertEquals(12300, FixedPoint.roundHalfUp(12345, 4, 2));
+        assertEquals(12400, FixedPoint.roundHalfUp(12350, 4, 2));
+        assertEquals(-12400, FixedPoint.roundHalfUp(-12350, 4, 2));
+        assertEquals(-12300, FixedPoint.roundHalfUp(-12349, 4, 2));
+        assertEquals(12345, FixedPoint.roundHalfUp(12345, 4, 4));
+    }
+
+    @Test
+    void floorToStepRoundsTowardNegativeInfinity() {
+        assertEquals(1200, FixedPoint.floorToStep(1234, 100));
+        assertEquals(1200, FixedPoint.floorToStep(1200, 100));
+        assertEquals(-1300, FixedPoint.floorToStep(-1234, 100));
+    }
+
+    @Test
+    void rescaleAndMultiplyTruncateTowardZero() {
+        assertEquals(12000, FixedPoint.rescale(12, 1, 4));
+        assertEquals(-12, FixedPoint.rescale(-129, 2, 1));
+        // 1.5 * 1.5 = 2.25
+        assertEquals(22, FixedPoint.multiply(15, 1, 15, 1, 1));
+        assertEquals(-22, FixedPoint.multiply(-15, 1, 15, 1, 1));
+    }
+
+    @Test
+    void multiplyFallsBackWhenTheProductOverflows() {
+        long price = FixedPoint.parse("65000.12345678", FixedPoint.BALANCE_SCALE);
+        long quantity = FixedPoint.parse("12.5", FixedPoint.BALANCE_SCALE);
+        long expected = new BigDecimal("65000.12345678").multiply(new BigDecimal("12.5"))
+                .setScale(FixedPoint.BALANCE_SCALE, RoundingMode.DOWN).unscaledValue().longValueExact();
+        assertEquals(expected, FixedPoint.multiply(price, FixedPoint.BALANCE_SCALE, quantity,
+                FixedPoint.BALANCE_SCALE, FixedPoint.BALANCE_SCALE));
+    }
+
+    @Test
+    void convertsToAndFromBigDecimal() {
+        assertEquals(new BigDecimal("600.12"), FixedPoint.toBigDecimal(60012, 2));
+        assertEquals(60013, FixedPoint.fromBigDecimal(new BigDecimal("600.125"), 2, RoundingMode.HALF_UP));
+        assertEquals(60012, FixedPoint.fromBigDecimal(new BigDecimal("600.129"), 2, RoundingMode.DOWN));
+        assertEquals(2, FixedPoint.scaleOf("0.01000000"));
+        assertEquals(0, FixedPoint.scaleOf("1.00000000"));
+    }
+}
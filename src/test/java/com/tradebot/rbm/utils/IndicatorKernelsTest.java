@@ -0,0 +1,158 @@
+package com.tradebot.rbm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.tradebot.rbm.utils.BollingerBandsUtils.PricePoint;
+import com.tradebot.rbm.utils.dto.stochasticOscilator.PriceData;
+
+class IndicatorKernelsTest {
+
+    // The reference rounds to 8 decimals, %K before scaling to percent
+    private static final double TOLERANCE = 1e-5;
+
+    private final BigDecimal[] closes = BigDecimalIndicators.randomWalk(10, 3_000, 3_000_000, 50);
+    private final BigDecimal[] highs = BigDecimalIndicators.spread(closes, 11, 40, true);
+    private final BigDecimal[] lows = BigDecimalIndicators.spread(closes, 12, 40, false);
+
+    @Test
+    void smaAndStdDevMatchTheBigDecimalWindows() {
+        var values = BigDecimalIndicators.toDoubles(closes);
+        var sma = new double[values.length];
+        var stdDev = new double[values.length];
+        IndicatorKernels.sma(values, 20, sma);
+        IndicatorKernels.stdDev(values, 20, stdDev);
+
+        for (int i = 0; i < 19; i++) {
+            assertTrue(Double.isNaN(sma[i]) && Double.isNaN(stdDev[i]));
+        }
+        for (int i = 19; i < values.length; i++) {
+            assertEquals(BigDecimalIndicators.sma(closes, i, 20).doubleValue(), sma[i], TOLERANCE, "sma at " + i);
+            assertEquals(BigDecimalIndicators.stdDev(closes, i, 20).doubleValue(), stdDev[i], TOLERANCE,
+                    "stdDev at " + i);
+        }
+    }
+
+    @Test
+    void rollingExtremesMatchAFullScan() {
+        var values = BigDecimalIndicators.toDoubles(closes);
+        var max = new double[values.length];
+        var min = new double[values.length];
+        IndicatorKernels.rollingMax(values, 9, max);
+        IndicatorKernels.rollingMin(values, 9, min);
+
+        for (int i = 8; i < values.length; i++) {
+            double expectedMax = values[i];
+            double expectedMin = values[i];
+            for (int j = i - 8; j < i; j++) {
+                expectedMax = Math.max(expectedMax, values[j]);
+                expectedMin = Math.min(expectedMin, values[j]);
+            }
+            assertEquals(expectedMax, max[i]);
+            assertEquals(expectedMin, min[i]);
+        }
+    }
+
+    @Test
+    void stochasticMatchesTheBigDecimalWindows() {
+        var k = new double[closes.length];
+        var d = new double[closes.length];
+        IndicatorKernels.stochasticK(BigDecimalIndicators.toDoubles(highs), BigDecimalIndicators.toDoubles(lows),
+                BigDecimalIndicators.toDoubles(closes), 9, k);
+        IndicatorKernels.stochasticD(k, 9, 3, d);
+
+        assertTrue(Double.isNaN(d[9]));
+        for (int i = 10; i < closes.length; i++) {
+            assertEquals(BigDecimalIndicators.kPercent(highs, lows, closes, i, 9).doubleValue(), k[i], TOLERANCE,
+                    "%K at " + i);
+            assertEquals(BigDecimalIndicators.dPercent(highs, lows, closes, i, 9, 3).doubleValue(), d[i], TOLERANCE,
+                    "%D at " + i);
+        }
+    }
+
+    @Test
+    void emaIsSeededWithTheSimpleAverage() {
+        var ema = new double[5];
+        IndicatorKernels.ema(new double[] { 1, 2, 3, 4, 5 }, 3, ema);
+
+        assertTrue(Double.isNaN(ema[1]));
+        assertEquals(2.0, ema[2]);
+        assertEquals(3.0, ema[3]);
+        assertEquals(4.0, ema[4]);
+    }
+
+    @Test
+    void vwapWeighsByVolume() {
+        var vwap = new double[4];
+        IndicatorKernels.vwap(new double[] { 10, 20, 30, 40 }, new double[] { 1, 3, 0, 0 }, 2, vwap);
+
+        assertEquals(17.5, vwap[1]);
+        assertEquals(20.0, vwap[2]);
+        // No volume in the window
+        assertTrue(Double.isNaN(vwap[3]));
+    }
+
+    @Test
+    void rejectsOutputColumnsOfAnotherLength() {
+        assertThrows(IllegalArgumentException.class, () -> IndicatorKernels.sma(new double[3], 2, new double[2]));
+    }
+
+    @Test
+    void bollingerAnalysisMatchesTheReferenceAndTheStreamingBands() {
+        var start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<PricePoint> points = new ArrayList<>();
+        var streaming = new StreamingBollingerBands(20, 2.0, 50);
+        for (int i = 0; i < 200; i++) {
+            points.add(new PricePoint(closes[i], BigDecimal.ONE, start.plusMinutes(i)));
+            streaming.onPrice(closes[i].doubleValue(), 1, i);
+        }
+
+        var analysis = BollingerBandsUtils.performCompleteAnalysis(points, 20, new BigDecimal("2.0"));
+        var history = analysis.getHistory();
+        assertEquals(200 - 19, history.size());
+        var expected = BigDecimalIndicators.bollinger(closes, 199, 20, new BigDecimal("2.0"));
+        assertEquals(expected[0].doubleValue(), analysis.getCurrent().getUpperBand().doubleValue(), TOLERANCE);
+        assertEquals(expected[1].doubleValue(), analysis.getCurrent().getMiddleBand().doubleValue(), TOLERANCE);
+        assertEquals(expected[2].doubleValue(), analysis.getCurrent().getLowerBand().doubleValue(), TOLERANCE);
+
+        // Same signals as the streaming bands over the history both keep
+        var streamingHistory = streaming.analysis().getHistory();
+        for (int i = 0; i < streamingHistory.size(); i++) {
+            assertEquals(streamingHistory.get(i).getSignal(),
+                    history.get(history.size() - streamingHistory.size() + i).getSignal());
+        }
+    }
+
+    @Test
+    void stochasticAnalysisMatchesTheReferenceAndTheStreamingOscillator() {
+        var start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<PriceData> candles = new ArrayList<>();
+        var streaming = new StreamingStochasticOscillator(9, 3, 50);
+        for (int i = 0; i < 200; i++) {
+            candles.add(new PriceData(highs[i], lows[i], closes[i], start.plusMinutes(i)));
+            streaming.onPrice(highs[i].doubleValue(), lows[i].doubleValue(), closes[i].doubleValue(), i);
+        }
+
+        var analysis = StochasticOscillatorUtils.performCompleteAnalysis(candles, 9, 3);
+        var history = analysis.getHistory();
+        assertEquals(200 - 10, history.size());
+        assertEquals(BigDecimalIndicators.kPercent(highs, lows, closes, 199, 9).doubleValue(),
+                analysis.getCurrent().getKPercent().doubleValue(), TOLERANCE);
+        assertEquals(BigDecimalIndicators.dPercent(highs, lows, closes, 199, 9, 3).doubleValue(),
+                analysis.getCurrent().getDPercent().doubleValue(), TOLERANCE);
+
+        var streamingHistory = streaming.analysis().getHistory();
+        for (int i = 0; i < streamingHistory.size(); i++) {
+            assertEquals(streamingHistory.get(i).getSignal(),
+                    history.get(history.size() - streamingHistory.size() + i).getSignal());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.tradebot.rbm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class LocalOrderBookTest {
+
+    private final LocalOrderBook book = new LocalOrderBook();
+
+    @Test
+    void refusesDiffsUntilASnapshotIsApplied() {
+        assertFalse(book.isSynced());
+        assertFalse(book.applyDiff(1, 2, List.of(level("10.00", "1")), List.of()));
+        assertNull(book.bestBid());
+        assertNull(book.bestAsk());
+    }
+
+    @Test
+    void appliesDiffsThatContinueTheSnapshot() {
+        book.applySnapshot(100, List.of(level("10.00", "1"), level("9.99", "2")),
+                List.of(level("10.01", "1"), level("10.02", "3")));
+
+        // Already covered by the snapshot
+        assertTrue(book.applyDiff(95, 100, List.of(level("10.00", "0")), List.of()));
+        assertEquals(new BigDecimal("10.00"), book.bestBid());
+
+        // Straddles the snapshot, then continues it
+        assertTrue(book.applyDiff(99, 101, List.of(level("10.00", "0")), List.of(level("10.005", "4"))));
+        assertTrue(book.applyDiff(102, 102, List.of(level("9.995", "5")), List.of()));
+        assertEquals(102, book.getLastUpdateId());
+        assertEquals(new BigDecimal("9.995"), book.bestBid());
+        assertEquals(new BigDecimal("10.005"), book.bestAsk());
+
+        var depth = book.depth(2);
+        assertEquals(List.of(level("9.995", "5"), level("9.99", "2")), depth.getBids());
+        assertEquals(List.of(level("10.005", "4"), level("10.01", "1")), depth.getAsks());
+        assertEquals(102, depth.getLastUpdateId());
+    }
+
+    @Test
+    void gapInUpdateIdsUnsyncsTheBook() {
+        book.applySnapshot(100, List.of(level("10.00", "1")), List.of(level("10.01", "1")));
+
+        assertFalse(book.applyDiff(102, 103, List.of(level("10.00", "0")), List.of()));
+        assertFalse(book.isSynced());
+        // Later events are refused until the next snapshot
+        assertFalse(book.applyDiff(104, 104, List.of(), List.of()));
+        assertEquals(100, book.getLastUpdateId());
+        assertEquals(new BigDecimal("10.00"), book.bestBid());
+    }
+
+    @Test
+    void snapshotReplacesBothSides() {
+        book.applySnapshot(100, List.of(level("10.00", "1")), List.of(level("10.01", "1")));
+        book.invalidate();
+
+        book.applySnapshot(200, List.of(level("11.00", "1")), List.of(level("11.01", "1")));
+        assertTrue(book.isSynced());
+        assertEquals(List.of(level("11.00", "1")), book.depth(10).getBids());
+        assertEquals(List.of(level("11.01", "1")), book.depth(10).getAsks());
+
+        book.applyTopOfBook(201, "11.02", "2", "11.03", "3");
+        assertEquals(List.of(level("11.02", "2")), book.depth(10).getBids());
+        assertEquals(new BigDecimal("11.03"), book.bestAsk());
+    }
+
+    private static List<String> level(String price, String quantity) {
+        return List.of(price, quantity);
+    }
+}
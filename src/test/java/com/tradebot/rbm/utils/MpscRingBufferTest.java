@@ -0,0 +1,82 @@
+package com.tradebot.rbm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class MpscRingBufferTest {
+
+    // Reused slot holding a producer and its running count
+    private static final class Entry {
+        int producer;
+        long value;
+    }
+
+    @Test
+    void roundsTheCapacityUpToAPowerOfTwo() {
+        assertEquals(8, new MpscRingBuffer<>(5, Entry::new).capacity());
+        assertEquals(8, new MpscRingBuffer<>(8, Entry::new).capacity());
+    }
+
+    @Test
+    void drainsPublishedEntriesInSequenceOrder() {
+        var ring = new MpscRingBuffer<>(4, Entry::new);
+        long first = ring.claim();
+        long second = ring.claim();
+        ring.get(second).value = 2;
+        ring.publish(second);
+
+        // The second entry waits for the first
+        List<Long> seen = new ArrayList<>();
+        assertEquals(0, ring.drain((entry, sequence) -> seen.add(entry.value), 10));
+        ring.get(first).value = 1;
+        ring.publish(first);
+        assertEquals(2, ring.drain((entry, sequence) -> seen.add(entry.value), 10));
+        assertEquals(List.of(1L, 2L), seen);
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void keepsEachProducersOrderUnderContention() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        var ring = new MpscRingBuffer<>(64, Entry::new);
+        var threads = new ArrayList<Thread>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            var thread = new Thread(() -> {
+                for (long i = 0; i < perProducer; i++) {
+                    long sequence = ring.claim();
+                    var entry = ring.get(sequence);
+                    entry.producer = producer;
+                    entry.value = i;
+                    ring.publish(sequence);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        long[] next = new long[producers];
+        boolean[] inOrder = { true };
+        long consumed = 0;
+        while (consumed < (long) producers * perProducer) {
+            consumed += ring.drain((entry, sequence) -> {
+                inOrder[0] &= entry.value == next[entry.producer];
+                next[entry.producer]++;
+            }, 256);
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertTrue(inOrder[0]);
+        for (long count : next) {
+            assertEquals(perProducer, count);
+        }
+        assertEquals(0, ring.size());
+    }
+}
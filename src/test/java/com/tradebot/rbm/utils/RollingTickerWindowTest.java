@@ -0,0 +1,93 @@
+package com.tradebot.rbm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RollingTickerWindowTest {
+
+    private static final long ONE = 100_000_000L;
+
+    private final RollingTickerWindow window = new RollingTickerWindow(1000, 60_000);
+
+    @Test
+    void aggregatesTheWholeBucketsOfTheWindow() {
+        // One trade a second at 100, 101, ... for two minutes
+        for (int i = 0; i <= 120; i++) {
+            window.onTrade(i, (100 + i) * ONE, ONE, i * 1000L);
+        }
+
+        // The bucket of 60.5 s is only half inside the window and left out
+        var stats = window.snapshot(60_000, 120_500);
+        assertEquals(60, stats.getCount());
+        assertEquals(61_000, stats.getOpenTime());
+        assertEquals(120_999, stats.getCloseTime());
+        assertEquals(161 * ONE, stats.getOpenPrice());
+        assertEquals(220 * ONE, stats.getLastPrice());
+        assertEquals(220 * ONE, stats.getHighPrice());
+        assertEquals(161 * ONE, stats.getLowPrice());
+        assertEquals(60 * ONE, stats.getVolume());
+        assertEquals(59 * ONE, stats.getPriceChange());
+        assertEquals(FixedPoint.parse("190.5", FixedPoint.BALANCE_SCALE), stats.getWeightedAvgPrice());
+    }
+
+    @Test
+    void foldsTradesOfOneBucket() {
+        window.onTrade(1, 100 * ONE, ONE, 5_100);
+        window.onTrade(2, 102 * ONE, 2 * ONE, 5_200);
+        window.onTrade(3, 99 * ONE, ONE, 5_900);
+
+        var stats = window.snapshot(10_000, 6_000);
+        assertEquals(3, stats.getCount());
+        assertEquals(100 * ONE, stats.getOpenPrice());
+        assertEquals(102 * ONE, stats.getHighPrice());
+        assertEquals(99 * ONE, stats.getLowPrice());
+        assertEquals(99 * ONE, stats.getLastPrice());
+        assertEquals(4 * ONE, stats.getVolume());
+        assertEquals(403 * ONE, stats.getQuoteVolume());
+    }
+
+    @Test
+    void coversOnlyOnceTradesSpanTheWindow() {
+        assertFalse(window.covers(10_000, 0));
+        assertNull(window.snapshot(10_000, 0));
+
+        window.onTrade(1, 100 * ONE, ONE, 1_000);
+        assertFalse(window.covers(10_000, 10_999));
+        assertTrue(window.covers(10_000, 11_000));
+    }
+
+    @Test
+    void gapInTradeIdsRestartsCoverage() {
+        window.onTrade(1, 100 * ONE, ONE, 1_000);
+        window.onTrade(2, 100 * ONE, ONE, 2_000);
+        assertTrue(window.covers(10_000, 20_000));
+
+        // Trades 3 to 9 were missed, as across a reconnect
+        window.onTrade(10, 100 * ONE, ONE, 20_000);
+        assertFalse(window.covers(10_000, 20_000));
+        assertTrue(window.covers(10_000, 30_000));
+    }
+
+    @Test
+    void dropsRepeatedTradeIds() {
+        window.onTrade(1, 100 * ONE, ONE, 1_000);
+        window.onTrade(2, 100 * ONE, ONE, 1_100);
+        window.onTrade(2, 100 * ONE, ONE, 1_100);
+        window.onTrade(1, 100 * ONE, ONE, 1_000);
+
+        assertEquals(2, window.snapshot(10_000, 2_000).getCount());
+        assertTrue(window.covers(1_000, 2_000));
+    }
+
+    @Test
+    void rejectsWindowsLongerThanTheRing() {
+        assertEquals(60_000, window.getMaxWindowMillis());
+        assertThrows(IllegalArgumentException.class, () -> window.snapshot(60_001, 100_000));
+        assertThrows(IllegalArgumentException.class, () -> window.snapshot(0, 100_000));
+    }
+}
@@ -0,0 +1,82 @@
+package com.tradebot.rbm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+class StreamingBollingerBandsTest {
+
+    private static final BigDecimal MULTIPLIER = new BigDecimal("2.0");
+    // The reference rounds the mean and the variance to 8 decimals
+    private static final double TOLERANCE = 1e-6;
+
+    @Test
+    void matchesTheBigDecimalBandsOverALongSeries() {
+        // Long enough to cross several exact resyncs
+        var closes = BigDecimalIndicators.randomWalk(1, 3_000, 3_000_000, 50);
+        assertBandsMatch(closes, new StreamingBollingerBands(20, 2.0, 50));
+    }
+
+    @Test
+    void staysAccurateAtAHighLevelWithASmallSpread() {
+        // Cent moves on a million, where sums of squares would cancel out
+        var closes = BigDecimalIndicators.randomWalk(2, 5_000, 100_000_000, 1);
+        assertBandsMatch(closes, new StreamingBollingerBands(20, 2.0, 50));
+    }
+
+    @Test
+    void isReadyOnceThePeriodIsFull() {
+        var bands = new StreamingBollingerBands(3, 2.0, 10);
+        bands.onPrice(10, 1, 1_000);
+        bands.onPrice(10, 1, 2_000);
+        assertFalse(bands.isReady());
+        assertThrows(IllegalStateException.class, bands::getMiddleBand);
+
+        bands.onPrice(10, 1, 3_000);
+        assertTrue(bands.isReady());
+        // A flat window has no width
+        assertEquals(10.0, bands.getUpperBand());
+        assertEquals(10.0, bands.getLowerBand());
+        assertEquals(0.5, bands.getPercentB());
+    }
+
+    @Test
+    void analysisCoversTheRetainedHistory() {
+        var closes = BigDecimalIndicators.toDoubles(BigDecimalIndicators.randomWalk(3, 100, 3_000_000, 50));
+        var bands = new StreamingBollingerBands(20, 2.0, 50);
+        for (int i = 0; i < closes.length; i++) {
+            bands.onPrice(closes[i], 1, i * 60_000L);
+        }
+
+        var analysis = bands.analysis();
+        assertEquals(50, analysis.getHistory().size());
+        var current = analysis.getCurrent();
+        assertEquals(BigDecimal.valueOf(bands.getUpperBand()), current.getUpperBand());
+        assertEquals(BigDecimal.valueOf(bands.getLowerBand()), current.getLowerBand());
+        assertEquals(bands.getSignal(), current.getSignal());
+        assertEquals(LocalDateTime.ofEpochSecond(99 * 60, 0, ZoneOffset.UTC), current.getTimestamp());
+        assertEquals(LocalDateTime.ofEpochSecond(50 * 60, 0, ZoneOffset.UTC),
+                analysis.getHistory().get(0).getTimestamp());
+    }
+
+    private static void assertBandsMatch(BigDecimal[] closes, StreamingBollingerBands bands) {
+        int period = bands.getPeriod();
+        for (int i = 0; i < closes.length; i++) {
+            bands.onPrice(closes[i].doubleValue(), 1, i);
+            if (i < period - 1) {
+                continue;
+            }
+            var expected = BigDecimalIndicators.bollinger(closes, i, period, MULTIPLIER);
+            assertEquals(expected[0].doubleValue(), bands.getUpperBand(), TOLERANCE, "upper band at " + i);
+            assertEquals(expected[1].doubleValue(), bands.getMiddleBand(), TOLERANCE, "middle band at " + i);
+            assertEquals(expected[2].doubleValue(), bands.getLowerBand(), TOLERANCE, "lower band at " + i);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.tradebot.rbm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+import com.tradebot.rbm.utils.dto.stochasticOscilator.StochasticSignal;
+
+class StreamingStochasticOscillatorTest {
+
+    // The reference rounds the %K ratio to 8 decimals before scaling to percent
+    private static final double TOLERANCE = 1e-5;
+
+    @Test
+    void matchesTheBigDecimalStochasticOverALongSeries() {
+        var closes = BigDecimalIndicators.randomWalk(4, 3_000, 3_000_000, 50);
+        var highs = BigDecimalIndicators.spread(closes, 5, 40, true);
+        var lows = BigDecimalIndicators.spread(closes, 6, 40, false);
+        var oscillator = new StreamingStochasticOscillator(9, 3, 50);
+
+        for (int i = 0; i < closes.length; i++) {
+            oscillator.onPrice(highs[i].doubleValue(), lows[i].doubleValue(), closes[i].doubleValue(), i);
+            if (i < 9 + 3 - 2) {
+                assertFalse(oscillator.isReady());
+                continue;
+            }
+            var k = BigDecimalIndicators.kPercent(highs, lows, closes, i, 9);
+            var d = BigDecimalIndicators.dPercent(highs, lows, closes, i, 9, 3);
+            assertEquals(k.doubleValue(), oscillator.getKPercent(), TOLERANCE, "%K at " + i);
+            assertEquals(d.doubleValue(), oscillator.getDPercent(), TOLERANCE, "%D at " + i);
+        }
+    }
+
+    @Test
+    void extremesLeaveTheWindow() {
+        var oscillator = new StreamingStochasticOscillator(3, 1, 10);
+        oscillator.onPrice(20, 10, 15, 1);
+        oscillator.onPrice(12, 10, 11, 2);
+        oscillator.onPrice(12, 10, 11, 3);
+        assertEquals(10.0, oscillator.getKPercent(), TOLERANCE);
+
+        // The spike to 20 is out of the window, 12 is the new high
+        oscillator.onPrice(12, 10, 11, 4);
+        assertEquals(50.0, oscillator.getKPercent(), TOLERANCE);
+        oscillator.onPrice(11, 9, 9.75, 5);
+        assertEquals(25.0, oscillator.getKPercent(), TOLERANCE);
+    }
+
+    @Test
+    void flatWindowIsNeutral() {
+        var oscillator = new StreamingStochasticOscillator(3, 2, 10);
+        oscillator.onPrice(10, 10, 10, 1);
+        oscillator.onPrice(10, 10, 10, 2);
+        oscillator.onPrice(10, 10, 10, 3);
+        // %D needs a second %K
+        assertFalse(oscillator.isReady());
+        assertThrows(IllegalStateException.class, oscillator::getKPercent);
+
+        oscillator.onPrice(10, 10, 10, 4);
+        assertTrue(oscillator.isReady());
+        assertEquals(50.0, oscillator.getKPercent());
+        assertEquals(50.0, oscillator.getDPercent());
+        assertEquals(StochasticSignal.NEUTRAL, oscillator.getSignal());
+    }
+
+    @Test
+    void analysisCoversTheRetainedHistory() {
+        var closes = BigDecimalIndicators.randomWalk(7, 100, 3_000_000, 50);
+        var highs = BigDecimalIndicators.spread(closes, 8, 40, true);
+        var lows = BigDecimalIndicators.spread(closes, 9, 40, false);
+        var oscillator = new StreamingStochasticOscillator(9, 3, 20);
+        for (int i = 0; i < closes.length; i++) {
+            oscillator.onPrice(highs[i].doubleValue(), lows[i].doubleValue(), closes[i].doubleValue(), i);
+        }
+
+        var analysis = oscillator.analysis();
+        assertEquals(20, analysis.getHistory().size());
+        assertEquals(BigDecimal.valueOf(oscillator.getKPercent()), analysis.getCurrent().getKPercent());
+        assertEquals(oscillator.getSignal(), analysis.getCurrent().getSignal());
+    }
+}
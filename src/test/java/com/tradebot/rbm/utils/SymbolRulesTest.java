@@ -0,0 +1,73 @@
+package com.tradebot.rbm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import org.junit.jupiter.api.Test;
+
+class SymbolRulesTest {
+
+    // Balances and notionals at FixedPoint.BALANCE_SCALE
+    private static final long ONE = 100_000_000L;
+
+    // Tick 0.05, step 0.010, quantity 0.010 to 100.000, minimum notional 5
+    private final SymbolRules rules = SymbolRules.builder()
+            .symbol("BNBFDUSD")
+            .baseAsset("BNB")
+            .quoteAsset("FDUSD")
+            .priceScale(2)
+            .quantityScale(3)
+            .tickSize(5)
+            .minPrice(5)
+            .stepSize(10)
+            .minQuantity(10)
+            .maxQuantity(100_000)
+            .minNotional(5 * ONE)
+            .build();
+
+    @Test
+    void parsesAtTheSymbolScales() {
+        assertEquals(60_012, rules.parsePrice("600.12000000"));
+        assertEquals(1_235, rules.parseQuantity("1.23450000"));
+    }
+
+    @Test
+    void roundsPricesAndQuantitiesToTheFilters() {
+        assertEquals(1_230, rules.floorPrice(1_234));
+        assertEquals(1_235, rules.ceilPrice(1_231));
+        assertEquals(1_235, rules.ceilPrice(1_235));
+        assertEquals(12_340, rules.floorQuantity(12_345));
+        // 1.23456789 keeps the balance scale but drops below the step
+        assertEquals(123_000_000, rules.floorBalanceToStep(123_456_789));
+    }
+
+    @Test
+    void roundsOrderPricesInWholeTicks() {
+        assertEquals("12.30", rules.roundPrice(new BigDecimal("12.33"), RoundingMode.DOWN).toPlainString());
+        assertEquals("12.35", rules.roundPrice(new BigDecimal("12.31"), RoundingMode.UP).toPlainString());
+        // Half a tick is 0.025, not half a cent
+        assertEquals("12.35", rules.roundPrice(new BigDecimal("12.325"), RoundingMode.HALF_UP).toPlainString());
+        assertEquals("12.30", rules.roundPrice(new BigDecimal("12.32"), RoundingMode.HALF_UP).toPlainString());
+        assertEquals("12.30", rules.roundPrice(new BigDecimal("12.325"), RoundingMode.HALF_DOWN).toPlainString());
+        assertEquals("1.230", rules.floorQuantity(new BigDecimal("1.23456")).toPlainString());
+    }
+
+    @Test
+    void checksQuantityPriceAndNotionalLimits() {
+        // 1.500 at 100.00
+        assertEquals(150 * ONE, rules.notional(10_000, 1_500));
+        assertTrue(rules.isTradable(10_000, 1_500));
+
+        assertFalse(rules.isTradable(10_000, 5));
+        assertFalse(rules.isTradable(10_000, 100_010));
+        assertFalse(rules.isTradable(0, 1_500));
+        // 0.040 at 100.00 is 4, under the minimum notional
+        assertFalse(rules.isTradable(10_000, 40));
+        assertTrue(rules.isTradable(new BigDecimal("100.00"), new BigDecimal("0.0509")));
+        assertFalse(rules.isTradable(new BigDecimal("100.00"), new BigDecimal("0.0499")));
+    }
+}
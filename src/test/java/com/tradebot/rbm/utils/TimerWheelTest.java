@@ -0,0 +1,91 @@
+package com.tradebot.rbm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+    // 8 buckets of 10 ms, one revolution is 80 ms
+    private final TimerWheel wheel = new TimerWheel(10, 8, 0);
+    private final List<String> fired = new ArrayList<>();
+
+    @Test
+    void firesOnTheFirstAdvancePastTheDeadlineTick() {
+        wheel.schedule(25, () -> fired.add("a"));
+
+        assertEquals(0, wheel.advanceTo(29));
+        assertEquals(1, wheel.advanceTo(30));
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void timerMoreThanOneRevolutionAheadWaitsForItsTurn() {
+        // Ticks 5 and 13 share a bucket
+        var near = wheel.schedule(50, () -> fired.add("near"));
+        var far = wheel.schedule(130, () -> fired.add("far"));
+
+        assertEquals(1, wheel.advanceTo(60));
+        assertFalse(near.isPending());
+        assertTrue(far.isPending());
+        assertEquals(0, wheel.advanceTo(125));
+        assertEquals(1, wheel.advanceTo(130));
+        assertEquals(List.of("near", "far"), fired);
+    }
+
+    @Test
+    void jumpOverSeveralRevolutionsRunsInDeadlineOrder() {
+        wheel.schedule(300, () -> fired.add("300"));
+        wheel.schedule(100, () -> fired.add("100"));
+        wheel.schedule(200, () -> fired.add("200a"));
+        wheel.schedule(200, () -> fired.add("200b"));
+        wheel.schedule(900, () -> fired.add("900"));
+
+        assertEquals(4, wheel.advanceTo(500));
+        assertEquals(List.of("100", "200a", "200b", "300"), fired);
+        assertEquals(1, wheel.size());
+        assertEquals(1, wheel.advanceTo(900));
+    }
+
+    @Test
+    void canceledTimerDoesNotRun() {
+        var timeout = wheel.schedule(40, () -> fired.add("a"));
+
+        assertTrue(wheel.cancel(timeout));
+        assertFalse(timeout.isPending());
+        assertFalse(wheel.cancel(timeout));
+        assertEquals(0, wheel.size());
+        assertEquals(0, wheel.advanceTo(1000));
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    void taskCanCancelATimerDueOnTheSameTick() {
+        var second = new TimerWheel.Timeout[1];
+        wheel.schedule(40, () -> {
+            fired.add("first");
+            wheel.cancel(second[0]);
+        });
+        second[0] = wheel.schedule(40, () -> fired.add("second"));
+
+        assertEquals(1, wheel.advanceTo(40));
+        assertEquals(List.of("first"), fired);
+        assertFalse(wheel.cancel(second[0]));
+    }
+
+    @Test
+    void timerAlreadyDueRunsOnTheNextTick() {
+        wheel.advanceTo(100);
+        wheel.schedule(20, () -> fired.add("late"));
+
+        assertEquals(0, wheel.advanceTo(100));
+        assertEquals(1, wheel.advanceTo(110));
+        assertEquals(List.of("late"), fired);
+    }
+}
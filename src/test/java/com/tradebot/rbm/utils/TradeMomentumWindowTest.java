@@ -0,0 +1,82 @@
+package com.tradebot.rbm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class TradeMomentumWindowTest {
+
+    // Quote volumes at FixedPoint.BALANCE_SCALE
+    private static final long ONE = 100_000_000L;
+
+    private final TradeMomentumWindow window = new TradeMomentumWindow(10_000, 8);
+
+    @Test
+    void sumsBuysAndSellsInsideTheWindow() {
+        window.onTrade(100 * ONE, 1_000, false);
+        window.onTrade(30 * ONE, 2_000, true);
+        window.onTrade(ONE / 2, 3_000, false);
+
+        var momentum = window.snapshot(3_000);
+        assertEquals("BULLISH", momentum.getDirection());
+        assertEquals(2, momentum.getBuyCount());
+        assertEquals(1, momentum.getSellCount());
+        assertEquals(new BigDecimal("100.50000000"), momentum.getBuyVolume());
+        assertEquals(new BigDecimal("30.00000000"), momentum.getSellVolume());
+        assertEquals(new BigDecimal("130.50000000"), momentum.getTotalVolume());
+    }
+
+    @Test
+    void evictsTradesTheNextTradePushesOut() {
+        window.onTrade(100 * ONE, 1_000, false);
+        window.onTrade(30 * ONE, 5_000, true);
+
+        // 1 s is before the cutoff of 11.5 s - 10 s, 5 s is not
+        window.onTrade(20 * ONE, 11_500, true);
+        var momentum = window.snapshot();
+        assertEquals(0, momentum.getBuyCount());
+        assertEquals(2, momentum.getSellCount());
+        assertEquals("BEARISH", momentum.getDirection());
+        assertEquals(0, momentum.getBuyVolume().signum());
+    }
+
+    @Test
+    void evictsAgainstTheCurrentTimeWithoutNewTrades() {
+        window.onTrade(100 * ONE, 1_000, false);
+        assertEquals("BULLISH", window.direction(11_000));
+
+        // A quiet market empties the window once its time has passed
+        assertEquals("NEUTRAL", window.direction(11_001));
+        assertEquals(0, window.snapshot().getBuyCount());
+    }
+
+    @Test
+    void evictsTheOldestTradesWhenFull() {
+        for (int i = 0; i < 8; i++) {
+            window.onTrade(ONE, 1_000 + i, false);
+        }
+        assertEquals(8, window.snapshot().getBuyCount());
+
+        window.onTrade(3 * ONE, 1_008, true);
+        var momentum = window.snapshot();
+        assertEquals(7, momentum.getBuyCount());
+        assertEquals(1, momentum.getSellCount());
+        assertEquals(new BigDecimal("7.00000000"), momentum.getBuyVolume());
+    }
+
+    @Test
+    void sumsReturnToExactlyZeroAfterEviction() {
+        // Amounts whose double sums would not cancel out
+        for (int i = 0; i < 4; i++) {
+            window.onTrade(10_000_001L, 1_000, false);
+            window.onTrade(20_000_003L, 1_000, true);
+        }
+        window.advanceTo(20_000);
+        var momentum = window.snapshot();
+        assertEquals(0, momentum.getBuyVolume().signum());
+        assertEquals(0, momentum.getSellVolume().signum());
+        assertEquals("NEUTRAL", momentum.getDirection());
+    }
+}
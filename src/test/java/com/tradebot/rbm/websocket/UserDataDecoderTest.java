@@ -0,0 +1,127 @@
+package com.tradebot.rbm.websocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.tradebot.rbm.websocket.dto.AccountPositionEvent;
+import com.tradebot.rbm.websocket.dto.BalanceUpdateEvent;
+import com.tradebot.rbm.websocket.dto.ExecutionReportEvent;
+import com.tradebot.rbm.websocket.dto.ListStatusEvent;
+
+class UserDataDecoderTest {
+
+    private static final String EXECUTION_REPORT = "{\"e\":\"executionReport\",\"E\":1499405658658,"
+            + "\"s\":\"ETHBTC\",\"c\":\"mUvoqJxFIILMdfAW5iGSOW\",\"S\":\"BUY\",\"o\":\"LIMIT\",\"f\":\"GTC\","
+            + "\"q\":\"1.00000000\",\"p\":\"0.10264410\",\"P\":\"0.00000000\",\"g\":-1,\"C\":\"\","
+            + "\"x\":\"TRADE\",\"X\":\"PARTIALLY_FILLED\",\"r\":\"NONE\",\"i\":4293153,\"l\":\"0.25000000\","
+            + "\"z\":\"0.25000000\",\"L\":\"0.10264410\",\"n\":\"0.00025000\",\"N\":\"ETH\","
+            + "\"T\":1499405658657,\"t\":77,\"w\":true,\"m\":false,\"O\":1499405658657,"
+            + "\"Z\":\"0.02566102\",\"Y\":\"0.02566102\",\"Q\":\"0.00000000\"}";
+
+    private final List<ExecutionReportEvent> reports = new ArrayList<>();
+    private final List<String> seen = new ArrayList<>();
+    private final UserDataDecoder decoder = new UserDataDecoder(new JsonFactory(), new UserDataDecoder.Listener() {
+        @Override
+        public void onResponse(String requestId, JsonParser parser) throws IOException {
+            seen.add("response " + requestId + " " + parser.currentName());
+        }
+
+        @Override
+        public void onExecutionReport(ExecutionReportEvent event) {
+            reports.add(event);
+        }
+
+        @Override
+        public void onAccountPosition(AccountPositionEvent event) {
+            for (int i = 0; i < event.size(); i++) {
+                seen.add(event.asset(i) + " " + event.free(i) + " " + event.locked(i));
+            }
+        }
+
+        @Override
+        public void onBalanceUpdate(BalanceUpdateEvent event) {
+            seen.add("balance " + event.getAsset() + " " + event.getDelta());
+        }
+
+        @Override
+        public void onListStatus(ListStatusEvent event) {
+            seen.add("list " + event.getOrderListId() + " " + event.size());
+        }
+
+        @Override
+        public void onOtherEvent(String eventType) {
+            seen.add("other " + eventType);
+        }
+    });
+
+    @Test
+    void decodesAnExecutionReportIntoFixedPoint() throws IOException {
+        assertTrue(decoder.decode(EXECUTION_REPORT));
+
+        var report = reports.get(0);
+        assertEquals("ETHBTC", report.getSymbol());
+        assertEquals("mUvoqJxFIILMdfAW5iGSOW", report.getClientOrderId());
+        assertEquals("PARTIALLY_FILLED", report.getOrderStatus());
+        assertEquals(4293153, report.getOrderId());
+        assertEquals(100_000_000L, report.getQuantity());
+        assertEquals(10_264_410L, report.getPrice());
+        assertEquals(25_000_000L, report.getLastQuantity());
+        assertEquals(25_000L, report.getCommission());
+        assertEquals(2_566_102L, report.getCumulativeQuoteQuantity());
+        assertEquals(-1, report.getOrderListId());
+        assertEquals(77, report.getTradeId());
+        // Empty outside of cancels
+        assertNull(report.getOriginalClientOrderId());
+    }
+
+    @Test
+    void decodesCombinedStreamAndReorderedMessages() throws IOException {
+        assertTrue(decoder.decode("{\"stream\":\"userData\",\"data\":" + EXECUTION_REPORT + "}"));
+        assertEquals(4293153, reports.get(0).getOrderId());
+
+        assertTrue(decoder.decode("{\"E\":1,\"X\":\"CANCELED\",\"C\":\"orig\",\"e\":\"executionReport\","
+                + "\"i\":5}"));
+        assertEquals("CANCELED", reports.get(1).getOrderStatus());
+        assertEquals("orig", reports.get(1).getOriginalClientOrderId());
+        assertEquals(5, reports.get(1).getOrderId());
+    }
+
+    @Test
+    void decodesAccountEvents() throws IOException {
+        assertTrue(decoder.decode("{\"e\":\"outboundAccountPosition\",\"E\":1,\"u\":2,\"B\":["
+                + "{\"a\":\"ETH\",\"f\":\"10000.000000\",\"l\":\"0.000000\"},"
+                + "{\"a\":\"BTC\",\"f\":\"0.5\",\"l\":\"0.25\"}]}"));
+        assertTrue(decoder.decode("{\"e\":\"balanceUpdate\",\"E\":1,\"a\":\"BTC\",\"d\":\"-0.1\",\"T\":2}"));
+        assertTrue(decoder.decode("{\"e\":\"listStatus\",\"E\":1,\"s\":\"ETHBTC\",\"g\":2,\"c\":\"OCO\","
+                + "\"l\":\"EXEC_STARTED\",\"L\":\"EXECUTING\",\"r\":\"NONE\",\"C\":\"list\",\"T\":1,"
+                + "\"O\":[{\"s\":\"ETHBTC\",\"i\":17,\"c\":\"a\"},{\"s\":\"ETHBTC\",\"i\":18,\"c\":\"b\"}]}"));
+        assertTrue(decoder.decode("{\"e\":\"eventStreamTerminated\",\"E\":1}"));
+
+        assertEquals(List.of("ETH 1000000000000 0", "BTC 50000000 25000000", "balance BTC -10000000",
+                "list 2 2", "other eventStreamTerminated"), seen);
+    }
+
+    @Test
+    void handsResponsesOverMidParse() throws IOException {
+        assertTrue(decoder.decode("{\"id\":\"req-1\",\"status\":200,\"result\":{}}"));
+        assertEquals(List.of("response req-1 status"), seen);
+    }
+
+    @Test
+    void refusesMessagesThatAreNotUserData() throws IOException {
+        assertFalse(decoder.decode("[]"));
+        assertFalse(decoder.decode("{}"));
+        assertFalse(decoder.decode("{\"foo\":1}"));
+        assertTrue(reports.isEmpty());
+    }
+}